@@ -0,0 +1,227 @@
+package org.jaudiotagger.benchmark;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+
+import javax.imageio.ImageIO;
+
+import org.jaudiotagger.audio.AudioFile;
+import org.jaudiotagger.audio.AudioFileIO;
+import org.jaudiotagger.tag.Tag;
+import org.jaudiotagger.tag.id3.AbstractID3v2Tag;
+import org.jaudiotagger.tag.images.Artwork;
+import org.jaudiotagger.tag.images.ArtworkFactory;
+
+/**
+ * Prepares the files used by the benchmarks.
+ * <p/>
+ * Each benchmark file is named by format, optionally followed by a variant:
+ * <ul>
+ * <li><code>mp3</code> a copy of a file from the test data directory</li>
+ * <li><code>mp3-artwork</code> as above with a large (several MB) image added as artwork using the library itself</li>
+ * <li><code>mp3-padding</code> as above with a large amount of padding, only mp3 (ID3v2 padding) and flac (PADDING
+ * block) support this variant</li>
+ * </ul>
+ * The test data directory defaults to the projects <code>src/test/resources/data</code> and can be changed with the
+ * <code>jaudiotagger.testdata</code> system property.
+ */
+public final class BenchmarkFiles {
+	public static final String TEST_DATA_PROPERTY = "jaudiotagger.testdata";
+
+	public static final String ARTWORK = "artwork";
+	public static final String PADDING = "padding";
+
+	/**
+	 * Size of padding added to padding variants
+	 */
+	public static final int LARGE_PADDING_SIZE = 1024 * 1024;
+
+	/**
+	 * Dimensions of the noise image used as large artwork, noise compresses badly so this gives a jpeg of several MB
+	 */
+	private static final int LARGE_ARTWORK_DIMENSION = 2000;
+
+	/**
+	 * Source file and file suffix for each format
+	 */
+	private static final Map<String, String> SOURCES = new LinkedHashMap<String, String>();
+
+	static {
+		SOURCES.put("mp3", "testV1Cbr128ID3v1v2.mp3");
+		SOURCES.put("mp4", "test5.m4a");
+		SOURCES.put("flac", "test.flac");
+		SOURCES.put("ogg", "test.ogg");
+		SOURCES.put("asf", "test1.wma");
+		SOURCES.put("wav", "test.wav");
+		SOURCES.put("aiff", "ExportedFromItunes.aif");
+		SOURCES.put("real", "test01.ra");
+	}
+
+	private static Path largeArtworkFile;
+
+	private BenchmarkFiles() {}
+
+	/**
+	 * @return directory containing the jaudiotagger test files
+	 */
+	public static Path getTestDataDir() {
+		final String configured = System.getProperty(TEST_DATA_PROPERTY);
+		if (configured != null)
+			return Paths.get(configured);
+
+		// Run from the benchmarks module or from the project root
+		final Path fromModule = Paths.get("..", "src", "test", "resources", "data");
+		if (Files.isDirectory(fromModule))
+			return fromModule;
+		return Paths.get("src", "test", "resources", "data");
+	}
+
+	/**
+	 * Create the benchmark file in the work directory
+	 *
+	 * @param name
+	 *            format optionally followed by '-' and variant
+	 * @param workDir
+	 * @return the file
+	 * @throws Exception
+	 */
+	public static Path prepare(final String name, final Path workDir) throws Exception {
+		final int separator = name.indexOf('-');
+		final String format = separator == -1 ? name : name.substring(0, separator);
+		final String variant = separator == -1 ? null : name.substring(separator + 1);
+
+		final String sourceName = SOURCES.get(format);
+		if (sourceName == null)
+			throw new IllegalArgumentException("Unknown benchmark format:" + format);
+
+		final Path source = getTestDataDir().resolve(sourceName);
+		final Path target = workDir.resolve(name + sourceName.substring(sourceName.lastIndexOf('.')));
+		Files.copy(source, target, StandardCopyOption.REPLACE_EXISTING);
+
+		if (ARTWORK.equals(variant))
+			addLargeArtwork(target, workDir);
+		else if (PADDING.equals(variant)) {
+			if ("mp3".equals(format))
+				addLargeId3Padding(target);
+			else if ("flac".equals(format))
+				addLargeFlacPadding(target);
+			else
+				throw new IllegalArgumentException("Padding variant not supported for:" + format);
+		} else if (variant != null)
+			throw new IllegalArgumentException("Unknown benchmark variant:" + variant);
+		return target;
+	}
+
+	/**
+	 * Add a large image as the artwork of the file, written using the library
+	 *
+	 * @param file
+	 * @param workDir
+	 * @throws Exception
+	 */
+	private static void addLargeArtwork(final Path file, final Path workDir) throws Exception {
+		final Artwork artwork = ArtworkFactory.createArtworkFromFile(getLargeArtworkFile(workDir));
+		final AudioFile audioFile = AudioFileIO.read(file);
+		final Tag tag = audioFile.getTagOrCreateAndSetDefault();
+		tag.setField(artwork);
+		audioFile.commit();
+	}
+
+	private static synchronized Path getLargeArtworkFile(final Path workDir) throws IOException {
+		if (largeArtworkFile == null || !Files.exists(largeArtworkFile)) {
+			final Random random = new Random(0);
+			final BufferedImage image = new BufferedImage(LARGE_ARTWORK_DIMENSION, LARGE_ARTWORK_DIMENSION, BufferedImage.TYPE_INT_RGB);
+			for (int y = 0; y < LARGE_ARTWORK_DIMENSION; y++)
+				for (int x = 0; x < LARGE_ARTWORK_DIMENSION; x++)
+					image.setRGB(x, y, random.nextInt());
+			largeArtworkFile = workDir.resolve("largeartwork.jpg");
+			ImageIO.write(image, "jpg", largeArtworkFile.toFile());
+		}
+		return largeArtworkFile;
+	}
+
+	/**
+	 * Replace any ID3v2 tag with a ID3v2.3 tag containing a single title frame followed by a large amount of padding
+	 *
+	 * @param file
+	 * @throws IOException
+	 */
+	private static void addLargeId3Padding(final Path file) throws IOException {
+		final int existingTagSize = (int) AbstractID3v2Tag.getV2TagSizeIfExists(file);
+		final byte[] original = Files.readAllBytes(file);
+
+		final byte[] title = "Padded".getBytes("ISO-8859-1");
+		final ByteArrayOutputStream frames = new ByteArrayOutputStream();
+		frames.write("TIT2".getBytes("ISO-8859-1"));
+		frames.write(ByteBuffer.allocate(4).putInt(title.length + 1).array());
+		frames.write(new byte[] { 0, 0, 0 });
+		frames.write(title);
+
+		final int tagSize = frames.size() + LARGE_PADDING_SIZE;
+		final ByteArrayOutputStream out = new ByteArrayOutputStream(original.length + tagSize + 10);
+		out.write(new byte[] { 'I', 'D', '3', 3, 0, 0 });
+		out.write(new byte[] { (byte) ((tagSize >> 21) & 0x7F), (byte) ((tagSize >> 14) & 0x7F), (byte) ((tagSize >> 7) & 0x7F), (byte) (tagSize & 0x7F) });
+		frames.writeTo(out);
+		out.write(new byte[LARGE_PADDING_SIZE]);
+		out.write(original, existingTagSize, original.length - existingTagSize);
+		Files.write(file, out.toByteArray());
+	}
+
+	/**
+	 * Insert a large PADDING metadata block directly after the STREAMINFO block
+	 *
+	 * @param file
+	 * @throws IOException
+	 */
+	private static void addLargeFlacPadding(final Path file) throws IOException {
+		final byte[] original = Files.readAllBytes(file);
+		if (original[0] != 'f' || original[1] != 'L' || original[2] != 'a' || original[3] != 'C')
+			throw new IOException("Not a flac stream:" + file);
+
+		// STREAMINFO is always the first block
+		final int streamInfoHeader = 4;
+		final int streamInfoLength = ((original[streamInfoHeader + 1] & 0xFF) << 16) | ((original[streamInfoHeader + 2] & 0xFF) << 8) | (original[streamInfoHeader + 3] & 0xFF);
+		final boolean streamInfoIsLast = (original[streamInfoHeader] & 0x80) != 0;
+		final int insertAt = streamInfoHeader + 4 + streamInfoLength;
+
+		final ByteArrayOutputStream out = new ByteArrayOutputStream(original.length + LARGE_PADDING_SIZE + 4);
+		out.write(original, 0, streamInfoHeader);
+		out.write(original[streamInfoHeader] & 0x7F);
+		out.write(original, streamInfoHeader + 1, insertAt - (streamInfoHeader + 1));
+
+		// Padding block type is 1, it becomes the last block only if STREAMINFO was
+		out.write(streamInfoIsLast ? 0x81 : 0x01);
+		out.write((LARGE_PADDING_SIZE >> 16) & 0xFF);
+		out.write((LARGE_PADDING_SIZE >> 8) & 0xFF);
+		out.write(LARGE_PADDING_SIZE & 0xFF);
+		out.write(new byte[LARGE_PADDING_SIZE]);
+		out.write(original, insertAt, original.length - insertAt);
+		Files.write(file, out.toByteArray());
+	}
+
+	/**
+	 * Delete the work directory and everything in it
+	 *
+	 * @param workDir
+	 * @throws IOException
+	 */
+	public static void delete(final Path workDir) throws IOException {
+		if (workDir == null || !Files.exists(workDir))
+			return;
+		try (DirectoryStream<Path> files = Files.newDirectoryStream(workDir)) {
+			for (final Path next : files)
+				Files.deleteIfExists(next);
+		}
+		Files.deleteIfExists(workDir);
+	}
+}
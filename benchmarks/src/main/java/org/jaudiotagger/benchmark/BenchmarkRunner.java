@@ -0,0 +1,22 @@
+package org.jaudiotagger.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Run all the benchmarks, or those matching the regular expressions given as arguments, with the GC profiler enabled
+ * so that allocation rates are reported alongside the timings.
+ */
+public class BenchmarkRunner {
+	public static void main(final String[] args) throws Exception {
+		final OptionsBuilder builder = new OptionsBuilder();
+		if (args.length == 0)
+			builder.include(BenchmarkRunner.class.getPackage().getName() + ".*Benchmark");
+		for (final String next : args)
+			builder.include(next);
+		final Options options = builder.addProfiler(GCProfiler.class).build();
+		new Runner(options).run();
+	}
+}
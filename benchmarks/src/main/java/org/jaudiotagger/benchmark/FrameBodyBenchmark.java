@@ -0,0 +1,97 @@
+package org.jaudiotagger.benchmark;
+
+import java.io.ByteArrayOutputStream;
+import java.lang.reflect.Constructor;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.jaudiotagger.tag.FieldKey;
+import org.jaudiotagger.tag.TagOptionSingleton;
+import org.jaudiotagger.tag.id3.ID3v23Tag;
+import org.jaudiotagger.tag.id3.framebody.AbstractID3v2FrameBody;
+import org.jaudiotagger.tag.id3.framebody.FrameBodyRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Cost of creating ID3v2 frame bodies when parsing a tag with many frames.
+ * <p/>
+ * <code>parseTag</code> parses a complete ID3v2.3 tag held in memory, <code>reflectiveLookup</code> and
+ * <code>registryLookup</code> compare the lookup done for every frame before and after frame body constructors were
+ * held by {@link FrameBodyRegistry}. <code>readArtist</code> and <code>readArtistLazy</code> read a single field with
+ * and without {@link TagOptionSingleton#isLazyFrameDecoding()}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FrameBodyBenchmark {
+	private static final FieldKey[] FIELDS = { FieldKey.TITLE, FieldKey.ARTIST, FieldKey.ALBUM, FieldKey.ALBUM_ARTIST, FieldKey.COMPOSER, FieldKey.GENRE, FieldKey.YEAR, FieldKey.TRACK, FieldKey.DISC_NO, FieldKey.COMMENT, FieldKey.LYRICS, FieldKey.BPM, FieldKey.KEY, FieldKey.LANGUAGE, FieldKey.ENCODER, FieldKey.RECORD_LABEL, FieldKey.ARTIST_SORT, FieldKey.ALBUM_SORT, FieldKey.TITLE_SORT, FieldKey.GROUPING, FieldKey.CONDUCTOR, FieldKey.LYRICIST, FieldKey.ISRC, FieldKey.MOOD, FieldKey.MUSICBRAINZ_TRACK_ID, FieldKey.MUSICBRAINZ_ARTISTID, FieldKey.MUSICBRAINZ_RELEASEID, FieldKey.URL_OFFICIAL_ARTIST_SITE, FieldKey.URL_DISCOGS_RELEASE_SITE, FieldKey.CATALOG_NO };
+
+	private static final String[] IDENTIFIERS = { "TIT2", "TPE1", "TALB", "TPE2", "TCOM", "TCON", "TYER", "TRCK", "TPOS", "COMM", "USLT", "TBPM", "TKEY", "TLAN", "TENC", "TPUB", "TSOP", "TSOA", "TSOT", "TIT1", "TPE3", "TEXT", "TSRC", "TXXX", "UFID", "WOAR", "WXXX" };
+
+	private byte[] tag;
+
+	@Setup
+	public void setup() throws Exception {
+		// Tag parsing logs every frame at FINE and above, keep the output readable
+		Logger.getLogger("org.jaudiotagger").setLevel(Level.OFF);
+		final ID3v23Tag id3 = new ID3v23Tag();
+		for (int i = 0; i < FIELDS.length; i++)
+			id3.setField(FIELDS[i], String.valueOf(2000 + i));
+		final ByteArrayOutputStream out = new ByteArrayOutputStream();
+		id3.write(Channels.newChannel(out));
+		tag = out.toByteArray();
+	}
+
+	@Benchmark
+	public ID3v23Tag parseTag() throws Exception {
+		return new ID3v23Tag(ByteBuffer.wrap(tag), "benchmark");
+	}
+
+	@Benchmark
+	public String readArtist() throws Exception {
+		return new ID3v23Tag(ByteBuffer.wrap(tag), "benchmark").getFirst(FieldKey.ARTIST);
+	}
+
+	@Benchmark
+	public String readArtistLazy() throws Exception {
+		TagOptionSingleton.getInstance().setLazyFrameDecoding(true);
+		try {
+			return new ID3v23Tag(ByteBuffer.wrap(tag), "benchmark").getFirst(FieldKey.ARTIST);
+		} finally {
+			TagOptionSingleton.getInstance().setLazyFrameDecoding(false);
+		}
+	}
+
+	@Benchmark
+	@SuppressWarnings("unchecked")
+	public void reflectiveLookup(final Blackhole blackhole) throws Exception {
+		for (final String identifier : IDENTIFIERS) {
+			final Class<AbstractID3v2FrameBody> c = (Class<AbstractID3v2FrameBody>) Class.forName("org.jaudiotagger.tag.id3.framebody.FrameBody" + identifier);
+			final Class<?>[] constructorParameterTypes = { Class.forName("java.nio.ByteBuffer"), Integer.TYPE };
+			final Constructor<AbstractID3v2FrameBody> construct = c.getConstructor(constructorParameterTypes);
+			blackhole.consume(construct);
+		}
+	}
+
+	@Benchmark
+	public void registryLookup(final Blackhole blackhole) {
+		for (final String identifier : IDENTIFIERS)
+			blackhole.consume(FrameBodyRegistry.getReadConstructor(identifier));
+	}
+}
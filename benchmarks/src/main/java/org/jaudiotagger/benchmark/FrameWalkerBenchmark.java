@@ -0,0 +1,76 @@
+package org.jaudiotagger.benchmark;
+
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.jaudiotagger.audio.mp3.MP3AudioHeader;
+import org.jaudiotagger.audio.mp3.MP3File;
+import org.jaudiotagger.audio.mp3.MP3FrameWalker;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Time taken to walk every frame of an MP3 for the exact frame count, the file is the audio of the <code>mp3</code>
+ * benchmark file repeated to make a file of about 25MB so the time is dominated by the walk rather than opening the
+ * file.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FrameWalkerBenchmark {
+	private static final int REPEATS = 100;
+
+	@Param({ "0", "100" })
+	public int framesPerIndexEntry;
+
+	private Path workDir;
+	private Path audioFile;
+	private MP3AudioHeader audioHeader;
+
+	@Setup
+	public void setup() throws Exception {
+		Logger.getLogger("org.jaudiotagger").setLevel(Level.OFF);
+		workDir = Files.createTempDirectory("jaudiotagger-walk");
+		final Path source = BenchmarkFiles.prepare("mp3", workDir);
+		final MP3AudioHeader sourceHeader = new MP3File(source).getMP3AudioHeader();
+		final byte[] data = Files.readAllBytes(source);
+		final byte[] audio = Arrays.copyOfRange(data, (int) sourceHeader.getMp3StartByte(), (int) new MP3FrameWalker().walk(source, sourceHeader).getAudioEndByte());
+		audioFile = workDir.resolve("large.mp3");
+		final OutputStream out = Files.newOutputStream(audioFile);
+		try {
+			for (int i = 0; i < REPEATS; i++)
+				out.write(audio);
+		} finally {
+			out.close();
+		}
+		audioHeader = new MP3File(audioFile).getMP3AudioHeader();
+	}
+
+	@TearDown
+	public void tearDown() throws Exception {
+		BenchmarkFiles.delete(workDir);
+	}
+
+	@Benchmark
+	public long walk() throws Exception {
+		return new MP3FrameWalker(framesPerIndexEntry).walk(audioFile, audioHeader).getFrameCount();
+	}
+}
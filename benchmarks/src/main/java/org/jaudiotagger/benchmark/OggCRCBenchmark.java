@@ -0,0 +1,85 @@
+package org.jaudiotagger.benchmark;
+
+import java.nio.ByteBuffer;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.jaudiotagger.audio.ogg.util.OggCRCFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Time taken to calculate the crc of an Ogg page:
+ * <ul>
+ * <li><code>bytewise</code> one table lookup per byte with a <code>long</code> table, as OggCRCFactory used to</li>
+ * <li><code>heap</code> and <code>direct</code> OggCRCFactory over a range of a heap or direct buffer</li>
+ * </ul>
+ * The page sizes are a typical audio page and the largest possible page.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OggCRCBenchmark {
+	private static final long[] BYTEWISE_LOOKUP = new long[256];
+
+	static {
+		for (int i = 0; i < 256; i++) {
+			long r = i << 24;
+			for (int j = 0; j < 8; j++)
+				if ((r & 0x80000000L) != 0)
+					r = (r << 1) ^ 0x04c11db7L;
+				else
+					r <<= 1;
+			BYTEWISE_LOOKUP[i] = r;
+		}
+	}
+
+	@Param({ "4096", "65307" })
+	public int pageSize;
+
+	private byte[] page;
+	private ByteBuffer heap;
+	private ByteBuffer direct;
+
+	@Setup
+	public void setup() {
+		page = new byte[pageSize];
+		new Random(0).nextBytes(page);
+		heap = ByteBuffer.wrap(page);
+		direct = ByteBuffer.allocateDirect(pageSize);
+		direct.put(page);
+	}
+
+	@Benchmark
+	public long bytewise() {
+		long crc = 0;
+		for (final byte b : page) {
+			final int tmp = (int) (((crc >>> 24) & 0xff) ^ (b & 0xff));
+			crc = (crc << 8) ^ BYTEWISE_LOOKUP[tmp];
+			crc &= 0xffffffff;
+		}
+		return crc;
+	}
+
+	@Benchmark
+	public int heap() {
+		return OggCRCFactory.getPageCRC(heap, 0, pageSize);
+	}
+
+	@Benchmark
+	public int direct() {
+		return OggCRCFactory.getPageCRC(direct, 0, pageSize);
+	}
+}
@@ -0,0 +1,57 @@
+package org.jaudiotagger.benchmark;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.jaudiotagger.audio.AudioFile;
+import org.jaudiotagger.audio.AudioFileIO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Time taken to read the header and tag of each supported format using the registered reader
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReaderBenchmark {
+	@Param({ "mp3", "mp3-artwork", "mp3-padding", "mp4", "mp4-artwork", "flac", "flac-artwork", "flac-padding", "ogg", "ogg-artwork", "asf", "asf-artwork", "wav", "aiff", "real" })
+	public String file;
+
+	private Path workDir;
+	private Path audioFile;
+
+	@Setup
+	public void setup() throws Exception {
+		// The readers log every file at FINE and above, keep the output readable
+		Logger.getLogger("org.jaudiotagger").setLevel(Level.OFF);
+		workDir = Files.createTempDirectory("jaudiotagger-reader");
+		audioFile = BenchmarkFiles.prepare(file, workDir);
+	}
+
+	@TearDown
+	public void tearDown() throws Exception {
+		BenchmarkFiles.delete(workDir);
+	}
+
+	@Benchmark
+	public AudioFile read() throws Exception {
+		return AudioFileIO.read(audioFile);
+	}
+}
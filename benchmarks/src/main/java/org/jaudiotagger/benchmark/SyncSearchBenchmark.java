@@ -0,0 +1,77 @@
+package org.jaudiotagger.benchmark;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.jaudiotagger.audio.generic.ReadContext;
+import org.jaudiotagger.audio.mp3.MP3AudioHeader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Time taken to search for the first MP3 frame from the start of the file, as happens when the ID3v2 tag size is
+ * wrong:
+ * <ul>
+ * <li><code>corrupt</code> a file of random bytes without any audio, the search runs until it gives up</li>
+ * <li><code>mp3-artwork</code> the search runs through the JPEG data of a large APIC frame which has many sync bytes
+ * because it is not unsynchronised</li>
+ * </ul>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SyncSearchBenchmark {
+	private static final int CORRUPT_FILE_SIZE = 4 * 1024 * 1024;
+
+	@Param({ "corrupt", "mp3-artwork" })
+	public String file;
+
+	private Path workDir;
+	private Path audioFile;
+
+	@Setup
+	public void setup() throws Exception {
+		Logger.getLogger("org.jaudiotagger").setLevel(Level.OFF);
+		workDir = Files.createTempDirectory("jaudiotagger-sync");
+		if (file.equals("corrupt")) {
+			final byte[] data = new byte[CORRUPT_FILE_SIZE];
+			new Random(0).nextBytes(data);
+			audioFile = workDir.resolve("corrupt.mp3");
+			Files.write(audioFile, data);
+		} else
+			audioFile = BenchmarkFiles.prepare(file, workDir);
+	}
+
+	@TearDown
+	public void tearDown() throws Exception {
+		BenchmarkFiles.delete(workDir);
+	}
+
+	@Benchmark
+	public long seekFromStart() throws Exception {
+		final ReadContext context = new ReadContext(audioFile);
+		try {
+			final MP3AudioHeader header = new MP3AudioHeader();
+			return header.seek(context, 0) ? header.getMp3StartByte() : -1;
+		} finally {
+			context.close();
+		}
+	}
+}
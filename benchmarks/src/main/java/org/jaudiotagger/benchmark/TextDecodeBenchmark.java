@@ -0,0 +1,65 @@
+package org.jaudiotagger.benchmark;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.util.concurrent.TimeUnit;
+
+import org.jaudiotagger.tag.datatype.CharsetCodecs;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Decoding a typical text field value, creating a decoder for every value as the text datatypes used to compared with
+ * the per thread codecs of {@link CharsetCodecs}
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TextDecodeBenchmark {
+	@Param({ "ISO-8859-1", "UTF-8", "UTF-16" })
+	public String charset;
+
+	private ByteBuffer data;
+
+	@Setup
+	public void setup() throws Exception {
+		final String value = "Nevermind (Remastered Deluxe Edition)";
+		final byte[] encoded = charset.equals("UTF-16") ? value.getBytes("UTF-16LE") : value.getBytes(charset);
+		data = ByteBuffer.allocate(encoded.length + 2);
+		// Byte order mark for UTF-16
+		if (charset.equals("UTF-16"))
+			data.put((byte) 0xff).put((byte) 0xfe);
+		data.put(encoded);
+		data.flip();
+	}
+
+	@Benchmark
+	public String newDecoder() {
+		final ByteBuffer in = data.duplicate();
+		final CharsetDecoder decoder = Charset.forName(charset).newDecoder();
+		final CharBuffer out = CharBuffer.allocate(in.remaining());
+		decoder.decode(in, out, true);
+		decoder.flush(out);
+		out.flip();
+		return out.toString();
+	}
+
+	@Benchmark
+	public String cachedCodecs() {
+		return CharsetCodecs.decode(data.duplicate(), charset);
+	}
+}
@@ -0,0 +1,68 @@
+package org.jaudiotagger.benchmark;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.jaudiotagger.audio.AudioFile;
+import org.jaudiotagger.audio.AudioFileIO;
+import org.jaudiotagger.tag.FieldKey;
+import org.jaudiotagger.tag.Tag;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Time taken to modify the title and write the tag back using the registered writer.
+ * <p/>
+ * The title alternates between two values of the same length so that the file does not grow between invocations, the
+ * file is read once at setup so only the write is measured. Aiff and Real are not included because they have no
+ * writer.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WriterBenchmark {
+	private static final String[] TITLES = { "Benchmark title A", "Benchmark title B" };
+
+	@Param({ "mp3", "mp3-artwork", "mp3-padding", "mp4", "mp4-artwork", "flac", "flac-artwork", "flac-padding", "ogg", "ogg-artwork", "asf", "asf-artwork", "wav" })
+	public String file;
+
+	private Path workDir;
+	private AudioFile audioFile;
+	private int invocation;
+
+	@Setup
+	public void setup() throws Exception {
+		Logger.getLogger("org.jaudiotagger").setLevel(Level.OFF);
+		workDir = Files.createTempDirectory("jaudiotagger-writer");
+		audioFile = AudioFileIO.read(BenchmarkFiles.prepare(file, workDir));
+		audioFile.getTagOrCreateAndSetDefault();
+	}
+
+	@TearDown
+	public void tearDown() throws Exception {
+		BenchmarkFiles.delete(workDir);
+	}
+
+	@Benchmark
+	public void write() throws Exception {
+		final Tag tag = audioFile.getTag();
+		tag.setField(FieldKey.TITLE, TITLES[invocation++ & 1]);
+		AudioFileIO.write(audioFile);
+	}
+}
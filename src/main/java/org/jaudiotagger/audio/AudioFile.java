@@ -79,6 +79,11 @@ public class AudioFile {
 	 */
 	protected Tag tag;
 
+	/**
+	 * What was read from the file
+	 */
+	protected ReadOptions readOptions = ReadOptions.ALL;
+
 	public AudioFile() {
 
 	}
@@ -170,10 +175,26 @@ public class AudioFile {
 		this.tag = tag;
 	}
 
+	/**
+	 * Used by the readers to record what was read from the file
+	 * 
+	 * @param readOptions
+	 */
+	public void setReadOptions(final ReadOptions readOptions) {
+		this.readOptions = readOptions;
+	}
+
+	/**
+	 * @return what was read from the file, only files that were read completely can be written
+	 */
+	public ReadOptions getReadOptions() {
+		return readOptions;
+	}
+
 	/**
 	 * Return audio header information
 	 * 
-	 * @return
+	 * @return the audio header, or null if the audio header was not read
 	 */
 	public AudioHeader getAudioHeader() {
 		return audioHeader;
@@ -202,7 +223,7 @@ public class AudioFile {
 	 */
 	@Override
 	public String toString() {
-		return "AudioFile " + getFile().toAbsolutePath() + "  --------\n" + audioHeader.toString() + "\n" + ((tag == null) ? "" : tag.toString()) + "\n-------------------";
+		return "AudioFile " + getFile().toAbsolutePath() + "  --------\n" + ((audioHeader == null) ? "" : audioHeader.toString()) + "\n" + ((tag == null) ? "" : tag.toString()) + "\n-------------------";
 	}
 
 	/**
@@ -230,21 +251,26 @@ public class AudioFile {
 	 * @return
 	 */
 	protected RandomAccessFile checkFilePermissions(final Path file, final boolean readOnly) throws ReadOnlyFileException, FileNotFoundException {
-		RandomAccessFile newFile;
+		checkFileAccess(file, readOnly);
+		return new RandomAccessFile(file.toFile(), readOnly ? "r" : "rw");
+	}
 
+	/**
+	 * Checks the file exists and unless it is to be opened readonly is writable, without opening it
+	 * 
+	 * @param file
+	 * @param readOnly
+	 * @throws ReadOnlyFileException
+	 * @throws FileNotFoundException
+	 */
+	protected void checkFileAccess(final Path file, final boolean readOnly) throws ReadOnlyFileException, FileNotFoundException {
 		checkFileExists(file);
 
 		// Unless opened as readonly the file must be writable
-		if (readOnly)
-			newFile = new RandomAccessFile(file.toFile(), "r");
-		else {
-			if (!Files.isWritable(file)) {
-				logger.severe("Unable to write:" + file);
-				throw new ReadOnlyFileException(ErrorMessage.NO_PERMISSIONS_TO_WRITE_TO_FILE.getMsg(file));
-			}
-			newFile = new RandomAccessFile(file.toFile(), "rws");
+		if (!readOnly && !Files.isWritable(file)) {
+			logger.severe("Unable to write:" + file);
+			throw new ReadOnlyFileException(ErrorMessage.NO_PERMISSIONS_TO_WRITE_TO_FILE.getMsg(file));
 		}
-		return newFile;
 	}
 
 	/**
@@ -22,9 +22,16 @@ import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
 import java.util.logging.Logger;
 
 import org.jaudiotagger.audio.aiff.AiffFileReader;
@@ -41,6 +48,7 @@ import org.jaudiotagger.audio.generic.AudioFileReader;
 import org.jaudiotagger.audio.generic.AudioFileWriter;
 import org.jaudiotagger.audio.generic.ModificationHandler;
 import org.jaudiotagger.audio.generic.Utils;
+import org.jaudiotagger.audio.generic.WriteStrategy;
 import org.jaudiotagger.audio.mp3.MP3FileReader;
 import org.jaudiotagger.audio.mp3.MP3FileWriter;
 import org.jaudiotagger.audio.mp4.Mp4FileReader;
@@ -102,7 +110,7 @@ public class AudioFileIO {
 	/**
 	 * This field contains the default instance for static use.
 	 */
-	private static AudioFileIO defaultInstance;
+	private static volatile AudioFileIO defaultInstance;
 
 	/**
 	 * <p/>
@@ -126,9 +134,16 @@ public class AudioFileIO {
 	 * @return The default instance.
 	 */
 	public static AudioFileIO getDefaultAudioFileIO() {
-		if (defaultInstance == null)
-			defaultInstance = new AudioFileIO();
-		return defaultInstance;
+		AudioFileIO instance = defaultInstance;
+		if (instance == null)
+			synchronized (AudioFileIO.class) {
+				instance = defaultInstance;
+				if (instance == null) {
+					instance = new AudioFileIO();
+					defaultInstance = instance;
+				}
+			}
+		return instance;
 	}
 
 	/**
@@ -151,6 +166,52 @@ public class AudioFileIO {
 		return getDefaultAudioFileIO().readFile(f);
 	}
 
+	/**
+	 * <p/>
+	 * Read the parts of the given file required by options.
+	 * </p>
+	 * <p/>
+	 * Only reading the audio header, or only some fields of the tag, avoids the cost of parsing the rest of the file.
+	 * The audio header or tag of the returned AudioFile is null if it was not required, and the AudioFile cannot be
+	 * written unless it was read completely.
+	 * </p>
+	 * 
+	 * @param f
+	 *            The file to read.
+	 * @param options
+	 *            What to read.
+	 * @return The AudioFile with the parts of the file required.
+	 * @throws org.jaudiotagger.audio.exceptions.CannotReadException
+	 * @throws org.jaudiotagger.tag.TagException
+	 * @throws org.jaudiotagger.audio.exceptions.ReadOnlyFileException
+	 * @throws java.io.IOException
+	 * @throws org.jaudiotagger.audio.exceptions.InvalidAudioFrameException
+	 */
+	public static AudioFile read(final Path f, final ReadOptions options) throws CannotReadException, IOException, TagException, ReadOnlyFileException, InvalidAudioFrameException {
+		return getDefaultAudioFileIO().readFile(f, options);
+	}
+
+	/**
+	 * <p/>
+	 * Read the tags contained in the given files concurrently.
+	 * </p>
+	 * <p/>
+	 * Each file is read as a separate task on the executor, the returned list contains one future per file in the same
+	 * order as the files were provided. Calling <code>get()</code> on a future returns the <code>AudioFile</code> or
+	 * throws an <code>ExecutionException</code> wrapping the reason that particular file could not be read, a failure
+	 * reading one file does not affect the others.
+	 * </p>
+	 * 
+	 * @param files
+	 *            The files to read.
+	 * @param executor
+	 *            Used to run the reads, typically a thread pool sized to the number of cores.
+	 * @return a future for each file
+	 */
+	public static List<Future<AudioFile>> readAll(final Collection<Path> files, final Executor executor) {
+		return getDefaultAudioFileIO().readFiles(files, executor);
+	}
+
 	/**
 	 * <p/>
 	 * Write the tag contained in the audioFile in the actual file on the disk.
@@ -158,12 +219,13 @@ public class AudioFileIO {
 	 * 
 	 * @param f
 	 *            The AudioFile to be written
+	 * @return whether the tag was written in place or via a temporary file
 	 * @throws CannotWriteException
 	 *             If the file could not be written/accessed, the extension wasn't recognized, or other IO error
 	 *             occurred.
 	 */
-	public static void write(final AudioFile f) throws CannotWriteException {
-		getDefaultAudioFileIO().writeFile(f);
+	public static WriteStrategy write(final AudioFile f) throws CannotWriteException {
+		return getDefaultAudioFileIO().writeFile(f);
 	}
 
 	/**
@@ -222,7 +284,10 @@ public class AudioFileIO {
 	private void prepareReadersAndWriters() {
 
 		// Tag Readers
-		readers.put(SupportedFileFormat.OGG.getFilesuffix(), new OggFileReader());
+		final OggFileReader oggReader = new OggFileReader();
+		readers.put(SupportedFileFormat.OGG.getFilesuffix(), oggReader);
+		readers.put(SupportedFileFormat.OPUS.getFilesuffix(), oggReader);
+		readers.put(SupportedFileFormat.OGA.getFilesuffix(), oggReader);
 		readers.put(SupportedFileFormat.FLAC.getFilesuffix(), new FlacFileReader());
 		readers.put(SupportedFileFormat.MP3.getFilesuffix(), new MP3FileReader());
 		readers.put(SupportedFileFormat.MP4.getFilesuffix(), new Mp4FileReader());
@@ -237,7 +302,10 @@ public class AudioFileIO {
 		readers.put(SupportedFileFormat.RM.getFilesuffix(), realReader);
 
 		// Tag Writers
-		writers.put(SupportedFileFormat.OGG.getFilesuffix(), new OggFileWriter());
+		final OggFileWriter oggWriter = new OggFileWriter();
+		writers.put(SupportedFileFormat.OGG.getFilesuffix(), oggWriter);
+		writers.put(SupportedFileFormat.OPUS.getFilesuffix(), oggWriter);
+		writers.put(SupportedFileFormat.OGA.getFilesuffix(), oggWriter);
 		writers.put(SupportedFileFormat.FLAC.getFilesuffix(), new FlacFileWriter());
 		writers.put(SupportedFileFormat.MP3.getFilesuffix(), new MP3FileWriter());
 		writers.put(SupportedFileFormat.MP4.getFilesuffix(), new Mp4FileWriter());
@@ -270,6 +338,27 @@ public class AudioFileIO {
 	 * @throws org.jaudiotagger.audio.exceptions.InvalidAudioFrameException
 	 */
 	public AudioFile readFile(final Path f) throws CannotReadException, IOException, TagException, ReadOnlyFileException, InvalidAudioFrameException {
+		return readFile(f, ReadOptions.ALL);
+	}
+
+	/**
+	 * <p/>
+	 * Read the parts of the given file required by options.
+	 * </p>
+	 * 
+	 * @param f
+	 *            The file to read.
+	 * @param options
+	 *            What to read.
+	 * @return The AudioFile with the parts of the file required.
+	 * @throws org.jaudiotagger.audio.exceptions.CannotReadException
+	 * @throws org.jaudiotagger.tag.TagException
+	 * @throws org.jaudiotagger.audio.exceptions.ReadOnlyFileException
+	 * @throws java.io.IOException
+	 * @throws org.jaudiotagger.audio.exceptions.InvalidAudioFrameException
+	 * @see #read(Path, ReadOptions)
+	 */
+	public AudioFile readFile(final Path f, final ReadOptions options) throws CannotReadException, IOException, TagException, ReadOnlyFileException, InvalidAudioFrameException {
 		checkFileExists(f);
 		final String ext = Utils.getExtension(f);
 
@@ -277,7 +366,34 @@ public class AudioFileIO {
 		if (afr == null)
 			throw new CannotReadException(ErrorMessage.NO_READER_FOR_THIS_FORMAT.getMsg(ext));
 
-		return afr.read(f);
+		return afr.read(f, options);
+	}
+
+	/**
+	 * <p/>
+	 * Read the tags contained in the given files concurrently.
+	 * </p>
+	 * 
+	 * @param files
+	 *            The files to read.
+	 * @param executor
+	 *            Used to run the reads.
+	 * @return a future for each file, in the same order as the files were provided
+	 * @see #readAll(Collection, Executor)
+	 */
+	public List<Future<AudioFile>> readFiles(final Collection<Path> files, final Executor executor) {
+		final List<Future<AudioFile>> results = new ArrayList<Future<AudioFile>>(files.size());
+		for (final Path next : files) {
+			final FutureTask<AudioFile> task = new FutureTask<AudioFile>(new Callable<AudioFile>() {
+				@Override
+				public AudioFile call() throws Exception {
+					return readFile(next);
+				}
+			});
+			results.add(task);
+			executor.execute(task);
+		}
+		return results;
 	}
 
 	/**
@@ -311,17 +427,22 @@ public class AudioFileIO {
 	 * 
 	 * @param f
 	 *            The AudioFile to be written
+	 * @return whether the tag was written in place or via a temporary file
 	 * @throws CannotWriteException
 	 *             If the file could not be written/accessed, the extension wasn't recognized, or other IO error
 	 *             occurred.
 	 */
-	public void writeFile(final AudioFile f) throws CannotWriteException {
+	public WriteStrategy writeFile(final AudioFile f) throws CannotWriteException {
 		final String ext = Utils.getExtension(f.getFile());
 
 		final AudioFileWriter afw = writers.get(ext);
 		if (afw == null)
 			throw new CannotWriteException(ErrorMessage.NO_WRITER_FOR_THIS_FORMAT.getMsg(ext));
 
-		afw.write(f);
+		// Writing a file that was only partially read would lose whatever was not read
+		if (!f.getReadOptions().isComplete())
+			throw new CannotWriteException(ErrorMessage.GENERAL_WRITE_FAILED_BECAUSE.getMsg(f.getFile(), "it was only partially read"));
+
+		return afw.write(f);
 	}
 }
@@ -0,0 +1,132 @@
+package org.jaudiotagger.audio;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
+import org.jaudiotagger.tag.FieldKey;
+
+/**
+ * What to read from an audio file, see {@link AudioFileIO#read(java.nio.file.Path, ReadOptions)}.
+ * <p/>
+ * By default the audio header and the complete tag are read. Scanners that only need the duration and bitrate, or only
+ * a few fields, can restrict the read so that the format readers skip parsing, and where the format allows buffering,
+ * everything else. A file read with anything less than {@link #ALL} is incomplete so cannot be written.
+ * <p/>
+ * Options are immutable, for example to read the title and artist together with the audio header:
+ *
+ * <pre>
+ * ReadOptions.fields(FieldKey.TITLE, FieldKey.ARTIST).withAudioHeader()
+ * </pre>
+ */
+public final class ReadOptions {
+	/**
+	 * Read the audio header and the complete tag
+	 */
+	public static final ReadOptions ALL = new ReadOptions(true, true, null, true);
+
+	/**
+	 * Read the audio header, the tag is not read
+	 */
+	public static final ReadOptions AUDIO_HEADER_ONLY = new ReadOptions(true, false, null, false);
+
+	/**
+	 * Read the complete tag, the audio header is not read
+	 */
+	public static final ReadOptions TAG_ONLY = new ReadOptions(false, true, null, true);
+
+	private final boolean audioHeader;
+	private final boolean tag;
+	private final Set<FieldKey> fields;
+	private final boolean artwork;
+
+	private ReadOptions(final boolean audioHeader, final boolean tag, final Set<FieldKey> fields, final boolean artwork) {
+		this.audioHeader = audioHeader;
+		this.tag = tag;
+		this.fields = fields;
+		this.artwork = artwork;
+	}
+
+	/**
+	 * Read only the given fields of the tag, artwork is only read if {@link FieldKey#COVER_ART} is one of the fields
+	 *
+	 * @param keys
+	 * @return options reading the fields but not the audio header
+	 */
+	public static ReadOptions fields(final FieldKey... keys) {
+		final EnumSet<FieldKey> fields = EnumSet.noneOf(FieldKey.class);
+		Collections.addAll(fields, keys);
+		return new ReadOptions(false, true, Collections.unmodifiableSet(fields), fields.contains(FieldKey.COVER_ART));
+	}
+
+	/**
+	 * @return these options also reading the audio header
+	 */
+	public ReadOptions withAudioHeader() {
+		return new ReadOptions(true, tag, fields, artwork);
+	}
+
+	/**
+	 * @return these options also reading artwork
+	 */
+	public ReadOptions withArtwork() {
+		return new ReadOptions(audioHeader, true, fields, true);
+	}
+
+	/**
+	 * @return true if the audio header should be read
+	 */
+	public boolean isAudioHeaderRequired() {
+		return audioHeader;
+	}
+
+	/**
+	 * @return true if the tag should be read
+	 */
+	public boolean isTagRequired() {
+		return tag;
+	}
+
+	/**
+	 * @return true if artwork should be read
+	 */
+	public boolean isArtworkRequired() {
+		return artwork;
+	}
+
+	/**
+	 * @param key
+	 * @return true if the field should be read
+	 */
+	public boolean isFieldRequired(final FieldKey key) {
+		if (key == FieldKey.COVER_ART)
+			return artwork;
+		return tag && (fields == null || fields.contains(key));
+	}
+
+	/**
+	 * @return the fields to read, or null if all fields are read
+	 */
+	public Set<FieldKey> getFields() {
+		return fields;
+	}
+
+	/**
+	 * @return true if all the fields of the tag, including artwork, should be read
+	 */
+	public boolean isAllFieldsRequired() {
+		return tag && fields == null && artwork;
+	}
+
+	/**
+	 * @return true if everything is read, so the file read can be written
+	 */
+	public boolean isComplete() {
+		return audioHeader && isAllFieldsRequired();
+	}
+
+	@Override
+	public String toString() {
+		return "audioHeader:" + audioHeader + ":tag:" + tag + ":fields:" + (fields == null ? "all" : fields) + ":artwork:" + artwork;
+	}
+}
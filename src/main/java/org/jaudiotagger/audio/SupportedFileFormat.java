@@ -22,6 +22,18 @@ public enum SupportedFileFormat {
 			return new Mp4Tag();
 		}
 	},
+	OPUS("opus") {
+		@Override
+		public Tag getDefaultTag() {
+			return VorbisCommentTag.createNewTag();
+		}
+	},
+	OGA("oga") {
+		@Override
+		public Tag getDefaultTag() {
+			return VorbisCommentTag.createNewTag();
+		}
+	},
 	MP3("mp3") {
 		@Override
 		public Tag getDefaultTag() {
@@ -2,11 +2,17 @@ package org.jaudiotagger.audio.aiff;
 
 import java.io.IOException;
 import java.io.RandomAccessFile;
+import java.nio.file.Path;
 
+import org.jaudiotagger.audio.AudioFile;
+import org.jaudiotagger.audio.ReadOptions;
 import org.jaudiotagger.audio.exceptions.CannotReadException;
+import org.jaudiotagger.audio.exceptions.InvalidAudioFrameException;
+import org.jaudiotagger.audio.exceptions.ReadOnlyFileException;
 import org.jaudiotagger.audio.generic.AudioFileReader;
 import org.jaudiotagger.audio.generic.GenericAudioHeader;
 import org.jaudiotagger.tag.Tag;
+import org.jaudiotagger.tag.TagException;
 import org.jaudiotagger.tag.aiff.AiffTag;
 
 public class AiffFileReader extends AudioFileReader {
@@ -33,6 +39,19 @@ public class AiffFileReader extends AudioFileReader {
 		aiffTag = new AiffTag();
 	}
 
+	/**
+	 * The audio header and tag are built up as the file is read so each file is read with its own reader, this allows
+	 * the single reader held by AudioFileIO to be used to read many files concurrently.
+	 */
+	@Override
+	public AudioFile read(final Path f, final ReadOptions options) throws CannotReadException, IOException, TagException, ReadOnlyFileException, InvalidAudioFrameException {
+		return new AiffFileReader().readFile(f, options);
+	}
+
+	private AudioFile readFile(final Path f, final ReadOptions options) throws CannotReadException, IOException, TagException, ReadOnlyFileException, InvalidAudioFrameException {
+		return super.read(f, options);
+	}
+
 	/**
 	 * Reads the file and fills in the audio header and tag information. Holds the tag information for later and returns
 	 * the audio header.
@@ -18,40 +18,33 @@
  */
 package org.jaudiotagger.audio.asf;
 
-import java.io.BufferedInputStream;
 import java.io.IOException;
-import java.io.InputStream;
 import java.io.RandomAccessFile;
-import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.logging.Logger;
 
 import org.jaudiotagger.audio.AudioFile;
+import org.jaudiotagger.audio.ReadOptions;
 import org.jaudiotagger.audio.asf.data.AsfHeader;
 import org.jaudiotagger.audio.asf.data.AudioStreamChunk;
 import org.jaudiotagger.audio.asf.data.MetadataContainer;
 import org.jaudiotagger.audio.asf.data.MetadataDescriptor;
 import org.jaudiotagger.audio.asf.io.AsfExtHeaderReader;
+import org.jaudiotagger.audio.asf.io.AsfHeaderBuffer;
 import org.jaudiotagger.audio.asf.io.AsfHeaderReader;
 import org.jaudiotagger.audio.asf.io.ChunkReader;
 import org.jaudiotagger.audio.asf.io.ContentBrandingReader;
 import org.jaudiotagger.audio.asf.io.ContentDescriptionReader;
 import org.jaudiotagger.audio.asf.io.FileHeaderReader;
-import org.jaudiotagger.audio.asf.io.FullRequestInputStream;
 import org.jaudiotagger.audio.asf.io.LanguageListReader;
 import org.jaudiotagger.audio.asf.io.MetadataReader;
 import org.jaudiotagger.audio.asf.io.StreamChunkReader;
 import org.jaudiotagger.audio.asf.util.TagConverter;
-import org.jaudiotagger.audio.asf.util.Utils;
 import org.jaudiotagger.audio.exceptions.CannotReadException;
-import org.jaudiotagger.audio.exceptions.InvalidAudioFrameException;
-import org.jaudiotagger.audio.exceptions.ReadOnlyFileException;
 import org.jaudiotagger.audio.generic.AudioFileReader;
 import org.jaudiotagger.audio.generic.GenericAudioHeader;
 import org.jaudiotagger.logging.ErrorMessage;
-import org.jaudiotagger.tag.TagException;
 import org.jaudiotagger.tag.asf.AsfTag;
 
 /**
@@ -61,11 +54,6 @@ import org.jaudiotagger.tag.asf.AsfTag;
  */
 public class AsfFileReader extends AudioFileReader {
 
-	/**
-	 * Logger instance
-	 */
-	private final static Logger LOGGER = Logger.getLogger("org.jaudiotagger.audio.asf");
-
 	/**
 	 * This reader will be configured to read tag and audio header information.<br>
 	 */
@@ -140,10 +128,9 @@ public class AsfFileReader extends AudioFileReader {
 	 */
 	@Override
 	protected GenericAudioHeader getEncodingInfo(final RandomAccessFile raf) throws CannotReadException, IOException {
-		raf.seek(0);
 		GenericAudioHeader info;
 		try {
-			final AsfHeader header = AsfHeaderReader.readInfoHeader(raf);
+			final AsfHeader header = readHeader(raf);
 			if (header == null)
 				throw new CannotReadException("Some values must have been " + "incorrect for interpretation as asf with wma content.");
 			info = getAudioHeader(header);
@@ -176,10 +163,9 @@ public class AsfFileReader extends AudioFileReader {
 	 */
 	@Override
 	protected AsfTag getTag(final RandomAccessFile raf) throws CannotReadException, IOException {
-		raf.seek(0);
 		AsfTag tag;
 		try {
-			final AsfHeader header = AsfHeaderReader.readTagHeader(raf);
+			final AsfHeader header = readHeader(raf);
 			if (header == null)
 				throw new CannotReadException("Some values must have been " + "incorrect for interpretation as asf with wma content.");
 
@@ -197,40 +183,37 @@ public class AsfFileReader extends AudioFileReader {
 		return tag;
 	}
 
+	/**
+	 * Reads the header object with a single read from the channel of the file and parses the audio header and tag
+	 * information from it in one pass.
+	 * 
+	 * @param raf
+	 *            the ASF file.
+	 * @return the header, or <code>null</code> if the file does not start with an ASF header object.
+	 * @throws IOException
+	 *             on I/O errors.
+	 */
+	private AsfHeader readHeader(final RandomAccessFile raf) throws IOException {
+		return HEADER_READER.read(AsfHeaderBuffer.read(raf.getChannel(), 0));
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
 	@Override
-	public AudioFile read(final Path f) throws CannotReadException, IOException, TagException, ReadOnlyFileException, InvalidAudioFrameException {
-		if (!Files.isReadable(f))
-			throw new CannotReadException(ErrorMessage.GENERAL_READ_FAILED_DO_NOT_HAVE_PERMISSION_TO_READ_FILE.getMsg(f.toAbsolutePath()));
-		InputStream stream = null;
-		try {
-			stream = new FullRequestInputStream(new BufferedInputStream(Files.newInputStream(f)));
-			final AsfHeader header = HEADER_READER.read(Utils.readGUID(stream), stream, 0);
-			if (header == null)
-				throw new CannotReadException(ErrorMessage.ASF_HEADER_MISSING.getMsg(f.toAbsolutePath()));
-			if (header.getFileHeader() == null)
-				throw new CannotReadException(ErrorMessage.ASF_FILE_HEADER_MISSING.getMsg(f.toAbsolutePath()));
-
-			// Just log a warning because file seems to play okay
-			if (header.getFileHeader().getFileSize().longValue() != Files.size(f))
-				logger.warning(ErrorMessage.ASF_FILE_HEADER_SIZE_DOES_NOT_MATCH_FILE_SIZE.getMsg(f.toAbsolutePath(), header.getFileHeader().getFileSize().longValue(), Files.size(f)));
+	protected AudioFile read(final Path f, final RandomAccessFile raf, final ReadOptions options) throws CannotReadException, IOException {
+		final AsfHeader header = readHeader(raf);
+		if (header == null)
+			throw new CannotReadException(ErrorMessage.ASF_HEADER_MISSING.getMsg(f.toAbsolutePath()));
+		if (header.getFileHeader() == null)
+			throw new CannotReadException(ErrorMessage.ASF_FILE_HEADER_MISSING.getMsg(f.toAbsolutePath()));
 
-			return new AudioFile(f, getAudioHeader(header), getTag(header));
+		// Just log a warning because file seems to play okay
+		if (header.getFileHeader().getFileSize().longValue() != raf.length())
+			logger.warning(ErrorMessage.ASF_FILE_HEADER_SIZE_DOES_NOT_MATCH_FILE_SIZE.getMsg(f.toAbsolutePath(), header.getFileHeader().getFileSize().longValue(), raf.length()));
 
-		} catch (final CannotReadException e) {
-			throw e;
-		} catch (final Exception e) {
-			throw new CannotReadException("\"" + f + "\" :" + e, e);
-		} finally {
-			try {
-				if (stream != null)
-					stream.close();
-			} catch (final Exception ex) {
-				LOGGER.severe("\"" + f + "\" :" + ex);
-			}
-		}
+		// The header is read in a single pass so only the conversion of the parts not required is skipped
+		return new AudioFile(f, options.isAudioHeaderRequired() ? getAudioHeader(header) : null, options.isTagRequired() ? getTag(header) : null);
 	}
 
 }
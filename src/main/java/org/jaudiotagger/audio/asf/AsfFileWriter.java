@@ -18,8 +18,11 @@
  */
 package org.jaudiotagger.audio.asf;
 
+import java.io.BufferedOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.io.RandomAccessFile;
+import java.nio.channels.FileChannel;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -27,16 +30,17 @@ import org.jaudiotagger.audio.asf.data.AsfHeader;
 import org.jaudiotagger.audio.asf.data.ChunkContainer;
 import org.jaudiotagger.audio.asf.data.MetadataContainer;
 import org.jaudiotagger.audio.asf.io.AsfExtHeaderModifier;
+import org.jaudiotagger.audio.asf.io.AsfHeaderBuffer;
 import org.jaudiotagger.audio.asf.io.AsfHeaderReader;
 import org.jaudiotagger.audio.asf.io.AsfStreamer;
 import org.jaudiotagger.audio.asf.io.ChunkModifier;
-import org.jaudiotagger.audio.asf.io.RandomAccessFileInputstream;
 import org.jaudiotagger.audio.asf.io.RandomAccessFileOutputStream;
 import org.jaudiotagger.audio.asf.io.WriteableChunkModifer;
 import org.jaudiotagger.audio.asf.util.TagConverter;
 import org.jaudiotagger.audio.exceptions.CannotWriteException;
 import org.jaudiotagger.audio.generic.AudioFileWriter;
 import org.jaudiotagger.tag.Tag;
+import org.jaudiotagger.tag.TagOptionSingleton;
 import org.jaudiotagger.tag.asf.AsfTag;
 
 /**
@@ -47,6 +51,11 @@ import org.jaudiotagger.tag.asf.AsfTag;
  */
 public class AsfFileWriter extends AudioFileWriter {
 
+	/**
+	 * Size of buffers used when copying the file
+	 */
+	private static final int COPY_BUFFER_SIZE = 65536;
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -81,8 +90,10 @@ public class AsfFileWriter extends AudioFileWriter {
 		 * 
 		 * for each descriptor type, if an object is found, an updater will be configured.
 		 */
-		final AsfHeader sourceHeader = AsfHeaderReader.readTagHeader(raf);
-		raf.seek(0); // Reset for the streamer
+		final AsfHeaderBuffer sourceHeaderObject = AsfHeaderBuffer.read(raf.getChannel(), 0);
+		if (sourceHeaderObject == null)
+			throw new CannotWriteException("No ASF header object.");
+		final AsfHeader sourceHeader = AsfHeaderReader.readTagHeader(sourceHeaderObject);
 		/*
 		 * Now createField modifiers for metadata descriptor and extended content descriptor as implied by the given
 		 * Tag.
@@ -118,7 +129,23 @@ public class AsfFileWriter extends AudioFileWriter {
 		// change (performance)
 		if (!extHeaderModifier.isEmpty())
 			headerModifier.add(new AsfExtHeaderModifier(extHeaderModifier));
-		new AsfStreamer().createModifiedCopy(new RandomAccessFileInputstream(raf), new RandomAccessFileOutputStream(rafTemp), headerModifier);
+		// The modified header object is created from the header object already read, buffered so that the many small
+		// header writes reach the temporary file as a few large writes
+		final OutputStream dest = new BufferedOutputStream(new RandomAccessFileOutputStream(rafTemp), COPY_BUFFER_SIZE);
+		new AsfStreamer().createModifiedHeader(sourceHeaderObject.createStream(), dest, headerModifier);
+		dest.flush();
+
+		// The data and index objects are copied unchanged straight from the source channel
+		final FileChannel source = raf.getChannel();
+		final FileChannel destination = rafTemp.getChannel();
+		final long chunkSize = TagOptionSingleton.getInstance().getWriteChunkSize();
+		long position = sourceHeaderObject.getSize();
+		while (position < source.size()) {
+			final long transferred = source.transferTo(position, Math.min(chunkSize, source.size() - position), destination);
+			if (transferred <= 0)
+				throw new CannotWriteException("Was meant to copy " + (source.size() - sourceHeaderObject.getSize()) + " bytes but only copied " + (position - sourceHeaderObject.getSize()) + " bytes");
+			position += transferred;
+		}
 	}
 
 }
@@ -0,0 +1,108 @@
+package org.jaudiotagger.audio.asf.io;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+import org.jaudiotagger.audio.asf.data.GUID;
+import org.jaudiotagger.audio.asf.util.Utils;
+
+/**
+ * Holds the complete ASF header object of a file, read from its channel with a single read, so that the audio header
+ * and the tag can be parsed from it and it can be copied when the tag is written without reading the file again.<br>
+ * The data object and index objects that follow the header object are not read.
+ */
+public final class AsfHeaderBuffer {
+
+	/**
+	 * Length of the GUID and object size at the start of the header object.
+	 */
+	private final static int OBJECT_HEADER_LENGTH = 24;
+
+	/**
+	 * Smallest valid header object, the object header plus the number of header objects and the two reserved bytes.
+	 */
+	private final static int MINIMUM_HEADER_OBJECT_LENGTH = OBJECT_HEADER_LENGTH + 6;
+
+	/**
+	 * Reads the header object starting at <code>position</code> of the channel.<br>
+	 * The position of the channel is not changed.
+	 *
+	 * @param channel
+	 *            channel of the ASF file.
+	 * @param position
+	 *            where the header object starts, <code>0</code> for ASF files.
+	 * @return the header object, or <code>null</code> if there is no ASF header object at <code>position</code>.
+	 * @throws IOException
+	 *             on I/O errors, or if the size of the header object is not valid.
+	 */
+	public static AsfHeaderBuffer read(final FileChannel channel, final long position) throws IOException {
+		final ByteBuffer objectHeader = ByteBuffer.allocate(OBJECT_HEADER_LENGTH);
+		readFully(channel, objectHeader, position);
+		if (objectHeader.hasRemaining())
+			return null;
+		final InputStream objectHeaderStream = new ByteArrayInputStream(objectHeader.array());
+		if (!GUID.GUID_HEADER.equals(Utils.readGUID(objectHeaderStream)))
+			return null;
+		final long size = Utils.readUINT64(objectHeaderStream);
+		if (size < MINIMUM_HEADER_OBJECT_LENGTH || size > channel.size() - position || size > Integer.MAX_VALUE)
+			throw new IOException("Invalid ASF header object size: " + size); //$NON-NLS-1$
+
+		final ByteBuffer data = ByteBuffer.allocate((int) size);
+		objectHeader.flip();
+		data.put(objectHeader);
+		readFully(channel, data, position + OBJECT_HEADER_LENGTH);
+		if (data.hasRemaining())
+			throw new IOException("ASF header object truncated, read " + data.position() + " of " + size + " bytes"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+		return new AsfHeaderBuffer(data.array());
+	}
+
+	/**
+	 * Reads from the channel at <code>position</code> until the buffer is full or the end of the channel is reached.
+	 */
+	private static void readFully(final FileChannel channel, final ByteBuffer buffer, final long position) throws IOException {
+		long current = position;
+		while (buffer.hasRemaining()) {
+			final int read = channel.read(buffer, current);
+			if (read < 0)
+				break;
+			current += read;
+		}
+	}
+
+	/**
+	 * The complete header object.
+	 */
+	private final byte[] data;
+
+	/**
+	 * Creates an instance.
+	 *
+	 * @param data
+	 *            the complete header object.
+	 */
+	private AsfHeaderBuffer(final byte[] data) {
+		this.data = data;
+	}
+
+	/**
+	 * Creates a new stream over the header object, starting with its GUID.<br>
+	 * The stream supports mark/reset, as required by chunk readers which {@linkplain ChunkReader#canFail() can fail}.
+	 *
+	 * @return stream over the header object.
+	 */
+	public InputStream createStream() {
+		return new FullRequestInputStream(new ByteArrayInputStream(this.data));
+	}
+
+	/**
+	 * Returns the size of the header object, which is where the data object starts in the file.
+	 *
+	 * @return size of the header object in bytes.
+	 */
+	public long getSize() {
+		return this.data.length;
+	}
+}
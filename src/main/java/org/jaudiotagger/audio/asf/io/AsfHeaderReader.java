@@ -18,13 +18,13 @@
  */
 package org.jaudiotagger.audio.asf.io;
 
-import java.io.BufferedInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.RandomAccessFile;
 import java.math.BigInteger;
-import java.nio.file.Files;
+import java.nio.channels.FileChannel;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -89,14 +89,16 @@ public class AsfHeaderReader extends ChunkContainerReader<AsfHeader> {
 	}
 
 	/**
-	 * Creates a Stream that will read from the specified {@link RandomAccessFile};<br>
+	 * Reads the header object of the file from its current position with a single read.
 	 * 
 	 * @param raf
 	 *            data source to read from.
-	 * @return a stream which accesses the source.
+	 * @return the header object, or <code>null</code> if there is none.
+	 * @throws IOException
+	 *             Read errors
 	 */
-	private static InputStream createStream(final RandomAccessFile raf) {
-		return new FullRequestInputStream(new BufferedInputStream(new RandomAccessFileInputstream(raf)));
+	private static AsfHeaderBuffer readBuffer(final RandomAccessFile raf) throws IOException {
+		return AsfHeaderBuffer.read(raf.getChannel(), raf.getFilePointer());
 	}
 
 	/**
@@ -110,10 +112,12 @@ public class AsfHeaderReader extends ChunkContainerReader<AsfHeader> {
 	 *             on I/O Errors.
 	 */
 	public static AsfHeader readHeader(final Path file) throws IOException {
-		final InputStream stream = Files.newInputStream(file);
-		final AsfHeader result = FULL_READER.read(Utils.readGUID(stream), stream, 0);
-		stream.close();
-		return result;
+		final FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+		try {
+			return FULL_READER.read(AsfHeaderBuffer.read(channel, 0));
+		} finally {
+			channel.close();
+		}
 	}
 
 	/**
@@ -127,8 +131,7 @@ public class AsfHeaderReader extends ChunkContainerReader<AsfHeader> {
 	 *             Read errors
 	 */
 	public static AsfHeader readHeader(final RandomAccessFile file) throws IOException {
-		final InputStream stream = createStream(file);
-		return FULL_READER.read(Utils.readGUID(stream), stream, 0);
+		return FULL_READER.read(readBuffer(file));
 	}
 
 	/**
@@ -143,8 +146,7 @@ public class AsfHeaderReader extends ChunkContainerReader<AsfHeader> {
 	 *             Read errors
 	 */
 	public static AsfHeader readInfoHeader(final RandomAccessFile file) throws IOException {
-		final InputStream stream = createStream(file);
-		return INFO_READER.read(Utils.readGUID(stream), stream, 0);
+		return INFO_READER.read(readBuffer(file));
 	}
 
 	/**
@@ -158,8 +160,20 @@ public class AsfHeaderReader extends ChunkContainerReader<AsfHeader> {
 	 *             Read errors
 	 */
 	public static AsfHeader readTagHeader(final RandomAccessFile file) throws IOException {
-		final InputStream stream = createStream(file);
-		return TAG_READER.read(Utils.readGUID(stream), stream, 0);
+		return TAG_READER.read(readBuffer(file));
+	}
+
+	/**
+	 * This method extracts the metadata from a header object that has already been read.<br>
+	 * 
+	 * @param header
+	 *            the header object, may be <code>null</code>.
+	 * @return AsfHeader-Wrapper, or <code>null</code> if no supported ASF header was found.
+	 * @throws IOException
+	 *             Read errors
+	 */
+	public static AsfHeader readTagHeader(final AsfHeaderBuffer header) throws IOException {
+		return TAG_READER.read(header);
 	}
 
 	/**
@@ -176,6 +190,22 @@ public class AsfHeaderReader extends ChunkContainerReader<AsfHeader> {
 		super(toRegister, readChunkOnce);
 	}
 
+	/**
+	 * Parses a header object that has already been read.<br>
+	 * 
+	 * @param header
+	 *            the header object, may be <code>null</code>.
+	 * @return AsfHeader-Wrapper, or <code>null</code> if <code>header</code> is <code>null</code>.
+	 * @throws IOException
+	 *             Read errors
+	 */
+	public AsfHeader read(final AsfHeaderBuffer header) throws IOException {
+		if (header == null)
+			return null;
+		final InputStream stream = header.createStream();
+		return read(Utils.readGUID(stream), stream, 0);
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
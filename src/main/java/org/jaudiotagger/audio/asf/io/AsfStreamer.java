@@ -55,6 +55,26 @@ public class AsfStreamer {
 	 *             on I/O errors.
 	 */
 	public void createModifiedCopy(final InputStream source, final OutputStream dest, final List<ChunkModifier> modifiers) throws IOException {
+		createModifiedHeader(source, dest, modifiers);
+		// copy the rest of the file (data and index)
+		Utils.flush(source, dest);
+	}
+
+	/**
+	 * Same as {@link #createModifiedCopy(InputStream, OutputStream, List)}, but only the header object is read from
+	 * <code>source</code> and written to <code>dest</code>, so that the rest of the file can be copied by the caller.
+	 * <br>
+	 * 
+	 * @param source
+	 *            the source ASF file or header object, positioned at the header object.
+	 * @param dest
+	 *            the destination to write the modified header object to.
+	 * @param modifiers
+	 *            list of chunk modifiers to apply.
+	 * @throws IOException
+	 *             on I/O errors.
+	 */
+	public void createModifiedHeader(final InputStream source, final OutputStream dest, final List<ChunkModifier> modifiers) throws IOException {
 		final List<ChunkModifier> modders = new ArrayList<ChunkModifier>();
 		if (modifiers != null)
 			modders.addAll(modifiers);
@@ -136,8 +156,6 @@ public class AsfStreamer {
 			modifyFileHeader(new ByteArrayInputStream(fileHeader), dest, totalDiff);
 			// write the header objects (chunks)
 			dest.write(bos.toByteArray());
-			// copy the rest of the file (data and index)
-			Utils.flush(source, dest);
 		} else
 			throw new IllegalArgumentException("No ASF header object.");
 	}
@@ -20,7 +20,9 @@ package org.jaudiotagger.audio.flac;
 
 import java.io.IOException;
 import java.io.RandomAccessFile;
+import java.nio.file.Path;
 
+import org.jaudiotagger.audio.ReadOptions;
 import org.jaudiotagger.audio.exceptions.CannotReadException;
 import org.jaudiotagger.audio.generic.AudioFileReader;
 import org.jaudiotagger.audio.generic.GenericAudioHeader;
@@ -43,4 +45,14 @@ public class FlacFileReader extends AudioFileReader {
 	protected Tag getTag(final RandomAccessFile raf) throws CannotReadException, IOException {
 		return tr.read(raf);
 	}
+
+	@Override
+	protected Tag getTag(final RandomAccessFile raf, final ReadOptions options) throws CannotReadException, IOException {
+		return tr.read(raf, options);
+	}
+
+	@Override
+	protected Tag getTag(final Path f, final RandomAccessFile raf, final ReadOptions options) throws CannotReadException, IOException {
+		return tr.read(raf, options, f);
+	}
 }
@@ -20,10 +20,14 @@ package org.jaudiotagger.audio.flac;
 
 import java.io.IOException;
 import java.io.RandomAccessFile;
+import java.nio.file.Path;
 
+import org.jaudiotagger.audio.AudioFile;
 import org.jaudiotagger.audio.exceptions.CannotWriteException;
 import org.jaudiotagger.audio.generic.AudioFileWriter;
+import org.jaudiotagger.audio.generic.WriteStrategy;
 import org.jaudiotagger.tag.Tag;
+import org.jaudiotagger.tag.flac.FlacTag;
 
 /**
  * Write/delete tag info for Flac file (opensource lossless encoding)
@@ -32,11 +36,32 @@ public class FlacFileWriter extends AudioFileWriter {
 
 	private final FlacTagWriter tw = new FlacTagWriter();
 
+	/**
+	 * Pictures that were copied to the new file are then located in the new file
+	 */
+	@Override
+	public WriteStrategy write(final AudioFile af) throws CannotWriteException {
+		final WriteStrategy strategy = super.write(af);
+		if (strategy == WriteStrategy.TEMP_FILE && af.getTag() instanceof FlacTag)
+			tw.relocateImages((FlacTag) af.getTag(), af.getFile());
+		return strategy;
+	}
+
 	@Override
 	protected void writeTag(final Tag tag, final RandomAccessFile raf, final RandomAccessFile rafTemp) throws CannotWriteException, IOException {
 		tw.write(tag, raf, rafTemp);
 	}
 
+	@Override
+	protected boolean writeTagInPlace(final Tag tag, final RandomAccessFile raf) throws CannotWriteException, IOException {
+		return tw.writeInPlace(tag, raf);
+	}
+
+	@Override
+	protected boolean writeTagInPlace(final Path file, final Tag tag, final RandomAccessFile raf) throws CannotWriteException, IOException {
+		return tw.writeInPlace(tag, raf, file);
+	}
+
 	@Override
 	protected void deleteTag(final RandomAccessFile raf, final RandomAccessFile tempRaf) throws CannotWriteException, IOException {
 		tw.delete(raf, tempRaf);
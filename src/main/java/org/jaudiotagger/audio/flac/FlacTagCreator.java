@@ -18,8 +18,10 @@
  */
 package org.jaudiotagger.audio.flac;
 
+import java.io.IOException;
 import java.io.UnsupportedEncodingException;
 import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.util.ListIterator;
 import java.util.logging.Logger;
 
@@ -28,6 +30,7 @@ import org.jaudiotagger.audio.flac.metadatablock.MetadataBlockDataPadding;
 import org.jaudiotagger.audio.flac.metadatablock.MetadataBlockDataPicture;
 import org.jaudiotagger.audio.flac.metadatablock.MetadataBlockHeader;
 import org.jaudiotagger.audio.generic.AbstractTagCreator;
+import org.jaudiotagger.audio.generic.Utils;
 import org.jaudiotagger.tag.Tag;
 import org.jaudiotagger.tag.flac.FlacTag;
 import org.jaudiotagger.tag.vorbiscomment.VorbisCommentCreator;
@@ -61,7 +64,7 @@ public class FlacTagCreator extends AbstractTagCreator {
 			tagLength = vorbiscomment.capacity() + MetadataBlockHeader.HEADER_LENGTH;
 		}
 		for (final MetadataBlockDataPicture image : flacTag.getImages())
-			tagLength += image.getBytes().length + MetadataBlockHeader.HEADER_LENGTH;
+			tagLength += image.getLength() + MetadataBlockHeader.HEADER_LENGTH;
 
 		logger.config("Convert flac tag:taglength:" + tagLength);
 		final ByteBuffer buf = ByteBuffer.allocate(tagLength + paddingSize);
@@ -103,4 +106,54 @@ public class FlacTagCreator extends AbstractTagCreator {
 		buf.rewind();
 		return buf;
 	}
+
+	/**
+	 * @param tag
+	 * @return length of the tag data without padding, the image data of pictures is not read
+	 * @throws UnsupportedEncodingException
+	 */
+	public int getLength(final Tag tag) throws UnsupportedEncodingException {
+		final FlacTag flacTag = (FlacTag) tag;
+		int tagLength = 0;
+		if (flacTag.getVorbisCommentTag() != null)
+			tagLength = creator.convert(flacTag.getVorbisCommentTag()).capacity() + MetadataBlockHeader.HEADER_LENGTH;
+		for (final MetadataBlockDataPicture image : flacTag.getImages())
+			tagLength += image.getLength() + MetadataBlockHeader.HEADER_LENGTH;
+		return tagLength;
+	}
+
+	/**
+	 * Write the same data as {@link #convert(Tag, int)} to the channel, except that the image data of pictures that has
+	 * not been read is copied straight from the file it is in
+	 * 
+	 * @param tag
+	 * @param paddingSize
+	 *            extra padding to be added
+	 * @param fc
+	 *            written from its current position
+	 * @throws IOException
+	 */
+	public void write(final Tag tag, final int paddingSize, final FileChannel fc) throws IOException {
+		logger.config("Write flac tag:padding:" + paddingSize);
+		final FlacTag flacTag = (FlacTag) tag;
+
+		if (flacTag.getVorbisCommentTag() != null) {
+			final ByteBuffer vorbiscomment = creator.convert(flacTag.getVorbisCommentTag());
+			final boolean isLastBlock = paddingSize == 0 && flacTag.getImages().size() == 0;
+			Utils.writeFully(fc, ByteBuffer.wrap(new MetadataBlockHeader(isLastBlock, BlockType.VORBIS_COMMENT, vorbiscomment.capacity()).getBytes()), vorbiscomment);
+		}
+
+		final ListIterator<MetadataBlockDataPicture> li = flacTag.getImages().listIterator();
+		while (li.hasNext()) {
+			final MetadataBlockDataPicture imageField = li.next();
+			final boolean isLastBlock = paddingSize == 0 && !li.hasNext();
+			Utils.writeFully(fc, ByteBuffer.wrap(new MetadataBlockHeader(isLastBlock, BlockType.PICTURE, imageField.getLength()).getBytes()));
+			imageField.write(fc);
+		}
+
+		if (paddingSize > 0) {
+			final int paddingDataSize = paddingSize - MetadataBlockHeader.HEADER_LENGTH;
+			Utils.writeFully(fc, ByteBuffer.wrap(new MetadataBlockHeader(true, BlockType.PADDING, paddingDataSize).getBytes()), ByteBuffer.wrap(new MetadataBlockDataPadding(paddingDataSize).getBytes()));
+		}
+	}
 }
@@ -20,15 +20,18 @@ package org.jaudiotagger.audio.flac;
 
 import java.io.IOException;
 import java.io.RandomAccessFile;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
+import org.jaudiotagger.audio.ReadOptions;
 import org.jaudiotagger.audio.exceptions.CannotReadException;
 import org.jaudiotagger.audio.flac.metadatablock.MetadataBlockDataPicture;
 import org.jaudiotagger.audio.flac.metadatablock.MetadataBlockHeader;
 import org.jaudiotagger.tag.InvalidFrameException;
+import org.jaudiotagger.tag.TagOptionSingleton;
 import org.jaudiotagger.tag.flac.FlacTag;
 import org.jaudiotagger.tag.vorbiscomment.VorbisCommentReader;
 import org.jaudiotagger.tag.vorbiscomment.VorbisCommentTag;
@@ -43,6 +46,36 @@ public class FlacTagReader {
 	private final VorbisCommentReader vorbisCommentReader = new VorbisCommentReader();
 
 	public FlacTag read(final RandomAccessFile raf) throws CannotReadException, IOException {
+		return read(raf, ReadOptions.ALL);
+	}
+
+	/**
+	 * Picture blocks are skipped unless artwork is required by the options
+	 *
+	 * @param raf
+	 * @param options
+	 * @return the tag
+	 * @throws CannotReadException
+	 * @throws IOException
+	 */
+	public FlacTag read(final RandomAccessFile raf, final ReadOptions options) throws CannotReadException, IOException {
+		return read(raf, options, null);
+	}
+
+	/**
+	 * Picture blocks are skipped unless artwork is required by the options, if lazy picture loading is enabled and the
+	 * file is known their image data is left in the file until accessed
+	 *
+	 * @param raf
+	 * @param options
+	 * @param file
+	 *            the file raf has opened, or null if not known
+	 * @return the tag
+	 * @throws CannotReadException
+	 * @throws IOException
+	 */
+	public FlacTag read(final RandomAccessFile raf, final ReadOptions options, final Path file) throws CannotReadException, IOException {
+		final boolean isLazyPictureLoading = file != null && TagOptionSingleton.getInstance().isLazyFlacPictureLoading();
 		final FlacStreamReader flacStream = new FlacStreamReader(raf);
 		flacStream.findStream();
 
@@ -70,12 +103,19 @@ public class FlacTagReader {
 			case VORBIS_COMMENT:
 				final byte[] commentHeaderRawPacket = new byte[mbh.getDataLength()];
 				raf.read(commentHeaderRawPacket);
-				tag = vorbisCommentReader.read(commentHeaderRawPacket, false);
+				tag = vorbisCommentReader.read(commentHeaderRawPacket, false, options);
 				break;
 
 			case PICTURE:
+				if (!options.isArtworkRequired()) {
+					raf.seek(raf.getFilePointer() + mbh.getDataLength());
+					break;
+				}
 				try {
-					final MetadataBlockDataPicture mbdp = new MetadataBlockDataPicture(mbh, raf);
+					final long blockOffset = raf.getFilePointer() - MetadataBlockHeader.HEADER_LENGTH;
+					final MetadataBlockDataPicture mbdp = isLazyPictureLoading ? new MetadataBlockDataPicture(mbh, raf, file) : new MetadataBlockDataPicture(mbh, raf);
+					if (file != null)
+						mbdp.setBlockLocation(file, blockOffset);
 					images.add(mbdp);
 				} catch (final IOException ioe) {
 					logger.warning("Unable to read picture metablock, ignoring:" + ioe.getMessage());
@@ -20,12 +20,20 @@ package org.jaudiotagger.audio.flac;
 
 import java.io.IOException;
 import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.logging.Logger;
 
 import org.jaudiotagger.audio.exceptions.CannotReadException;
 import org.jaudiotagger.audio.exceptions.CannotWriteException;
+import org.jaudiotagger.audio.flac.metadatablock.BlockType;
 import org.jaudiotagger.audio.flac.metadatablock.MetadataBlock;
 import org.jaudiotagger.audio.flac.metadatablock.MetadataBlockData;
 import org.jaudiotagger.audio.flac.metadatablock.MetadataBlockDataApplication;
@@ -35,9 +43,11 @@ import org.jaudiotagger.audio.flac.metadatablock.MetadataBlockDataPicture;
 import org.jaudiotagger.audio.flac.metadatablock.MetadataBlockDataSeekTable;
 import org.jaudiotagger.audio.flac.metadatablock.MetadataBlockDataStreamInfo;
 import org.jaudiotagger.audio.flac.metadatablock.MetadataBlockHeader;
+import org.jaudiotagger.audio.generic.Utils;
 import org.jaudiotagger.tag.Tag;
 import org.jaudiotagger.tag.TagOptionSingleton;
 import org.jaudiotagger.tag.flac.FlacTag;
+import org.jaudiotagger.tag.vorbiscomment.VorbisCommentCreator;
 
 /**
  * Write Flac Tag
@@ -47,6 +57,12 @@ public class FlacTagWriter {
 	public static Logger logger = Logger.getLogger("org.jaudiotagger.audio.flac");
 
 	private final FlacTagCreator tc = new FlacTagCreator();
+	private final VorbisCommentCreator vorbisCommentCreator = new VorbisCommentCreator();
+
+	/**
+	 * Largest data length that fits in a metadata block header
+	 */
+	private static final int MAX_BLOCK_DATA_LENGTH = 0xFFFFFF;
 
 	/**
 	 * Delete Tag from file
@@ -66,10 +82,79 @@ public class FlacTagWriter {
 
 	private static class MetadataBlockInfo {
 		private MetadataBlock streamInfoBlock;
+		private boolean isStreamInfoFirst;
 		private final List<MetadataBlock> metadataBlockPadding = new ArrayList<MetadataBlock>(1);
 		private final List<MetadataBlock> metadataBlockApplication = new ArrayList<MetadataBlock>(1);
 		private final List<MetadataBlock> metadataBlockSeekTable = new ArrayList<MetadataBlock>(1);
 		private final List<MetadataBlock> metadataBlockCueSheet = new ArrayList<MetadataBlock>(1);
+		private final List<MetadataBlock> metadataBlockOther = new ArrayList<MetadataBlock>(1);
+
+		/**
+		 * Every block other than STREAMINFO in the order found in the file
+		 */
+		private final List<BlockLocation> blocks = new ArrayList<BlockLocation>();
+
+		/**
+		 * Offset of the first audio frame, the end of the metadata blocks
+		 */
+		private long endOfMetadata;
+	}
+
+	/**
+	 * Where a metadata block was found in the file
+	 */
+	private static class BlockLocation {
+		private final MetadataBlockHeader header;
+		private final long offset;
+
+		private BlockLocation(final MetadataBlockHeader header, final long offset) {
+			this.header = header;
+			this.offset = offset;
+		}
+
+		private long getEnd() {
+			return offset + MetadataBlockHeader.HEADER_LENGTH + header.getDataLength();
+		}
+
+		/**
+		 * @return true if the block is not part of the tag, so is always written back unchanged
+		 */
+		private boolean isKept() {
+			return header.getBlockType() != BlockType.VORBIS_COMMENT && header.getBlockType() != BlockType.PICTURE && header.getBlockType() != BlockType.PADDING;
+		}
+	}
+
+	/**
+	 * A run of blocks that are being replaced, which the new tag blocks are written into with any space left over
+	 * filled with padding
+	 */
+	private static class Gap {
+		private final long offset;
+		private long size;
+		private long used;
+		private final List<BlockType> types = new ArrayList<BlockType>();
+		private final List<ByteBuffer> data = new ArrayList<ByteBuffer>();
+		private final List<MetadataBlockDataPicture> images = new ArrayList<MetadataBlockDataPicture>();
+
+		private Gap(final long offset, final long size) {
+			this.offset = offset;
+			this.size = size;
+		}
+
+		/**
+		 * Space left over after a block has been added must be empty or able to hold a padding block
+		 */
+		private boolean isRoomFor(final int blockLength) {
+			final long remaining = size - used;
+			return remaining == blockLength || remaining >= blockLength + MetadataBlockHeader.HEADER_LENGTH;
+		}
+
+		private void add(final BlockType type, final ByteBuffer blockData, final MetadataBlockDataPicture image) {
+			types.add(type);
+			data.add(blockData);
+			images.add(image);
+			used += MetadataBlockHeader.HEADER_LENGTH + blockData.limit();
+		}
 	}
 
 	/**
@@ -84,64 +169,15 @@ public class FlacTagWriter {
 	public void write(final Tag tag, final RandomAccessFile raf, final RandomAccessFile rafTemp) throws CannotWriteException, IOException {
 		logger.config("Writing tag");
 
-		final MetadataBlockInfo blockInfo = new MetadataBlockInfo();
-
 		// Read existing data
-		final FlacStreamReader flacStream = new FlacStreamReader(raf);
-		try {
-			flacStream.findStream();
-		} catch (final CannotReadException cre) {
-			throw new CannotWriteException(cre.getMessage());
-		}
-
-		boolean isLastBlock = false;
-		while (!isLastBlock) {
-			final MetadataBlockHeader mbh = MetadataBlockHeader.readHeader(raf);
-			switch (mbh.getBlockType()) {
-			case STREAMINFO: {
-				blockInfo.streamInfoBlock = new MetadataBlock(mbh, new MetadataBlockDataStreamInfo(mbh, raf));
-				break;
-			}
-
-			case VORBIS_COMMENT:
-			case PADDING:
-			case PICTURE: {
-				// All these will be replaced by the new metadata so we just treat as padding in order
-				// to determine how much space is already allocated in the file
-				raf.seek(raf.getFilePointer() + mbh.getDataLength());
-				final MetadataBlockData mbd = new MetadataBlockDataPadding(mbh.getDataLength());
-				blockInfo.metadataBlockPadding.add(new MetadataBlock(mbh, mbd));
-				break;
-			}
-			case APPLICATION: {
-				final MetadataBlockData mbd = new MetadataBlockDataApplication(mbh, raf);
-				blockInfo.metadataBlockApplication.add(new MetadataBlock(mbh, mbd));
-				break;
-			}
-			case SEEKTABLE: {
-				final MetadataBlockData mbd = new MetadataBlockDataSeekTable(mbh, raf);
-				blockInfo.metadataBlockSeekTable.add(new MetadataBlock(mbh, mbd));
-				break;
-			}
-			case CUESHEET: {
-				final MetadataBlockData mbd = new MetadataBlockDataCueSheet(mbh, raf);
-				blockInfo.metadataBlockCueSheet.add(new MetadataBlock(mbh, mbd));
-				break;
-			}
-			default: {
-				// What are the consequences of doing this
-				raf.seek(raf.getFilePointer() + mbh.getDataLength());
-				break;
-			}
-			}
-			isLastBlock = mbh.isLastBlock();
-		}
+		final FlacStreamReader flacStream = findStream(raf);
+		final MetadataBlockInfo blockInfo = readMetadataBlocks(raf);
 
 		// Number of bytes in the existing file available before audio data
 		final int availableRoom = computeAvailableRoom(blockInfo);
 
 		// Minimum Size of the New tag data without padding
-		final int newTagSize = tc.convert(tag).limit();
+		final int newTagSize = tc.getLength(tag);
 
 		// Number of bytes required for new tagdata and other metadata blocks
 		final int neededRoom = newTagSize + computeNeededRoom(blockInfo);
@@ -151,36 +187,12 @@ public class FlacTagWriter {
 
 		logger.config("Writing tag available bytes:" + availableRoom + ":needed bytes:" + neededRoom);
 
-		// There is enough room to fit the tag without moving the audio just need to
-		// adjust padding accordingly need to allow space for padding header if padding required
-		if ((availableRoom == neededRoom) || (availableRoom > neededRoom + MetadataBlockHeader.HEADER_LENGTH)) {
-			// Jump over Id3 (if exists) Flac and StreamInfoBlock
-			raf.seek(flacStream.getStartOfFlacInFile() + FlacStreamReader.FLAC_STREAM_IDENTIFIER_LENGTH);
-
-			// Write StreamInfo, we always write this first even if wasn't first in original spec
-			raf.write(blockInfo.streamInfoBlock.getHeader().getBytesWithoutIsLastBlockFlag());
-			raf.write(blockInfo.streamInfoBlock.getData().getBytes());
-
-			// Write Application Blocks
-			for (final MetadataBlock aMetadataBlockApplication : blockInfo.metadataBlockApplication) {
-				raf.write(aMetadataBlockApplication.getHeader().getBytesWithoutIsLastBlockFlag());
-				raf.write(aMetadataBlockApplication.getData().getBytes());
-			}
-
-			// Write Seek Table Blocks
-			for (final MetadataBlock aMetadataBlockSeekTable : blockInfo.metadataBlockSeekTable) {
-				raf.write(aMetadataBlockSeekTable.getHeader().getBytesWithoutIsLastBlockFlag());
-				raf.write(aMetadataBlockSeekTable.getData().getBytes());
-			}
-
-			// Write Cue sheet Blocks
-			for (final MetadataBlock aMetadataBlockCueSheet : blockInfo.metadataBlockCueSheet) {
-				raf.write(aMetadataBlockCueSheet.getHeader().getBytesWithoutIsLastBlockFlag());
-				raf.write(aMetadataBlockCueSheet.getData().getBytes());
-			}
-
-			// Write tag (and padding)
-			raf.getChannel().write(tc.convert(tag, availableRoom - neededRoom));
+		if (isRoomForTag(availableRoom, neededRoom)) {
+			writeMetadataBlocks(tag, raf, flacStream, blockInfo, availableRoom, neededRoom);
+			// Not known which file this is so pictures can no longer be found in it
+			if (tag instanceof FlacTag)
+				for (final MetadataBlockDataPicture image : ((FlacTag) tag).getImages())
+					image.setBlockLocation(null, 0);
 		}
 		// Need to move audio
 		else {
@@ -201,29 +213,17 @@ public class FlacTagWriter {
 
 			rafTemp.getChannel().transferFrom(raf.getChannel(), uptoStreamHeaderSize, MetadataBlockHeader.BLOCK_LENGTH + MetadataBlockDataStreamInfo.STREAM_INFO_DATA_LENGTH);
 
-			final int dataStartSize = flacStream.getStartOfFlacInFile() + FlacStreamReader.FLAC_STREAM_IDENTIFIER_LENGTH + MetadataBlockHeader.HEADER_LENGTH + MetadataBlockDataStreamInfo.STREAM_INFO_DATA_LENGTH;
+			final int dataStartSize = getEndOfStreamInfo(flacStream);
 			rafTemp.seek(dataStartSize);
 
-			// Write all the metadatablocks
-			for (final MetadataBlock aMetadataBlockApplication : blockInfo.metadataBlockApplication) {
-				rafTemp.write(aMetadataBlockApplication.getHeader().getBytesWithoutIsLastBlockFlag());
-				rafTemp.write(aMetadataBlockApplication.getData().getBytes());
-			}
-
-			for (final MetadataBlock aMetadataBlockSeekTable : blockInfo.metadataBlockSeekTable) {
-				rafTemp.write(aMetadataBlockSeekTable.getHeader().getBytesWithoutIsLastBlockFlag());
-				rafTemp.write(aMetadataBlockSeekTable.getData().getBytes());
-			}
-
-			for (final MetadataBlock aMetadataBlockCueSheet : blockInfo.metadataBlockCueSheet) {
-				rafTemp.write(aMetadataBlockCueSheet.getHeader().getBytesWithoutIsLastBlockFlag());
-				rafTemp.write(aMetadataBlockCueSheet.getData().getBytes());
-			}
-
-			// Write tag data use default padding
-			rafTemp.write(tc.convert(tag, FlacTagCreator.DEFAULT_PADDING).array());
+			// Write all the metadatablocks and the tag data with padding for later edits, pictures that have not been
+			// read are copied without reading them
+			final List<ByteBuffer> buffers = new ArrayList<ByteBuffer>();
+			addOtherMetadataBlocks(blockInfo, buffers);
+			Utils.writeFully(rafTemp.getChannel(), buffers.toArray(new ByteBuffer[buffers.size()]));
+			tc.write(tag, getPaddingSize(tag, neededRoom), rafTemp.getChannel());
 			// Write audio to new file
-			raf.seek(dataStartSize + availableRoom);
+			raf.seek(blockInfo.endOfMetadata);
 
 			// Issue #385
 			// Transfer 'size' bytes from raf at its current position to rafTemp at position but do it in batches
@@ -240,6 +240,435 @@ public class FlacTagWriter {
 			written += rafTemp.getChannel().transferFrom(raf.getChannel(), rafTemp.getChannel().position(), mod);
 			if (written != amountToBeWritten)
 				throw new CannotWriteException("Was meant to write " + amountToBeWritten + " bytes but only written " + written + " bytes");
+
+			// Find the pictures in the new file while it can still be discarded
+			if (tag instanceof FlacTag)
+				locateImages((FlacTag) tag, rafTemp);
+		}
+	}
+
+	/**
+	 * Write tag to file only if it fits within the existing metadata blocks so that the audio does not have to be
+	 * moved
+	 * 
+	 * @param tag
+	 * @param raf
+	 * @return true if the tag was written, false if there is not enough room and nothing was written
+	 * @throws CannotWriteException
+	 * @throws IOException
+	 */
+	public boolean writeInPlace(final Tag tag, final RandomAccessFile raf) throws CannotWriteException, IOException {
+		return writeInPlace(tag, raf, null);
+	}
+
+	/**
+	 * Write tag to file only if it fits within the existing metadata blocks so that the audio does not have to be
+	 * moved.
+	 * <p/>
+	 * If the file is known, blocks that are not part of the tag and pictures that were read from the same place in this
+	 * file are left where they are, and only the other tag blocks are written into the space of the blocks they
+	 * replace and the padding. Otherwise, or if they do not fit around the blocks left where they are, all the blocks
+	 * after STREAMINFO are rewritten one after another.
+	 * 
+	 * @param tag
+	 * @param raf
+	 * @param file
+	 *            the file raf has opened, or null if not known
+	 * @return true if the tag was written, false if there is not enough room and nothing was written
+	 * @throws CannotWriteException
+	 * @throws IOException
+	 */
+	public boolean writeInPlace(final Tag tag, final RandomAccessFile raf, final Path file) throws CannotWriteException, IOException {
+		final FlacStreamReader flacStream = findStream(raf);
+		final MetadataBlockInfo blockInfo = readMetadataBlocks(raf);
+		if (file != null && tag instanceof FlacTag && writeAroundUnchangedBlocks((FlacTag) tag, raf, file, blockInfo))
+			return true;
+
+		final int availableRoom = computeAvailableRoom(blockInfo);
+		final int neededRoom = tc.getLength(tag) + computeNeededRoom(blockInfo);
+
+		logger.config("Writing tag in place available bytes:" + availableRoom + ":needed bytes:" + neededRoom);
+		if (!isRoomForTag(availableRoom, neededRoom))
+			return false;
+		writeMetadataBlocks(tag, raf, flacStream, blockInfo, availableRoom, neededRoom);
+
+		// Pictures follow the other blocks and the vorbis comment
+		if (tag instanceof FlacTag) {
+			final List<MetadataBlockDataPicture> images = ((FlacTag) tag).getImages();
+			long offset = getEndOfStreamInfo(flacStream) + neededRoom;
+			for (final MetadataBlockDataPicture image : images)
+				offset -= MetadataBlockHeader.HEADER_LENGTH + image.getLength();
+			for (final MetadataBlockDataPicture image : images) {
+				image.setBlockLocation(file, offset);
+				offset += MetadataBlockHeader.HEADER_LENGTH + image.getLength();
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Plan where each new tag block goes leaving unchanged blocks where they are, and write them if they all fit.
+	 * <p/>
+	 * Blocks that are not part of the tag are never moved, nor are pictures that are still at the place in this file
+	 * they were read from, with the same content, as long as they are in the same order as in the tag. The space of all the other blocks forms
+	 * gaps between the unmoved blocks, the remaining pictures are written into the gaps so that the order of pictures
+	 * is kept and the vorbis comment into any gap it fits in. Space left in a gap becomes padding.
+	 * 
+	 * @param tag
+	 * @param raf
+	 * @param file
+	 *            the file raf has opened
+	 * @param blockInfo
+	 * @return true if the tag was written, false if it does not fit and nothing was written
+	 * @throws IOException
+	 */
+	private boolean writeAroundUnchangedBlocks(final FlacTag tag, final RandomAccessFile raf, final Path file, final MetadataBlockInfo blockInfo) throws IOException {
+		if (!blockInfo.isStreamInfoFirst || blockInfo.blocks.isEmpty())
+			return false;
+
+		// Blocks that stay where they are
+		final List<BlockLocation> blocks = blockInfo.blocks;
+		final boolean[] isUnmoved = new boolean[blocks.size()];
+		final Map<Long, Integer> pictureBlocks = new HashMap<Long, Integer>();
+		for (int i = 0; i < blocks.size(); i++)
+			if (blocks.get(i).isKept())
+				isUnmoved[i] = true;
+			else if (blocks.get(i).header.getBlockType() == BlockType.PICTURE)
+				pictureBlocks.put(blocks.get(i).offset, i);
+
+		final List<MetadataBlockDataPicture> images = tag.getImages();
+		final long[] unmovedImageOffsets = new long[images.size()];
+		long lastUnmovedImageOffset = -1;
+		for (int i = 0; i < images.size(); i++) {
+			unmovedImageOffsets[i] = -1;
+			final MetadataBlockDataPicture image = images.get(i);
+			final Path blockFile = image.getBlockFile();
+			final long blockOffset = image.getBlockOffset();
+			final Integer block = pictureBlocks.get(blockOffset);
+			if (blockFile == null || block == null || isUnmoved[block] || blockOffset <= lastUnmovedImageOffset)
+				continue;
+			if (blocks.get(block).header.getDataLength() != image.getLength() || !Files.isSameFile(blockFile, file))
+				continue;
+			// A picture of the same length may have been written at this offset since, or the image data changed
+			if (!image.isWrittenAt(file, raf.getChannel(), blockOffset + MetadataBlockHeader.HEADER_LENGTH))
+				continue;
+			isUnmoved[block] = true;
+			unmovedImageOffsets[i] = blockOffset;
+			lastUnmovedImageOffset = blockOffset;
+		}
+
+		// Space of the blocks that are replaced
+		final List<Gap> gaps = new ArrayList<Gap>();
+		for (int i = 0; i < blocks.size(); i++) {
+			if (isUnmoved[i])
+				continue;
+			final BlockLocation block = blocks.get(i);
+			final Gap previous = gaps.isEmpty() ? null : gaps.get(gaps.size() - 1);
+			if (previous != null && previous.offset + previous.size == block.offset)
+				previous.size += block.getEnd() - block.offset;
+			else
+				gaps.add(new Gap(block.offset, block.getEnd() - block.offset));
+		}
+
+		// Pictures that are moved go into a gap between the unmoved pictures either side of them
+		int firstGap = 0;
+		for (int i = 0; i < images.size(); i++) {
+			if (unmovedImageOffsets[i] >= 0) {
+				while (firstGap < gaps.size() && gaps.get(firstGap).offset < unmovedImageOffsets[i])
+					firstGap++;
+				continue;
+			}
+			long nextUnmovedImageOffset = Long.MAX_VALUE;
+			for (int j = i + 1; j < images.size() && nextUnmovedImageOffset == Long.MAX_VALUE; j++)
+				if (unmovedImageOffsets[j] >= 0)
+					nextUnmovedImageOffset = unmovedImageOffsets[j];
+
+			final MetadataBlockDataPicture image = images.get(i);
+			final ByteBuffer imageData = ByteBuffer.wrap(image.getBytes());
+			boolean isAdded = false;
+			for (int g = firstGap; !isAdded && g < gaps.size() && gaps.get(g).offset < nextUnmovedImageOffset; g++)
+				if (gaps.get(g).isRoomFor(MetadataBlockHeader.HEADER_LENGTH + imageData.limit())) {
+					gaps.get(g).add(BlockType.PICTURE, imageData, image);
+					firstGap = g;
+					isAdded = true;
+				}
+			if (!isAdded)
+				return false;
+		}
+
+		// The vorbis comment can go anywhere
+		if (tag.getVorbisCommentTag() != null) {
+			final ByteBuffer vorbiscomment = vorbisCommentCreator.convert(tag.getVorbisCommentTag());
+			boolean isAdded = false;
+			for (int g = 0; !isAdded && g < gaps.size(); g++)
+				if (gaps.get(g).isRoomFor(MetadataBlockHeader.HEADER_LENGTH + vorbiscomment.limit())) {
+					gaps.get(g).add(BlockType.VORBIS_COMMENT, vorbiscomment, null);
+					isAdded = true;
+				}
+			if (!isAdded)
+				return false;
+		}
+
+		logger.config("Writing tag in place into " + gaps.size() + " gaps around " + countTrue(isUnmoved) + " unmoved blocks");
+
+		// Everything fits, so write it
+		final FileChannel fc = raf.getChannel();
+		for (int i = 0; i < blocks.size(); i++) {
+			if (!isUnmoved[i])
+				continue;
+			final BlockLocation block = blocks.get(i);
+			final boolean isLastBlock = block.getEnd() == blockInfo.endOfMetadata;
+			if (block.header.isLastBlock() != isLastBlock) {
+				final byte type = (byte) (isLastBlock ? block.header.getBytes()[0] | 0x80 : block.header.getBytes()[0] & 0x7F);
+				Utils.writeFully(fc.position(block.offset), ByteBuffer.wrap(new byte[] { type }));
+			}
+		}
+		for (final Gap gap : gaps) {
+			final boolean isLastGap = gap.offset + gap.size == blockInfo.endOfMetadata;
+			long offset = gap.offset;
+			fc.position(offset);
+			for (int i = 0; i < gap.types.size(); i++) {
+				final ByteBuffer blockData = gap.data.get(i);
+				final boolean isLastBlock = isLastGap && i == gap.types.size() - 1 && gap.used == gap.size;
+				Utils.writeFully(fc, ByteBuffer.wrap(new MetadataBlockHeader(isLastBlock, gap.types.get(i), blockData.limit()).getBytes()), blockData);
+				if (gap.images.get(i) != null)
+					gap.images.get(i).setBlockLocation(file, offset);
+				offset += MetadataBlockHeader.HEADER_LENGTH + blockData.limit();
+			}
+			writePadding(fc, gap.size - gap.used, isLastGap);
+		}
+		return true;
+	}
+
+	private static int countTrue(final boolean[] values) {
+		int count = 0;
+		for (final boolean value : values)
+			if (value)
+				count++;
+		return count;
+	}
+
+	/**
+	 * Write padding blocks filling size bytes, split into several blocks if too large for one
+	 * 
+	 * @param fc
+	 *            written from its current position
+	 * @param size
+	 *            including the block headers, must be 0 or at least {@link MetadataBlockHeader#HEADER_LENGTH}
+	 * @param isLast
+	 *            true if the last padding block is the last metadata block
+	 * @throws IOException
+	 */
+	private void writePadding(final FileChannel fc, long size, final boolean isLast) throws IOException {
+		while (size > 0) {
+			long blockSize = Math.min(size, MetadataBlockHeader.HEADER_LENGTH + MAX_BLOCK_DATA_LENGTH);
+			if (size - blockSize > 0 && size - blockSize < MetadataBlockHeader.HEADER_LENGTH)
+				blockSize -= MetadataBlockHeader.HEADER_LENGTH;
+			size -= blockSize;
+			final int paddingDataSize = (int) blockSize - MetadataBlockHeader.HEADER_LENGTH;
+			Utils.writeFully(fc, ByteBuffer.wrap(new MetadataBlockHeader(isLast && size == 0, BlockType.PADDING, paddingDataSize).getBytes()), ByteBuffer.wrap(new MetadataBlockDataPadding(paddingDataSize).getBytes()));
+		}
+	}
+
+	/**
+	 * Size of the padding block to write after the metadata when the audio has to be moved, as set by
+	 * {@link TagOptionSingleton#getFlacPaddingPolicy()}
+	 * 
+	 * @param tag
+	 * @param neededRoom
+	 *            size of the metadata blocks after STREAMINFO without padding
+	 * @return the padding including the block header, or 0
+	 */
+	private int getPaddingSize(final Tag tag, final int neededRoom) {
+		int padding = TagOptionSingleton.getInstance().getFlacPaddingPolicy().getPaddingSize(neededRoom);
+		// Padding is needed as the last block if there would be no tag blocks to mark as the last block
+		final FlacTag flacTag = (FlacTag) tag;
+		if (padding == 0 && flacTag.getVorbisCommentTag() == null && flacTag.getImages().isEmpty())
+			padding = MetadataBlockHeader.HEADER_LENGTH;
+		if (padding == 0)
+			return 0;
+		return Math.min(Math.max(padding, MetadataBlockHeader.HEADER_LENGTH), MetadataBlockHeader.HEADER_LENGTH + MAX_BLOCK_DATA_LENGTH);
+	}
+
+	/**
+	 * Find where the picture blocks were written in the new file, before it replaces the file the tag was read from so
+	 * that the write can still fail without changing that file
+	 * 
+	 * @param tag
+	 * @param rafTemp
+	 *            the new file
+	 * @throws CannotWriteException
+	 *             if the pictures written do not match the tag
+	 * @throws IOException
+	 */
+	private void locateImages(final FlacTag tag, final RandomAccessFile rafTemp) throws CannotWriteException, IOException {
+		if (tag.getImages().isEmpty())
+			return;
+
+		rafTemp.seek(0);
+		findStream(rafTemp);
+		final Iterator<MetadataBlockDataPicture> images = tag.getImages().iterator();
+		boolean isLastBlock = false;
+		while (!isLastBlock && images.hasNext()) {
+			final MetadataBlockHeader mbh = MetadataBlockHeader.readHeader(rafTemp);
+			if (mbh.getBlockType() == BlockType.PICTURE) {
+				final MetadataBlockDataPicture image = images.next();
+				if (mbh.getDataLength() != image.getLength())
+					throw new CannotWriteException("Picture block written does not match picture:" + image);
+				image.setWrittenBlockOffset(rafTemp.getFilePointer() - MetadataBlockHeader.HEADER_LENGTH);
+			}
+			rafTemp.seek(rafTemp.getFilePointer() + mbh.getDataLength());
+			isLastBlock = mbh.isLastBlock();
+		}
+		if (images.hasNext())
+			throw new CannotWriteException("Not all pictures found in file written");
+	}
+
+	/**
+	 * Pictures written to a new file that has replaced the file the tag was read from are located in the new file, and
+	 * those with image data that has not been read are pointed at the copy of their image data in the new file. The
+	 * pictures were found in the new file before it replaced the file so this does not read the file and cannot fail.
+	 * 
+	 * @param tag
+	 * @param file
+	 *            the file the tag has just been written to
+	 */
+	public void relocateImages(final FlacTag tag, final Path file) {
+		for (final MetadataBlockDataPicture image : tag.getImages())
+			if (!image.moveToWrittenBlock(file)) {
+				logger.warning("Picture was not found in the file written, it can no longer be found in:" + file + ":" + image);
+				image.setBlockLocation(null, 0);
+			}
+	}
+
+	private FlacStreamReader findStream(final RandomAccessFile raf) throws CannotWriteException, IOException {
+		final FlacStreamReader flacStream = new FlacStreamReader(raf);
+		try {
+			flacStream.findStream();
+		} catch (final CannotReadException cre) {
+			throw new CannotWriteException(cre.getMessage());
+		}
+		return flacStream;
+	}
+
+	/**
+	 * Read the metadata blocks, raf must be positioned at the first block
+	 * 
+	 * @param raf
+	 * @return the blocks that are kept when the tag is written, the tag blocks are recorded as padding
+	 * @throws IOException
+	 */
+	private MetadataBlockInfo readMetadataBlocks(final RandomAccessFile raf) throws IOException {
+		final MetadataBlockInfo blockInfo = new MetadataBlockInfo();
+		boolean isLastBlock = false;
+		while (!isLastBlock) {
+			final long offset = raf.getFilePointer();
+			final MetadataBlockHeader mbh = MetadataBlockHeader.readHeader(raf);
+			if (mbh.getBlockType() != BlockType.STREAMINFO)
+				blockInfo.blocks.add(new BlockLocation(mbh, offset));
+			// Block types not known are kept unchanged
+			if (mbh.getBlockType() == null) {
+				blockInfo.metadataBlockOther.add(new MetadataBlock(mbh, new MetadataBlockDataApplication(mbh, raf)));
+				isLastBlock = mbh.isLastBlock();
+				continue;
+			}
+			switch (mbh.getBlockType()) {
+			case STREAMINFO: {
+				blockInfo.isStreamInfoFirst = blockInfo.blocks.isEmpty();
+				blockInfo.streamInfoBlock = new MetadataBlock(mbh, new MetadataBlockDataStreamInfo(mbh, raf));
+				break;
+			}
+
+			case VORBIS_COMMENT:
+			case PADDING:
+			case PICTURE: {
+				// All these will be replaced by the new metadata so we just treat as padding in order
+				// to determine how much space is already allocated in the file
+				raf.seek(raf.getFilePointer() + mbh.getDataLength());
+				final MetadataBlockData mbd = new MetadataBlockDataPadding(mbh.getDataLength());
+				blockInfo.metadataBlockPadding.add(new MetadataBlock(mbh, mbd));
+				break;
+			}
+			case APPLICATION: {
+				final MetadataBlockData mbd = new MetadataBlockDataApplication(mbh, raf);
+				blockInfo.metadataBlockApplication.add(new MetadataBlock(mbh, mbd));
+				break;
+			}
+			case SEEKTABLE: {
+				final MetadataBlockData mbd = new MetadataBlockDataSeekTable(mbh, raf);
+				blockInfo.metadataBlockSeekTable.add(new MetadataBlock(mbh, mbd));
+				break;
+			}
+			case CUESHEET: {
+				final MetadataBlockData mbd = new MetadataBlockDataCueSheet(mbh, raf);
+				blockInfo.metadataBlockCueSheet.add(new MetadataBlock(mbh, mbd));
+				break;
+			}
+			}
+			isLastBlock = mbh.isLastBlock();
+		}
+		blockInfo.endOfMetadata = raf.getFilePointer();
+		return blockInfo;
+	}
+
+	/**
+	 * @param flacStream
+	 * @return offset of the first block after STREAMINFO once the blocks have been rewritten with STREAMINFO first
+	 */
+	private int getEndOfStreamInfo(final FlacStreamReader flacStream) {
+		return flacStream.getStartOfFlacInFile() + FlacStreamReader.FLAC_STREAM_IDENTIFIER_LENGTH + MetadataBlockHeader.HEADER_LENGTH + MetadataBlockDataStreamInfo.STREAM_INFO_DATA_LENGTH;
+	}
+
+	/**
+	 * There is enough room to fit the tag without moving the audio just need to adjust padding accordingly, need to
+	 * allow space for padding header if padding required
+	 */
+	private boolean isRoomForTag(final int availableRoom, final int neededRoom) {
+		return (availableRoom == neededRoom) || (availableRoom > neededRoom + MetadataBlockHeader.HEADER_LENGTH);
+	}
+
+	/**
+	 * Write all the metadata blocks into the space they currently occupy
+	 */
+	private void writeMetadataBlocks(final Tag tag, final RandomAccessFile raf, final FlacStreamReader flacStream, final MetadataBlockInfo blockInfo, final int availableRoom, final int neededRoom) throws IOException, CannotWriteException {
+		// Jump over Id3 (if exists) Flac and StreamInfoBlock
+		raf.seek(flacStream.getStartOfFlacInFile() + FlacStreamReader.FLAC_STREAM_IDENTIFIER_LENGTH);
+
+		// Write StreamInfo, we always write this first even if wasn't first in original spec, followed by the other
+		// blocks and the tag (and padding)
+		final List<ByteBuffer> buffers = new ArrayList<ByteBuffer>();
+		buffers.add(ByteBuffer.wrap(blockInfo.streamInfoBlock.getHeader().getBytesWithoutIsLastBlockFlag()));
+		buffers.add(ByteBuffer.wrap(blockInfo.streamInfoBlock.getData().getBytes()));
+		addOtherMetadataBlocks(blockInfo, buffers);
+		buffers.add(tc.convert(tag, availableRoom - neededRoom));
+		Utils.writeFully(raf.getChannel(), buffers.toArray(new ByteBuffer[buffers.size()]));
+	}
+
+	/**
+	 * Add the application, seek table, cue sheet and unknown blocks that are kept when the tag is written
+	 * 
+	 * @param blockInfo
+	 * @param buffers
+	 */
+	private void addOtherMetadataBlocks(final MetadataBlockInfo blockInfo, final List<ByteBuffer> buffers) {
+		for (final MetadataBlock aMetadataBlockApplication : blockInfo.metadataBlockApplication) {
+			buffers.add(ByteBuffer.wrap(aMetadataBlockApplication.getHeader().getBytesWithoutIsLastBlockFlag()));
+			buffers.add(ByteBuffer.wrap(aMetadataBlockApplication.getData().getBytes()));
+		}
+
+		for (final MetadataBlock aMetadataBlockSeekTable : blockInfo.metadataBlockSeekTable) {
+			buffers.add(ByteBuffer.wrap(aMetadataBlockSeekTable.getHeader().getBytesWithoutIsLastBlockFlag()));
+			buffers.add(ByteBuffer.wrap(aMetadataBlockSeekTable.getData().getBytes()));
+		}
+
+		for (final MetadataBlock aMetadataBlockCueSheet : blockInfo.metadataBlockCueSheet) {
+			buffers.add(ByteBuffer.wrap(aMetadataBlockCueSheet.getHeader().getBytesWithoutIsLastBlockFlag()));
+			buffers.add(ByteBuffer.wrap(aMetadataBlockCueSheet.getData().getBytes()));
+		}
+
+		for (final MetadataBlock aMetadataBlockOther : blockInfo.metadataBlockOther) {
+			buffers.add(ByteBuffer.wrap(aMetadataBlockOther.getHeader().getBytesWithoutIsLastBlockFlag()));
+			buffers.add(ByteBuffer.wrap(aMetadataBlockOther.getData().getBytes()));
 		}
 	}
 
@@ -259,6 +688,9 @@ public class FlacTagWriter {
 		for (final MetadataBlock aMetadataBlockCueSheet : blockInfo.metadataBlockCueSheet)
 			length += aMetadataBlockCueSheet.getLength();
 
+		for (final MetadataBlock aMetadataBlockOther : blockInfo.metadataBlockOther)
+			length += aMetadataBlockOther.getLength();
+
 		for (final MetadataBlock aMetadataBlockPadding : blockInfo.metadataBlockPadding)
 			length += aMetadataBlockPadding.getLength();
 
@@ -282,6 +714,9 @@ public class FlacTagWriter {
 		for (final MetadataBlock aMetadataBlockCueSheet : blockInfo.metadataBlockCueSheet)
 			length += aMetadataBlockCueSheet.getLength();
 
+		for (final MetadataBlock aMetadataBlockOther : blockInfo.metadataBlockOther)
+			length += aMetadataBlockOther.getLength();
+
 		return length;
 	}
 }
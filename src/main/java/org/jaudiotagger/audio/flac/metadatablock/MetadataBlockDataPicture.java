@@ -4,7 +4,12 @@ import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.RandomAccessFile;
 import java.io.UnsupportedEncodingException;
+import java.nio.BufferUnderflowException;
 import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.logging.Logger;
 
 import org.jaudiotagger.audio.generic.Utils;
@@ -33,6 +38,9 @@ import org.jaudiotagger.tag.reference.PictureTypes;
  * of the picture, in UTF-8. <32> The width of the picture in pixels. <32> The height of the picture in pixels. <32> The
  * color depth of the picture in bits-per-pixel. <32> For indexed-color pictures (e.g. GIF), the number of colors used,
  * or 0 for non-indexed pictures. <32> The length of the picture data in bytes. <n*8> The binary picture data.
+ * <p/>
+ * When read from file the picture data may be left in the file and only read when first accessed, see
+ * {@link org.jaudiotagger.tag.TagOptionSingleton#isLazyFlacPictureLoading()}.
  */
 public class MetadataBlockDataPicture implements MetadataBlockData, TagField {
 	public static final String IMAGE_IS_URL = "-->";
@@ -45,11 +53,57 @@ public class MetadataBlockDataPicture implements MetadataBlockData, TagField {
 	private int colourDepth;
 	private int indexedColouredCount;
 	private byte[] imageData;
+	private int imageDataLength;
+
+	/**
+	 * Where the image data is read from when first accessed, null once it has been read
+	 */
+	private Path imageDataFile;
+	private long imageDataOffset;
+
+	/**
+	 * The file and offset of the block header this picture was last read from or written to, null if not known
+	 */
+	private Path blockFile;
+	private long blockOffset;
+
+	/**
+	 * Offset of the block header in a new file that will replace the file being written, -1 if not written to one
+	 */
+	private long writtenBlockOffset = -1;
+
+	/**
+	 * Bytes read when the image data is left in the file, enough for the fields before the image data of nearly all
+	 * pictures
+	 */
+	private static final int FIELDS_READ_SIZE = 1024;
+
+	/**
+	 * Bytes read at a time when comparing image data with a file
+	 */
+	private static final int COMPARE_SIZE = 65536;
 
 	// Logger Object
 	public static Logger logger = Logger.getLogger("org.jaudiotagger.audio.flac.MetadataBlockDataPicture");
 
 	private void initFromByteBuffer(final ByteBuffer rawdata) throws IOException, InvalidFrameException {
+		readFields(rawdata);
+
+		// ImageData
+		imageData = new byte[imageDataLength];
+		rawdata.get(imageData);
+
+		logger.config("Read image:" + this.toString());
+	}
+
+	/**
+	 * Read the fields up to and including the length of the image data
+	 * 
+	 * @param rawdata
+	 * @throws IOException
+	 * @throws InvalidFrameException
+	 */
+	private void readFields(final ByteBuffer rawdata) throws IOException, InvalidFrameException {
 		// Picture Type
 		pictureType = rawdata.getInt();
 		if (pictureType >= PictureTypes.getInstanceOf().getSize())
@@ -75,12 +129,10 @@ public class MetadataBlockDataPicture implements MetadataBlockData, TagField {
 		// Indexed Colour Count
 		indexedColouredCount = rawdata.getInt();
 
-		// ImageData
-		final int rawdataSize = rawdata.getInt();
-		imageData = new byte[rawdataSize];
-		rawdata.get(imageData);
-
-		logger.config("Read image:" + this.toString());
+		// ImageData length
+		imageDataLength = rawdata.getInt();
+		if (imageDataLength < 0)
+			throw new InvalidFrameException("Image data length was:" + imageDataLength);
 	}
 
 	/**
@@ -104,13 +156,52 @@ public class MetadataBlockDataPicture implements MetadataBlockData, TagField {
 	 */
 	// TODO check for buffer underflows see http://research.eeye.com/html/advisories/published/AD20071115.html
 	public MetadataBlockDataPicture(final MetadataBlockHeader header, final RandomAccessFile raf) throws IOException, InvalidFrameException {
-		final ByteBuffer rawdata = ByteBuffer.allocate(header.getDataLength());
+		initFromByteBuffer(read(raf, header.getDataLength()));
+	}
+
+	/**
+	 * Construct picture block by reading the fields before the image data from file, the image data is left in the
+	 * file and only read when first accessed. The file pointer is left at the end of the block.
+	 * 
+	 * @param header
+	 * @param raf
+	 * @param file
+	 *            the file raf has opened, the image data is read from it
+	 * @throws IOException
+	 * @throws InvalidFrameException
+	 */
+	public MetadataBlockDataPicture(final MetadataBlockHeader header, final RandomAccessFile raf, final Path file) throws IOException, InvalidFrameException {
+		final long start = raf.getFilePointer();
+		final ByteBuffer rawdata = read(raf, Math.min(header.getDataLength(), FIELDS_READ_SIZE));
+		try {
+			readFields(rawdata);
+		} catch (final BufferUnderflowException bue) {
+			// Fields are longer than expected, so just read the whole block
+			raf.seek(start);
+			initFromByteBuffer(read(raf, header.getDataLength()));
+			return;
+		}
+		if (rawdata.position() + imageDataLength > header.getDataLength())
+			throw new InvalidFrameException("Image data length was:" + imageDataLength + ":but only " + (header.getDataLength() - rawdata.position()) + " bytes left in block");
+
+		if (imageDataLength <= rawdata.remaining()) {
+			imageData = new byte[imageDataLength];
+			rawdata.get(imageData);
+		} else {
+			imageDataFile = file;
+			imageDataOffset = start + rawdata.position();
+		}
+		raf.seek(start + header.getDataLength());
+		logger.config("Read image fields:" + this.toString());
+	}
+
+	private static ByteBuffer read(final RandomAccessFile raf, final int length) throws IOException {
+		final ByteBuffer rawdata = ByteBuffer.allocate(length);
 		final int bytesRead = raf.getChannel().read(rawdata);
-		if (bytesRead < header.getDataLength())
-			throw new IOException("Unable to read required number of databytes read:" + bytesRead + ":required:" + header.getDataLength());
+		if (bytesRead < length)
+			throw new IOException("Unable to read required number of databytes read:" + bytesRead + ":required:" + length);
 		rawdata.rewind();
-		initFromByteBuffer(rawdata);
-
+		return rawdata;
 	}
 
 	/**
@@ -144,6 +235,7 @@ public class MetadataBlockDataPicture implements MetadataBlockData, TagField {
 		this.indexedColouredCount = indexedColouredCount;
 		// ImageData
 		this.imageData = imageData;
+		this.imageDataLength = imageData.length;
 	}
 
 	private String getString(final ByteBuffer rawdata, final int length, final String charset) throws IOException {
@@ -155,18 +247,34 @@ public class MetadataBlockDataPicture implements MetadataBlockData, TagField {
 	@Override
 	public byte[] getBytes() {
 		try {
+			final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+			baos.write(getFieldBytes());
+			baos.write(getImageData());
+			return baos.toByteArray();
+
+		} catch (final IOException ioe) {
+			throw new RuntimeException(ioe.getMessage());
+		}
+	}
+
+	/**
+	 * @return the fields before the image data, as they will be written to file
+	 */
+	private byte[] getFieldBytes() {
+		try {
+			final byte[] mimeTypeBytes = mimeType.getBytes("ISO-8859-1");
+			final byte[] descriptionBytes = description.getBytes("UTF-8");
 			final ByteArrayOutputStream baos = new ByteArrayOutputStream();
 			baos.write(Utils.getSizeBEInt32(pictureType));
-			baos.write(Utils.getSizeBEInt32(mimeType.length()));
-			baos.write(mimeType.getBytes("ISO-8859-1"));
-			baos.write(Utils.getSizeBEInt32(description.length()));
-			baos.write(description.getBytes("UTF-8"));
+			baos.write(Utils.getSizeBEInt32(mimeTypeBytes.length));
+			baos.write(mimeTypeBytes);
+			baos.write(Utils.getSizeBEInt32(descriptionBytes.length));
+			baos.write(descriptionBytes);
 			baos.write(Utils.getSizeBEInt32(width));
 			baos.write(Utils.getSizeBEInt32(height));
 			baos.write(Utils.getSizeBEInt32(colourDepth));
 			baos.write(Utils.getSizeBEInt32(indexedColouredCount));
-			baos.write(Utils.getSizeBEInt32(imageData.length));
-			baos.write(imageData);
+			baos.write(Utils.getSizeBEInt32(imageDataLength));
 			return baos.toByteArray();
 
 		} catch (final IOException ioe) {
@@ -174,9 +282,47 @@ public class MetadataBlockDataPicture implements MetadataBlockData, TagField {
 		}
 	}
 
+	/**
+	 * @return length of the block data, without reading image data left in the file
+	 */
 	@Override
 	public int getLength() {
-		return getBytes().length;
+		return getFieldBytes().length + imageDataLength;
+	}
+
+	/**
+	 * Write the block data, image data that has not been read yet is copied straight from the file it is in without
+	 * being read into memory
+	 * 
+	 * @param fc
+	 *            written from its current position
+	 * @throws IOException
+	 */
+	public void write(final FileChannel fc) throws IOException {
+		final Path file;
+		final long offset;
+		synchronized (this) {
+			file = imageDataFile;
+			offset = imageDataOffset;
+		}
+		if (file == null) {
+			Utils.writeFully(fc, ByteBuffer.wrap(getBytes()));
+			return;
+		}
+
+		Utils.writeFully(fc, ByteBuffer.wrap(getFieldBytes()));
+		final FileChannel source = FileChannel.open(file, StandardOpenOption.READ);
+		try {
+			long written = 0;
+			while (written < imageDataLength) {
+				final long transferred = source.transferTo(offset + written, imageDataLength - written, fc);
+				if (transferred <= 0)
+					throw new IOException("Unable to copy image data from:" + file + ":copied " + written + " of " + imageDataLength + " bytes");
+				written += transferred;
+			}
+		} finally {
+			source.close();
+		}
 	}
 
 	public int getPictureType() {
@@ -207,10 +353,165 @@ public class MetadataBlockDataPicture implements MetadataBlockData, TagField {
 		return indexedColouredCount;
 	}
 
-	public byte[] getImageData() {
+	/**
+	 * @return the image data, read from file first if it has not been read yet
+	 */
+	public synchronized byte[] getImageData() {
+		if (imageData == null) {
+			imageData = readImageData();
+			imageDataFile = null;
+		}
 		return imageData;
 	}
 
+	private byte[] readImageData() {
+		logger.config("Reading image data from:" + imageDataFile + ":at:" + imageDataOffset);
+		final byte[] data = new byte[imageDataLength];
+		try {
+			final RandomAccessFile raf = new RandomAccessFile(imageDataFile.toFile(), "r");
+			try {
+				raf.seek(imageDataOffset);
+				raf.readFully(data);
+			} finally {
+				raf.close();
+			}
+		} catch (final IOException ioe) {
+			throw new RuntimeException("Unable to read image data from:" + imageDataFile + ":" + ioe.getMessage(), ioe);
+		}
+		return data;
+	}
+
+	public int getImageDataLength() {
+		return imageDataLength;
+	}
+
+	/**
+	 * @return false if the image data is still in the file and will be read when first accessed
+	 */
+	public synchronized boolean isImageDataLoaded() {
+		return imageData != null;
+	}
+
+	/**
+	 * Change where image data that has not been read yet is read from, used when the block has been copied to a new
+	 * file without reading the image data
+	 * 
+	 * @param file
+	 * @param offset
+	 *            of the image data within file
+	 */
+	public synchronized void setImageDataLocation(final Path file, final long offset) {
+		if (imageData == null) {
+			imageDataFile = file;
+			imageDataOffset = offset;
+		}
+	}
+
+	/**
+	 * Record where the block holding this picture is in a file, so that a writer can leave the block where it is if the
+	 * picture is written back to the same file
+	 * 
+	 * @param file
+	 *            or null if the block is no longer known to be in any file
+	 * @param offset
+	 *            of the block header within file
+	 */
+	public synchronized void setBlockLocation(final Path file, final long offset) {
+		blockFile = file;
+		blockOffset = offset;
+	}
+
+	/**
+	 * Record where the block holding this picture was written in a new file that has not yet replaced the file being
+	 * written, see {@link #moveToWrittenBlock(Path)}
+	 * 
+	 * @param offset
+	 *            of the block header within the new file
+	 */
+	public synchronized void setWrittenBlockOffset(final long offset) {
+		writtenBlockOffset = offset;
+	}
+
+	/**
+	 * Once the new file the block was written to has replaced the file being written, the block and any image data
+	 * that has not been read are located in it
+	 * 
+	 * @param file
+	 *            the path of the new file
+	 * @return false if the block was not written to a new file
+	 */
+	public synchronized boolean moveToWrittenBlock(final Path file) {
+		if (writtenBlockOffset < 0)
+			return false;
+		setBlockLocation(file, writtenBlockOffset);
+		setImageDataLocation(file, writtenBlockOffset + MetadataBlockHeader.HEADER_LENGTH + getLength() - imageDataLength);
+		writtenBlockOffset = -1;
+		return true;
+	}
+
+	/**
+	 * Check the block data in a file is what would be written for this picture, so the block can be left where it is.
+	 * Image data that has not been read is known to be unchanged if it is still to be read from that place in the file,
+	 * otherwise the image data is compared with the file.
+	 * 
+	 * @param file
+	 * @param fc
+	 *            opened on file
+	 * @param dataOffset
+	 *            offset of the block data, after the block header
+	 * @return true if the block data matches this picture
+	 * @throws IOException
+	 */
+	public boolean isWrittenAt(final Path file, final FileChannel fc, final long dataOffset) throws IOException {
+		final byte[] fieldBytes = getFieldBytes();
+		if (!isContentAt(fc, dataOffset, fieldBytes))
+			return false;
+
+		final long imageOffset = dataOffset + fieldBytes.length;
+		final byte[] data;
+		final Path dataFile;
+		final long dataFileOffset;
+		synchronized (this) {
+			data = imageData;
+			dataFile = imageDataFile;
+			dataFileOffset = imageDataOffset;
+		}
+		if (data == null)
+			return dataFile != null && dataFileOffset == imageOffset && Files.isSameFile(dataFile, file);
+		return isContentAt(fc, imageOffset, data);
+	}
+
+	private static boolean isContentAt(final FileChannel fc, final long offset, final byte[] content) throws IOException {
+		final ByteBuffer buffer = ByteBuffer.allocate(Math.min(content.length, COMPARE_SIZE));
+		int compared = 0;
+		while (compared < content.length) {
+			buffer.clear();
+			buffer.limit(Math.min(buffer.capacity(), content.length - compared));
+			while (buffer.hasRemaining())
+				if (fc.read(buffer, offset + compared + buffer.position()) <= 0)
+					return false;
+			for (int i = 0; i < buffer.limit(); i++)
+				if (buffer.get(i) != content[compared + i])
+					return false;
+			compared += buffer.limit();
+		}
+		return true;
+	}
+
+	/**
+	 * @return the file the block holding this picture is in, or null if not known
+	 */
+	public synchronized Path getBlockFile() {
+		return blockFile;
+	}
+
+	/**
+	 * @return offset of the block header within {@link #getBlockFile()}
+	 */
+	public synchronized long getBlockOffset() {
+		return blockOffset;
+	}
+
 	/**
 	 * @return true if imagedata is held as a url rather than actually being imagedata
 	 */
@@ -231,7 +532,7 @@ public class MetadataBlockDataPicture implements MetadataBlockData, TagField {
 	@Override
 	public String toString() {
 		return PictureTypes.getInstanceOf().getValueForId(pictureType) + ":" + mimeType + ":" + description + ":" + "width:" + width + ":height:" + height + ":colourdepth:" + colourDepth + ":indexedColourCount:" + indexedColouredCount
-				+ ":image size in bytes:" + imageData.length;
+				+ ":image size in bytes:" + imageDataLength;
 	}
 
 	/**
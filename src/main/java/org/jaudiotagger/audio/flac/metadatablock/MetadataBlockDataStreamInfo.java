@@ -57,11 +57,16 @@ public class MetadataBlockDataStreamInfo implements MetadataBlockData {
 	private final ByteBuffer rawdata;
 
 	public MetadataBlockDataStreamInfo(final MetadataBlockHeader header, final RandomAccessFile raf) throws IOException {
-		rawdata = ByteBuffer.allocate(header.getDataLength());
-		final int bytesRead = raf.getChannel().read(rawdata);
-		if (bytesRead < header.getDataLength())
-			throw new IOException("Unable to read required number of databytes read:" + bytesRead + ":required:" + header.getDataLength());
-		rawdata.rewind();
+		this(readRawData(header, raf));
+	}
+
+	/**
+	 * Construct from the data of the block, as held in the first packet of an Ogg FLAC stream
+	 * 
+	 * @param data
+	 */
+	public MetadataBlockDataStreamInfo(final byte[] data) {
+		rawdata = ByteBuffer.wrap(data);
 
 		minBlockSize = rawdata.getShort();
 		maxBlockSize = rawdata.getShort();
@@ -86,6 +91,14 @@ public class MetadataBlockDataStreamInfo implements MetadataBlockData {
 		logger.config(this.toString());
 	}
 
+	private static byte[] readRawData(final MetadataBlockHeader header, final RandomAccessFile raf) throws IOException {
+		final ByteBuffer rawdata = ByteBuffer.allocate(header.getDataLength());
+		final int bytesRead = raf.getChannel().read(rawdata);
+		if (bytesRead < header.getDataLength())
+			throw new IOException("Unable to read required number of databytes read:" + bytesRead + ":required:" + header.getDataLength());
+		return rawdata.array();
+	}
+
 	/**
 	 * @return the rawdata as it will be written to file
 	 */
@@ -26,6 +26,7 @@ import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import org.jaudiotagger.audio.AudioFile;
+import org.jaudiotagger.audio.ReadOptions;
 import org.jaudiotagger.audio.exceptions.CannotReadException;
 import org.jaudiotagger.audio.exceptions.InvalidAudioFrameException;
 import org.jaudiotagger.audio.exceptions.ReadOnlyFileException;
@@ -75,6 +76,46 @@ public abstract class AudioFileReader {
 	 */
 	protected abstract Tag getTag(RandomAccessFile raf) throws CannotReadException, IOException;
 
+	/*
+	 * Same as above but only reads the parts of the tag required by options, readers of formats that can skip fields
+	 * or artwork override this, by default the complete tag is read.
+	 */
+	protected Tag getTag(final RandomAccessFile raf, final ReadOptions options) throws CannotReadException, IOException {
+		return getTag(raf);
+	}
+
+	/*
+	 * Same as above for readers that need to know the file being read, such as to read parts of the tag from it later.
+	 * 
+	 * @param f The file raf has opened
+	 */
+	protected Tag getTag(final Path f, final RandomAccessFile raf, final ReadOptions options) throws CannotReadException, IOException {
+		return getTag(raf, options);
+	}
+
+	/*
+	 * Reads the parts of the opened file required by options, by default getEncodingInfo and getTag are called in turn.
+	 * Readers of formats where the audio header and tag are found from the same structure override this so the
+	 * structure is only read once.
+	 * 
+	 * @param f The file being read
+	 * 
+	 * @param raf The file opened and positioned at the first byte
+	 * 
+	 * @param options What to read
+	 */
+	protected AudioFile read(final Path f, final RandomAccessFile raf, final ReadOptions options) throws CannotReadException, IOException {
+		GenericAudioHeader info = null;
+		if (options.isAudioHeaderRequired()) {
+			info = getEncodingInfo(raf);
+			raf.seek(0);
+		}
+		Tag tag = null;
+		if (options.isTagRequired())
+			tag = getTag(f, raf, options);
+		return new AudioFile(f, info, tag);
+	}
+
 	/*
 	 * Reads the given file, and return an AudioFile object containing the Tag and the encoding infos present in the
 	 * file. If the file has no tag, an empty one is returned. If the encodinginfo is not valid , an exception is
@@ -85,6 +126,20 @@ public abstract class AudioFileReader {
 	 * @exception CannotReadException If anything went bad during the read of this file
 	 */
 	public AudioFile read(final Path f) throws CannotReadException, IOException, TagException, ReadOnlyFileException, InvalidAudioFrameException {
+		return read(f, ReadOptions.ALL);
+	}
+
+	/*
+	 * Reads the parts of the given file required by options, the audio header or tag of the returned AudioFile is null
+	 * if it was not required.
+	 * 
+	 * @param f The file to read
+	 * 
+	 * @param options What to read
+	 * 
+	 * @exception CannotReadException If anything went bad during the read of this file
+	 */
+	public AudioFile read(final Path f, final ReadOptions options) throws CannotReadException, IOException, TagException, ReadOnlyFileException, InvalidAudioFrameException {
 		if (logger.isLoggable(Level.CONFIG))
 			logger.config(ErrorMessage.GENERAL_READ.getMsg(f.toAbsolutePath()));
 
@@ -98,11 +153,9 @@ public abstract class AudioFileReader {
 		try {
 			raf = new RandomAccessFile(f.toFile(), "r");
 			raf.seek(0);
-
-			final GenericAudioHeader info = getEncodingInfo(raf);
-			raf.seek(0);
-			final Tag tag = getTag(raf);
-			return new AudioFile(f, info, tag);
+			final AudioFile audioFile = read(f, raf, options);
+			audioFile.setReadOptions(options);
+			return audioFile;
 
 		} catch (final CannotReadException cre) {
 			throw cre;
@@ -32,6 +32,7 @@ import org.jaudiotagger.audio.exceptions.ModifyVetoException;
 import org.jaudiotagger.audio.mp3.MP3File;
 import org.jaudiotagger.logging.ErrorMessage;
 import org.jaudiotagger.tag.Tag;
+import org.jaudiotagger.tag.TagOptionSingleton;
 
 /**
  * This abstract class is the skeleton for tag writers.
@@ -46,7 +47,6 @@ import org.jaudiotagger.tag.Tag;
  */
 public abstract class AudioFileWriter {
 	private static final String TEMP_FILENAME_SUFFIX = ".tmp";
-	private static final String WRITE_MODE = "rws";
 	private static final int MINIMUM_FILESIZE = 150;
 
 	// Logger Object
@@ -92,8 +92,8 @@ public abstract class AudioFileWriter {
 
 			tempF = Files.createTempFile(af.getFile().getParent(), af.getFile().getFileName().toString().replace('.', '_'), TEMP_FILENAME_SUFFIX);
 
-			rafTemp = new RandomAccessFile(tempF.toFile(), WRITE_MODE);
-			raf = new RandomAccessFile(af.getFile().toFile(), WRITE_MODE);
+			rafTemp = Utils.openForWriting(tempF);
+			raf = Utils.openForWriting(af.getFile());
 			raf.seek(0);
 			rafTemp.seek(0);
 
@@ -101,6 +101,7 @@ public abstract class AudioFileWriter {
 				if (this.modificationListener != null)
 					this.modificationListener.fileWillBeModified(af, true);
 				deleteTag(raf, rafTemp);
+				syncModifiedFile(raf, rafTemp);
 				if (this.modificationListener != null)
 					this.modificationListener.fileModified(af, tempF);
 			} catch (final ModifyVetoException veto) {
@@ -240,16 +241,21 @@ public abstract class AudioFileWriter {
 
 	/**
 	 * Write the tag (if not empty) present in the AudioFile in the associated File
+	 * <p/>
+	 * If {@link TagOptionSingleton#isWriteInPlace()} is enabled and the new tag fits in the space already available
+	 * only the metadata is rewritten in the original file, otherwise the file is rewritten via a temporary file. Files
+	 * are opened and synced according to {@link TagOptionSingleton#getWriteDurability()}.
 	 * 
 	 * @param af
 	 *            The file we want to process
+	 * @return how the tag was written
 	 * @throws CannotWriteException
 	 *             if anything went wrong
 	 */
 	// TODO Creates temp file in same folder as the original file, this is safe
 	// but would impose a performance overhead if the original file is on a
 	// networked drive
-	public void write(final AudioFile af) throws CannotWriteException {
+	public WriteStrategy write(final AudioFile af) throws CannotWriteException {
 		logger.config("Started writing tag data for file:" + af.getFile().getFileName());
 
 		// Prechecks
@@ -258,7 +264,21 @@ public abstract class AudioFileWriter {
 		// mp3's use a different mechanism to the other formats
 		if (af instanceof MP3File) {
 			af.commit();
-			return;
+			return ((MP3File) af).getWriteStrategy();
+		}
+
+		try {
+			if (this.modificationListener != null)
+				this.modificationListener.fileWillBeModified(af, false);
+		} catch (final ModifyVetoException veto) {
+			throw new CannotWriteException(veto);
+		}
+
+		if (TagOptionSingleton.getInstance().isWriteInPlace() && writeInPlace(af)) {
+			logger.config("Written tag in place for file:" + af.getFile().getFileName());
+			if (this.modificationListener != null)
+				this.modificationListener.fileOperationFinished(af.getFile());
+			return WriteStrategy.IN_PLACE;
 		}
 
 		RandomAccessFile raf = null;
@@ -290,8 +310,8 @@ public abstract class AudioFileWriter {
 
 		// Open temporary file and actual file for editing
 		try {
-			rafTemp = new RandomAccessFile(newFile.toFile(), WRITE_MODE);
-			raf = new RandomAccessFile(af.getFile().toFile(), WRITE_MODE);
+			rafTemp = Utils.openForWriting(newFile);
+			raf = Utils.openForWriting(af.getFile());
 
 		}
 		// Unable to write to writable file, can happen in Vista if have Create
@@ -328,15 +348,10 @@ public abstract class AudioFileWriter {
 
 			raf.seek(0);
 			rafTemp.seek(0);
-			try {
-				if (this.modificationListener != null)
-					this.modificationListener.fileWillBeModified(af, false);
-				writeTag(af.getTag(), raf, rafTemp);
-				if (this.modificationListener != null)
-					this.modificationListener.fileModified(af, newFile);
-			} catch (final ModifyVetoException veto) {
-				throw new CannotWriteException(veto);
-			}
+			writeTag(af.getTag(), raf, rafTemp);
+			syncModifiedFile(raf, rafTemp);
+			if (this.modificationListener != null)
+				this.modificationListener.fileModified(af, newFile);
 		} catch (final Exception e) {
 			logger.log(Level.SEVERE, ErrorMessage.GENERAL_WRITE_FAILED_BECAUSE.getMsg(af.getFile(), e.getMessage()), e);
 
@@ -377,7 +392,9 @@ public abstract class AudioFileWriter {
 		result = af.getFile();
 
 		// If the temporary file was used
+		final WriteStrategy strategy;
 		if (newFile.toFile().length() > 0) {
+			strategy = WriteStrategy.TEMP_FILE;
 
 			// Rename Original File
 			// Can fail on Vista if have Special Permission 'Delete' set Deny
@@ -435,13 +452,68 @@ public abstract class AudioFileWriter {
 				if (!newFile.toFile().delete())
 					// Non critical failed deletion
 					logger.warning(ErrorMessage.GENERAL_WRITE_FAILED_TO_DELETE_TEMPORARY_FILE.getMsg(newFile));
-		} else // Delete the temporary file that wasn't ever used
-		if (!newFile.toFile().delete())
-			// Non critical failed deletion
-			logger.warning(ErrorMessage.GENERAL_WRITE_FAILED_TO_DELETE_TEMPORARY_FILE.getMsg(newFile));
+		} else {
+			strategy = WriteStrategy.IN_PLACE;
+			// Delete the temporary file that wasn't ever used
+			if (!newFile.toFile().delete())
+				// Non critical failed deletion
+				logger.warning(ErrorMessage.GENERAL_WRITE_FAILED_TO_DELETE_TEMPORARY_FILE.getMsg(newFile));
+		}
 
 		if (this.modificationListener != null)
 			this.modificationListener.fileOperationFinished(result);
+		return strategy;
+	}
+
+	/**
+	 * Sync whichever file was written to, the temporary file if used otherwise the original file
+	 * 
+	 * @param raf
+	 * @param rafTemp
+	 * @throws IOException
+	 */
+	private void syncModifiedFile(final RandomAccessFile raf, final RandomAccessFile rafTemp) throws IOException {
+		// Writers that close the temporary file themselves are responsible for syncing it
+		if (!rafTemp.getChannel().isOpen())
+			return;
+		if (rafTemp.length() > 0)
+			Utils.syncBeforeClose(rafTemp.getChannel());
+		else
+			Utils.syncBeforeClose(raf.getChannel());
+	}
+
+	/**
+	 * Try to write the tag directly into the original file, the file is synced once when finished unless durability is
+	 * {@link org.jaudiotagger.tag.options.WriteDurability#NONE}
+	 * 
+	 * @param af
+	 * @return true if the tag was written, false if it does not fit and the original file is unmodified
+	 * @throws CannotWriteException
+	 */
+	private boolean writeInPlace(final AudioFile af) throws CannotWriteException {
+		RandomAccessFile raf = null;
+		try {
+			raf = Utils.openForWriting(af.getFile());
+			if (!writeTagInPlace(af.getFile(), af.getTag(), raf))
+				return false;
+			Utils.syncBeforeClose(raf.getChannel());
+			if (this.modificationListener != null)
+				this.modificationListener.fileModified(af, af.getFile());
+		} catch (final ModifyVetoException veto) {
+			throw new CannotWriteException(veto);
+		} catch (final CannotReadException | IOException e) {
+			logger.log(Level.SEVERE, ErrorMessage.GENERAL_WRITE_FAILED_BECAUSE.getMsg(af.getFile(), e.getMessage()), e);
+			throw new CannotWriteException(ErrorMessage.GENERAL_WRITE_FAILED_BECAUSE.getMsg(af.getFile(), e.getMessage()));
+		} finally {
+			try {
+				if (raf != null)
+					raf.close();
+			} catch (final IOException ioe) {
+				// Warn but assume has worked okay
+				logger.log(Level.WARNING, ErrorMessage.GENERAL_WRITE_PROBLEM_CLOSING_FILE_HANDLE.getMsg(af.getFile().toAbsolutePath(), ioe.getMessage()), ioe);
+			}
+		}
+		return true;
 	}
 
 	/**
@@ -467,4 +539,41 @@ public abstract class AudioFileWriter {
 	 * @throws org.jaudiotagger.audio.exceptions.CannotReadException
 	 */
 	protected abstract void writeTag(Tag tag, RandomAccessFile raf, RandomAccessFile rafTemp) throws CannotReadException, CannotWriteException, IOException;
+
+	/**
+	 * This is called before {@link #writeTag} when writing in place is enabled. If the tag fits in the space already
+	 * available in the file it should be written directly into raf without moving the audio data and true returned,
+	 * otherwise the file must be left unmodified and false returned so that the file is rewritten by writeTag.
+	 * <p/>
+	 * The default implementation returns false, formats that can update their metadata in place override this. The
+	 * subclass must not close the file or sync it, this is done when the method returns.
+	 * 
+	 * @param tag
+	 * @param raf
+	 *            The source file, opened in read-write mode
+	 * @return true if the tag was written
+	 * @throws CannotReadException
+	 * @throws CannotWriteException
+	 * @throws IOException
+	 */
+	protected boolean writeTagInPlace(final Tag tag, final RandomAccessFile raf) throws CannotReadException, CannotWriteException, IOException {
+		return false;
+	}
+
+	/**
+	 * Same as above for writers that need to know the file being written, such as to leave parts of the tag that were
+	 * read from the same file where they are.
+	 * 
+	 * @param file
+	 *            The file raf has opened
+	 * @param tag
+	 * @param raf
+	 * @return true if the tag was written
+	 * @throws CannotReadException
+	 * @throws CannotWriteException
+	 * @throws IOException
+	 */
+	protected boolean writeTagInPlace(final Path file, final Tag tag, final RandomAccessFile raf) throws CannotReadException, CannotWriteException, IOException {
+		return writeTagInPlace(tag, raf);
+	}
 }
@@ -0,0 +1,203 @@
+package org.jaudiotagger.audio.generic;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.util.logging.Logger;
+
+/**
+ * A single open file shared by all the stages of reading an audio file.
+ * <p/>
+ * Reading a file used to open it separately for each stage (permission check, tag size probe, audio header search, tag
+ * parse), on networked filesystems each open is a round trip so instead the file is opened once and this context is
+ * passed to each stage. All reads are positional so stages do not interfere with each others file pointer.
+ * <p/>
+ * The number of times the file was opened and the number of read calls made against it are recorded so that the cost
+ * of reading a file can be checked.
+ */
+public class ReadContext implements Closeable {
+	// Logger Object
+	public static Logger logger = Logger.getLogger("org.jaudiotagger.audio.generic");
+
+	private final Path file;
+	private final RandomAccessFile raf;
+	private final FileChannel fc;
+	private final boolean ownsFile;
+	private long fileSize = -1;
+	private ByteBuffer buffer;
+
+	private int openCount;
+	private int readCount;
+	private long bytesRead;
+
+	/**
+	 * Open file for reading
+	 *
+	 * @param file
+	 * @throws IOException
+	 */
+	public ReadContext(final Path file) throws IOException {
+		this(file, "r");
+	}
+
+	/**
+	 * Open file with mode, as for {@link RandomAccessFile}
+	 *
+	 * @param file
+	 * @param mode
+	 * @throws IOException
+	 */
+	public ReadContext(final Path file, final String mode) throws IOException {
+		this(file, new RandomAccessFile(file.toFile(), mode), true);
+		openCount++;
+	}
+
+	/**
+	 * Share an already opened file, the file is not closed when this context is closed and its opening is not counted
+	 *
+	 * @param file
+	 * @param raf
+	 */
+	public ReadContext(final Path file, final RandomAccessFile raf) {
+		this(file, raf, false);
+	}
+
+	private ReadContext(final Path file, final RandomAccessFile raf, final boolean ownsFile) {
+		this.file = file;
+		this.raf = raf;
+		this.fc = raf.getChannel();
+		this.ownsFile = ownsFile;
+	}
+
+	/**
+	 * @return the file being read
+	 */
+	public Path getFile() {
+		return file;
+	}
+
+	/**
+	 * @return the underlying channel, reads made directly against it are not counted
+	 */
+	public FileChannel getChannel() {
+		return fc;
+	}
+
+	/**
+	 * @return the underlying file, reads made directly against it are not counted
+	 */
+	public RandomAccessFile getRandomAccessFile() {
+		return raf;
+	}
+
+	/**
+	 * @return size of file, only retrieved once
+	 * @throws IOException
+	 */
+	public long size() throws IOException {
+		if (fileSize == -1)
+			fileSize = fc.size();
+		return fileSize;
+	}
+
+	/**
+	 * Read from position into buffer without modifying the channels position
+	 *
+	 * @param dst
+	 * @param position
+	 * @return number of bytes read, or -1 if position is at end of file
+	 * @throws IOException
+	 */
+	public int read(final ByteBuffer dst, final long position) throws IOException {
+		readCount++;
+		final int count = fc.read(dst, position);
+		if (count > 0)
+			bytesRead += count;
+		return count;
+	}
+
+	/**
+	 * Read from position until buffer is full or end of file is reached
+	 *
+	 * @param dst
+	 * @param position
+	 * @return number of bytes read
+	 * @throws IOException
+	 */
+	public int readFully(final ByteBuffer dst, final long position) throws IOException {
+		int total = 0;
+		while (dst.hasRemaining()) {
+			final int count = read(dst, position + total);
+			if (count <= 0)
+				break;
+			total += count;
+		}
+		return total;
+	}
+
+	/**
+	 * Scratch buffer shared by the readers of this file, so searches that are repeated while reading a file do not
+	 * allocate a new buffer each time. The buffer is array backed and cleared, its contents are only valid until the
+	 * next call.
+	 *
+	 * @param capacity
+	 * @return a buffer with at least the capacity
+	 */
+	public ByteBuffer getBuffer(final int capacity) {
+		if (buffer == null || buffer.capacity() < capacity)
+			buffer = ByteBuffer.allocate(capacity);
+		buffer.clear();
+		return buffer;
+	}
+
+	/**
+	 * Map part of the file into memory, counts as a single read
+	 *
+	 * @param position
+	 * @param size
+	 * @return
+	 * @throws IOException
+	 */
+	public MappedByteBuffer map(final long position, final long size) throws IOException {
+		readCount++;
+		final MappedByteBuffer mbb = fc.map(FileChannel.MapMode.READ_ONLY, position, size);
+		bytesRead += size;
+		return mbb;
+	}
+
+	/**
+	 * @return the number of times the file was opened by this context
+	 */
+	public int getOpenCount() {
+		return openCount;
+	}
+
+	/**
+	 * @return the number of read calls made against the file
+	 */
+	public int getReadCount() {
+		return readCount;
+	}
+
+	/**
+	 * @return the number of bytes read from the file
+	 */
+	public long getBytesRead() {
+		return bytesRead;
+	}
+
+	@Override
+	public void close() throws IOException {
+		if (ownsFile)
+			raf.close();
+	}
+
+	@Override
+	public String toString() {
+		return file + ":opens:" + openCount + ":reads:" + readCount + ":bytesRead:" + bytesRead;
+	}
+}
@@ -19,15 +19,22 @@
 package org.jaudiotagger.audio.generic;
 
 import java.io.DataInput;
+import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.io.RandomAccessFile;
 import java.io.UnsupportedEncodingException;
+import java.nio.BufferUnderflowException;
 import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.GatheringByteChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import org.jaudiotagger.audio.AudioFile;
+import org.jaudiotagger.tag.TagOptionSingleton;
+import org.jaudiotagger.tag.options.WriteDurability;
 
 /**
  * Contains various frequently used static functions in the different tag formats
@@ -268,10 +275,18 @@ public class Utils {
 	 * @throws RuntimeException
 	 */
 	public static String getString(final ByteBuffer buffer, final int offset, final int length, final String encoding) {
-		final byte[] b = new byte[length];
 		buffer.position(buffer.position() + offset);
-		buffer.get(b);
+		if (length > buffer.remaining())
+			throw new BufferUnderflowException();
 		try {
+			// Decode straight from a heap buffer rather than copying the bytes first
+			if (buffer.hasArray()) {
+				final String string = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length, encoding);
+				buffer.position(buffer.position() + length);
+				return string;
+			}
+			final byte[] b = new byte[length];
+			buffer.get(b);
 			return new String(b, 0, length, encoding);
 		} catch (final UnsupportedEncodingException uee) {
 			// TODO, will we ever use unsupported encodings
@@ -421,6 +436,48 @@ public class Utils {
 		return s;
 	}
 
+	/**
+	 * Open file for writing in the mode required by the configured {@link WriteDurability}
+	 * 
+	 * @param file
+	 * @return
+	 * @throws FileNotFoundException
+	 */
+	public static RandomAccessFile openForWriting(final Path file) throws FileNotFoundException {
+		return new RandomAccessFile(file.toFile(), TagOptionSingleton.getInstance().getWriteDurability().getFileMode());
+	}
+
+	/**
+	 * Sync a modified file to disk unless the configured {@link WriteDurability} is NONE, should be called once just
+	 * before the file is closed
+	 * 
+	 * @param fc
+	 * @throws IOException
+	 */
+	public static void syncBeforeClose(final FileChannel fc) throws IOException {
+		if (TagOptionSingleton.getInstance().getWriteDurability() != WriteDurability.NONE)
+			fc.force(true);
+	}
+
+	/**
+	 * Write all the buffers to the channel, as a single gathering write where possible rather than a write per buffer
+	 * 
+	 * @param channel
+	 * @param buffers
+	 * @return number of bytes written
+	 * @throws IOException
+	 */
+	public static long writeFully(final GatheringByteChannel channel, final ByteBuffer... buffers) throws IOException {
+		long remaining = 0;
+		for (final ByteBuffer next : buffers)
+			remaining += next.remaining();
+
+		long written = 0;
+		while (written < remaining)
+			written += channel.write(buffers);
+		return written;
+	}
+
 	/**
 	 * Rename file, and if normal rename fails, try copy and delete instead
 	 * 
@@ -0,0 +1,17 @@
+package org.jaudiotagger.audio.generic;
+
+/**
+ * How the metadata was written to an audio file, as reported by {@link AudioFileWriter#write}
+ */
+public enum WriteStrategy {
+	/**
+	 * The new metadata fitted in the space already available so only the metadata was rewritten in the original file,
+	 * the audio data was not moved
+	 */
+	IN_PLACE,
+
+	/**
+	 * The new metadata did not fit so the audio data was copied to a new file which then replaced the original
+	 */
+	TEMP_FILE
+}
@@ -20,11 +20,8 @@
 package org.jaudiotagger.audio.mp3;
 
 import java.io.EOFException;
-import java.io.FileInputStream;
 import java.io.IOException;
 import java.nio.ByteBuffer;
-import java.nio.channels.FileChannel;
-import java.nio.file.Files;
 import java.nio.file.Path;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
@@ -35,8 +32,10 @@ import java.util.logging.Logger;
 
 import org.jaudiotagger.audio.AudioHeader;
 import org.jaudiotagger.audio.exceptions.InvalidAudioFrameException;
+import org.jaudiotagger.audio.generic.ReadContext;
 import org.jaudiotagger.logging.ErrorMessage;
 import org.jaudiotagger.logging.Hex;
+import org.jaudiotagger.tag.TagOptionSingleton;
 
 /**
  * Represents the audio header of an MP3 File
@@ -73,6 +72,7 @@ public class MP3AudioHeader implements AudioHeader {
 	private long numberOfFramesEstimate;
 	private long bitrate;
 	private String encoder = "";
+	private MP3FrameIndex frameIndex;
 
 	private static final SimpleDateFormat timeInFormat = new SimpleDateFormat("ss", Locale.UK);
 	private static final SimpleDateFormat timeOutFormat = new SimpleDateFormat("mm:ss", Locale.UK);
@@ -86,11 +86,21 @@ public class MP3AudioHeader implements AudioHeader {
 	public static Logger logger = Logger.getLogger("org.jaudiotagger.audio.mp3");
 
 	/**
-	 * After testing the average location of the first MP3Header bit was at 5000 bytes so this is why chosen as a
-	 * default.
+	 * After testing the average location of the first MP3Header bit was at 5000 bytes, the buffer is larger so that
+	 * several frames following a possible header can be checked without reloading the buffer.
 	 */
-	private final static int FILE_BUFFER_SIZE = 5000;
+	private final static int FILE_BUFFER_SIZE = 16384;
 	private final static int MIN_BUFFER_REMAINING_REQUIRED = MPEGFrameHeader.HEADER_SIZE + XingFrame.MAX_BUFFER_SIZE_NEEDED_TO_READ_XING;
+
+	/**
+	 * Frames are not this large so a frame header giving a larger length is not a frame header
+	 */
+	private final static int MAX_FRAME_LENGTH = 5000 - MIN_BUFFER_REMAINING_REQUIRED;
+
+	/**
+	 * Number of frames following a frame header without a Xing or Vbri frame that are checked
+	 */
+	private final static int FRAME_CHAIN_LENGTH = 2;
 	private static final int NO_SECONDS_IN_HOUR = 3600;
 
 	public MP3AudioHeader() {}
@@ -132,6 +142,19 @@ public class MP3AudioHeader implements AudioHeader {
 			throw new InvalidAudioFrameException(ErrorMessage.NO_AUDIO_HEADER_FOUND.getMsg(seekFile.getFileName()));
 	}
 
+	/**
+	 * Search for the first MP3Header in the already opened file starting from location startByte
+	 * 
+	 * @param context
+	 * @param startByte
+	 * @throws IOException
+	 * @throws InvalidAudioFrameException
+	 */
+	public MP3AudioHeader(final ReadContext context, final long startByte) throws IOException, InvalidAudioFrameException {
+		if (!seek(context, startByte))
+			throw new InvalidAudioFrameException(ErrorMessage.NO_AUDIO_HEADER_FOUND.getMsg(context.getFile().getFileName()));
+	}
+
 	/**
 	 * Returns true if the first MP3 frame can be found for the MP3 file
 	 * <p/>
@@ -147,45 +170,91 @@ public class MP3AudioHeader implements AudioHeader {
 	 * @noinspection NestedTryStatement
 	 */
 	public boolean seek(final Path seekFile, final long startByte) throws IOException {
-		// References to Xing/VRbi Header
-		ByteBuffer header;
-
-		// This is substantially faster than updating the filechannels position
-		long filePointerCount;
-
-		final FileInputStream fis = new FileInputStream(seekFile.toFile());
-		final FileChannel fc = fis.getChannel();
+		final ReadContext context = new ReadContext(seekFile);
+		try {
+			return seek(context, startByte);
+		} finally {
+			context.close();
+		}
+	}
 
-		// Read into Byte Buffer in Chunks
-		final ByteBuffer bb = ByteBuffer.allocateDirect(FILE_BUFFER_SIZE);
+	/**
+	 * Returns true if the first MP3 frame can be found for the already opened MP3 file
+	 * 
+	 * @param context
+	 *            MP3 file to seek
+	 * @param startByte
+	 *            if there is an ID3v2tag we dont want to start reading from the start of the tag
+	 * @return true if the first MP3 frame can be found
+	 * @throws IOException
+	 *             on any I/O error
+	 */
+	public boolean seek(final ReadContext context, final long startByte) throws IOException {
+		return seek(context, startByte, startByte + TagOptionSingleton.getInstance().getMp3SyncSearchLimit());
+	}
 
-		// Move FileChannel to the starting position (skipping over tag if any)
-		fc.position(startByte);
+	/**
+	 * Returns true if the first MP3 frame starting no later than maxStartByte can be found for the already opened MP3
+	 * file
+	 * <p/>
+	 * The file is read in chunks into a buffer shared by the read of the file, each chunk is scanned for the first sync
+	 * byte before trying to parse a frame header. A frame header that is not followed by a Xing or Vbri frame is only
+	 * accepted if the frames that follow it have consistent headers.
+	 * 
+	 * @param context
+	 *            MP3 file to seek
+	 * @param startByte
+	 *            if there is an ID3v2tag we dont want to start reading from the start of the tag
+	 * @param maxStartByte
+	 *            the search gives up if no frame starts at or before this location
+	 * @return true if the first MP3 frame can be found
+	 * @throws IOException
+	 *             on any I/O error
+	 */
+	public boolean seek(final ReadContext context, final long startByte, final long maxStartByte) throws IOException {
+		// References to Xing/VRbi Header
+		ByteBuffer header;
 
-		// Update filePointerCount
-		filePointerCount = startByte;
+		// Read into Byte Buffer in Chunks, the location in the file is bufferStart plus the position within the buffer
+		final ByteBuffer bb = context.getBuffer(FILE_BUFFER_SIZE);
+		final byte[] data = bb.array();
+		long bufferStart = startByte;
+		long filePointerCount = startByte;
 
 		// Read from here into the byte buffer , doesn't move location of filepointer
-		fc.read(bb, startByte);
+		context.readFully(bb, startByte);
 		bb.flip();
 
 		boolean syncFound = false;
 		try {
+			int position = 0;
 			do {
-				// TODO remaining() is quite an expensive operation, isn't there a way we can work this out without
-				// interrogating the bytebuffer. Also this is rarely going to be true, and could be made less true
-				// by increasing FILE_BUFFER_SIZE
-				if (bb.remaining() <= MIN_BUFFER_REMAINING_REQUIRED) {
+				if (bb.limit() - position <= MIN_BUFFER_REMAINING_REQUIRED) {
+					bufferStart += position;
+					position = 0;
 					bb.clear();
-					fc.position(filePointerCount);
-					fc.read(bb, fc.position());
+					context.readFully(bb, bufferStart);
 					bb.flip();
 					if (bb.limit() <= MIN_BUFFER_REMAINING_REQUIRED)
 						// No mp3 exists
 						return false;
 				}
-				// MP3File.logger.finest("fc:"+fc.position() + "bb"+bb.position());
-				if (MPEGFrameHeader.isMPEGFrame(bb))
+
+				// Scan for the first byte of the sync, stopping early enough to leave room to read the frame header
+				final int end = (int) Math.min(bb.limit() - MIN_BUFFER_REMAINING_REQUIRED, maxStartByte - bufferStart + 1);
+				while (position < end && data[position] != (byte) MPEGFrameHeader.SYNC_BYTE1)
+					position++;
+				filePointerCount = bufferStart + position;
+				if (filePointerCount > maxStartByte) {
+					if (MP3AudioHeader.logger.isLoggable(Level.FINER))
+						MP3AudioHeader.logger.finer("No sync found before search limit:" + maxStartByte);
+					return false;
+				}
+				if (position == end)
+					continue;
+
+				bb.position(position);
+				if (MPEGFrameHeader.isValidHeader(data, position))
 					try {
 						if (MP3AudioHeader.logger.isLoggable(Level.FINEST))
 							MP3AudioHeader.logger.finest("Found Possible header at:" + filePointerCount);
@@ -226,7 +295,10 @@ public class MP3AudioHeader implements AudioHeader {
 						// has an APIC frame which should have been unsynchronised but has not been) , or if the frame
 						// has been encoded with as Unicode LE because these have a BOM of 0xFF 0xFE
 						else {
-							syncFound = isNextFrameValid(seekFile, filePointerCount, bb, fc);
+							syncFound = isNextFrameValid(context, filePointerCount, bb);
+							// The buffer may have been reloaded starting from this frame
+							position = bb.position();
+							bufferStart = filePointerCount - position;
 							if (syncFound)
 								break;
 						}
@@ -234,13 +306,9 @@ public class MP3AudioHeader implements AudioHeader {
 					} catch (final InvalidAudioFrameException ex) {
 						// We Ignore because likely to be incorrect sync bits ,
 						// will just continue in loop
+						syncFound = false;
 					}
-
-				// TODO position() is quite an expensive operation, isn't there a way we can work this out without
-				// interrogating the bytebuffer
-				bb.position(bb.position() + 1);
-				filePointerCount++;
-
+				position++;
 			} while (!syncFound);
 		} catch (final EOFException ex) {
 			MP3AudioHeader.logger.log(Level.WARNING, "Reached end of file without finding sync match", ex);
@@ -249,52 +317,43 @@ public class MP3AudioHeader implements AudioHeader {
 			MP3AudioHeader.logger.log(Level.SEVERE, "IOException occurred whilst trying to find sync", iox);
 			syncFound = false;
 			throw iox;
-		} finally {
-			if (fc != null)
-				fc.close();
-
-			if (fis != null)
-				fis.close();
 		}
 
 		// Return to start of audio header
 		if (MP3AudioHeader.logger.isLoggable(Level.FINEST))
 			MP3AudioHeader.logger.finer("Return found matching mp3 header starting at" + filePointerCount);
-		setFileSize(Files.size(seekFile));
+		setFileSize(context.size());
 		setMp3StartByte(filePointerCount);
 		setTimePerFrame();
 		setNumberOfFrames();
 		setTrackLength();
 		setBitRate();
 		setEncoder();
-		/*
-		 * if((filePointerCount - startByte )>0) {
-		 * logger.severe(seekFile.getName()+"length:"+startByte+"Difference:"+(filePointerCount - startByte)); }
-		 */
 		return syncFound;
 	}
 
 	/**
-	 * Called in some circumstances to check the next frame to ensure we have the correct audio header
+	 * Called in some circumstances to check the frames that follow to ensure we have the correct audio header
+	 * <p/>
+	 * The next frame must be a valid frame with the same version, layer and sampling rate, up to
+	 * {@link #FRAME_CHAIN_LENGTH} frames are checked in this way as long as they are within the buffer. The buffer is
+	 * reloaded starting at the current frame if the next frame is not within it, either way the position of the buffer
+	 * is left at the start of the current frame.
 	 * 
-	 * @param seekFile
+	 * @param context
 	 * @param filePointerCount
 	 * @param bb
-	 * @param fc
 	 * @return true if frame is valid
 	 * @throws java.io.IOException
 	 */
-	private boolean isNextFrameValid(final Path seekFile, final long filePointerCount, final ByteBuffer bb, final FileChannel fc) throws IOException {
+	private boolean isNextFrameValid(final ReadContext context, final long filePointerCount, final ByteBuffer bb) throws IOException {
 		if (MP3AudioHeader.logger.isLoggable(Level.FINEST))
-			MP3AudioHeader.logger.finer("Checking next frame" + seekFile.getFileName() + ":fpc:" + filePointerCount + "skipping to:" + (filePointerCount + mp3FrameHeader.getFrameLength()));
-		boolean result = false;
-
-		int currentPosition = bb.position();
+			MP3AudioHeader.logger.finer("Checking next frame" + context.getFile().getFileName() + ":fpc:" + filePointerCount + "skipping to:" + (filePointerCount + mp3FrameHeader.getFrameLength()));
 
 		// Our buffer is not large enough to fit in the whole of this frame, something must
 		// have gone wrong because frames are not this large, so just return false
 		// bad frame header
-		if (mp3FrameHeader.getFrameLength() > (FILE_BUFFER_SIZE - MIN_BUFFER_REMAINING_REQUIRED)) {
+		if (mp3FrameHeader.getFrameLength() > MAX_FRAME_LENGTH) {
 			MP3AudioHeader.logger.finer("Frame size is too large to be a frame:" + mp3FrameHeader.getFrameLength());
 			return false;
 		}
@@ -303,11 +362,8 @@ public class MP3AudioHeader implements AudioHeader {
 		if (bb.remaining() <= MIN_BUFFER_REMAINING_REQUIRED + mp3FrameHeader.getFrameLength()) {
 			MP3AudioHeader.logger.finer("Buffer too small, need to reload, buffer size:" + bb.remaining());
 			bb.clear();
-			fc.position(filePointerCount);
-			fc.read(bb, fc.position());
+			context.readFully(bb, filePointerCount);
 			bb.flip();
-			// So now original buffer has been replaced, so set current position to start of buffer
-			currentPosition = 0;
 			// Not enough left
 			if (bb.limit() <= MIN_BUFFER_REMAINING_REQUIRED) {
 				// No mp3 exists
@@ -323,22 +379,60 @@ public class MP3AudioHeader implements AudioHeader {
 			}
 		}
 
-		// Position bb to the start of the alleged next frame
-		bb.position(bb.position() + mp3FrameHeader.getFrameLength());
-		if (MPEGFrameHeader.isMPEGFrame(bb))
+		// Follow the chain of frames, the position of bb is left at the start of the current frame
+		final int currentPosition = bb.position();
+		final ByteBuffer chain = bb.duplicate();
+		MPEGFrameHeader frameHeader = mp3FrameHeader;
+		for (int i = 0; i < FRAME_CHAIN_LENGTH; i++) {
+			final int nextPosition = chain.position() + frameHeader.getFrameLength();
+			// Only the first frame has to be checked, further frames are only checked if already read
+			if (i > 0 && (frameHeader.getFrameLength() > MAX_FRAME_LENGTH || chain.limit() - nextPosition < MPEGFrameHeader.HEADER_SIZE))
+				break;
+
+			// Position to the start of the alleged next frame
+			chain.position(nextPosition);
+			if (!MPEGFrameHeader.isValidHeader(chain.array(), nextPosition)) {
+				MP3AudioHeader.logger.finer("isMPEGFrame has identified this is not an audio header");
+				return false;
+			}
 			try {
-				MPEGFrameHeader.parseMPEGHeader(bb);
-				MP3AudioHeader.logger.finer("Check next frame confirms is an audio header ");
-				result = true;
+				final MPEGFrameHeader nextFrameHeader = MPEGFrameHeader.parseMPEGHeader(chain);
+				if (nextFrameHeader.getVersion() != mp3FrameHeader.getVersion() || nextFrameHeader.getLayer() != mp3FrameHeader.getLayer() || !nextFrameHeader.getSamplingRate().equals(mp3FrameHeader.getSamplingRate())) {
+					MP3AudioHeader.logger.finer("Check next frame has identified a different stream so this is not an audio header");
+					return false;
+				}
+				frameHeader = nextFrameHeader;
 			} catch (final InvalidAudioFrameException ex) {
 				MP3AudioHeader.logger.finer("Check next frame has identified this is not an audio header");
-				result = false;
+				return false;
 			}
-		else
-			MP3AudioHeader.logger.finer("isMPEGFrame has identified this is not an audio header");
-		// Set back to the start of the previous frame
+		}
+		MP3AudioHeader.logger.finer("Check next frame confirms is an audio header ");
 		bb.position(currentPosition);
-		return result;
+		return true;
+	}
+
+	/**
+	 * Replace the estimated number of frames, track length and bitrate with the exact values found by walking the
+	 * frames with {@link MP3FrameWalker}
+	 * 
+	 * @param frameIndex
+	 */
+	public void setFrameIndex(final MP3FrameIndex frameIndex) {
+		this.frameIndex = frameIndex;
+		if (frameIndex.getFrameCount() == 0)
+			return;
+		numberOfFrames = frameIndex.getFrameCount();
+		trackLength = frameIndex.getPreciseTrackLength();
+		if (frameIndex.isVariableBitRate())
+			bitrate = Math.round(frameIndex.getAudioSize() * CONVERTS_BYTE_TO_BITS / (trackLength * CONVERT_TO_KILOBITS));
+	}
+
+	/**
+	 * @return the index built by walking the frames, or null if the frames were not walked
+	 */
+	public MP3FrameIndex getFrameIndex() {
+		return frameIndex;
 	}
 
 	/**
@@ -581,6 +675,8 @@ public class MP3AudioHeader implements AudioHeader {
 			return mp3XingFrame.isVbr();
 		else if (mp3VbriFrame != null)
 			return mp3VbriFrame.isVbr();
+		else if (frameIndex != null && frameIndex.getFrameCount() > 0)
+			return frameIndex.isVariableBitRate();
 		else
 			return mp3FrameHeader.isVariableBitRate();
 	}
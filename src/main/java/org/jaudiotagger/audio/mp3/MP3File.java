@@ -28,14 +28,19 @@ import java.io.IOException;
 import java.io.RandomAccessFile;
 import java.nio.ByteBuffer;
 import java.nio.channels.FileChannel;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.logging.Level;
 
 import org.jaudiotagger.audio.AudioFile;
+import org.jaudiotagger.audio.ReadOptions;
 import org.jaudiotagger.audio.exceptions.CannotWriteException;
 import org.jaudiotagger.audio.exceptions.InvalidAudioFrameException;
 import org.jaudiotagger.audio.exceptions.ReadOnlyFileException;
+import org.jaudiotagger.audio.generic.ReadContext;
+import org.jaudiotagger.audio.generic.Utils;
+import org.jaudiotagger.audio.generic.WriteStrategy;
 import org.jaudiotagger.logging.AbstractTagDisplayFormatter;
 import org.jaudiotagger.logging.ErrorMessage;
 import org.jaudiotagger.logging.Hex;
@@ -83,6 +88,22 @@ public class MP3File extends AudioFile {
 	 */
 	private ID3v1Tag id3v1tag = null;
 
+	/**
+	 * Length of an ID3v1 tag, always stored at the very end of the file
+	 */
+	private static final int ID3V1_TAG_LENGTH = 128;
+
+	/**
+	 * Number of times the file was opened and read calls made against it whilst reading
+	 */
+	private int fileOpenCount;
+	private int fileReadCount;
+
+	/**
+	 * How the tag was written by the last save
+	 */
+	private WriteStrategy writeStrategy;
+
 	/**
 	 * Creates a new empty MP3File datatype that is not associated with a specific file.
 	 */
@@ -138,24 +159,33 @@ public class MP3File extends AudioFile {
 
 	/**
 	 * Read v1 tag
+	 * <p/>
+	 * The end of the file is only read once and then checked for both v11 and v1 tags
 	 * 
-	 * @param file
-	 * @param newFile
+	 * @param context
 	 * @param loadOptions
 	 * @throws IOException
 	 */
-	private void readV1Tag(final Path file, final RandomAccessFile newFile, final int loadOptions) throws IOException {
+	private void readV1Tag(final ReadContext context, final int loadOptions) throws IOException {
 		if ((loadOptions & LOAD_IDV1TAG) != 0) {
 			logger.finer("Attempting to read id3v1tags");
+			if (context.size() < ID3V1_TAG_LENGTH) {
+				logger.config("No id3v1 tag found");
+				return;
+			}
+			final String filename = context.getFile().getFileName().toString();
+			final ByteBuffer bb = ByteBuffer.allocate(ID3V1_TAG_LENGTH);
+			context.readFully(bb, context.size() - ID3V1_TAG_LENGTH);
+			bb.flip();
 			try {
-				id3v1tag = new ID3v11Tag(newFile, file.getFileName().toString());
+				id3v1tag = new ID3v11Tag(bb, filename);
 			} catch (final TagNotFoundException ex) {
 				logger.config("No ids3v11 tag found");
 			}
 
 			try {
 				if (id3v1tag == null)
-					id3v1tag = new ID3v1Tag(newFile, file.getFileName().toString());
+					id3v1tag = new ID3v1Tag(bb, filename);
 			} catch (final TagNotFoundException ex) {
 				logger.config("No id3v1 tag found");
 			}
@@ -167,61 +197,57 @@ public class MP3File extends AudioFile {
 	 * <p/>
 	 * TODO:shouldn't we be handing TagExceptions:when will they be thrown
 	 * 
-	 * @param file
+	 * @param context
 	 * @param loadOptions
+	 * @param tagSize
+	 *            size of the tag, only used if the audio header has not been read
+	 * @param readOptions
 	 * @throws IOException
 	 * @throws TagException
 	 */
-	private void readV2Tag(final Path file, final int loadOptions) throws IOException, TagException {
+	private void readV2Tag(final ReadContext context, final int loadOptions, final long tagSize, final ReadOptions readOptions) throws IOException, TagException {
+		if ((loadOptions & LOAD_IDV2TAG) == 0)
+			return;
+
+		final Path file = context.getFile();
 		// We know where the actual Audio starts so load all the file from start to that point into
-		// a buffer then we can read the IDv2 information without needing any more File I/O
-		final int startByte = (int) ((MP3AudioHeader) audioHeader).getMp3StartByte();
+		// a buffer then we can read the IDv2 information without needing any more File I/O, if the audio header
+		// was not read just load the tag
+		final int startByte = (int) (audioHeader != null ? ((MP3AudioHeader) audioHeader).getMp3StartByte() : tagSize);
 		if (startByte >= AbstractID3v2Tag.TAG_HEADER_LENGTH) {
 			logger.finer("Attempting to read id3v2tags");
-			FileInputStream fis = null;
-			FileChannel fc = null;
 			ByteBuffer bb;
 			try {
-				fis = new FileInputStream(file.toFile());
-				fc = fis.getChannel();
-				bb = fc.map(FileChannel.MapMode.READ_ONLY, 0, startByte);
+				bb = context.map(0, startByte);
 			}
 			// #JAUDIOTAGGER-419:If reading networked file map can fail so just copy bytes instead
 			catch (final IOException ioe) {
 				bb = ByteBuffer.allocate(startByte);
-				fc.read(bb, 0);
-			} finally {
-				if (fc != null)
-					fc.close();
-
-				if (fis != null)
-					fis.close();
+				context.readFully(bb, 0);
 			}
 
 			try {
 				bb.rewind();
 
-				if ((loadOptions & LOAD_IDV2TAG) != 0) {
-					logger.config("Attempting to read id3v2tags");
-					try {
-						this.setID3v2Tag(new ID3v24Tag(bb, file.getFileName().toString()));
-					} catch (final TagNotFoundException ex) {
-						logger.config("No id3v24 tag found");
-					}
-
-					try {
-						if (id3v2tag == null)
-							this.setID3v2Tag(new ID3v23Tag(bb, file.getFileName().toString()));
-					} catch (final TagNotFoundException ex) {
-						logger.config("No id3v23 tag found");
-					}
-
-					try {
-						if (id3v2tag == null)
-							this.setID3v2Tag(new ID3v22Tag(bb, file.getFileName().toString()));
-					} catch (final TagNotFoundException ex) {
-						logger.config("No id3v22 tag found");
-					}
+				logger.config("Attempting to read id3v2tags");
+				try {
+					this.setID3v2Tag(new ID3v24Tag(bb, file.getFileName().toString(), readOptions));
+				} catch (final TagNotFoundException ex) {
+					logger.config("No id3v24 tag found");
+				}
+
+				try {
+					if (id3v2tag == null)
+						this.setID3v2Tag(new ID3v23Tag(bb, file.getFileName().toString(), readOptions));
+				} catch (final TagNotFoundException ex) {
+					logger.config("No id3v23 tag found");
+				}
+
+				try {
+					if (id3v2tag == null)
+						this.setID3v2Tag(new ID3v22Tag(bb, file.getFileName().toString(), readOptions));
+				} catch (final TagNotFoundException ex) {
+					logger.config("No id3v22 tag found");
 				}
 			} finally {
 				// Workaround for 4724038 on Windows
@@ -255,13 +281,14 @@ public class MP3File extends AudioFile {
 	 * Regets the audio header starting from start of file, and write appropriate logging to indicate potential problem
 	 * to user.
 	 * 
+	 * @param context
 	 * @param startByte
 	 * @param currentHeader
 	 * @return
 	 * @throws IOException
 	 * @throws InvalidAudioFrameException
 	 */
-	private MP3AudioHeader checkAudioStart(final long startByte, final MP3AudioHeader currentHeader) throws IOException, InvalidAudioFrameException {
+	private MP3AudioHeader checkAudioStart(final ReadContext context, final long startByte, final MP3AudioHeader currentHeader) throws IOException, InvalidAudioFrameException {
 		MP3AudioHeader newAudioHeader;
 		MP3AudioHeader nextAudioHeader;
 
@@ -269,11 +296,12 @@ public class MP3File extends AudioFile {
 
 		// because we cant agree on start location we reread the audioheader from the start of the file, at least
 		// this way we cant overwrite the audio although we might overwrite part of the tag if we write this file
-		// back later
-		newAudioHeader = new MP3AudioHeader(file, 0);
+		// back later. There is no need to search past the header already found.
+		newAudioHeader = new MP3AudioHeader();
+		final boolean isFoundFromStart = newAudioHeader.seek(context, 0, currentHeader.getMp3StartByte());
 		logger.config("Checking from start:" + newAudioHeader);
 
-		if (currentHeader.getMp3StartByte() == newAudioHeader.getMp3StartByte()) {
+		if (!isFoundFromStart || currentHeader.getMp3StartByte() == newAudioHeader.getMp3StartByte()) {
 			// Although the tag size appears to be incorrect at least we have found the same location for the start
 			// of audio whether we start searching from start of file or at the end of the alleged of file so no real
 			// problem
@@ -285,13 +313,19 @@ public class MP3File extends AudioFile {
 
 			// Frame counts don't match so either currentHeader or newAudioHeader isn't really audio header
 			if (currentHeader.getNumberOfFrames() != newAudioHeader.getNumberOfFrames()) {
-				// Skip to the next header (header 2, counting from start of file)
-				nextAudioHeader = new MP3AudioHeader(file, newAudioHeader.getMp3StartByte() + newAudioHeader.mp3FrameHeader.getFrameLength());
+				// Skip to the next header (header 2, counting from start of file), only of interest if it is no later
+				// than the header found originally
+				nextAudioHeader = new MP3AudioHeader();
+				final boolean isNextFound = nextAudioHeader.seek(context, newAudioHeader.getMp3StartByte() + newAudioHeader.mp3FrameHeader.getFrameLength(), currentHeader.getMp3StartByte());
 				logger.config("Checking next:" + nextAudioHeader);
 
+				if (!isNextFound) {
+					logger.warning((ErrorMessage.MP3_RECALCULATED_START_OF_MP3_AUDIO.getMsg(file, Hex.asHex(newAudioHeader.getMp3StartByte()))));
+					return newAudioHeader;
+				}
 				// It matches the header we found when doing the original search from after the ID3Tag therefore it
 				// seems that newAudioHeader was a false match and the original header was correct
-				if (nextAudioHeader.getMp3StartByte() == currentHeader.getMp3StartByte()) {
+				else if (nextAudioHeader.getMp3StartByte() == currentHeader.getMp3StartByte()) {
 					logger.warning((ErrorMessage.MP3_START_OF_AUDIO_CONFIRMED.getMsg(file, Hex.asHex(currentHeader.getMp3StartByte()))));
 					return currentHeader;
 				}
@@ -333,29 +367,59 @@ public class MP3File extends AudioFile {
 	 * @throws org.jaudiotagger.audio.exceptions.InvalidAudioFrameException
 	 */
 	public MP3File(final Path file, final int loadOptions, final boolean readOnly) throws IOException, TagException, ReadOnlyFileException, InvalidAudioFrameException {
-		RandomAccessFile newFile = null;
+		this(file, loadOptions, readOnly, ReadOptions.ALL);
+	}
+
+	/**
+	 * Creates a new MP3File dataType and parse the parts of the file required by readOptions, the audio header is only
+	 * searched for if required and only the required fields of the ID3v2 tag are kept.
+	 * 
+	 * @param file
+	 *            MP3 file
+	 * @param loadOptions
+	 *            decide what tags to load
+	 * @param readOnly
+	 *            causes the files to be opened readonly
+	 * @param readOptions
+	 *            what to read
+	 * @throws IOException
+	 *             on any I/O error
+	 * @throws TagException
+	 *             on any exception generated by this library.
+	 * @throws org.jaudiotagger.audio.exceptions.ReadOnlyFileException
+	 * @throws org.jaudiotagger.audio.exceptions.InvalidAudioFrameException
+	 */
+	public MP3File(final Path file, final int loadOptions, final boolean readOnly, final ReadOptions readOptions) throws IOException, TagException, ReadOnlyFileException, InvalidAudioFrameException {
+		ReadContext context = null;
 		try {
 			this.file = file;
 
-			// Check File accessibility
-			newFile = checkFilePermissions(file, readOnly);
+			// Check File accessibility, the file is then only opened once, all subsequent reads share it
+			checkFileAccess(file, readOnly);
+			context = new ReadContext(file, readOnly ? "r" : "rw");
 
 			// Read ID3v2 tag size (if tag exists) to allow audioHeader parsing to skip over tag
-			final long startByte = AbstractID3v2Tag.getV2TagSizeIfExists(file);
+			final long startByte = AbstractID3v2Tag.getV2TagSizeIfExists(context);
 
-			// If exception reading Mpeg then we should give up no point continuing
-			audioHeader = new MP3AudioHeader(file, startByte);
+			this.readOptions = readOptions;
+			if (readOptions.isAudioHeaderRequired()) {
+				// If exception reading Mpeg then we should give up no point continuing
+				audioHeader = new MP3AudioHeader(context, startByte);
 
-			if (startByte != ((MP3AudioHeader) audioHeader).getMp3StartByte()) {
-				logger.config("First header found after tag:" + audioHeader);
-				audioHeader = checkAudioStart(startByte, (MP3AudioHeader) audioHeader);
+				if (startByte != ((MP3AudioHeader) audioHeader).getMp3StartByte()) {
+					logger.config("First header found after tag:" + audioHeader);
+					audioHeader = checkAudioStart(context, startByte, (MP3AudioHeader) audioHeader);
+				}
+
+				if (TagOptionSingleton.getInstance().isMp3ExactDuration())
+					((MP3AudioHeader) audioHeader).setFrameIndex(new MP3FrameWalker().walk(context, (MP3AudioHeader) audioHeader));
 			}
 
 			// Read v1 tags (if any)
-			readV1Tag(file, newFile, loadOptions);
+			readV1Tag(context, loadOptions);
 
 			// Read v2 tags (if any)
-			readV2Tag(file, loadOptions);
+			readV2Tag(context, loadOptions, startByte, readOptions);
 
 			// If we have a v2 tag use that, if we dont but have v1 tag use that
 			// otherwise use nothing
@@ -369,11 +433,37 @@ public class MP3File extends AudioFile {
 			// Read Lyrics 3
 			// readLyrics3Tag(File file,RandomAccessFile newFile,int loadOptions)
 		} finally {
-			if (newFile != null)
-				newFile.close();
+			if (context != null) {
+				fileOpenCount = context.getOpenCount();
+				fileReadCount = context.getReadCount();
+				logger.config("Read:" + context);
+				context.close();
+			}
 		}
 	}
 
+	/**
+	 * @return the number of times the file was opened when it was read
+	 */
+	public int getFileOpenCount() {
+		return fileOpenCount;
+	}
+
+	/**
+	 * @return the number of read calls made against the file when it was read
+	 */
+	public int getFileReadCount() {
+		return fileReadCount;
+	}
+
+	/**
+	 * @return how the tag was written by the last save, the ID3v2 tag is written in place unless the audio had to be
+	 *         moved to make room for it, or null if not saved yet
+	 */
+	public WriteStrategy getWriteStrategy() {
+		return writeStrategy;
+	}
+
 	/**
 	 * Used by tags when writing to calculate the location of the music file
 	 * 
@@ -383,20 +473,19 @@ public class MP3File extends AudioFile {
 	 * @throws org.jaudiotagger.audio.exceptions.InvalidAudioFrameException
 	 */
 	public long getMP3StartByte(final Path file) throws InvalidAudioFrameException, IOException {
+		final ReadContext context = new ReadContext(file);
 		try {
 			// Read ID3v2 tag size (if tag exists) to allow audio header parsing to skip over tag
-			final long startByte = AbstractID3v2Tag.getV2TagSizeIfExists(file);
+			final long startByte = AbstractID3v2Tag.getV2TagSizeIfExists(context);
 
-			MP3AudioHeader audioHeader = new MP3AudioHeader(file, startByte);
+			MP3AudioHeader audioHeader = new MP3AudioHeader(context, startByte);
 			if (startByte != audioHeader.getMp3StartByte()) {
 				logger.config("First header found after tag:" + audioHeader);
-				audioHeader = checkAudioStart(startByte, audioHeader);
+				audioHeader = checkAudioStart(context, startByte, audioHeader);
 			}
 			return audioHeader.getMp3StartByte();
-		} catch (final InvalidAudioFrameException iafe) {
-			throw iafe;
-		} catch (final IOException ioe) {
-			throw ioe;
+		} finally {
+			context.close();
 		}
 	}
 
@@ -615,8 +704,9 @@ public class MP3File extends AudioFile {
 	 * @throws IOException
 	 */
 	public void delete(final AbstractTag mp3tag) throws FileNotFoundException, IOException {
-		final RandomAccessFile raf = new RandomAccessFile(this.file.toFile(), "rws");
+		final RandomAccessFile raf = Utils.openForWriting(this.file);
 		mp3tag.delete(raf);
+		Utils.syncBeforeClose(raf.getChannel());
 		raf.close();
 		if (mp3tag instanceof ID3v1Tag)
 			id3v1tag = null;
@@ -675,6 +765,11 @@ public class MP3File extends AudioFile {
 			logger.severe(ErrorMessage.GENERAL_WRITE_FAILED_BECAUSE_FILE_IS_TOO_SMALL.getMsg(file.getName()));
 			throw new IOException(ErrorMessage.GENERAL_WRITE_FAILED_BECAUSE_FILE_IS_TOO_SMALL.getMsg(file.getName()));
 		}
+
+		if (!readOptions.isComplete()) {
+			logger.severe(ErrorMessage.GENERAL_WRITE_FAILED_BECAUSE.getMsg(file.getName(), "it was only partially read"));
+			throw new IOException(ErrorMessage.GENERAL_WRITE_FAILED_BECAUSE.getMsg(file.getName(), "it was only partially read"));
+		}
 	}
 
 	/**
@@ -697,21 +792,27 @@ public class MP3File extends AudioFile {
 		precheck(file);
 
 		RandomAccessFile rfile = null;
+		WriteStrategy strategy = WriteStrategy.IN_PLACE;
 		try {
 			// ID3v2 Tag
 			if (TagOptionSingleton.getInstance().isId3v2Save())
 				if (id3v2tag == null) {
-					rfile = new RandomAccessFile(file.toFile(), "rws");
+					rfile = Utils.openForWriting(file);
 					(new ID3v24Tag()).delete(rfile);
 					(new ID3v23Tag()).delete(rfile);
 					(new ID3v22Tag()).delete(rfile);
 					logger.config("Deleting ID3v2 tag:" + file.getFileName());
+					Utils.syncBeforeClose(rfile.getChannel());
 					rfile.close();
 				} else {
 					logger.config("Writing ID3v2 tag:" + file.getFileName());
+					// The file only grows if the audio was moved to make room for the tag
+					final long sizeBeforeWrite = Files.size(file);
 					id3v2tag.write(file, ((MP3AudioHeader) this.getAudioHeader()).getMp3StartByte());
+					if (Files.size(file) != sizeBeforeWrite)
+						strategy = WriteStrategy.TEMP_FILE;
 				}
-			rfile = new RandomAccessFile(file.toFile(), "rws");
+			rfile = Utils.openForWriting(file);
 
 			// Lyrics 3 Tag
 			if (TagOptionSingleton.getInstance().isLyrics3Save())
@@ -728,6 +829,7 @@ public class MP3File extends AudioFile {
 					id3v1tag.write(rfile);
 				}
 			}
+			Utils.syncBeforeClose(rfile.getChannel());
 		} catch (final FileNotFoundException ex) {
 			logger.log(Level.SEVERE, ErrorMessage.GENERAL_WRITE_FAILED_BECAUSE_FILE_NOT_FOUND.getMsg(file.getFileName()), ex);
 			throw ex;
@@ -741,6 +843,7 @@ public class MP3File extends AudioFile {
 			if (rfile != null)
 				rfile.close();
 		}
+		writeStrategy = strategy;
 	}
 
 	/**
@@ -5,6 +5,7 @@ import java.io.RandomAccessFile;
 import java.nio.file.Path;
 
 import org.jaudiotagger.audio.AudioFile;
+import org.jaudiotagger.audio.ReadOptions;
 import org.jaudiotagger.audio.exceptions.CannotReadException;
 import org.jaudiotagger.audio.exceptions.InvalidAudioFrameException;
 import org.jaudiotagger.audio.exceptions.ReadOnlyFileException;
@@ -34,8 +35,9 @@ public class MP3FileReader extends AudioFileReader {
 	 */
 	// Override because we read mp3s differently to the entagged code
 	@Override
-	public AudioFile read(final Path f) throws IOException, TagException, ReadOnlyFileException, InvalidAudioFrameException {
-		final MP3File mp3File = new MP3File(f, MP3File.LOAD_IDV1TAG | MP3File.LOAD_IDV2TAG, true);
+	public AudioFile read(final Path f, final ReadOptions options) throws IOException, TagException, ReadOnlyFileException, InvalidAudioFrameException {
+		final int loadOptions = options.isTagRequired() ? MP3File.LOAD_IDV1TAG | MP3File.LOAD_IDV2TAG : 0;
+		final MP3File mp3File = new MP3File(f, loadOptions, true, options);
 		return mp3File;
 	}
 
@@ -0,0 +1,131 @@
+package org.jaudiotagger.audio.mp3;
+
+/**
+ * The result of walking every frame of an MP3 stream with {@link MP3FrameWalker}
+ * <p/>
+ * Holds the exact frame and sample counts, and optionally a seek index holding the location of every Nth audio frame.
+ * The Xing, Info or VBRI frame at the start of the stream is not an audio frame so is not counted or indexed.
+ */
+public class MP3FrameIndex {
+	private final long frameCount;
+	private final long sampleCount;
+	private final int samplingRate;
+	private final long audioStartByte;
+	private final long audioEndByte;
+	private final boolean variableBitRate;
+	private final int framesPerIndexEntry;
+	private final long[] offsets;
+
+	MP3FrameIndex(final long frameCount, final long sampleCount, final int samplingRate, final long audioStartByte, final long audioEndByte, final boolean variableBitRate, final int framesPerIndexEntry, final long[] offsets) {
+		this.frameCount = frameCount;
+		this.sampleCount = sampleCount;
+		this.samplingRate = samplingRate;
+		this.audioStartByte = audioStartByte;
+		this.audioEndByte = audioEndByte;
+		this.variableBitRate = variableBitRate;
+		this.framesPerIndexEntry = framesPerIndexEntry;
+		this.offsets = offsets;
+	}
+
+	/**
+	 * @return the number of audio frames
+	 */
+	public long getFrameCount() {
+		return frameCount;
+	}
+
+	/**
+	 * @return the number of samples (per channel) in all the audio frames
+	 */
+	public long getSampleCount() {
+		return sampleCount;
+	}
+
+	/**
+	 * @return sampling rate in Hz
+	 */
+	public int getSamplingRate() {
+		return samplingRate;
+	}
+
+	/**
+	 * @return the exact length of the audio in seconds
+	 */
+	public double getPreciseTrackLength() {
+		return samplingRate == 0 ? 0 : sampleCount / (double) samplingRate;
+	}
+
+	/**
+	 * @return location of the first audio frame
+	 */
+	public long getAudioStartByte() {
+		return audioStartByte;
+	}
+
+	/**
+	 * @return location of the end of the last audio frame
+	 */
+	public long getAudioEndByte() {
+		return audioEndByte;
+	}
+
+	/**
+	 * @return size of the audio frames in bytes
+	 */
+	public long getAudioSize() {
+		return audioEndByte - audioStartByte;
+	}
+
+	/**
+	 * @return true if the frames do not all have the same bitrate
+	 */
+	public boolean isVariableBitRate() {
+		return variableBitRate;
+	}
+
+	/**
+	 * @return the number of frames between entries in the seek index, or 0 if there is no index
+	 */
+	public int getFramesPerIndexEntry() {
+		return framesPerIndexEntry;
+	}
+
+	/**
+	 * @return the number of entries in the seek index
+	 */
+	public int getIndexSize() {
+		return offsets.length;
+	}
+
+	/**
+	 * Find where to start reading to get to a frame, this is the location of the nearest indexed frame at or before
+	 * the frame, so up to {@link #getFramesPerIndexEntry()} - 1 frames have to be skipped to reach it.
+	 *
+	 * @param frame
+	 *            audio frame number starting from 0
+	 * @return location of the indexed frame at or before the frame
+	 * @throws IllegalStateException
+	 *             if no index was built
+	 */
+	public long getSeekOffset(final long frame) {
+		if (offsets.length == 0)
+			throw new IllegalStateException("No seek index was built");
+		final long entry = Math.max(0, Math.min(frame / framesPerIndexEntry, offsets.length - 1));
+		return offsets[(int) entry];
+	}
+
+	/**
+	 * @param seconds
+	 * @return location of the indexed frame at or before the time
+	 */
+	public long getSeekOffsetForTime(final double seconds) {
+		if (sampleCount == 0)
+			return getSeekOffset(0);
+		return getSeekOffset((long) (seconds * samplingRate * frameCount / sampleCount));
+	}
+
+	@Override
+	public String toString() {
+		return "frames:" + frameCount + ":samples:" + sampleCount + ":samplingRate:" + samplingRate + ":audio:" + audioStartByte + "-" + audioEndByte + ":vbr:" + variableBitRate + ":indexEntries:" + offsets.length;
+	}
+}
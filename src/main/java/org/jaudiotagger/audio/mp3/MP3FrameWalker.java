@@ -0,0 +1,185 @@
+package org.jaudiotagger.audio.mp3;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.CancellationException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.jaudiotagger.audio.exceptions.InvalidAudioFrameException;
+import org.jaudiotagger.audio.generic.ReadContext;
+
+/**
+ * Walks every frame of an MP3 stream to count the frames exactly, only the four byte header of each frame is read and
+ * the rest of the frame is jumped over.
+ * <p/>
+ * The estimate made by {@link MP3AudioHeader} from the Xing or VBRI frame, or from the size of the first frame when
+ * neither exists, is wrong for variable bitrate files without a Xing frame. Walking the frames gives the exact frame
+ * count and duration, and optionally a seek index holding the location of every Nth frame.
+ * <p/>
+ * The walk starts from the first frame found by the audio header and stops at the first bytes that are not a frame
+ * of the same stream, such as an ID3v1 tag. A walk can be cancelled from another thread with {@link #cancel()}.
+ */
+public class MP3FrameWalker {
+	// Logger Object
+	public static Logger logger = Logger.getLogger("org.jaudiotagger.audio.mp3");
+
+	private static final int BUFFER_SIZE = 65536;
+
+	/**
+	 * Frame lengths and samples indexed by the version, layer, bitrate, sampling rate and padding bits of a header,
+	 * zero if the bits are not valid
+	 */
+	private static final int[] FRAME_LENGTHS = new int[1 << 11];
+	private static final int[] SAMPLES = new int[1 << 11];
+	private static final int[] SAMPLING_RATES = new int[1 << 11];
+
+	/**
+	 * Bits of the key identifying the stream, version layer and sampling rate
+	 */
+	private static final int STREAM_MASK = 0x780 | 0x06;
+
+	/**
+	 * Bits of the key holding the bitrate
+	 */
+	private static final int BITRATE_MASK = 0x78;
+
+	static {
+		for (int key = 0; key < FRAME_LENGTHS.length; key++)
+			try {
+				final byte[] header = { (byte) 0xFF, (byte) (0xE1 | ((key >> 7) << 1)), (byte) ((key & 0x7F) << 1), 0 };
+				final MPEGFrameHeader frameHeader = MPEGFrameHeader.parseMPEGHeader(ByteBuffer.wrap(header));
+				FRAME_LENGTHS[key] = frameHeader.getFrameLength();
+				SAMPLES[key] = frameHeader.getNoOfSamples();
+				SAMPLING_RATES[key] = frameHeader.getSamplingRate();
+			} catch (final InvalidAudioFrameException e) {
+				// Reserved values, not a frame header
+			}
+	}
+
+	private final int framesPerIndexEntry;
+	private volatile boolean cancelled;
+
+	/**
+	 * Walker that does not build a seek index
+	 */
+	public MP3FrameWalker() {
+		this(0);
+	}
+
+	/**
+	 * @param framesPerIndexEntry
+	 *            the location of every Nth frame is held in the seek index, or 0 for no index
+	 */
+	public MP3FrameWalker(final int framesPerIndexEntry) {
+		if (framesPerIndexEntry < 0)
+			throw new IllegalArgumentException("Frames per index entry cannot be negative:" + framesPerIndexEntry);
+		this.framesPerIndexEntry = framesPerIndexEntry;
+	}
+
+	/**
+	 * Stop a walk in progress, the walk throws {@link CancellationException}
+	 */
+	public void cancel() {
+		cancelled = true;
+	}
+
+	/**
+	 * @param file
+	 * @param audioHeader
+	 *            header found for the file
+	 * @return the frame index
+	 * @throws IOException
+	 */
+	public MP3FrameIndex walk(final Path file, final MP3AudioHeader audioHeader) throws IOException {
+		final ReadContext context = new ReadContext(file);
+		try {
+			return walk(context, audioHeader);
+		} finally {
+			context.close();
+		}
+	}
+
+	/**
+	 * @param context
+	 *            the file being read
+	 * @param audioHeader
+	 *            header found for the file
+	 * @return the frame index
+	 * @throws IOException
+	 * @throws CancellationException
+	 *             if the walk was cancelled
+	 */
+	public MP3FrameIndex walk(final ReadContext context, final MP3AudioHeader audioHeader) throws IOException {
+		final ByteBuffer bb = ByteBuffer.allocate(BUFFER_SIZE);
+		final byte[] data = bb.array();
+		long bufferStart = audioHeader.getMp3StartByte();
+		int limit = 0;
+
+		long offset = audioHeader.getMp3StartByte();
+		long[] offsets = new long[framesPerIndexEntry == 0 ? 0 : 64];
+		int indexSize = 0;
+		long frameCount = 0;
+		long sampleCount = 0;
+		int streamKey = -1;
+		int samplingRate = 0;
+		int bitrateKey = -1;
+		boolean variableBitRate = false;
+		long audioStartByte = offset;
+
+		// The Xing, Info or VBRI frame is not audio
+		final boolean isInfoFrame = audioHeader.mp3XingFrame != null || audioHeader.mp3VbriFrame != null;
+
+		while (true) {
+			if (cancelled)
+				throw new CancellationException("Walk of " + context.getFile() + " cancelled at:" + offset);
+
+			if (offset + MPEGFrameHeader.HEADER_SIZE > bufferStart + limit) {
+				bufferStart = offset;
+				bb.clear();
+				limit = context.readFully(bb, bufferStart);
+				if (limit < MPEGFrameHeader.HEADER_SIZE)
+					break;
+			}
+
+			final int position = (int) (offset - bufferStart);
+			if (data[position] != (byte) MPEGFrameHeader.SYNC_BYTE1 || (data[position + 1] & MPEGFrameHeader.SYNC_BYTE2) != MPEGFrameHeader.SYNC_BYTE2)
+				break;
+			final int key = ((data[position + 1] & 0x1E) << 6) | ((data[position + 2] & 0xFE) >> 1);
+			final int frameLength = FRAME_LENGTHS[key];
+			if (frameLength == 0)
+				break;
+			if (streamKey == -1) {
+				streamKey = key & STREAM_MASK;
+				samplingRate = SAMPLING_RATES[key];
+				if (isInfoFrame) {
+					offset += frameLength;
+					audioStartByte = offset;
+					continue;
+				}
+			} else if ((key & STREAM_MASK) != streamKey)
+				break;
+
+			if (bitrateKey == -1)
+				bitrateKey = key & BITRATE_MASK;
+			else if ((key & BITRATE_MASK) != bitrateKey)
+				variableBitRate = true;
+
+			if (framesPerIndexEntry > 0 && frameCount % framesPerIndexEntry == 0) {
+				if (indexSize == offsets.length)
+					offsets = Arrays.copyOf(offsets, offsets.length * 2);
+				offsets[indexSize++] = offset;
+			}
+			frameCount++;
+			sampleCount += SAMPLES[key];
+			offset += frameLength;
+		}
+
+		final long audioEndByte = Math.min(offset, context.size());
+		if (logger.isLoggable(Level.CONFIG))
+			logger.config("Walked " + frameCount + " frames of " + context.getFile() + " ending at:" + audioEndByte);
+		return new MP3FrameIndex(frameCount, sampleCount, samplingRate, audioStartByte, audioEndByte, variableBitRate, framesPerIndexEntry, Arrays.copyOf(offsets, indexSize));
+	}
+}
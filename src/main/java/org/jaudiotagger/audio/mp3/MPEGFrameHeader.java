@@ -40,8 +40,6 @@ public class MPEGFrameHeader {
 	public static final int SYNC_BYTE2 = 0xE0;
 	public static final int SYNC_BIT_ANDSAMPING_BYTE3 = 0xFC;
 
-	private static final byte[] header = new byte[HEADER_SIZE];
-
 	/**
 	 * Constants for MPEG Version
 	 */
@@ -649,10 +647,8 @@ public class MPEGFrameHeader {
 				return (LAYER_II_FRAME_SIZE_COEFFICIENT) * (getBitRate() * SCALE_BY_THOUSAND) / getSamplingRate() + getPaddingLength() * LAYER_II_SLOT_SIZE;
 
 			case LAYER_III:
-				if (this.getChannelMode() == MODE_MONO)
-					return (LAYER_III_FRAME_SIZE_COEFFICIENT / 2) * (getBitRate() * SCALE_BY_THOUSAND) / getSamplingRate() + getPaddingLength() * LAYER_III_SLOT_SIZE;
-				else
-					return (LAYER_III_FRAME_SIZE_COEFFICIENT) * (getBitRate() * SCALE_BY_THOUSAND) / getSamplingRate() + getPaddingLength() * LAYER_III_SLOT_SIZE;
+				// Half the samples of MPEG-1 so half the coefficient, whatever the channel mode
+				return (LAYER_III_FRAME_SIZE_COEFFICIENT / 2) * (getBitRate() * SCALE_BY_THOUSAND) / getSamplingRate() + getPaddingLength() * LAYER_III_SLOT_SIZE;
 
 			default:
 				throw new RuntimeException("Mp3 Unknown Layer:" + layer);
@@ -772,6 +768,8 @@ public class MPEGFrameHeader {
 	 *             if there is no header at this point
 	 */
 	public static MPEGFrameHeader parseMPEGHeader(final ByteBuffer bb) throws InvalidAudioFrameException {
+		// Each header keeps its own copy of the bytes so that headers can be parsed concurrently
+		final byte[] header = new byte[HEADER_SIZE];
 		final int position = bb.position();
 		bb.get(header, 0, HEADER_SIZE);
 		bb.position(position);
@@ -791,6 +789,23 @@ public class MPEGFrameHeader {
 		return (((bb.get(position) & SYNC_BYTE1) == SYNC_BYTE1) && ((bb.get(position + 1) & SYNC_BYTE2) == SYNC_BYTE2) && ((bb.get(position + 2) & SYNC_BIT_ANDSAMPING_BYTE3) != SYNC_BIT_ANDSAMPING_BYTE3));
 	}
 
+	/**
+	 * Check the bytes at offset form a frame header that can be parsed, without creating the header. Used when
+	 * searching for the first frame to reject most false syncs cheaply.
+	 * 
+	 * @param b
+	 * @param offset
+	 * @return true if there is a valid frame header at offset
+	 */
+	public static boolean isValidHeader(final byte[] b, final int offset) {
+		if ((b[offset] & SYNC_BYTE1) != SYNC_BYTE1 || (b[offset + 1] & SYNC_BYTE2) != SYNC_BYTE2 || (b[offset + 2] & SYNC_BIT_ANDSAMPING_BYTE3) == SYNC_BIT_ANDSAMPING_BYTE3)
+			return false;
+		final int version = (b[offset + 1] & MASK_MP3_VERSION) >> 3;
+		final Map<Integer, Integer> samplingRateMapForVersion = samplingRateMap.get(version);
+		return samplingRateMapForVersion != null && samplingRateMapForVersion.containsKey((b[offset + 2] & MASK_MP3_FREQUENCY) >>> 2) && mpegLayerMap.containsKey((b[offset + 1] & MASK_MP3_LAYER) >>> 1)
+				&& bitrateMap.containsKey(b[offset + 2] & MASK_MP3_BITRATE | b[offset + 1] & MASK_MP3_ID | b[offset + 1] & MASK_MP3_LAYER) && emphasisMap.containsKey(b[offset + 3] & MASK_MP3_EMPHASIS);
+	}
+
 	/**
 	 * @return a string represntation
 	 */
@@ -3,19 +3,16 @@ package org.jaudiotagger.audio.mp4;
 import java.io.IOException;
 import java.io.RandomAccessFile;
 import java.nio.ByteBuffer;
-import java.nio.channels.FileChannel;
 import java.util.ArrayList;
 import java.util.Enumeration;
 import java.util.List;
 import java.util.logging.Logger;
 
 import org.jaudiotagger.audio.exceptions.CannotReadException;
-import org.jaudiotagger.audio.exceptions.NullBoxIdException;
+import org.jaudiotagger.audio.generic.ReadContext;
 import org.jaudiotagger.audio.mp4.atom.Mp4BoxHeader;
-import org.jaudiotagger.audio.mp4.atom.Mp4MetaBox;
 import org.jaudiotagger.audio.mp4.atom.Mp4StcoBox;
 import org.jaudiotagger.audio.mp4.atom.NullPadding;
-import org.jaudiotagger.logging.ErrorMessage;
 import javax.swing.tree.DefaultMutableTreeNode;
 import javax.swing.tree.DefaultTreeModel;
 
@@ -26,12 +23,9 @@ import javax.swing.tree.DefaultTreeModel;
  * it would be impossible to create a complete tree for any file without understanding all the nodes because some atoms
  * such as meta contain data and children and therefore need to be specially preprocessed)
  * <p/>
- * This class is currently only used when writing tags because it better handles the difficulties of mdat and free atoms
- * being optional/multiple places then the older sequential method. It is expected this class will eventually be used
- * when reading tags as well.
- * <p/>
- * Uses a TreeModel for the tree, with convenience methods holding onto references to most common nodes so they can be
- * used without having to traverse the tree again.
+ * The boxes are found by {@link Mp4BoxIndex}, which is what the readers and writer use, this class presents the index
+ * as a TreeModel with convenience methods holding onto references to most common nodes so they can be used without
+ * having to traverse the tree again.
  */
 public class Mp4AtomTree {
 	private DefaultMutableTreeNode rootNode;
@@ -49,8 +43,7 @@ public class Mp4AtomTree {
 	private final List<DefaultMutableTreeNode> mdatNodes = new ArrayList<DefaultMutableTreeNode>();
 	private final List<DefaultMutableTreeNode> trakNodes = new ArrayList<DefaultMutableTreeNode>();
 
-	private Mp4StcoBox stco;
-	private ByteBuffer moovBuffer; // Contains all the data under moov
+	private Mp4BoxIndex boxIndex;
 	private Mp4BoxHeader moovHeader;
 
 	// Logger Object
@@ -81,6 +74,18 @@ public class Mp4AtomTree {
 		buildTree(raf, closeOnExit);
 	}
 
+	/**
+	 * Create Atom Tree for reading the audio header and tag, the data under moov is read through the context so it
+	 * is counted as a read of the file. The file is not closed.
+	 * 
+	 * @param context
+	 * @throws IOException
+	 * @throws CannotReadException
+	 */
+	public Mp4AtomTree(final ReadContext context) throws IOException, CannotReadException {
+		buildTree(new Mp4BoxIndex(context));
+	}
+
 	/**
 	 * Build a tree of the atoms in the file
 	 * 
@@ -92,95 +97,57 @@ public class Mp4AtomTree {
 	 * @throws org.jaudiotagger.audio.exceptions.CannotReadException
 	 */
 	public DefaultTreeModel buildTree(final RandomAccessFile raf, final boolean closeExit) throws IOException, CannotReadException {
-		FileChannel fc = null;
 		try {
-			fc = raf.getChannel();
-
-			// make sure at start of file
-			fc.position(0);
-
-			// Build up map of nodes
-			rootNode = new DefaultMutableTreeNode();
-			dataTree = new DefaultTreeModel(rootNode);
-
-			// Iterate though all the top level Nodes
-			final ByteBuffer headerBuffer = ByteBuffer.allocate(Mp4BoxHeader.HEADER_LENGTH);
-			while (fc.position() < fc.size()) {
-				final Mp4BoxHeader boxHeader = new Mp4BoxHeader();
-				headerBuffer.clear();
-				fc.read(headerBuffer);
-				headerBuffer.rewind();
-
-				try {
-					boxHeader.update(headerBuffer);
-				} catch (final NullBoxIdException ne) {
-					// If we only get this error after all the expected data has been found we allow it
-					if (moovNode != null & mdatNode != null) {
-						final NullPadding np = new NullPadding(fc.position() - Mp4BoxHeader.HEADER_LENGTH, fc.size());
-						final DefaultMutableTreeNode trailingPaddingNode = new DefaultMutableTreeNode(np);
-						rootNode.add(trailingPaddingNode);
-						logger.warning(ErrorMessage.NULL_PADDING_FOUND_AT_END_OF_MP4.getMsg(np.getFilePos()));
-						break;
-					} else
-						// File appears invalid
-						throw ne;
-				}
-
-				boxHeader.setFilePos(fc.position() - Mp4BoxHeader.HEADER_LENGTH);
-				final DefaultMutableTreeNode newAtom = new DefaultMutableTreeNode(boxHeader);
-
-				// Go down moov
-				if (boxHeader.getId().equals(Mp4AtomIdentifier.MOOV.getFieldName())) {
-					// A second Moov atom, this is illegal but may just be mess at the end of the file so ignore
-					// and finish
-					if (moovNode != null & mdatNode != null) {
-						logger.warning(ErrorMessage.ADDITIONAL_MOOV_ATOM_AT_END_OF_MP4.getMsg(fc.position() - Mp4BoxHeader.HEADER_LENGTH));
-						break;
-					}
-					moovNode = newAtom;
-					moovHeader = boxHeader;
-
-					final long filePosStart = fc.position();
-					moovBuffer = ByteBuffer.allocate(boxHeader.getDataLength());
-					final int bytesRead = fc.read(moovBuffer);
-
-					// If Moov atom is incomplete we are not going to be able to read this file properly
-					if (bytesRead < boxHeader.getDataLength()) {
-						final String msg = ErrorMessage.ATOM_LENGTH_LARGER_THAN_DATA.getMsg(boxHeader.getId(), boxHeader.getDataLength(), bytesRead);
-						throw new CannotReadException(msg);
-					}
-					moovBuffer.rewind();
-					buildChildrenOfNode(moovBuffer, newAtom);
-					fc.position(filePosStart);
-				} else if (boxHeader.getId().equals(Mp4AtomIdentifier.FREE.getFieldName()))
-					// Might be multiple in different locations
-					freeNodes.add(newAtom);
-				else if (boxHeader.getId().equals(Mp4AtomIdentifier.MDAT.getFieldName())) {
-					// mdatNode always points to the last mDatNode, normally there is just one mdatnode but do have
-					// a valid example of multiple mdatnode
-
-					// if(mdatNode!=null)
-					// {
-					// throw new CannotReadException(ErrorMessage.MP4_FILE_CONTAINS_MULTIPLE_DATA_ATOMS.getMsg());
-					// }
-					mdatNode = newAtom;
-					mdatNodes.add(newAtom);
-				}
-				rootNode.add(newAtom);
-				fc.position(fc.position() + boxHeader.getDataLength());
-			}
-			return dataTree;
+			return buildTree(new Mp4BoxIndex(raf));
 		} finally {
-			// If we cant find the audio then we cannot modify this file so better to throw exception
-			// now rather than later when try and write to it.
-			if (mdatNode == null)
-				throw new CannotReadException(ErrorMessage.MP4_CANNOT_FIND_AUDIO.getMsg());
-
 			if (closeExit)
-				fc.close();
+				raf.getChannel().close();
 		}
 	}
 
+	private DefaultTreeModel buildTree(final Mp4BoxIndex index) {
+		boxIndex = index;
+		moovHeader = index.getBoxHeader(index.getMoov());
+		rootNode = new DefaultMutableTreeNode();
+		dataTree = new DefaultTreeModel(rootNode);
+		freeNodes.clear();
+		mdatNodes.clear();
+		trakNodes.clear();
+
+		final DefaultMutableTreeNode[] nodes = new DefaultMutableTreeNode[index.size()];
+		for (int box = 0; box < index.size(); box++) {
+			nodes[box] = new DefaultMutableTreeNode(box == index.getMoov() ? moovHeader : index.getBoxHeader(box));
+			final int parent = index.getParent(box);
+			if (parent == Mp4BoxIndex.NONE)
+				rootNode.add(nodes[box]);
+			else
+				nodes[parent].add(nodes[box]);
+
+			final int type = index.getType(box);
+			if (type == Mp4BoxIndex.FREE)
+				// Might be multiple in different locations
+				freeNodes.add(nodes[box]);
+			else if (type == Mp4BoxIndex.TRAK)
+				trakNodes.add(nodes[box]);
+			else if (type == Mp4BoxIndex.MDAT && parent == Mp4BoxIndex.NONE)
+				mdatNodes.add(nodes[box]);
+		}
+		moovNode = getNode(nodes, index.getMoov());
+		mdatNode = getNode(nodes, index.getMdat());
+		stcoNode = getNode(nodes, index.getStcoBox());
+		ilstNode = getNode(nodes, index.getIlst());
+		metaNode = getNode(nodes, index.getMeta());
+		tagsNode = getNode(nodes, index.getTags());
+		udtaNode = getNode(nodes, index.getUdta());
+		hdlrWithinMdiaNode = getNode(nodes, index.getHdlrWithinMdia());
+		hdlrWithinMetaNode = getNode(nodes, index.getHdlrWithinMeta());
+		return dataTree;
+	}
+
+	private static DefaultMutableTreeNode getNode(final DefaultMutableTreeNode[] nodes, final int box) {
+		return box == Mp4BoxIndex.NONE ? null : nodes[box];
+	}
+
 	/**
 	 * Display atom tree
 	 */
@@ -197,101 +164,13 @@ public class Mp4AtomTree {
 					tabbing += "\t";
 
 				if (header instanceof NullPadding)
-					System.out.println(tabbing + "Null pad " + " @ " + header.getFilePos() + " of size:" + header.getLength() + " ,ends @ " + (header.getFilePos() + header.getLength()));
+					System.out.println(tabbing + "Null pad " + " @ " + header.getFilePos() + " of size:" + header.getLongLength() + " ,ends @ " + (header.getFilePos() + header.getLongLength()));
 				else
-					System.out.println(tabbing + "Atom " + header.getId() + " @ " + header.getFilePos() + " of size:" + header.getLength() + " ,ends @ " + (header.getFilePos() + header.getLength()));
+					System.out.println(tabbing + "Atom " + header.getId() + " @ " + header.getFilePos() + " of size:" + header.getLongLength() + " ,ends @ " + (header.getFilePos() + header.getLongLength()));
 			}
 		}
 	}
 
-	/**
-	 * 
-	 * @param moovBuffer
-	 * @param parentNode
-	 * @throws IOException
-	 * @throws CannotReadException
-	 */
-	public void buildChildrenOfNode(final ByteBuffer moovBuffer, final DefaultMutableTreeNode parentNode) throws IOException, CannotReadException {
-		Mp4BoxHeader boxHeader;
-
-		// Preprocessing for nodes that contain data before their children atoms
-		final Mp4BoxHeader parentBoxHeader = (Mp4BoxHeader) parentNode.getUserObject();
-
-		// We set the buffers position back to this after processing the children
-		final int justAfterHeaderPos = moovBuffer.position();
-
-		// Preprocessing for meta that normally contains 4 data bytes, but doesn't where found under track or tags atom
-		if (parentBoxHeader.getId().equals(Mp4AtomIdentifier.META.getFieldName())) {
-			final Mp4MetaBox meta = new Mp4MetaBox(parentBoxHeader, moovBuffer);
-			meta.processData();
-
-			try {
-				boxHeader = new Mp4BoxHeader(moovBuffer);
-			} catch (final NullBoxIdException nbe) {
-				// It might be that the meta box didn't actually have any additional data after it so we adjust the
-				// buffer
-				// to be immediately after metabox and code can retry
-				moovBuffer.position(moovBuffer.position() - Mp4MetaBox.FLAGS_LENGTH);
-			} finally {
-				// Skip back last header cos this was only a test
-				moovBuffer.position(moovBuffer.position() - Mp4BoxHeader.HEADER_LENGTH);
-			}
-		}
-
-		// Defines where to start looking for the first child node
-		final int startPos = moovBuffer.position();
-		while (moovBuffer.position() < ((startPos + parentBoxHeader.getDataLength()) - Mp4BoxHeader.HEADER_LENGTH)) {
-			boxHeader = new Mp4BoxHeader(moovBuffer);
-			if (boxHeader != null) {
-				boxHeader.setFilePos(moovHeader.getFilePos() + moovBuffer.position());
-				logger.finest("Atom " + boxHeader.getId() + " @ " + boxHeader.getFilePos() + " of size:" + boxHeader.getLength() + " ,ends @ " + (boxHeader.getFilePos() + boxHeader.getLength()));
-
-				final DefaultMutableTreeNode newAtom = new DefaultMutableTreeNode(boxHeader);
-				parentNode.add(newAtom);
-
-				if (boxHeader.getId().equals(Mp4AtomIdentifier.UDTA.getFieldName()))
-					udtaNode = newAtom;
-				else if (boxHeader.getId().equals(Mp4AtomIdentifier.META.getFieldName()) && parentBoxHeader.getId().equals(Mp4AtomIdentifier.UDTA.getFieldName()))
-					metaNode = newAtom;
-				else if (boxHeader.getId().equals(Mp4AtomIdentifier.HDLR.getFieldName()) && parentBoxHeader.getId().equals(Mp4AtomIdentifier.META.getFieldName()))
-					hdlrWithinMetaNode = newAtom;
-				else if (boxHeader.getId().equals(Mp4AtomIdentifier.HDLR.getFieldName()))
-					hdlrWithinMdiaNode = newAtom;
-				else if (boxHeader.getId().equals(Mp4AtomIdentifier.TAGS.getFieldName()))
-					tagsNode = newAtom;
-				else if (boxHeader.getId().equals(Mp4AtomIdentifier.STCO.getFieldName())) {
-					if (stco == null) {
-						stco = new Mp4StcoBox(boxHeader, moovBuffer);
-						stcoNode = newAtom;
-					}
-				} else if (boxHeader.getId().equals(Mp4AtomIdentifier.ILST.getFieldName())) {
-					final DefaultMutableTreeNode parent = (DefaultMutableTreeNode) parentNode.getParent();
-					if (parent != null) {
-						final Mp4BoxHeader parentsParent = (Mp4BoxHeader) (parent).getUserObject();
-						if (parentsParent != null)
-							if (parentBoxHeader.getId().equals(Mp4AtomIdentifier.META.getFieldName()) && parentsParent.getId().equals(Mp4AtomIdentifier.UDTA.getFieldName()))
-								ilstNode = newAtom;
-					}
-				} else if (boxHeader.getId().equals(Mp4AtomIdentifier.FREE.getFieldName()))
-					// Might be multiple in different locations
-					freeNodes.add(newAtom);
-				else if (boxHeader.getId().equals(Mp4AtomIdentifier.TRAK.getFieldName()))
-					// Might be multiple in different locations, although only one should be audio track
-					trakNodes.add(newAtom);
-
-				// For these atoms iterate down to build their children
-				if ((boxHeader.getId().equals(Mp4AtomIdentifier.TRAK.getFieldName())) || (boxHeader.getId().equals(Mp4AtomIdentifier.MDIA.getFieldName())) || (boxHeader.getId().equals(Mp4AtomIdentifier.MINF.getFieldName()))
-						|| (boxHeader.getId().equals(Mp4AtomIdentifier.STBL.getFieldName())) || (boxHeader.getId().equals(Mp4AtomIdentifier.UDTA.getFieldName())) || (boxHeader.getId().equals(Mp4AtomIdentifier.META.getFieldName()))
-						|| (boxHeader.getId().equals(Mp4AtomIdentifier.ILST.getFieldName())))
-					buildChildrenOfNode(moovBuffer, newAtom);
-				// Now adjust buffer for the next atom header at this level
-				moovBuffer.position(moovBuffer.position() + boxHeader.getDataLength());
-
-			}
-		}
-		moovBuffer.position(justAfterHeaderPos);
-	}
-
 	/**
 	 * 
 	 * @return
@@ -401,18 +280,25 @@ public class Mp4AtomTree {
 
 	/**
 	 * 
-	 * @return
+	 * @return the stco or co64 box of the first track
 	 */
 	public Mp4StcoBox getStco() {
-		return stco;
+		return boxIndex.getStco();
+	}
+
+	/**
+	 * @return the stco and co64 boxes of every track, in file order
+	 */
+	public List<Mp4StcoBox> getChunkOffsetBoxes() {
+		return boxIndex.getChunkOffsetBoxes();
 	}
 
 	/**
 	 * 
-	 * @return
+	 * @return the data under moov
 	 */
 	public ByteBuffer getMoovBuffer() {
-		return moovBuffer;
+		return boxIndex.getMoovBuffer();
 	}
 
 	/**
@@ -422,4 +308,11 @@ public class Mp4AtomTree {
 	public Mp4BoxHeader getMoovHeader() {
 		return moovHeader;
 	}
+
+	/**
+	 * @return the index the tree was built from
+	 */
+	public Mp4BoxIndex getBoxIndex() {
+		return boxIndex;
+	}
 }
@@ -0,0 +1,583 @@
+package org.jaudiotagger.audio.mp4;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.jaudiotagger.audio.exceptions.CannotReadException;
+import org.jaudiotagger.audio.exceptions.InvalidBoxHeaderException;
+import org.jaudiotagger.audio.exceptions.NullBoxIdException;
+import org.jaudiotagger.audio.generic.ReadContext;
+import org.jaudiotagger.audio.mp4.atom.Mp4BoxHeader;
+import org.jaudiotagger.audio.mp4.atom.Mp4MetaBox;
+import org.jaudiotagger.audio.mp4.atom.Mp4StcoBox;
+import org.jaudiotagger.audio.mp4.atom.NullPadding;
+import org.jaudiotagger.logging.ErrorMessage;
+
+/**
+ * Index of the boxes in an mp4 file, held in parallel arrays in file order so building it only creates objects for the
+ * chunk offset tables.
+ * <p/>
+ * Each box is identified by its position in the index, the box type is held as its four character code packed into an
+ * int, along with the position and length of the box, the length of its header and the position of its parent. The
+ * boxes needed for reading and writing metadata are found while the index is built so they can be looked up in
+ * constant time.
+ * <p/>
+ * Like {@link Mp4AtomTree} only the children of boxes we are interested in are indexed, the top level boxes and the
+ * boxes under moov leading to the metadata and chunk offset tables.
+ */
+public class Mp4BoxIndex {
+	// Logger Object
+	public static Logger logger = Logger.getLogger("org.jaudiotagger.audio.mp4");
+
+	/**
+	 * Returned by lookups when there is no such box, also the parent of the top level boxes
+	 */
+	public static final int NONE = -1;
+
+	/**
+	 * Type of the null padding found at the end of some files
+	 */
+	public static final int NULL_PADDING = 0;
+
+	public static final int MOOV = fourcc(Mp4AtomIdentifier.MOOV.getFieldName());
+	public static final int MDAT = fourcc(Mp4AtomIdentifier.MDAT.getFieldName());
+	public static final int FREE = fourcc(Mp4AtomIdentifier.FREE.getFieldName());
+	public static final int MVHD = fourcc(Mp4AtomIdentifier.MVHD.getFieldName());
+	public static final int TRAK = fourcc(Mp4AtomIdentifier.TRAK.getFieldName());
+	public static final int MDIA = fourcc(Mp4AtomIdentifier.MDIA.getFieldName());
+	public static final int MDHD = fourcc(Mp4AtomIdentifier.MDHD.getFieldName());
+	public static final int MINF = fourcc(Mp4AtomIdentifier.MINF.getFieldName());
+	public static final int SMHD = fourcc(Mp4AtomIdentifier.SMHD.getFieldName());
+	public static final int VMHD = fourcc(Mp4AtomIdentifier.VMHD.getFieldName());
+	public static final int STBL = fourcc(Mp4AtomIdentifier.STBL.getFieldName());
+	public static final int STSD = fourcc(Mp4AtomIdentifier.STSD.getFieldName());
+	public static final int STCO = fourcc(Mp4AtomIdentifier.STCO.getFieldName());
+	public static final int CO64 = fourcc(Mp4AtomIdentifier.CO64.getFieldName());
+	public static final int UDTA = fourcc(Mp4AtomIdentifier.UDTA.getFieldName());
+	public static final int META = fourcc(Mp4AtomIdentifier.META.getFieldName());
+	public static final int HDLR = fourcc(Mp4AtomIdentifier.HDLR.getFieldName());
+	public static final int ILST = fourcc(Mp4AtomIdentifier.ILST.getFieldName());
+	public static final int TAGS = fourcc(Mp4AtomIdentifier.TAGS.getFieldName());
+
+	private static final int INITIAL_CAPACITY = 64;
+
+	private int size;
+	private int[] types = new int[INITIAL_CAPACITY];
+	private long[] filePositions = new long[INITIAL_CAPACITY];
+	private long[] lengths = new long[INITIAL_CAPACITY];
+	private int[] headerLengths = new int[INITIAL_CAPACITY];
+	private int[] parents = new int[INITIAL_CAPACITY];
+	private int[] previousSiblings = new int[INITIAL_CAPACITY];
+	private int[] lastChildren = new int[INITIAL_CAPACITY];
+	private int lastTopLevel = NONE;
+
+	private int moov = NONE;
+	private int mdat = NONE;
+	private int stco = NONE;
+	private int ilst = NONE;
+	private int meta = NONE;
+	private int tags = NONE;
+	private int udta = NONE;
+	private int hdlrWithinMdia = NONE;
+	private int hdlrWithinMeta = NONE;
+	private int topLevelFree = NONE;
+	private int freeAfterIlst = NONE;
+	private final List<Mp4StcoBox> chunkOffsetBoxes = new ArrayList<Mp4StcoBox>();
+
+	private ByteBuffer moovBuffer; // Contains all the data under moov
+	private long moovDataPos; // File position of moovBuffer
+	private final ReadContext context; // Only set when reading, so the read of moov is counted
+
+	// Header of the box last read by readHeader
+	private long headerLengthRead;
+	private int headerTypeRead;
+	private int headerSizeRead;
+
+	/**
+	 * Index the file, the data under moov is copied onto the heap so the chunk offset tables can be modified. The file
+	 * is not closed.
+	 *
+	 * @param raf
+	 * @throws IOException
+	 * @throws CannotReadException
+	 */
+	public Mp4BoxIndex(final RandomAccessFile raf) throws IOException, CannotReadException {
+		context = null;
+		build(raf.getChannel());
+	}
+
+	/**
+	 * Index the file for reading the audio header and tag, the data under moov is read through the context so it is
+	 * counted as a read of the file. The data is copied onto the heap rather than mapped, fields read from it can
+	 * outlive the read and a mapping would keep the file from being renamed or deleted on Windows until it was garbage
+	 * collected. The file is not closed.
+	 *
+	 * @param context
+	 * @throws IOException
+	 * @throws CannotReadException
+	 */
+	public Mp4BoxIndex(final ReadContext context) throws IOException, CannotReadException {
+		this.context = context;
+		build(context.getRandomAccessFile().getChannel());
+	}
+
+	/**
+	 * @param id
+	 *            four character box identifier
+	 * @return the identifier packed into an int the way it is held in the file
+	 */
+	public static int fourcc(final String id) {
+		if (id.length() != Mp4BoxHeader.IDENTIFIER_LENGTH)
+			throw new IllegalArgumentException("Invalid length:atom idenifier should always be 4 characters long:" + id);
+		return (id.charAt(0) & 0xFF) << 24 | (id.charAt(1) & 0xFF) << 16 | (id.charAt(2) & 0xFF) << 8 | id.charAt(3) & 0xFF;
+	}
+
+	/**
+	 * @param type
+	 * @return the four character identifier of the box type
+	 */
+	public static String toId(final int type) {
+		final char[] id = { (char) (type >>> 24 & 0xFF), (char) (type >>> 16 & 0xFF), (char) (type >>> 8 & 0xFF), (char) (type & 0xFF) };
+		return new String(id);
+	}
+
+	private void build(final FileChannel fc) throws IOException, CannotReadException {
+		boolean moovUnreadable = false;
+		try {
+			fc.position(0);
+
+			// Iterate though all the top level boxes
+			final ByteBuffer headerBuffer = ByteBuffer.allocate(Mp4BoxHeader.LARGE_HEADER_LENGTH);
+			while (fc.position() < fc.size()) {
+				final long boxStart = fc.position();
+				if (!Mp4BoxHeader.readHeader(fc, headerBuffer)) {
+					// Not enough bytes left for a header, allow it if we already have the expected data
+					if (moov != NONE & mdat != NONE) {
+						logger.warning(ErrorMessage.NULL_PADDING_FOUND_AT_END_OF_MP4.getMsg(boxStart));
+						break;
+					}
+					throw new CannotReadException(ErrorMessage.MP4_FILE_NOT_CONTAINER.getMsg());
+				}
+
+				try {
+					readHeader(headerBuffer, 0, headerBuffer.limit());
+				} catch (final NullBoxIdException ne) {
+					// If we only get this error after all the expected data has been found we allow it
+					if (moov != NONE & mdat != NONE) {
+						add(NULL_PADDING, boxStart, fc.size() - boxStart, 0, NONE);
+						logger.warning(ErrorMessage.NULL_PADDING_FOUND_AT_END_OF_MP4.getMsg(boxStart));
+						break;
+					} else
+						// File appears invalid
+						throw ne;
+				}
+
+				final int type = headerTypeRead;
+				final long length = headerLengthRead;
+				final int headerSize = headerSizeRead;
+				if (type == MOOV) {
+					// A second Moov atom, this is illegal but may just be mess at the end of the file so ignore
+					// and finish
+					if (moov != NONE & mdat != NONE) {
+						logger.warning(ErrorMessage.ADDITIONAL_MOOV_ATOM_AT_END_OF_MP4.getMsg(boxStart));
+						break;
+					}
+					moov = add(type, boxStart, length, headerSize, NONE);
+					try {
+						readMoov(fc, boxStart + headerSize, (int) (length - headerSize));
+					} catch (final CannotReadException cre) {
+						moovUnreadable = true;
+						throw cre;
+					}
+				} else if (type == MDAT)
+					// Always points to the last mdat, normally there is just one but do have a valid example of
+					// multiple mdat boxes
+					mdat = add(type, boxStart, length, headerSize, NONE);
+				else {
+					final int box = add(type, boxStart, length, headerSize, NONE);
+					if (type == FREE && topLevelFree == NONE)
+						topLevelFree = box;
+				}
+				fc.position(boxStart + length);
+			}
+		} finally {
+			// If we cant find the audio then we cannot modify this file so better to throw exception
+			// now rather than later when try and write to it. Unless moov could not be read, which is the more useful
+			// error and may be why mdat was not reached
+			if (mdat == NONE && !moovUnreadable)
+				throw new CannotReadException(ErrorMessage.MP4_CANNOT_FIND_AUDIO.getMsg());
+		}
+	}
+
+	private void readMoov(final FileChannel fc, final long filePosStart, final int dataLength) throws IOException, CannotReadException {
+		moovDataPos = filePosStart;
+		moovBuffer = ByteBuffer.allocate(dataLength);
+		final int bytesRead = context != null ? context.readFully(moovBuffer, filePosStart) : fc.read(moovBuffer);
+
+		// If Moov atom is incomplete we are not going to be able to read this file properly
+		if (bytesRead < dataLength)
+			throw new CannotReadException(ErrorMessage.ATOM_LENGTH_LARGER_THAN_DATA.getMsg(Mp4AtomIdentifier.MOOV.getFieldName(), dataLength, bytesRead));
+		moovBuffer.rewind();
+		addChildren(moov, 0, dataLength);
+	}
+
+	/**
+	 * Index the children of a box under moov
+	 *
+	 * @param parent
+	 * @param start
+	 *            position of the parents data within the moov buffer
+	 * @param dataLength
+	 *            length of the parents data
+	 * @throws CannotReadException
+	 */
+	private void addChildren(final int parent, int start, final int dataLength) throws CannotReadException {
+		final int parentEnd = start + dataLength;
+
+		// Meta normally contains 4 data bytes before its children, but doesn't where found under track or tags atom
+		if (types[parent] == META) {
+			if (moovBuffer.get(start) != 0)
+				throw new CannotReadException(ErrorMessage.MP4_FILE_META_ATOM_CHILD_DATA_NOT_NULL.getMsg());
+			try {
+				readHeader(moovBuffer, start + Mp4MetaBox.FLAGS_LENGTH, moovBuffer.limit());
+				start += Mp4MetaBox.FLAGS_LENGTH;
+			} catch (final NullBoxIdException nbe) {
+				// It might be that the meta box didn't actually have any additional data after it so the children
+				// start immediately after the meta header
+			}
+		}
+
+		final int end = parentEnd - Mp4BoxHeader.HEADER_LENGTH;
+		int pos = start;
+		while (pos < end) {
+			readHeader(moovBuffer, pos, moovBuffer.limit());
+			final int type = headerTypeRead;
+			final int headerSize = headerSizeRead;
+			if (headerLengthRead > parentEnd - pos)
+				throw new CannotReadException(ErrorMessage.ATOM_LENGTH_LARGER_THAN_DATA.getMsg(toId(type), headerLengthRead - headerSize, parentEnd - pos - headerSize));
+			final int length = (int) headerLengthRead;
+			final long filePos = moovDataPos + pos;
+			final int box = add(type, filePos, length, headerSize, parent);
+			if (logger.isLoggable(Level.FINEST))
+				logger.finest("Atom " + toId(type) + " @ " + filePos + " of size:" + length + " ,ends @ " + (filePos + length));
+
+			if (type == UDTA)
+				udta = box;
+			else if (type == META && types[parent] == UDTA)
+				meta = box;
+			else if (type == HDLR && types[parent] == META)
+				hdlrWithinMeta = box;
+			else if (type == HDLR)
+				hdlrWithinMdia = box;
+			else if (type == TAGS)
+				tags = box;
+			else if (type == STCO || type == CO64) {
+				// Every track has its own table of offsets into mdat
+				moovBuffer.position(pos + headerSize);
+				chunkOffsetBoxes.add(new Mp4StcoBox(getBoxHeader(box), moovBuffer));
+				if (stco == NONE)
+					stco = box;
+			} else if (type == ILST && types[parent] == META && parents[parent] != NONE && types[parents[parent]] == UDTA)
+				ilst = box;
+			else if (type == FREE && freeAfterIlst == NONE && types[parent] == META && previousSiblings[box] != NONE && types[previousSiblings[box]] == ILST)
+				freeAfterIlst = box;
+
+			// For these atoms iterate down to index their children
+			if (type == TRAK || type == MDIA || type == MINF || type == STBL || type == UDTA || type == META || type == ILST)
+				addChildren(box, pos + headerSize, length - headerSize);
+			pos += length;
+		}
+		moovBuffer.rewind();
+	}
+
+	/**
+	 * Read the header at pos into the header fields
+	 *
+	 * @throws NullBoxIdException
+	 *             if the identifier is empty
+	 * @throws InvalidBoxHeaderException
+	 *             if the length is shorter than the header
+	 */
+	private void readHeader(final ByteBuffer buffer, final int pos, final int limit) {
+		long length = buffer.getInt(pos + Mp4BoxHeader.OFFSET_POS) & 0xFFFFFFFFL;
+		final int type = buffer.getInt(pos + Mp4BoxHeader.IDENTIFIER_POS);
+		int headerSize = Mp4BoxHeader.HEADER_LENGTH;
+		if (length == 1 && pos + Mp4BoxHeader.LARGE_HEADER_LENGTH <= limit) {
+			length = buffer.getLong(pos + Mp4BoxHeader.HEADER_LENGTH);
+			headerSize = Mp4BoxHeader.LARGE_HEADER_LENGTH;
+		}
+		if (type == NULL_PADDING)
+			throw new NullBoxIdException(ErrorMessage.MP4_UNABLE_TO_FIND_NEXT_ATOM_BECAUSE_IDENTIFIER_IS_INVALID.getMsg(toId(type)));
+		if (length < headerSize)
+			throw new InvalidBoxHeaderException(ErrorMessage.MP4_UNABLE_TO_FIND_NEXT_ATOM_BECAUSE_IDENTIFIER_IS_INVALID.getMsg(toId(type), length));
+		headerTypeRead = type;
+		headerLengthRead = length;
+		headerSizeRead = headerSize;
+	}
+
+	private int add(final int type, final long filePos, final long length, final int headerSize, final int parent) {
+		if (size == types.length) {
+			final int capacity = size * 2;
+			types = Arrays.copyOf(types, capacity);
+			filePositions = Arrays.copyOf(filePositions, capacity);
+			lengths = Arrays.copyOf(lengths, capacity);
+			headerLengths = Arrays.copyOf(headerLengths, capacity);
+			parents = Arrays.copyOf(parents, capacity);
+			previousSiblings = Arrays.copyOf(previousSiblings, capacity);
+			lastChildren = Arrays.copyOf(lastChildren, capacity);
+		}
+		final int box = size++;
+		types[box] = type;
+		filePositions[box] = filePos;
+		lengths[box] = length;
+		headerLengths[box] = headerSize;
+		parents[box] = parent;
+		lastChildren[box] = NONE;
+		if (parent == NONE) {
+			previousSiblings[box] = lastTopLevel;
+			lastTopLevel = box;
+		} else {
+			previousSiblings[box] = lastChildren[parent];
+			lastChildren[parent] = box;
+		}
+		return box;
+	}
+
+	/**
+	 * @return the number of boxes in the index
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * @param box
+	 * @return the type of the box as a four character code, {@link #NULL_PADDING} for padding at the end of the file
+	 */
+	public int getType(final int box) {
+		return types[box];
+	}
+
+	/**
+	 * @param box
+	 * @return position of the start of the box header within the file
+	 */
+	public long getFilePos(final int box) {
+		return filePositions[box];
+	}
+
+	/**
+	 * @param box
+	 * @return the length of the box including its header
+	 */
+	public long getLength(final int box) {
+		return lengths[box];
+	}
+
+	/**
+	 * @param box
+	 * @return the length of the box header, 8 or 16 if the box uses largesize
+	 */
+	public int getHeaderLength(final int box) {
+		return headerLengths[box];
+	}
+
+	/**
+	 * @param box
+	 * @return the parent of the box or {@link #NONE} for a top level box
+	 */
+	public int getParent(final int box) {
+		return parents[box];
+	}
+
+	/**
+	 * @param box
+	 * @return the box before this one with the same parent or {@link #NONE}
+	 */
+	public int getPreviousSibling(final int box) {
+		return previousSiblings[box];
+	}
+
+	/**
+	 * @param type
+	 * @param parent
+	 *            {@link #NONE} for the top level
+	 * @return the first box of the type under parent or {@link #NONE}
+	 */
+	public int find(final int type, final int parent) {
+		return findNext(type, parent, parent);
+	}
+
+	/**
+	 * @param type
+	 * @param parent
+	 *            {@link #NONE} for the top level
+	 * @param previous
+	 *            the box to search after, children always follow their parent in the index
+	 * @return the next box of the type under parent after previous or {@link #NONE}
+	 */
+	public int findNext(final int type, final int parent, final int previous) {
+		for (int box = previous + 1; box < size; box++)
+			if (types[box] == type && parents[box] == parent)
+				return box;
+		return NONE;
+	}
+
+	/**
+	 * @param type
+	 * @return every box of the type in file order
+	 */
+	public int[] findAll(final int type) {
+		int count = 0;
+		for (int box = 0; box < size; box++)
+			if (types[box] == type)
+				count++;
+		final int[] boxes = new int[count];
+		for (int box = 0, i = 0; i < count; box++)
+			if (types[box] == type)
+				boxes[i++] = box;
+		return boxes;
+	}
+
+	/**
+	 * Create a header for the box, the header can be modified for writing without changing the index
+	 *
+	 * @param box
+	 *            the box or {@link #NONE}
+	 * @return the header or null if box is {@link #NONE}
+	 */
+	public Mp4BoxHeader getBoxHeader(final int box) {
+		if (box == NONE)
+			return null;
+		if (types[box] == NULL_PADDING)
+			return new NullPadding(filePositions[box], filePositions[box] + lengths[box]);
+		final ByteBuffer headerData = ByteBuffer.allocate(headerLengths[box]);
+		if (headerLengths[box] == Mp4BoxHeader.LARGE_HEADER_LENGTH)
+			headerData.putInt(1).putInt(types[box]).putLong(lengths[box]);
+		else
+			headerData.putInt((int) lengths[box]).putInt(types[box]);
+		headerData.flip();
+		final Mp4BoxHeader header = new Mp4BoxHeader(headerData);
+		header.setFilePos(filePositions[box]);
+		return header;
+	}
+
+	/**
+	 * @return the moov box
+	 */
+	public int getMoov() {
+		return moov;
+	}
+
+	/**
+	 * @return the last top level mdat box
+	 */
+	public int getMdat() {
+		return mdat;
+	}
+
+	/**
+	 * @return the udta box, this is normally the udta under moov but is the last udta in the file
+	 */
+	public int getUdta() {
+		return udta;
+	}
+
+	/**
+	 * @return the meta box under udta
+	 */
+	public int getMeta() {
+		return meta;
+	}
+
+	/**
+	 * @return the ilst box under udta and meta
+	 */
+	public int getIlst() {
+		return ilst;
+	}
+
+	/**
+	 * @return the hdlr box within meta
+	 */
+	public int getHdlrWithinMeta() {
+		return hdlrWithinMeta;
+	}
+
+	/**
+	 * @return the hdlr box within mdia
+	 */
+	public int getHdlrWithinMdia() {
+		return hdlrWithinMdia;
+	}
+
+	/**
+	 * @return the tags box
+	 */
+	public int getTags() {
+		return tags;
+	}
+
+	/**
+	 * @return the first top level free box
+	 */
+	public int getTopLevelFree() {
+		return topLevelFree;
+	}
+
+	/**
+	 * @return the first free box under meta that immediately follows an ilst box, the padding used when ilst grows or
+	 *         shrinks
+	 */
+	public int getFreeAfterIlst() {
+		return freeAfterIlst;
+	}
+
+	/**
+	 * @return the stco or co64 box of the first track
+	 */
+	public int getStcoBox() {
+		return stco;
+	}
+
+	/**
+	 * @return the stco or co64 box of the first track
+	 */
+	public Mp4StcoBox getStco() {
+		return chunkOffsetBoxes.isEmpty() ? null : chunkOffsetBoxes.get(0);
+	}
+
+	/**
+	 * @return the stco and co64 boxes of every track, in file order
+	 */
+	public List<Mp4StcoBox> getChunkOffsetBoxes() {
+		return chunkOffsetBoxes;
+	}
+
+	/**
+	 * @return the data under moov
+	 */
+	public ByteBuffer getMoovBuffer() {
+		return moovBuffer;
+	}
+
+	/**
+	 * @param box
+	 *            a box under moov
+	 * @return the data of the box after its header, a slice of the data under moov
+	 */
+	public ByteBuffer getData(final int box) {
+		final ByteBuffer data = moovBuffer.duplicate();
+		final int start = (int) (filePositions[box] - moovDataPos) + headerLengths[box];
+		data.limit(start + (int) (lengths[box] - headerLengths[box]));
+		data.position(start);
+		return data.slice();
+	}
+}
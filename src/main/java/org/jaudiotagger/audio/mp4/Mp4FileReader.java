@@ -20,10 +20,14 @@ package org.jaudiotagger.audio.mp4;
 
 import java.io.IOException;
 import java.io.RandomAccessFile;
+import java.nio.file.Path;
 
+import org.jaudiotagger.audio.AudioFile;
+import org.jaudiotagger.audio.ReadOptions;
 import org.jaudiotagger.audio.exceptions.CannotReadException;
 import org.jaudiotagger.audio.generic.AudioFileReader;
 import org.jaudiotagger.audio.generic.GenericAudioHeader;
+import org.jaudiotagger.audio.generic.ReadContext;
 import org.jaudiotagger.tag.Tag;
 
 /**
@@ -31,11 +35,28 @@ import org.jaudiotagger.tag.Tag;
  * <p/>
  * <p>
  * This can read files containing either the .mp4 or .m4a suffixes
+ * <p>
+ * The audio info and the metadata are both held under the moov atom, which for long files with a large sample table can
+ * be many megabytes, so moov is read once into an {@link Mp4BoxIndex} shared by both readers.
  */
 public class Mp4FileReader extends AudioFileReader {
 	private final Mp4InfoReader ir = new Mp4InfoReader();
 	private final Mp4TagReader tr = new Mp4TagReader();
 
+	@Override
+	protected AudioFile read(final Path f, final RandomAccessFile raf, final ReadOptions options) throws CannotReadException, IOException {
+		final Mp4BoxIndex boxIndex = new Mp4BoxIndex(new ReadContext(f, raf));
+		GenericAudioHeader info = null;
+		if (options.isAudioHeaderRequired()) {
+			raf.seek(0);
+			info = ir.read(raf, boxIndex);
+		}
+		Tag tag = null;
+		if (options.isTagRequired())
+			tag = tr.read(boxIndex, options);
+		return new AudioFile(f, info, tag);
+	}
+
 	@Override
 	protected GenericAudioHeader getEncodingInfo(final RandomAccessFile raf) throws CannotReadException, IOException {
 		return ir.read(raf);
@@ -45,4 +66,9 @@ public class Mp4FileReader extends AudioFileReader {
 	protected Tag getTag(final RandomAccessFile raf) throws CannotReadException, IOException {
 		return tr.read(raf);
 	}
+
+	@Override
+	protected Tag getTag(final RandomAccessFile raf, final ReadOptions options) throws CannotReadException, IOException {
+		return tr.read(raf, options);
+	}
 }
@@ -40,6 +40,11 @@ public class Mp4FileWriter extends AudioFileWriter {
 		tw.write(tag, raf, rafTemp);
 	}
 
+	@Override
+	protected boolean writeTagInPlace(final Tag tag, final RandomAccessFile raf) throws CannotWriteException, IOException {
+		return tw.writeInPlace(tag, raf);
+	}
+
 	@Override
 	protected void deleteTag(final RandomAccessFile raf, final RandomAccessFile rafTemp) throws IOException {
 		tw.delete(raf, rafTemp);
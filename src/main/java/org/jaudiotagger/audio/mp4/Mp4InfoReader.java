@@ -65,122 +65,113 @@ public class Mp4InfoReader {
 	// Logger Object
 	public static Logger logger = Logger.getLogger("org.jaudiotagger.audio.mp4.atom");
 
-	private boolean isTrackAtomVideo(final Mp4FtypBox ftyp, Mp4BoxHeader boxHeader, final ByteBuffer mvhdBuffer) throws IOException {
-		boxHeader = Mp4BoxHeader.seekWithinLevel(mvhdBuffer, Mp4AtomIdentifier.MDIA.getFieldName());
-		if (boxHeader == null)
+	private boolean isTrackAtomVideo(final Mp4BoxIndex boxIndex, final int trak) {
+		final int mdia = boxIndex.find(Mp4BoxIndex.MDIA, trak);
+		if (mdia == Mp4BoxIndex.NONE)
 			return false;
-		boxHeader = Mp4BoxHeader.seekWithinLevel(mvhdBuffer, Mp4AtomIdentifier.MDHD.getFieldName());
-		if (boxHeader == null)
+		final int minf = boxIndex.find(Mp4BoxIndex.MINF, mdia);
+		if (minf == Mp4BoxIndex.NONE)
 			return false;
-		mvhdBuffer.position(mvhdBuffer.position() + boxHeader.getDataLength());
-		boxHeader = Mp4BoxHeader.seekWithinLevel(mvhdBuffer, Mp4AtomIdentifier.MINF.getFieldName());
-		if (boxHeader == null)
-			return false;
-		boxHeader = Mp4BoxHeader.seekWithinLevel(mvhdBuffer, Mp4AtomIdentifier.VMHD.getFieldName());
-		if (boxHeader != null)
-			return true;
-		return false;
+		return boxIndex.find(Mp4BoxIndex.VMHD, minf) != Mp4BoxIndex.NONE;
 	}
 
-	public GenericAudioHeader read(final RandomAccessFile raf) throws CannotReadException, IOException {
-		final Mp4AudioHeader info = new Mp4AudioHeader();
-
-		// File Identification
+	private Mp4FtypBox readFtyp(final RandomAccessFile raf) throws CannotReadException, IOException {
 		final Mp4BoxHeader ftypHeader = Mp4BoxHeader.seekWithinLevel(raf, Mp4AtomIdentifier.FTYP.getFieldName());
 		if (ftypHeader == null)
 			throw new CannotReadException(ErrorMessage.MP4_FILE_NOT_CONTAINER.getMsg());
-		final ByteBuffer ftypBuffer = ByteBuffer.allocate(ftypHeader.getLength() - Mp4BoxHeader.HEADER_LENGTH);
+		final ByteBuffer ftypBuffer = ByteBuffer.allocate(ftypHeader.getDataLength());
 		raf.getChannel().read(ftypBuffer);
 		ftypBuffer.rewind();
 		final Mp4FtypBox ftyp = new Mp4FtypBox(ftypHeader, ftypBuffer);
 		ftyp.processData();
-		info.setBrand(ftyp.getMajorBrand());
+		return ftyp;
+	}
+
+	public GenericAudioHeader read(final RandomAccessFile raf) throws CannotReadException, IOException {
+		// File Identification
+		final Mp4FtypBox ftyp = readFtyp(raf);
+
+		// Index the boxes to ensure the file is valid, this means we can detect any problems early on, everything we
+		// are interested in is within the moov box which the index loads from file once so no more file I/O needed
+		return read(ftyp, new Mp4BoxIndex(raf));
+	}
 
-		// Get to the facts everything we are interested in is within the moov box, so just load data from file
-		// once so no more file I/O needed
-		final Mp4BoxHeader moovHeader = Mp4BoxHeader.seekWithinLevel(raf, Mp4AtomIdentifier.MOOV.getFieldName());
-		if (moovHeader == null)
+	/**
+	 * Read the audio info from the moov data of an index that has already been built, so moov is not read again
+	 * 
+	 * @param raf
+	 *            positioned at the start of the file
+	 * @param boxIndex
+	 * @return
+	 * @throws CannotReadException
+	 * @throws IOException
+	 */
+	public GenericAudioHeader read(final RandomAccessFile raf, final Mp4BoxIndex boxIndex) throws CannotReadException, IOException {
+		return read(readFtyp(raf), boxIndex);
+	}
+
+	private GenericAudioHeader read(final Mp4FtypBox ftyp, final Mp4BoxIndex boxIndex) throws CannotReadException, IOException {
+		final int moov = boxIndex.getMoov();
+		if (moov == Mp4BoxIndex.NONE)
 			throw new CannotReadException(ErrorMessage.MP4_FILE_NOT_AUDIO.getMsg());
-		final ByteBuffer moovBuffer = ByteBuffer.allocate(moovHeader.getLength() - Mp4BoxHeader.HEADER_LENGTH);
-		raf.getChannel().read(moovBuffer);
-		moovBuffer.rewind();
-
-		// Level 2-Searching for "mvhd" somewhere within "moov", we make a slice after finding header
-		// so all get() methods will be relative to mvdh positions
-		Mp4BoxHeader boxHeader = Mp4BoxHeader.seekWithinLevel(moovBuffer, Mp4AtomIdentifier.MVHD.getFieldName());
-		if (boxHeader == null)
+
+		final Mp4AudioHeader info = new Mp4AudioHeader();
+		info.setBrand(ftyp.getMajorBrand());
+
+		// Level 2-Searching for "mvhd" within "moov"
+		final int mvhd = boxIndex.find(Mp4BoxIndex.MVHD, moov);
+		if (mvhd == Mp4BoxIndex.NONE)
 			throw new CannotReadException(ErrorMessage.MP4_FILE_NOT_AUDIO.getMsg());
-		final ByteBuffer mvhdBuffer = moovBuffer.slice();
-		final Mp4MvhdBox mvhd = new Mp4MvhdBox(boxHeader, mvhdBuffer);
-		info.setLength(mvhd.getLength());
-		// Advance position, TODO should we put this in box code ?
-		mvhdBuffer.position(mvhdBuffer.position() + boxHeader.getDataLength());
+		info.setLength(new Mp4MvhdBox(boxIndex.getBoxHeader(mvhd), boxIndex.getData(mvhd)).getLength());
 
 		// Level 2-Searching for "trak" within "moov"
-		boxHeader = Mp4BoxHeader.seekWithinLevel(mvhdBuffer, Mp4AtomIdentifier.TRAK.getFieldName());
-		final int endOfFirstTrackInBuffer = mvhdBuffer.position() + boxHeader.getDataLength();
-
-		if (boxHeader == null)
+		final int trak = boxIndex.find(Mp4BoxIndex.TRAK, moov);
+		if (trak == Mp4BoxIndex.NONE)
 			throw new CannotReadException(ErrorMessage.MP4_FILE_NOT_AUDIO.getMsg());
 		// Level 3-Searching for "mdia" within "trak"
-		boxHeader = Mp4BoxHeader.seekWithinLevel(mvhdBuffer, Mp4AtomIdentifier.MDIA.getFieldName());
-		if (boxHeader == null)
+		final int mdia = boxIndex.find(Mp4BoxIndex.MDIA, trak);
+		if (mdia == Mp4BoxIndex.NONE)
 			throw new CannotReadException(ErrorMessage.MP4_FILE_NOT_AUDIO.getMsg());
 		// Level 4-Searching for "mdhd" within "mdia"
-		boxHeader = Mp4BoxHeader.seekWithinLevel(mvhdBuffer, Mp4AtomIdentifier.MDHD.getFieldName());
-		if (boxHeader == null)
+		final int mdhd = boxIndex.find(Mp4BoxIndex.MDHD, mdia);
+		if (mdhd == Mp4BoxIndex.NONE)
 			throw new CannotReadException(ErrorMessage.MP4_FILE_NOT_AUDIO.getMsg());
-		final Mp4MdhdBox mdhd = new Mp4MdhdBox(boxHeader, mvhdBuffer.slice());
-		info.setSamplingRate(mdhd.getSampleRate());
-
-		// Level 4-Searching for "hdlr" within "mdia"
-		/*
-		 * We dont currently need to process this because contains nothing we want
-		 * mvhdBuffer.position(mvhdBuffer.position() + boxHeader.getDataLength()); boxHeader =
-		 * Mp4BoxHeader.seekWithinLevel(mvhdBuffer, Mp4NotMetaFieldKey.HDLR.getFieldName()); if (boxHeader == null) {
-		 * throw new CannotReadException(ErrorMessage.MP4_FILE_NOT_AUDIO.getMsg()); } Mp4HdlrBox hdlr = new
-		 * Mp4HdlrBox(boxHeader, mvhdBuffer.slice()); hdlr.processData();
-		 */
+		info.setSamplingRate(new Mp4MdhdBox(boxIndex.getBoxHeader(mdhd), boxIndex.getData(mdhd)).getSampleRate());
 
 		// Level 4-Searching for "minf" within "mdia"
-		mvhdBuffer.position(mvhdBuffer.position() + boxHeader.getDataLength());
-		boxHeader = Mp4BoxHeader.seekWithinLevel(mvhdBuffer, Mp4AtomIdentifier.MINF.getFieldName());
-		if (boxHeader == null)
+		final int minf = boxIndex.find(Mp4BoxIndex.MINF, mdia);
+		if (minf == Mp4BoxIndex.NONE)
 			throw new CannotReadException(ErrorMessage.MP4_FILE_NOT_AUDIO.getMsg());
 
 		// Level 5-Searching for "smhd" within "minf"
 		// Only an audio track would have a smhd frame
-		final int pos = mvhdBuffer.position();
-		boxHeader = Mp4BoxHeader.seekWithinLevel(mvhdBuffer, Mp4AtomIdentifier.SMHD.getFieldName());
-		if (boxHeader == null) {
-			mvhdBuffer.position(pos);
-			boxHeader = Mp4BoxHeader.seekWithinLevel(mvhdBuffer, Mp4AtomIdentifier.VMHD.getFieldName());
+		if (boxIndex.find(Mp4BoxIndex.SMHD, minf) == Mp4BoxIndex.NONE) {
 			// try easy check to confirm that it is video
-			if (boxHeader != null)
+			if (boxIndex.find(Mp4BoxIndex.VMHD, minf) != Mp4BoxIndex.NONE)
 				throw new CannotReadVideoException(ErrorMessage.MP4_FILE_IS_VIDEO.getMsg());
 			else
 				throw new CannotReadException(ErrorMessage.MP4_FILE_NOT_AUDIO.getMsg());
 		}
-		mvhdBuffer.position(mvhdBuffer.position() + boxHeader.getDataLength());
 
 		// Level 5-Searching for "stbl within "minf"
-		boxHeader = Mp4BoxHeader.seekWithinLevel(mvhdBuffer, Mp4AtomIdentifier.STBL.getFieldName());
-		if (boxHeader == null)
+		final int stbl = boxIndex.find(Mp4BoxIndex.STBL, minf);
+		if (stbl == Mp4BoxIndex.NONE)
 			throw new CannotReadException(ErrorMessage.MP4_FILE_NOT_AUDIO.getMsg());
 
 		// Level 6-Searching for "stsd within "stbl" and process it direct data, dont think these are mandatory so dont
 		// throw
 		// exception if unable to find
-		boxHeader = Mp4BoxHeader.seekWithinLevel(mvhdBuffer, Mp4AtomIdentifier.STSD.getFieldName());
-		if (boxHeader != null) {
-			final Mp4StsdBox stsd = new Mp4StsdBox(boxHeader, mvhdBuffer);
+		final int stsdBox = boxIndex.find(Mp4BoxIndex.STSD, stbl);
+		if (stsdBox != Mp4BoxIndex.NONE) {
+			final ByteBuffer stsdBuffer = boxIndex.getData(stsdBox);
+			final Mp4StsdBox stsd = new Mp4StsdBox(boxIndex.getBoxHeader(stsdBox), stsdBuffer);
 			stsd.processData();
-			final int positionAfterStsdHeaderAndData = mvhdBuffer.position();
+			final int positionAfterStsdHeaderAndData = stsdBuffer.position();
 
 			// /Level 7-Searching for "mp4a within "stsd"
-			boxHeader = Mp4BoxHeader.seekWithinLevel(mvhdBuffer, Mp4AtomIdentifier.MP4A.getFieldName());
+			Mp4BoxHeader boxHeader = Mp4BoxHeader.seekWithinLevel(stsdBuffer, Mp4AtomIdentifier.MP4A.getFieldName());
 			if (boxHeader != null) {
-				final ByteBuffer mp4aBuffer = mvhdBuffer.slice();
+				final ByteBuffer mp4aBuffer = stsdBuffer.slice();
 				final Mp4Mp4aBox mp4a = new Mp4Mp4aBox(boxHeader, mp4aBuffer);
 				mp4a.processData();
 				// Level 8-Searching for "esds" within mp4a to get No Of Channels and bitrate
@@ -201,16 +192,16 @@ public class Mp4InfoReader {
 				}
 			} else {
 				// Level 7 -Searching for drms within stsd instead (m4p files)
-				mvhdBuffer.position(positionAfterStsdHeaderAndData);
-				boxHeader = Mp4BoxHeader.seekWithinLevel(mvhdBuffer, Mp4AtomIdentifier.DRMS.getFieldName());
+				stsdBuffer.position(positionAfterStsdHeaderAndData);
+				boxHeader = Mp4BoxHeader.seekWithinLevel(stsdBuffer, Mp4AtomIdentifier.DRMS.getFieldName());
 				if (boxHeader != null) {
-					final Mp4DrmsBox drms = new Mp4DrmsBox(boxHeader, mvhdBuffer);
+					final Mp4DrmsBox drms = new Mp4DrmsBox(boxHeader, stsdBuffer);
 					drms.processData();
 
 					// Level 8-Searching for "esds" within drms to get No Of Channels and bitrate
-					boxHeader = Mp4BoxHeader.seekWithinLevel(mvhdBuffer, Mp4AtomIdentifier.ESDS.getFieldName());
+					boxHeader = Mp4BoxHeader.seekWithinLevel(stsdBuffer, Mp4AtomIdentifier.ESDS.getFieldName());
 					if (boxHeader != null) {
-						final Mp4EsdsBox esds = new Mp4EsdsBox(boxHeader, mvhdBuffer.slice());
+						final Mp4EsdsBox esds = new Mp4EsdsBox(boxHeader, stsdBuffer.slice());
 
 						// Set Bitrate in kbps
 						info.setBitrate(esds.getAvgBitrate() / 1000);
@@ -226,17 +217,17 @@ public class Mp4InfoReader {
 				}
 				// Level 7-Searching for alac (Apple Lossless) instead
 				else {
-					mvhdBuffer.position(positionAfterStsdHeaderAndData);
-					boxHeader = Mp4BoxHeader.seekWithinLevel(mvhdBuffer, Mp4AtomIdentifier.ALAC.getFieldName());
+					stsdBuffer.position(positionAfterStsdHeaderAndData);
+					boxHeader = Mp4BoxHeader.seekWithinLevel(stsdBuffer, Mp4AtomIdentifier.ALAC.getFieldName());
 					if (boxHeader != null) {
 						// Process First Alac
-						Mp4AlacBox alac = new Mp4AlacBox(boxHeader, mvhdBuffer);
+						Mp4AlacBox alac = new Mp4AlacBox(boxHeader, stsdBuffer);
 						alac.processData();
 
 						// Level 8-Searching for 2nd "alac" within box that contains the info we really want
-						boxHeader = Mp4BoxHeader.seekWithinLevel(mvhdBuffer, Mp4AtomIdentifier.ALAC.getFieldName());
+						boxHeader = Mp4BoxHeader.seekWithinLevel(stsdBuffer, Mp4AtomIdentifier.ALAC.getFieldName());
 						if (boxHeader != null) {
-							alac = new Mp4AlacBox(boxHeader, mvhdBuffer);
+							alac = new Mp4AlacBox(boxHeader, stsdBuffer);
 							alac.processData();
 							info.setEncodingType(EncoderType.APPLE_LOSSLESS.getDescription());
 							info.setChannelNumber(alac.getChannels());
@@ -268,19 +259,9 @@ public class Mp4InfoReader {
 		// Level 2-Searching for others "trak" within "moov", if we find any traks containing video
 		// then reject it if no track if not video then we allow it because many encoders seem to contain all sorts
 		// of stuff that you wouldn't expect in an audio track
-		mvhdBuffer.position(endOfFirstTrackInBuffer);
-		while (mvhdBuffer.hasRemaining()) {
-			boxHeader = Mp4BoxHeader.seekWithinLevel(mvhdBuffer, Mp4AtomIdentifier.TRAK.getFieldName());
-			if (boxHeader != null) {
-				if (isTrackAtomVideo(ftyp, boxHeader, mvhdBuffer))
-					throw new CannotReadVideoException(ErrorMessage.MP4_FILE_IS_VIDEO.getMsg());
-			} else
-				break;
-		}
-
-		// Build AtomTree to ensure it is valid, this means we can detect any problems early on
-		new Mp4AtomTree(raf, false);
-
+		for (int otherTrak = boxIndex.findNext(Mp4BoxIndex.TRAK, moov, trak); otherTrak != Mp4BoxIndex.NONE; otherTrak = boxIndex.findNext(Mp4BoxIndex.TRAK, moov, otherTrak))
+			if (isTrackAtomVideo(boxIndex, otherTrak))
+				throw new CannotReadVideoException(ErrorMessage.MP4_FILE_IS_VIDEO.getMsg());
 		return info;
 	}
 
@@ -22,13 +22,16 @@ import java.io.IOException;
 import java.io.RandomAccessFile;
 import java.io.UnsupportedEncodingException;
 import java.nio.ByteBuffer;
+import java.util.HashSet;
+import java.util.Set;
 import java.util.logging.Logger;
 
+import org.jaudiotagger.audio.ReadOptions;
 import org.jaudiotagger.audio.exceptions.CannotReadException;
 import org.jaudiotagger.audio.generic.Utils;
 import org.jaudiotagger.audio.mp4.atom.Mp4BoxHeader;
-import org.jaudiotagger.audio.mp4.atom.Mp4MetaBox;
 import org.jaudiotagger.logging.ErrorMessage;
+import org.jaudiotagger.tag.FieldKey;
 import org.jaudiotagger.tag.TagField;
 import org.jaudiotagger.tag.mp4.Mp4FieldKey;
 import org.jaudiotagger.tag.mp4.Mp4NonStandardFieldKey;
@@ -98,71 +101,63 @@ public class Mp4TagReader {
 	 * There are gaps between these boxes
 	 */
 	public Mp4Tag read(final RandomAccessFile raf) throws CannotReadException, IOException {
-		final Mp4Tag tag = new Mp4Tag();
+		return read(raf, ReadOptions.ALL);
+	}
 
-		// Get to the facts everything we are interested in is within the moov box, so just load data from file
-		// once so no more file I/O needed
-		final Mp4BoxHeader moovHeader = Mp4BoxHeader.seekWithinLevel(raf, Mp4AtomIdentifier.MOOV.getFieldName());
-		if (moovHeader == null)
-			throw new CannotReadException(ErrorMessage.MP4_FILE_NOT_CONTAINER.getMsg());
-		final ByteBuffer moovBuffer = ByteBuffer.allocate(moovHeader.getLength() - Mp4BoxHeader.HEADER_LENGTH);
-		raf.getChannel().read(moovBuffer);
-		moovBuffer.rewind();
+	/*
+	 * Same as above but only fields required by the options are created, the moov box is still read in full
+	 */
+	public Mp4Tag read(final RandomAccessFile raf, final ReadOptions options) throws CannotReadException, IOException {
+		// Get to the facts everything we are interested in is within the moov box, so the index loads its data from
+		// file once so no more file I/O needed
+		return read(new Mp4BoxIndex(raf), options);
+	}
 
-		// Level 2-Searching for "udta" within "moov"
-		Mp4BoxHeader boxHeader = Mp4BoxHeader.seekWithinLevel(moovBuffer, Mp4AtomIdentifier.UDTA.getFieldName());
-		if (boxHeader != null) {
-			// Level 3-Searching for "meta" within udta
-			boxHeader = Mp4BoxHeader.seekWithinLevel(moovBuffer, Mp4AtomIdentifier.META.getFieldName());
-			if (boxHeader == null) {
-				logger.warning(ErrorMessage.MP4_FILE_HAS_NO_METADATA.getMsg());
-				return tag;
-			}
-			final Mp4MetaBox meta = new Mp4MetaBox(boxHeader, moovBuffer);
-			meta.processData();
+	/*
+	 * Same as above but reads from the moov data of an index that has already been built, so moov is not read again
+	 */
+	public Mp4Tag read(final Mp4BoxIndex boxIndex, final ReadOptions options) throws CannotReadException, IOException {
+		final int moov = boxIndex.getMoov();
+		if (moov == Mp4BoxIndex.NONE)
+			throw new CannotReadException(ErrorMessage.MP4_FILE_NOT_CONTAINER.getMsg());
+		final Mp4Tag tag = new Mp4Tag();
+		final Set<String> requiredIds = getRequiredIds(options);
 
-			// Level 4- Search for "ilst" within meta
-			boxHeader = Mp4BoxHeader.seekWithinLevel(moovBuffer, Mp4AtomIdentifier.ILST.getFieldName());
-			// This file does not actually contain a tag
-			if (boxHeader == null) {
-				logger.warning(ErrorMessage.MP4_FILE_HAS_NO_METADATA.getMsg());
-				return tag;
-			}
-		} else {
-			// Level 2-Searching for "meta" not within udta
-			boxHeader = Mp4BoxHeader.seekWithinLevel(moovBuffer, Mp4AtomIdentifier.META.getFieldName());
-			if (boxHeader == null) {
-				logger.warning(ErrorMessage.MP4_FILE_HAS_NO_METADATA.getMsg());
-				return tag;
-			}
-			final Mp4MetaBox meta = new Mp4MetaBox(boxHeader, moovBuffer);
-			meta.processData();
+		// Level 2-Searching for "udta" within "moov", if there is none "meta" may be within "moov" instead
+		final int udta = boxIndex.find(Mp4BoxIndex.UDTA, moov);
+		// Level 3-Searching for "meta" within udta
+		final int meta = boxIndex.find(Mp4BoxIndex.META, udta != Mp4BoxIndex.NONE ? udta : moov);
+		if (meta == Mp4BoxIndex.NONE) {
+			logger.warning(ErrorMessage.MP4_FILE_HAS_NO_METADATA.getMsg());
+			return tag;
+		}
 
-			// Level 3- Search for "ilst" within meta
-			boxHeader = Mp4BoxHeader.seekWithinLevel(moovBuffer, Mp4AtomIdentifier.ILST.getFieldName());
-			// This file does not actually contain a tag
-			if (boxHeader == null) {
-				logger.warning(ErrorMessage.MP4_FILE_HAS_NO_METADATA.getMsg());
-				return tag;
-			}
+		// Level 4- Search for "ilst" within meta
+		final int ilst = boxIndex.find(Mp4BoxIndex.ILST, meta);
+		// This file does not actually contain a tag
+		if (ilst == Mp4BoxIndex.NONE) {
+			logger.warning(ErrorMessage.MP4_FILE_HAS_NO_METADATA.getMsg());
+			return tag;
 		}
+		final Mp4BoxHeader boxHeader = boxIndex.getBoxHeader(ilst);
 
 		// Size of metadata (exclude the size of the ilst parentHeader), take a slice starting at
 		// metadata children to make things safer
-		final int length = boxHeader.getLength() - Mp4BoxHeader.HEADER_LENGTH;
-		final ByteBuffer metadataBuffer = moovBuffer.slice();
+		final int length = boxHeader.getDataLength();
+		final ByteBuffer metadataBuffer = boxIndex.getData(ilst);
 		// Datalength is longer are there boxes after ilst at this level?
 		logger.config("headerlengthsays:" + length + "datalength:" + metadataBuffer.limit());
 		int read = 0;
 		logger.config("Started to read metadata fields at position is in metadata buffer:" + metadataBuffer.position());
-		while (read < length) {
+		while (read < length && metadataBuffer.remaining() >= Mp4BoxHeader.HEADER_LENGTH) {
 			// Read the boxHeader
 			boxHeader.update(metadataBuffer);
 
 			// Create the corresponding datafield from the id, and slice the buffer so position of main buffer
 			// wont get affected
 			logger.config("Next position is at:" + metadataBuffer.position());
-			createMp4Field(tag, boxHeader, metadataBuffer.slice());
+			if (requiredIds == null || requiredIds.contains(boxHeader.getId()) || boxHeader.getId().equals(Mp4TagReverseDnsField.IDENTIFIER))
+				createMp4Field(tag, boxHeader, metadataBuffer.slice(), requiredIds);
 
 			// Move position in buffer to the start of the next parentHeader
 			metadataBuffer.position(metadataBuffer.position() + boxHeader.getDataLength());
@@ -171,6 +166,29 @@ public class Mp4TagReader {
 		return tag;
 	}
 
+	/**
+	 * @param options
+	 * @return the ids of the fields to create, or null if all fields are created
+	 */
+	private static Set<String> getRequiredIds(final ReadOptions options) {
+		if (options.getFields() == null)
+			return null;
+		final Set<String> ids = new HashSet<String>();
+		for (final FieldKey key : options.getFields()) {
+			final Mp4FieldKey mp4Key = Mp4Tag.getMp4FieldKey(key);
+			if (mp4Key != null)
+				ids.add(mp4Key.getFieldName());
+		}
+		// Genres not in the standard list are held in a separate field
+		if (ids.contains(Mp4FieldKey.GENRE.getFieldName()))
+			ids.add(Mp4FieldKey.GENRE_CUSTOM.getFieldName());
+		if (options.isArtworkRequired())
+			ids.add(Mp4FieldKey.ARTWORK.getFieldName());
+		else
+			ids.remove(Mp4FieldKey.ARTWORK.getFieldName());
+		return ids;
+	}
+
 	/**
 	 * Process the field and add to the tag
 	 * <p/>
@@ -180,20 +198,25 @@ public class Mp4TagReader {
 	 * @param tag
 	 * @param header
 	 * @param raw
+	 * @param requiredIds
+	 *            reverse dns fields are only added if their id is one of these, or null to add all fields
 	 * @return
 	 * @throws UnsupportedEncodingException
 	 */
-	private void createMp4Field(final Mp4Tag tag, final Mp4BoxHeader header, final ByteBuffer raw) throws UnsupportedEncodingException {
+	private void createMp4Field(final Mp4Tag tag, final Mp4BoxHeader header, final ByteBuffer raw, final Set<String> requiredIds) throws UnsupportedEncodingException {
 		// Reverse Dns Atom
 		if (header.getId().equals(Mp4TagReverseDnsField.IDENTIFIER))
 			//
 			try {
 				final TagField field = new Mp4TagReverseDnsField(header, raw);
-				tag.addField(field);
+				if (requiredIds == null || requiredIds.contains(field.getId()))
+					tag.addField(field);
 			} catch (final Exception e) {
 				logger.warning(ErrorMessage.MP4_UNABLE_READ_REVERSE_DNS_FIELD.getMsg(e.getMessage()));
-				final TagField field = new Mp4TagRawBinaryField(header, raw);
-				tag.addField(field);
+				if (requiredIds == null) {
+					final TagField field = new Mp4TagRawBinaryField(header, raw);
+					tag.addField(field);
+				}
 			}
 		else {
 			final int currentPos = raw.position();
@@ -22,12 +22,12 @@ import java.io.IOException;
 import java.io.RandomAccessFile;
 import java.nio.ByteBuffer;
 import java.nio.channels.FileChannel;
+import java.util.List;
 import java.util.logging.Logger;
 
-import javax.swing.tree.DefaultMutableTreeNode;
-
 import org.jaudiotagger.audio.exceptions.CannotReadException;
 import org.jaudiotagger.audio.exceptions.CannotWriteException;
+import org.jaudiotagger.audio.generic.Utils;
 import org.jaudiotagger.audio.mp4.atom.Mp4BoxHeader;
 import org.jaudiotagger.audio.mp4.atom.Mp4FreeBox;
 import org.jaudiotagger.audio.mp4.atom.Mp4HdlrBox;
@@ -160,14 +160,14 @@ public class Mp4TagWriter {
 		if (udtaHeader != null) {
 			// Write the updated udta atom header to moov buffer
 			udtaHeader.setLength(udtaHeader.getLength() + sizeAdjustment);
-			moovBuffer.position((int) (udtaHeader.getFilePos() - moovHeader.getFilePos() - Mp4BoxHeader.HEADER_LENGTH));
+			moovBuffer.position((int) (udtaHeader.getFilePos() - moovHeader.getFilePos() - moovHeader.getHeaderLength()));
 			moovBuffer.put(udtaHeader.getHeaderData());
 		}
 
 		if (metaHeader != null) {
 			// Write the updated udta atom header to moov buffer
 			metaHeader.setLength(metaHeader.getLength() + sizeAdjustment);
-			moovBuffer.position((int) (metaHeader.getFilePos() - moovHeader.getFilePos() - Mp4BoxHeader.HEADER_LENGTH));
+			moovBuffer.position((int) (metaHeader.getFilePos() - moovHeader.getFilePos() - moovHeader.getHeaderLength()));
 			moovBuffer.put(metaHeader.getHeaderData());
 		}
 	}
@@ -202,10 +202,10 @@ public class Mp4TagWriter {
 		// TODO we shouldn't need all these variables, and some are very badly named - used by new and old methods
 		int oldIlstSize = 0;
 		int relativeIlstposition;
-		int startIlstWithinFile;
+		long startIlstWithinFile;
 		int newIlstSize;
 		int oldMetaLevelFreeAtomSize;
-		int topLevelFreePosition;
+		long topLevelFreePosition;
 		int topLevelFreeSize;
 		long endOfMoov = 0;
 		// Found top level free atom that comes after moov and before mdat, (also true if no free atom ?)
@@ -214,18 +214,24 @@ public class Mp4TagWriter {
 		// Found top level free atom that comes between ftyp and moov
 		boolean topLevelFreeAtomComesBeforeMdatAndMetadata;
 
+		// Chunk offsets have been adjusted because mdat is going to be shifted
+		boolean chunkOffsetsAdjusted = false;
+
+		// Amount mdat is going to be shifted by
+		long mdatShift = 0;
+
 		Mp4BoxHeader topLevelFreeHeader;
 
-		Mp4AtomTree atomTree;
+		Mp4BoxIndex boxIndex;
 
-		// Build AtomTree
+		// Index the boxes
 		try {
-			atomTree = new Mp4AtomTree(raf, false);
+			boxIndex = new Mp4BoxIndex(raf);
 		} catch (final CannotReadException cre) {
 			throw new CannotWriteException(cre.getMessage());
 		}
 
-		final Mp4BoxHeader mdatHeader = atomTree.getBoxHeader(atomTree.getMdatNode());
+		final Mp4BoxHeader mdatHeader = boxIndex.getBoxHeader(boxIndex.getMdat());
 		// Unable to find audio so no chance of saving any changes
 		if (mdatHeader == null)
 			throw new CannotWriteException(ErrorMessage.MP4_CHANGES_TO_FILE_FAILED_CANNOT_FIND_AUDIO.getMsg());
@@ -236,18 +242,17 @@ public class Mp4TagWriter {
 		newIlstSize = rawIlstData.limit();
 
 		// Moov Box header
-		final Mp4BoxHeader moovHeader = atomTree.getBoxHeader(atomTree.getMoovNode());
-		final long positionWithinFileAfterFindingMoovHeader = moovHeader.getFilePos() + Mp4BoxHeader.HEADER_LENGTH;
-		endOfMoov = moovHeader.getFilePos() + moovHeader.getLength();
-
-		final Mp4StcoBox stco = atomTree.getStco();
-		final Mp4BoxHeader ilstHeader = atomTree.getBoxHeader(atomTree.getIlstNode());
-		Mp4BoxHeader udtaHeader = atomTree.getBoxHeader(atomTree.getUdtaNode());
-		final Mp4BoxHeader metaHeader = atomTree.getBoxHeader(atomTree.getMetaNode());
-		final Mp4BoxHeader hdlrMetaHeader = atomTree.getBoxHeader(atomTree.getHdlrWithinMetaNode());
-		final Mp4BoxHeader tagsHeader = atomTree.getBoxHeader(atomTree.getTagsNode());
-		final Mp4BoxHeader trakHeader = atomTree.getBoxHeader(atomTree.getTrakNodes().get(0));
-		final ByteBuffer moovBuffer = atomTree.getMoovBuffer();
+		final Mp4BoxHeader moovHeader = boxIndex.getBoxHeader(boxIndex.getMoov());
+		final long positionWithinFileAfterFindingMoovHeader = moovHeader.getFilePos() + moovHeader.getHeaderLength();
+		endOfMoov = moovHeader.getFilePos() + moovHeader.getLongLength();
+
+		final Mp4BoxHeader ilstHeader = boxIndex.getBoxHeader(boxIndex.getIlst());
+		Mp4BoxHeader udtaHeader = boxIndex.getBoxHeader(boxIndex.getUdta());
+		final Mp4BoxHeader metaHeader = boxIndex.getBoxHeader(boxIndex.getMeta());
+		final Mp4BoxHeader hdlrMetaHeader = boxIndex.getBoxHeader(boxIndex.getHdlrWithinMeta());
+		final Mp4BoxHeader tagsHeader = boxIndex.getBoxHeader(boxIndex.getTags());
+		final Mp4BoxHeader trakHeader = boxIndex.getBoxHeader(boxIndex.find(Mp4BoxIndex.TRAK, boxIndex.getMoov()));
+		final ByteBuffer moovBuffer = boxIndex.getMoovBuffer();
 
 		// Work out if we/what kind of metadata hierachy we currently have in the file
 		// Udta
@@ -259,53 +264,49 @@ public class Mp4TagWriter {
 					oldIlstSize = ilstHeader.getLength();
 
 					// Relative means relative to moov buffer after moov header
-					startIlstWithinFile = (int) ilstHeader.getFilePos();
-					relativeIlstposition = (int) (startIlstWithinFile - (moovHeader.getFilePos() + Mp4BoxHeader.HEADER_LENGTH));
+					startIlstWithinFile = ilstHeader.getFilePos();
+					relativeIlstposition = (int) (startIlstWithinFile - positionWithinFileAfterFindingMoovHeader);
 				} else // Place ilst immediately after existing hdlr atom
 				if (hdlrMetaHeader != null) {
-					startIlstWithinFile = (int) hdlrMetaHeader.getFilePos() + hdlrMetaHeader.getLength();
-					relativeIlstposition = (int) (startIlstWithinFile - (moovHeader.getFilePos() + Mp4BoxHeader.HEADER_LENGTH));
+					startIlstWithinFile = hdlrMetaHeader.getFilePos() + hdlrMetaHeader.getLength();
+					relativeIlstposition = (int) (startIlstWithinFile - positionWithinFileAfterFindingMoovHeader);
 				}
 				// Place ilst after data fields in meta atom
 				// TODO Should we create a hdlr atom
 				else {
-					startIlstWithinFile = (int) metaHeader.getFilePos() + Mp4BoxHeader.HEADER_LENGTH + Mp4MetaBox.FLAGS_LENGTH;
-					relativeIlstposition = (int) ((startIlstWithinFile) - (moovHeader.getFilePos() + Mp4BoxHeader.HEADER_LENGTH));
+					startIlstWithinFile = metaHeader.getFilePos() + metaHeader.getHeaderLength() + Mp4MetaBox.FLAGS_LENGTH;
+					relativeIlstposition = (int) (startIlstWithinFile - positionWithinFileAfterFindingMoovHeader);
 				}
 			} else {
 				// There no ilst or meta header so we set to position where it would be if it existed
-				relativeIlstposition = moovHeader.getLength() - Mp4BoxHeader.HEADER_LENGTH;
-				startIlstWithinFile = (int) (moovHeader.getFilePos() + moovHeader.getLength());
+				relativeIlstposition = moovHeader.getDataLength();
+				startIlstWithinFile = endOfMoov;
 			}
 		}
 		// There no udta header so we are going to create a new structure, but we have to be aware that there might be
 		// an existing meta box structure in which case we preserve it but with our new structure before it.
 		else // Create new structure just after the end of the trak atom
 		if (metaHeader != null) {
-			startIlstWithinFile = (int) trakHeader.getFilePos() + trakHeader.getLength();
-			relativeIlstposition = (int) (startIlstWithinFile - (moovHeader.getFilePos() + Mp4BoxHeader.HEADER_LENGTH));
+			startIlstWithinFile = trakHeader.getFilePos() + trakHeader.getLength();
+			relativeIlstposition = (int) (startIlstWithinFile - positionWithinFileAfterFindingMoovHeader);
 		} else {
 			// There no udta,ilst or meta header so we set to position where it would be if it existed
-			relativeIlstposition = moovHeader.getLength() - Mp4BoxHeader.HEADER_LENGTH;
-			startIlstWithinFile = (int) (moovHeader.getFilePos() + moovHeader.getLength());
+			relativeIlstposition = moovHeader.getDataLength();
+			startIlstWithinFile = endOfMoov;
 		}
 
 		// Find size of Level-4 Free atom (if any) immediately after ilst atom
-		oldMetaLevelFreeAtomSize = getMetaLevelFreeAtomSize(atomTree);
+		oldMetaLevelFreeAtomSize = getMetaLevelFreeAtomSize(boxIndex);
 
 		// Level-1 free atom
 		topLevelFreePosition = 0;
 		topLevelFreeSize = 0;
 		topLevelFreeAtomComesBeforeMdatAtomAndAfterMetadata = true;
 		topLevelFreeAtomComesBeforeMdatAndMetadata = false;
-		for (final DefaultMutableTreeNode freeNode : atomTree.getFreeNodes()) {
-			final DefaultMutableTreeNode parentNode = (DefaultMutableTreeNode) freeNode.getParent();
-			if (parentNode.isRoot()) {
-				topLevelFreeHeader = ((Mp4BoxHeader) freeNode.getUserObject());
-				topLevelFreeSize = topLevelFreeHeader.getLength();
-				topLevelFreePosition = (int) topLevelFreeHeader.getFilePos();
-				break;
-			}
+		topLevelFreeHeader = boxIndex.getBoxHeader(boxIndex.getTopLevelFree());
+		if (topLevelFreeHeader != null) {
+			topLevelFreeSize = topLevelFreeHeader.getLength();
+			topLevelFreePosition = topLevelFreeHeader.getFilePos();
 		}
 
 		if (topLevelFreeSize > 0) {
@@ -316,7 +317,10 @@ public class Mp4TagWriter {
 				topLevelFreeAtomComesBeforeMdatAndMetadata = true;
 			}
 		} else
-			topLevelFreePosition = (int) mdatHeader.getFilePos();
+			topLevelFreePosition = mdatHeader.getFilePos();
+
+		// Where ilst is written, only different when creating a new metadata structure
+		long newIlstPosition = startIlstWithinFile;
 
 		logger.config("Read header successfully ready for writing");
 		// The easiest option since no difference in the size of the metadata so all we have to do is
@@ -337,8 +341,7 @@ public class Mp4TagWriter {
 				// Write the modified free atom that comes after ilst
 				final int newFreeSize = oldMetaLevelFreeAtomSize + (oldIlstSize - newIlstSize);
 				final Mp4FreeBox newFreeBox = new Mp4FreeBox(newFreeSize - Mp4BoxHeader.HEADER_LENGTH);
-				fileWriteChannel.write(newFreeBox.getHeader().getHeaderData());
-				fileWriteChannel.write(newFreeBox.getData());
+				Utils.writeFully(fileWriteChannel, newFreeBox.getHeader().getHeaderData(), newFreeBox.getData());
 
 				// Skip over the read channel old free atom
 				fileReadChannel.position(fileReadChannel.position() + oldMetaLevelFreeAtomSize);
@@ -357,8 +360,7 @@ public class Mp4TagWriter {
 
 					// Create new free box
 					final Mp4FreeBox newFreeBox = new Mp4FreeBox(newFreeSize);
-					fileWriteChannel.write(newFreeBox.getHeader().getHeaderData());
-					fileWriteChannel.write(newFreeBox.getData());
+					Utils.writeFully(fileWriteChannel, newFreeBox.getHeader().getHeaderData(), newFreeBox.getData());
 
 					writeDataAfterIlst(fileReadChannel, fileWriteChannel, tagsHeader);
 				}
@@ -377,18 +379,19 @@ public class Mp4TagWriter {
 					// Edit stco atom within moov header, we need to adjust offsets by the amount mdat is going to be
 					// shifted
 					// unless mdat is at start of file
-					if (mdatHeader.getFilePos() > moovHeader.getFilePos())
-						stco.adjustOffsets(-sizeReducedBy);
+					if (mdatHeader.getFilePos() > moovHeader.getFilePos()) {
+						adjustChunkOffsets(boxIndex, -sizeReducedBy);
+						chunkOffsetsAdjusted = true;
+						mdatShift = -sizeReducedBy;
+					}
 
 					// Edit and rewrite the Moov,Udta and Meta header in moov buffer
 					adjustSizeOfMoovHeader(moovHeader, moovBuffer, -sizeReducedBy, udtaHeader, metaHeader);
-					fileWriteChannel.write(moovHeader.getHeaderData());
 					moovBuffer.rewind();
 					moovBuffer.limit(relativeIlstposition);
-					fileWriteChannel.write(moovBuffer);
 
-					// Now write ilst data
-					fileWriteChannel.write(rawIlstData);
+					// Write moov header and contents upto ilst followed by the new ilst data
+					Utils.writeFully(fileWriteChannel, moovHeader.getHeaderData(), moovBuffer, rawIlstData);
 					fileReadChannel.position(startIlstWithinFile + oldIlstSize);
 					writeDataAfterIlst(fileReadChannel, fileWriteChannel, tagsHeader);
 				}
@@ -409,8 +412,7 @@ public class Mp4TagWriter {
 
 				// Create an amended smaller freeBaos atom and write it to file
 				final Mp4FreeBox newFreeBox = new Mp4FreeBox(newFreeSize - Mp4BoxHeader.HEADER_LENGTH);
-				fileWriteChannel.write(newFreeBox.getHeader().getHeaderData());
-				fileWriteChannel.write(newFreeBox.getData());
+				Utils.writeFully(fileWriteChannel, newFreeBox.getHeader().getHeaderData(), newFreeBox.getData());
 
 				// Skip over the read channel old free atom
 				fileReadChannel.position(fileReadChannel.position() + oldMetaLevelFreeAtomSize);
@@ -425,16 +427,21 @@ public class Mp4TagWriter {
 			else {
 				int additionalMetaSizeThatWontFitWithinMetaAtom = additionalSpaceRequiredForMetadata - (oldMetaLevelFreeAtomSize);
 
+				// Size of free atom to write after ilst
+				int metaLevelPadding;
+
 				// Write stuff before Moov (ftyp)
 				fileReadChannel.position(0);
-				fileWriteChannel.transferFrom(fileReadChannel, 0, positionWithinFileAfterFindingMoovHeader - Mp4BoxHeader.HEADER_LENGTH);
-				fileWriteChannel.position(positionWithinFileAfterFindingMoovHeader - Mp4BoxHeader.HEADER_LENGTH);
+				fileWriteChannel.transferFrom(fileReadChannel, 0, moovHeader.getFilePos());
+				fileWriteChannel.position(moovHeader.getFilePos());
 
 				if (udtaHeader == null) {
 					logger.config("Writing:Option 5.1;No udta atom");
 
 					final Mp4HdlrBox hdlrBox = Mp4HdlrBox.createiTunesStyleHdlrBox();
-					final Mp4MetaBox metaBox = Mp4MetaBox.createiTunesStyleMetaBox(hdlrBox.getHeader().getLength() + rawIlstData.limit());
+					metaLevelPadding = getMetaLevelPadding(newIlstSize, topLevelFreeAtomComesBeforeMdatAtomAndAfterMetadata, topLevelFreeSize,
+							additionalMetaSizeThatWontFitWithinMetaAtom + Mp4BoxHeader.HEADER_LENGTH + Mp4BoxHeader.HEADER_LENGTH + Mp4MetaBox.FLAGS_LENGTH + hdlrBox.getHeader().getLength());
+					final Mp4MetaBox metaBox = Mp4MetaBox.createiTunesStyleMetaBox(hdlrBox.getHeader().getLength() + rawIlstData.limit() + metaLevelPadding);
 					udtaHeader = new Mp4BoxHeader(Mp4AtomIdentifier.UDTA.getFieldName());
 					udtaHeader.setLength(Mp4BoxHeader.HEADER_LENGTH + metaBox.getHeader().getLength());
 
@@ -443,30 +450,25 @@ public class Mp4TagWriter {
 					// Edit stco atom within moov header, if the free atom comes after mdat OR
 					// (there is not enough space in the top level free atom
 					// or special case of matching exactly the free atom plus header)
-					if ((!topLevelFreeAtomComesBeforeMdatAtomAndAfterMetadata)
-							|| ((topLevelFreeSize - Mp4BoxHeader.HEADER_LENGTH < additionalMetaSizeThatWontFitWithinMetaAtom) && (topLevelFreeSize != additionalMetaSizeThatWontFitWithinMetaAtom)))
+					if (isMdatShifted(topLevelFreeAtomComesBeforeMdatAtomAndAfterMetadata, topLevelFreeSize, additionalMetaSizeThatWontFitWithinMetaAtom))
 						// We don't bother using the top level free atom coz not big enough anyway, we need to adjust
 						// offsets
 						// by the amount mdat is going to be shifted
 						if (mdatHeader.getFilePos() > moovHeader.getFilePos()) {
 							logger.config("Adjusting Offsets");
-							stco.adjustOffsets(additionalMetaSizeThatWontFitWithinMetaAtom);
+							adjustChunkOffsets(boxIndex, additionalMetaSizeThatWontFitWithinMetaAtom);
+							chunkOffsetsAdjusted = true;
+							mdatShift = additionalMetaSizeThatWontFitWithinMetaAtom;
 						}
 
 					// Edit and rewrite the Moov header
 					moovHeader.setLength(moovHeader.getLength() + additionalMetaSizeThatWontFitWithinMetaAtom);
 
-					fileWriteChannel.write(moovHeader.getHeaderData());
+					// Write moov header and contents upto udta followed by the new atoms required for holding metadata in
+					// itunes format
 					moovBuffer.rewind();
 					moovBuffer.limit(relativeIlstposition);
-					fileWriteChannel.write(moovBuffer);
-
-					// Write new atoms required for holding metadata in itunes format
-					fileWriteChannel.write(udtaHeader.getHeaderData());
-					fileWriteChannel.write(metaBox.getHeader().getHeaderData());
-					fileWriteChannel.write(metaBox.getData());
-					fileWriteChannel.write(hdlrBox.getHeader().getHeaderData());
-					fileWriteChannel.write(hdlrBox.getData());
+					Utils.writeFully(fileWriteChannel, moovHeader.getHeaderData(), moovBuffer, udtaHeader.getHeaderData(), metaBox.getHeader().getHeaderData(), metaBox.getData(), hdlrBox.getHeader().getHeaderData(), hdlrBox.getData());
 				} else if (metaHeader == null) {
 					// #291:In this case we throwaway editing udta header and create a new one, would be beter if we
 					// coul
@@ -475,7 +477,9 @@ public class Mp4TagWriter {
 
 					final int oldUdtaHeaderLength = udtaHeader.getLength();
 					final Mp4HdlrBox hdlrBox = Mp4HdlrBox.createiTunesStyleHdlrBox();
-					final Mp4MetaBox metaBox = Mp4MetaBox.createiTunesStyleMetaBox(hdlrBox.getHeader().getLength() + rawIlstData.limit());
+					metaLevelPadding = getMetaLevelPadding(newIlstSize, topLevelFreeAtomComesBeforeMdatAtomAndAfterMetadata, topLevelFreeSize,
+							additionalMetaSizeThatWontFitWithinMetaAtom + Mp4BoxHeader.HEADER_LENGTH + Mp4BoxHeader.HEADER_LENGTH + Mp4MetaBox.FLAGS_LENGTH + hdlrBox.getHeader().getLength());
+					final Mp4MetaBox metaBox = Mp4MetaBox.createiTunesStyleMetaBox(hdlrBox.getHeader().getLength() + rawIlstData.limit() + metaLevelPadding);
 					udtaHeader = new Mp4BoxHeader(Mp4AtomIdentifier.UDTA.getFieldName());
 					udtaHeader.setLength(Mp4BoxHeader.HEADER_LENGTH + metaBox.getHeader().getLength());
 
@@ -484,58 +488,64 @@ public class Mp4TagWriter {
 					// Edit stco atom within moov header, if the free atom comes after mdat OR
 					// (there is not enough space in the top level free atom
 					// or special case of matching exactly the free atom plus header)
-					if ((!topLevelFreeAtomComesBeforeMdatAtomAndAfterMetadata)
-							|| ((topLevelFreeSize - Mp4BoxHeader.HEADER_LENGTH < additionalMetaSizeThatWontFitWithinMetaAtom) && (topLevelFreeSize != additionalMetaSizeThatWontFitWithinMetaAtom)))
+					if (isMdatShifted(topLevelFreeAtomComesBeforeMdatAtomAndAfterMetadata, topLevelFreeSize, additionalMetaSizeThatWontFitWithinMetaAtom))
 						// We don't bother using the top level free atom coz not big enough anyway, we need to adjust
 						// offsets
 						// by the amount mdat is going to be shifted
 						if (mdatHeader.getFilePos() > moovHeader.getFilePos()) {
 							logger.config("Adjusting Offsets");
-							stco.adjustOffsets(additionalMetaSizeThatWontFitWithinMetaAtom);
+							adjustChunkOffsets(boxIndex, additionalMetaSizeThatWontFitWithinMetaAtom);
+							chunkOffsetsAdjusted = true;
+							mdatShift = additionalMetaSizeThatWontFitWithinMetaAtom;
 						}
 
 					// Edit and rewrite the Moov header
 					moovHeader.setLength(moovHeader.getLength() - oldUdtaHeaderLength + additionalMetaSizeThatWontFitWithinMetaAtom);
 
-					fileWriteChannel.write(moovHeader.getHeaderData());
+					// Write moov header and contents upto udta followed by the new atoms required for holding metadata in
+					// itunes format
 					moovBuffer.rewind();
 					moovBuffer.limit(relativeIlstposition - oldUdtaHeaderLength);
-					fileWriteChannel.write(moovBuffer);
-
-					// Write new atoms required for holding metadata in itunes format
-					fileWriteChannel.write(udtaHeader.getHeaderData());
-					fileWriteChannel.write(metaBox.getHeader().getHeaderData());
-					fileWriteChannel.write(metaBox.getData());
-					fileWriteChannel.write(hdlrBox.getHeader().getHeaderData());
-					fileWriteChannel.write(hdlrBox.getData());
+					Utils.writeFully(fileWriteChannel, moovHeader.getHeaderData(), moovBuffer, udtaHeader.getHeaderData(), metaBox.getHeader().getHeaderData(), metaBox.getData(), hdlrBox.getHeader().getHeaderData(), hdlrBox.getData());
 				} else {
 					logger.config("Writing:Option 5.3;udta atom exists");
 
+					metaLevelPadding = getMetaLevelPadding(newIlstSize, topLevelFreeAtomComesBeforeMdatAtomAndAfterMetadata, topLevelFreeSize, additionalMetaSizeThatWontFitWithinMetaAtom);
+					additionalMetaSizeThatWontFitWithinMetaAtom += metaLevelPadding;
+
 					// Edit stco atom within moov header, if the free atom comes after mdat OR
 					// (there is not enough space in the top level free atom
 					// or special case of matching exactly the free atom plus header)
-					if ((!topLevelFreeAtomComesBeforeMdatAtomAndAfterMetadata)
-							|| ((topLevelFreeSize - Mp4BoxHeader.HEADER_LENGTH < additionalMetaSizeThatWontFitWithinMetaAtom) && (topLevelFreeSize != additionalMetaSizeThatWontFitWithinMetaAtom)))
+					if (isMdatShifted(topLevelFreeAtomComesBeforeMdatAtomAndAfterMetadata, topLevelFreeSize, additionalMetaSizeThatWontFitWithinMetaAtom))
 						// We don't bother using the top level free atom coz not big enough anyway, we need to adjust
 						// offsets
 						// by the amount mdat is going to be shifted
-						if (mdatHeader.getFilePos() > moovHeader.getFilePos())
-							stco.adjustOffsets(additionalMetaSizeThatWontFitWithinMetaAtom);
+						if (mdatHeader.getFilePos() > moovHeader.getFilePos()) {
+							adjustChunkOffsets(boxIndex, additionalMetaSizeThatWontFitWithinMetaAtom);
+							chunkOffsetsAdjusted = true;
+							mdatShift = additionalMetaSizeThatWontFitWithinMetaAtom;
+						}
 
 					// Edit and rewrite the Moov header
 					adjustSizeOfMoovHeader(moovHeader, moovBuffer, additionalMetaSizeThatWontFitWithinMetaAtom, udtaHeader, metaHeader);
 
-					fileWriteChannel.write(moovHeader.getHeaderData());
-
 					// Now write from this edited buffer up until ilst atom
 					moovBuffer.rewind();
 					moovBuffer.limit(relativeIlstposition);
-					fileWriteChannel.write(moovBuffer);
+					Utils.writeFully(fileWriteChannel, moovHeader.getHeaderData(), moovBuffer);
 				}
 
 				// Now write ilst data
+				newIlstPosition = fileWriteChannel.position();
 				fileWriteChannel.write(rawIlstData);
 
+				// Reserve space so later edits fit without moving mdat
+				if (metaLevelPadding > 0) {
+					logger.config("Writing padding after ilst:" + metaLevelPadding);
+					final Mp4FreeBox paddingBox = new Mp4FreeBox(metaLevelPadding - Mp4BoxHeader.HEADER_LENGTH);
+					Utils.writeFully(fileWriteChannel, paddingBox.getHeader().getHeaderData(), paddingBox.getData());
+				}
+
 				// Skip over the read channel old meta level free atom because now used up
 				fileReadChannel.position(startIlstWithinFile + oldIlstSize);
 				fileReadChannel.position(fileReadChannel.position() + oldMetaLevelFreeAtomSize);
@@ -569,8 +579,7 @@ public class Mp4TagWriter {
 					if (topLevelFreeSize - Mp4BoxHeader.HEADER_LENGTH >= additionalMetaSizeThatWontFitWithinMetaAtom) {
 						logger.config("Writing:Option 6;Larger Size can use top free atom");
 						final Mp4FreeBox freeBox = new Mp4FreeBox((topLevelFreeSize - Mp4BoxHeader.HEADER_LENGTH) - additionalMetaSizeThatWontFitWithinMetaAtom);
-						fileWriteChannel.write(freeBox.getHeader().getHeaderData());
-						fileWriteChannel.write(freeBox.getData());
+						Utils.writeFully(fileWriteChannel, freeBox.getHeader().getHeaderData(), freeBox.getData());
 
 						// Skip over the read channel old free atom
 						fileReadChannel.position(fileReadChannel.position() + topLevelFreeSize);
@@ -601,11 +610,145 @@ public class Mp4TagWriter {
 				}
 			}
 		}
+		final long moovSizeAdjustment = moovHeader.getLongLength() - (endOfMoov - moovHeader.getFilePos());
+		if (chunkOffsetsAdjusted)
+			writeChunkOffsetsAfterIlst(fileWriteChannel, boxIndex, startIlstWithinFile + oldIlstSize, moovSizeAdjustment);
+
 		// Close all channels to original file
 		fileReadChannel.close();
 		raf.close();
 
-		checkFileWrittenCorrectly(rafTemp, mdatHeader, fileWriteChannel, stco);
+		if (TagOptionSingleton.getInstance().isMp4VerifyWriteByReparsing())
+			checkFileWrittenCorrectlyByReparsing(rafTemp, mdatHeader, fileWriteChannel, boxIndex.getChunkOffsetBoxes());
+		else
+			checkFileWrittenCorrectly(rafTemp, fileWriteChannel, moovHeader, mdatHeader, mdatShift, newIlstPosition, newIlstSize, boxIndex.getChunkOffsetBoxes(), startIlstWithinFile + oldIlstSize, moovSizeAdjustment);
+	}
+
+	/**
+	 * Write tag directly into the original file if the new ilst fits in the space used by the old ilst and the free atom
+	 * after it, so nothing else in the file has to change
+	 * 
+	 * @param tag
+	 * @param raf
+	 *            the file opened for writing
+	 * @return true if the tag was written, false if there is not enough room and nothing was written
+	 * @throws CannotWriteException
+	 * @throws IOException
+	 */
+	public boolean writeInPlace(final Tag tag, final RandomAccessFile raf) throws CannotWriteException, IOException {
+		final Mp4BoxIndex boxIndex;
+		try {
+			boxIndex = new Mp4BoxIndex(raf);
+		} catch (final CannotReadException cre) {
+			throw new CannotWriteException(cre.getMessage());
+		}
+
+		// Nero tags atom has to be converted to a free atom so leave that to the full write
+		if (boxIndex.getIlst() == Mp4BoxIndex.NONE || boxIndex.getTags() != Mp4BoxIndex.NONE)
+			return false;
+
+		final ByteBuffer rawIlstData = tc.convert(tag);
+		rawIlstData.rewind();
+		final int newIlstSize = rawIlstData.limit();
+		final int oldIlstSize = (int) boxIndex.getLength(boxIndex.getIlst());
+		int availableRoom = oldIlstSize;
+		final int free = boxIndex.getFreeAfterIlst();
+		if (free != Mp4BoxIndex.NONE && boxIndex.getPreviousSibling(free) == boxIndex.getIlst())
+			availableRoom += boxIndex.getLength(free);
+		logger.config("Writing tag in place available bytes:" + availableRoom + ":needed bytes:" + newIlstSize);
+
+		// Any space left over must be big enough to hold a free atom
+		final int freeSize = availableRoom - newIlstSize;
+		if (freeSize != 0 && freeSize < Mp4BoxHeader.HEADER_LENGTH)
+			return false;
+
+		final FileChannel fc = raf.getChannel();
+		fc.position(boxIndex.getFilePos(boxIndex.getIlst()));
+		Utils.writeFully(fc, rawIlstData);
+		if (freeSize > 0) {
+			final Mp4FreeBox freeBox = new Mp4FreeBox(freeSize - Mp4BoxHeader.HEADER_LENGTH);
+			Utils.writeFully(fc, freeBox.getHeader().getHeaderData(), freeBox.getData());
+		}
+		return true;
+	}
+
+	/**
+	 * @param topLevelFreeAtomComesBeforeMdatAtomAndAfterMetadata
+	 * @param topLevelFreeSize
+	 * @param additionalSize
+	 *            amount moov is growing by
+	 * @return true if mdat has to be shifted because the top level free atom cannot absorb the growth of moov
+	 */
+	private boolean isMdatShifted(final boolean topLevelFreeAtomComesBeforeMdatAtomAndAfterMetadata, final int topLevelFreeSize, final int additionalSize) {
+		return !topLevelFreeAtomComesBeforeMdatAtomAndAfterMetadata || ((topLevelFreeSize - Mp4BoxHeader.HEADER_LENGTH < additionalSize) && (topLevelFreeSize != additionalSize));
+	}
+
+	/**
+	 * Size of the free atom to write after ilst when mdat has to be shifted anyway, as set by
+	 * {@link TagOptionSingleton#getMp4PaddingPolicy()}
+	 * 
+	 * @param newIlstSize
+	 * @param topLevelFreeAtomComesBeforeMdatAtomAndAfterMetadata
+	 * @param topLevelFreeSize
+	 * @param additionalSize
+	 *            amount moov is growing by without padding
+	 * @return the padding including the free atom header, or 0
+	 */
+	private int getMetaLevelPadding(final int newIlstSize, final boolean topLevelFreeAtomComesBeforeMdatAtomAndAfterMetadata, final int topLevelFreeSize, final int additionalSize) {
+		// No point adding padding if the top level free atom can be used so mdat doesnt move
+		if (!isMdatShifted(topLevelFreeAtomComesBeforeMdatAtomAndAfterMetadata, topLevelFreeSize, additionalSize))
+			return 0;
+		int padding = TagOptionSingleton.getInstance().getMp4PaddingPolicy().getPaddingSize(newIlstSize);
+		if (padding == 0)
+			return 0;
+		padding = Math.max(padding, Mp4BoxHeader.HEADER_LENGTH);
+
+		// If the growth would exactly match the top level free atom it would be used up instead of mdat being shifted
+		if (!isMdatShifted(topLevelFreeAtomComesBeforeMdatAtomAndAfterMetadata, topLevelFreeSize, additionalSize + padding))
+			padding++;
+		return padding;
+	}
+
+	/**
+	 * Adjust the chunk offsets of every track by the amount mdat is going to be shifted
+	 * 
+	 * @param boxIndex
+	 * @param adjustment
+	 * @throws CannotWriteException
+	 *             if a stco offset would no longer fit in 4 bytes
+	 */
+	private void adjustChunkOffsets(final Mp4BoxIndex boxIndex, final long adjustment) throws CannotWriteException {
+		for (final Mp4StcoBox chunkOffsetBox : boxIndex.getChunkOffsetBoxes())
+			if (!chunkOffsetBox.isCo64() && chunkOffsetBox.getMaxOffset() + adjustment > 0xFFFFFFFFL)
+				throw new CannotWriteException(ErrorMessage.MP4_CHANGES_TO_FILE_FAILED_OFFSETS_TOO_LARGE.getMsg(Mp4AtomIdentifier.STCO.getFieldName()));
+		for (final Mp4StcoBox chunkOffsetBox : boxIndex.getChunkOffsetBoxes())
+			chunkOffsetBox.adjustOffsets(adjustment);
+	}
+
+	/**
+	 * The moov data after ilst is copied from the original file, so the chunk offset tables of tracks that come after
+	 * ilst are rewritten from the adjusted moov buffer at their new location
+	 * 
+	 * @param fileWriteChannel
+	 * @param boxIndex
+	 * @param endOfIlstWithinFile
+	 *            end of the original ilst
+	 * @param moovSizeAdjustment
+	 *            the amount moov data after ilst has been shifted by
+	 * @throws IOException
+	 */
+	private void writeChunkOffsetsAfterIlst(final FileChannel fileWriteChannel, final Mp4BoxIndex boxIndex, final long endOfIlstWithinFile, final long moovSizeAdjustment) throws IOException {
+		for (final Mp4StcoBox chunkOffsetBox : boxIndex.getChunkOffsetBoxes()) {
+			final Mp4BoxHeader header = chunkOffsetBox.getHeader();
+			if (header.getFilePos() < endOfIlstWithinFile)
+				continue;
+			final ByteBuffer table = chunkOffsetBox.getData().duplicate();
+			table.rewind();
+			table.limit(header.getDataLength());
+			long position = header.getFilePos() + header.getHeaderLength() + moovSizeAdjustment;
+			while (table.hasRemaining())
+				position += fileWriteChannel.write(table, position);
+		}
 	}
 
 	/**
@@ -641,8 +784,7 @@ public class Mp4TagWriter {
 	 */
 	private void convertandWriteTagsAtomToFreeAtom(final FileChannel fileWriteChannel, final Mp4BoxHeader tagsHeader) throws IOException {
 		final Mp4FreeBox freeBox = new Mp4FreeBox(tagsHeader.getDataLength());
-		fileWriteChannel.write(freeBox.getHeader().getHeaderData());
-		fileWriteChannel.write(freeBox.getData());
+		Utils.writeFully(fileWriteChannel, freeBox.getHeader().getHeaderData(), freeBox.getData());
 	}
 
 	/**
@@ -657,7 +799,7 @@ public class Mp4TagWriter {
 	 * @param rawIlstData
 	 * @throws IOException
 	 */
-	private void writeDataUptoIncludingIlst(final FileChannel fileReadChannel, final FileChannel fileWriteChannel, final int oldIlstSize, final int startIlstWithinFile, final ByteBuffer rawIlstData) throws IOException {
+	private void writeDataUptoIncludingIlst(final FileChannel fileReadChannel, final FileChannel fileWriteChannel, final int oldIlstSize, final long startIlstWithinFile, final ByteBuffer rawIlstData) throws IOException {
 		fileReadChannel.position(0);
 		fileWriteChannel.transferFrom(fileReadChannel, 0, startIlstWithinFile);
 		fileWriteChannel.position(startIlstWithinFile);
@@ -689,85 +831,166 @@ public class Mp4TagWriter {
 	 * Determine the size of the free atom immediately after ilst atom at the same level (if any), we can use this if
 	 * ilst needs to grow or shrink because of more less metadata
 	 * 
-	 * @param atomTree
+	 * @param boxIndex
 	 * @return
 	 */
-	private int getMetaLevelFreeAtomSize(final Mp4AtomTree atomTree) {
-		int oldMetaLevelFreeAtomSize;// Level 4 - Free
-		oldMetaLevelFreeAtomSize = 0;
-
-		for (final DefaultMutableTreeNode freeNode : atomTree.getFreeNodes()) {
-			final DefaultMutableTreeNode parentNode = (DefaultMutableTreeNode) freeNode.getParent();
-			final DefaultMutableTreeNode brotherNode = freeNode.getPreviousSibling();
-			if (!parentNode.isRoot()) {
-				final Mp4BoxHeader parentHeader = ((Mp4BoxHeader) parentNode.getUserObject());
-				final Mp4BoxHeader freeHeader = ((Mp4BoxHeader) freeNode.getUserObject());
-
-				// We are only interested in free atoms at this level if they come after the ilst node
-				if (brotherNode != null) {
-					final Mp4BoxHeader brotherHeader = ((Mp4BoxHeader) brotherNode.getUserObject());
-
-					if (parentHeader.getId().equals(Mp4AtomIdentifier.META.getFieldName()) && brotherHeader.getId().equals(Mp4AtomIdentifier.ILST.getFieldName())) {
-						oldMetaLevelFreeAtomSize = freeHeader.getLength();
-						break;
-					}
-				}
+	private int getMetaLevelFreeAtomSize(final Mp4BoxIndex boxIndex) {
+		// Level 4 - Free, we are only interested in free atoms at this level if they come after the ilst node
+		final int free = boxIndex.getFreeAfterIlst();
+		return free == Mp4BoxIndex.NONE ? 0 : (int) boxIndex.getLength(free);
+	}
+
+	/**
+	 * Check the file has been written as planned without reading moov again, the moov, ilst and mdat headers are read
+	 * from where they should have been written, and the first offset of every chunk offset table must have moved by the
+	 * same amount as mdat. The new file is synced and closed, like {@link #checkFileWrittenCorrectlyByReparsing}
+	 * 
+	 * @param rafTemp
+	 * @param fileWriteChannel
+	 * @param moovHeader
+	 *            moov header as written
+	 * @param mdatHeader
+	 *            mdat header of the original file
+	 * @param mdatShift
+	 *            amount mdat was planned to move by
+	 * @param ilstPosition
+	 *            where ilst was written
+	 * @param ilstSize
+	 * @param chunkOffsetBoxes
+	 *            chunk offset boxes of the original file
+	 * @param endOfIlstWithinFile
+	 *            end of the original ilst, boxes after this were moved by moovSizeAdjustment
+	 * @param moovSizeAdjustment
+	 * @throws CannotWriteException
+	 * @throws IOException
+	 */
+	private void checkFileWrittenCorrectly(final RandomAccessFile rafTemp, final FileChannel fileWriteChannel, final Mp4BoxHeader moovHeader, final Mp4BoxHeader mdatHeader, final long mdatShift, final long ilstPosition, final int ilstSize,
+			final List<Mp4StcoBox> chunkOffsetBoxes, final long endOfIlstWithinFile, final long moovSizeAdjustment) throws CannotWriteException, IOException {
+		logger.config("Checking file has been written correctly");
+
+		try {
+			final Mp4BoxHeader newMoovHeader = readHeaderWritten(fileWriteChannel, moovHeader.getFilePos());
+			if (newMoovHeader == null || !newMoovHeader.getId().equals(Mp4AtomIdentifier.MOOV.getFieldName()) || newMoovHeader.getLongLength() != moovHeader.getLongLength())
+				throw new CannotWriteException(ErrorMessage.MP4_CHANGES_TO_FILE_FAILED_DATA_CORRUPT.getMsg());
+
+			// Check we still have audio data at the planned position with the same length
+			final Mp4BoxHeader newMdatHeader = readHeaderWritten(fileWriteChannel, mdatHeader.getFilePos() + mdatShift);
+			if (newMdatHeader == null || !newMdatHeader.getId().equals(Mp4AtomIdentifier.MDAT.getFieldName()))
+				throw new CannotWriteException(ErrorMessage.MP4_CHANGES_TO_FILE_FAILED_NO_DATA.getMsg());
+			if (newMdatHeader.getLongLength() != mdatHeader.getLongLength())
+				throw new CannotWriteException(ErrorMessage.MP4_CHANGES_TO_FILE_FAILED_DATA_CORRUPT.getMsg());
+
+			final Mp4BoxHeader newIlstHeader = readHeaderWritten(fileWriteChannel, ilstPosition);
+			if (newIlstHeader == null || !newIlstHeader.getId().equals(Mp4AtomIdentifier.ILST.getFieldName()) || newIlstHeader.getLongLength() != ilstSize)
+				throw new CannotWriteException(ErrorMessage.MP4_CHANGES_TO_FILE_FAILED_NO_TAG_DATA.getMsg());
+
+			// The offsets of every track must have moved by the same amount as mdat
+			final ByteBuffer offset = ByteBuffer.allocate(Mp4StcoBox.CO64_OFFSET_LENGTH);
+			for (final Mp4StcoBox stco : chunkOffsetBoxes) {
+				if (stco.getNoOfOffSets() == 0)
+					continue;
+				final Mp4BoxHeader header = stco.getHeader();
+				long position = header.getFilePos() + header.getHeaderLength() + Mp4StcoBox.OFFSETS_POS;
+				if (header.getFilePos() >= endOfIlstWithinFile)
+					position += moovSizeAdjustment;
+				offset.clear();
+				offset.limit(stco.isCo64() ? Mp4StcoBox.CO64_OFFSET_LENGTH : Mp4StcoBox.OFFSET_LENGTH);
+				while (offset.hasRemaining())
+					if (fileWriteChannel.read(offset, position + offset.position()) < 0)
+						throw new CannotWriteException(ErrorMessage.MP4_CHANGES_TO_FILE_FAILED_DATA_CORRUPT.getMsg());
+				final long newFirstOffset = stco.isCo64() ? offset.getLong(0) : offset.getInt(0) & 0xFFFFFFFFL;
+				logger.finer("stco:Original First Offset" + stco.getFirstOffSet() + ":New First Offset" + newFirstOffset + ":Mdat Shift" + mdatShift);
+				if (newFirstOffset - stco.getFirstOffSet() != mdatShift)
+					throw new CannotWriteException(ErrorMessage.MP4_CHANGES_TO_FILE_FAILED_INCORRECT_OFFSETS.getMsg(newFirstOffset - stco.getFirstOffSet() - mdatShift));
 			}
+			Utils.syncBeforeClose(fileWriteChannel);
+		} finally {
+			// Close references to new file
+			rafTemp.close();
+			fileWriteChannel.close();
 		}
-		return oldMetaLevelFreeAtomSize;
+		logger.config("File has been written correctly");
 	}
 
 	/**
-	 * Check File Written Correctly
+	 * @param fileWriteChannel
+	 * @param position
+	 * @return the header written at position, or null if there is not a valid header there
+	 * @throws IOException
+	 */
+	private Mp4BoxHeader readHeaderWritten(final FileChannel fileWriteChannel, final long position) throws IOException {
+		final ByteBuffer headerBuffer = ByteBuffer.allocate(Mp4BoxHeader.LARGE_HEADER_LENGTH);
+		fileWriteChannel.position(position);
+		if (!Mp4BoxHeader.readHeader(fileWriteChannel, headerBuffer))
+			return null;
+		try {
+			final Mp4BoxHeader header = new Mp4BoxHeader(headerBuffer);
+			header.setFilePos(position);
+			return header;
+		} catch (final RuntimeException re) {
+			// NullBoxIdException or InvalidBoxHeaderException
+			return null;
+		}
+	}
+
+	/**
+	 * Check File Written Correctly by indexing the whole of the new file, only used if
+	 * {@link TagOptionSingleton#isMp4VerifyWriteByReparsing()} is set
 	 * 
 	 * @param rafTemp
 	 * @param mdatHeader
 	 * @param fileWriteChannel
-	 * @param stco
+	 * @param chunkOffsetBoxes
+	 *            chunk offset boxes of the original file
 	 * @throws CannotWriteException
 	 * @throws IOException
 	 */
-	private void checkFileWrittenCorrectly(final RandomAccessFile rafTemp, final Mp4BoxHeader mdatHeader, final FileChannel fileWriteChannel, final Mp4StcoBox stco) throws CannotWriteException, IOException {
+	private void checkFileWrittenCorrectlyByReparsing(final RandomAccessFile rafTemp, final Mp4BoxHeader mdatHeader, final FileChannel fileWriteChannel, final List<Mp4StcoBox> chunkOffsetBoxes) throws CannotWriteException, IOException {
 
 		logger.config("Checking file has been written correctly");
 
 		try {
-			// Create a tree from the new file
-			Mp4AtomTree newAtomTree;
-			newAtomTree = new Mp4AtomTree(rafTemp, false);
+			// Index the new file
+			final Mp4BoxIndex newBoxIndex = new Mp4BoxIndex(rafTemp);
 
 			// Check we still have audio data file, and check length
-			final Mp4BoxHeader newMdatHeader = newAtomTree.getBoxHeader(newAtomTree.getMdatNode());
+			final Mp4BoxHeader newMdatHeader = newBoxIndex.getBoxHeader(newBoxIndex.getMdat());
 			if (newMdatHeader == null)
 				throw new CannotWriteException(ErrorMessage.MP4_CHANGES_TO_FILE_FAILED_NO_DATA.getMsg());
-			if (newMdatHeader.getLength() != mdatHeader.getLength())
+			if (newMdatHeader.getLongLength() != mdatHeader.getLongLength())
 				throw new CannotWriteException(ErrorMessage.MP4_CHANGES_TO_FILE_FAILED_DATA_CORRUPT.getMsg());
 
 			// Should always have udta atom after writing to file
-			final Mp4BoxHeader newUdtaHeader = newAtomTree.getBoxHeader(newAtomTree.getUdtaNode());
+			final Mp4BoxHeader newUdtaHeader = newBoxIndex.getBoxHeader(newBoxIndex.getUdta());
 			if (newUdtaHeader == null)
 				throw new CannotWriteException(ErrorMessage.MP4_CHANGES_TO_FILE_FAILED_NO_TAG_DATA.getMsg());
 
 			// Should always have meta atom after writing to file
-			final Mp4BoxHeader newMetaHeader = newAtomTree.getBoxHeader(newAtomTree.getMetaNode());
+			final Mp4BoxHeader newMetaHeader = newBoxIndex.getBoxHeader(newBoxIndex.getMeta());
 			if (newMetaHeader == null)
 				throw new CannotWriteException(ErrorMessage.MP4_CHANGES_TO_FILE_FAILED_NO_TAG_DATA.getMsg());
 
-			// Check offsets are correct, may not match exactly in original file so just want to make
+			// Check offsets of every track are correct, may not match exactly in original file so just want to make
 			// sure that the discrepancy if any is preserved
-			final Mp4StcoBox newStco = newAtomTree.getStco();
-
-			logger.finer("stco:Original First Offset" + stco.getFirstOffSet());
-			logger.finer("stco:Original Diff" + (int) (stco.getFirstOffSet() - mdatHeader.getFilePos()));
-			logger.finer("stco:Original Mdat Pos" + mdatHeader.getFilePos());
-			logger.finer("stco:New First Offset" + newStco.getFirstOffSet());
-			logger.finer("stco:New Diff" + (int) ((newStco.getFirstOffSet() - newMdatHeader.getFilePos())));
-			logger.finer("stco:New Mdat Pos" + newMdatHeader.getFilePos());
-			final int diff = (int) (stco.getFirstOffSet() - mdatHeader.getFilePos());
-			if ((newStco.getFirstOffSet() - newMdatHeader.getFilePos()) != diff) {
-				final int discrepancy = (int) ((newStco.getFirstOffSet() - newMdatHeader.getFilePos()) - diff);
-				throw new CannotWriteException(ErrorMessage.MP4_CHANGES_TO_FILE_FAILED_INCORRECT_OFFSETS.getMsg(discrepancy));
+			final List<Mp4StcoBox> newChunkOffsetBoxes = newBoxIndex.getChunkOffsetBoxes();
+			if (newChunkOffsetBoxes.size() != chunkOffsetBoxes.size())
+				throw new CannotWriteException(ErrorMessage.MP4_CHANGES_TO_FILE_FAILED_DATA_CORRUPT.getMsg());
+			for (int i = 0; i < chunkOffsetBoxes.size(); i++) {
+				final Mp4StcoBox stco = chunkOffsetBoxes.get(i);
+				final Mp4StcoBox newStco = newChunkOffsetBoxes.get(i);
+				logger.finer("stco:Original First Offset" + stco.getFirstOffSet());
+				logger.finer("stco:Original Diff" + (stco.getFirstOffSet() - mdatHeader.getFilePos()));
+				logger.finer("stco:Original Mdat Pos" + mdatHeader.getFilePos());
+				logger.finer("stco:New First Offset" + newStco.getFirstOffSet());
+				logger.finer("stco:New Diff" + (newStco.getFirstOffSet() - newMdatHeader.getFilePos()));
+				logger.finer("stco:New Mdat Pos" + newMdatHeader.getFilePos());
+				final long diff = stco.getFirstOffSet() - mdatHeader.getFilePos();
+				if ((newStco.getFirstOffSet() - newMdatHeader.getFilePos()) != diff) {
+					final long discrepancy = (newStco.getFirstOffSet() - newMdatHeader.getFilePos()) - diff;
+					throw new CannotWriteException(ErrorMessage.MP4_CHANGES_TO_FILE_FAILED_INCORRECT_OFFSETS.getMsg(discrepancy));
+				}
 			}
+			Utils.syncBeforeClose(fileWriteChannel);
 		} catch (final Exception e) {
 			if (e instanceof CannotWriteException)
 				throw (CannotWriteException) e;
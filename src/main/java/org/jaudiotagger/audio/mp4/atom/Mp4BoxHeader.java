@@ -22,6 +22,8 @@ import java.io.IOException;
 import java.io.RandomAccessFile;
 import java.io.UnsupportedEncodingException;
 import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
 import java.util.logging.Logger;
 
 import org.jaudiotagger.audio.exceptions.InvalidBoxHeaderException;
@@ -36,7 +38,8 @@ import org.jaudiotagger.logging.ErrorMessage;
  * order to find them.
  * <p/>
  * All boxes consist of a 4 byte box length (big Endian), and then a 4 byte identifier, this is the header which is
- * model in this class.
+ * model in this class. Boxes larger than 4GB, usually only mdat, have a box length of 1 and the real length is held in
+ * an 8 byte largesize field after the identifier, making a 16 byte header.
  * <p/>
  * The length includes the length of the box including the identifier and the length itself. Then they may contain data
  * and/or sub boxes, if they contain subboxes they are known as a parent box. Parent boxes shouldn't really contain
@@ -56,12 +59,20 @@ public class Mp4BoxHeader {
 	public static final int OFFSET_LENGTH = 4;
 	public static final int IDENTIFIER_LENGTH = 4;
 	public static final int HEADER_LENGTH = OFFSET_LENGTH + IDENTIFIER_LENGTH;
+	public static final int LARGESIZE_LENGTH = 8;
+	public static final int LARGE_HEADER_LENGTH = HEADER_LENGTH + LARGESIZE_LENGTH;
+
+	// Box length that means the real length is held in the largesize field
+	private static final int LARGESIZE_FLAG = 1;
 
 	// Box identifier
 	private String id;
 
 	// Box length
-	protected int length;
+	protected long length;
+
+	// Length of header, longer if the box uses largesize
+	private int headerLength = HEADER_LENGTH;
 
 	// If reading from file , this can be used to hold the headers position in the file
 	private long filePos;
@@ -125,21 +136,30 @@ public class Mp4BoxHeader {
 	 */
 	public void update(final ByteBuffer headerData) {
 		// Read header data into byte array
-		final byte[] b = new byte[HEADER_LENGTH];
+		byte[] b = new byte[HEADER_LENGTH];
 		headerData.get(b);
-		// Keep reference to copy of RawData
-		dataBuffer = ByteBuffer.wrap(b);
 
-		// Calculate box size
-		this.length = Utils.getIntBE(b, OFFSET_POS, OFFSET_LENGTH - 1);
+		// Calculate box size, unsigned
+		this.length = Utils.getLongBE(ByteBuffer.wrap(b), OFFSET_POS, OFFSET_LENGTH - 1);
 		// Calculate box id
 		this.id = Utils.getString(b, IDENTIFIER_POS, IDENTIFIER_LENGTH, "ISO-8859-1");
 
+		// Real size follows the identifier
+		headerLength = HEADER_LENGTH;
+		if (length == LARGESIZE_FLAG && headerData.remaining() >= LARGESIZE_LENGTH) {
+			b = Arrays.copyOf(b, LARGE_HEADER_LENGTH);
+			headerData.get(b, HEADER_LENGTH, LARGESIZE_LENGTH);
+			this.length = ByteBuffer.wrap(b, HEADER_LENGTH, LARGESIZE_LENGTH).getLong();
+			headerLength = LARGE_HEADER_LENGTH;
+		}
+		// Keep reference to copy of RawData
+		dataBuffer = ByteBuffer.wrap(b);
+
 		logger.finest("Mp4BoxHeader id:" + id + ":length:" + length);
 		if (id.equals("\0\0\0\0"))
 			throw new NullBoxIdException(ErrorMessage.MP4_UNABLE_TO_FIND_NEXT_ATOM_BECAUSE_IDENTIFIER_IS_INVALID.getMsg(id));
 
-		if (length < HEADER_LENGTH)
+		if (length < headerLength)
 			throw new InvalidBoxHeaderException(ErrorMessage.MP4_UNABLE_TO_FIND_NEXT_ATOM_BECAUSE_IDENTIFIER_IS_INVALID.getMsg(id, length));
 	}
 
@@ -151,28 +171,49 @@ public class Mp4BoxHeader {
 	}
 
 	/**
+	 * Only boxes held in memory, such as everything under moov, are guaranteed to fit in an int, use
+	 * {@link #getLongLength()} for top level boxes such as mdat.
+	 * 
 	 * @return the length of the boxes data (includes the header size)
+	 * @throws IllegalStateException
+	 *             if the box is 2GB or larger
 	 */
 	public int getLength() {
+		if (length > Integer.MAX_VALUE)
+			throw new IllegalStateException("Box " + id + " is too large to be held in memory:" + length);
+		return (int) length;
+	}
+
+	/**
+	 * @return the length of the boxes data (includes the header size)
+	 */
+	public long getLongLength() {
 		return length;
 	}
 
+	/**
+	 * @return the length of the header, 8 or 16 if the box uses largesize
+	 */
+	public int getHeaderLength() {
+		return headerLength;
+	}
+
 	/**
 	 * Set the length.
 	 * <p/>
-	 * This will modify the databuffer accordingly
+	 * This will modify the databuffer accordingly, a box that uses largesize keeps using it
 	 * 
 	 * @param length
 	 */
-	public void setLength(final int length) {
-		final byte[] headerSize = Utils.getSizeBEInt32(length);
-		dataBuffer.put(0, headerSize[0]);
-		dataBuffer.put(1, headerSize[1]);
-		dataBuffer.put(2, headerSize[2]);
-		dataBuffer.put(3, headerSize[3]);
-
+	public void setLength(final long length) {
+		if (headerLength == LARGE_HEADER_LENGTH)
+			dataBuffer.putLong(HEADER_LENGTH, length);
+		else {
+			if (length > 0xFFFFFFFFL)
+				throw new IllegalArgumentException("Box " + id + " with 8 byte header cannot hold length:" + length);
+			dataBuffer.putInt(OFFSET_POS, (int) length);
+		}
 		this.length = length;
-
 	}
 
 	/**
@@ -194,7 +235,7 @@ public class Mp4BoxHeader {
 	}
 
 	/**
-	 * @return the 8 byte header buffer
+	 * @return the 8 byte header buffer, 16 bytes if the box uses largesize
 	 */
 	public ByteBuffer getHeaderData() {
 		dataBuffer.rewind();
@@ -203,9 +244,18 @@ public class Mp4BoxHeader {
 
 	/**
 	 * @return the length of the data only (does not include the header size)
+	 * @throws IllegalStateException
+	 *             if the box is 2GB or larger
 	 */
 	public int getDataLength() {
-		return length - HEADER_LENGTH;
+		return getLength() - headerLength;
+	}
+
+	/**
+	 * @return the length of the data only (does not include the header size)
+	 */
+	public long getLongDataLength() {
+		return length - headerLength;
 	}
 
 	@Override
@@ -237,34 +287,52 @@ public class Mp4BoxHeader {
 		logger.finer("Started searching for:" + id + " in file at:" + raf.getChannel().position());
 
 		final Mp4BoxHeader boxHeader = new Mp4BoxHeader();
-		final ByteBuffer headerBuffer = ByteBuffer.allocate(HEADER_LENGTH);
-		int bytesRead = raf.getChannel().read(headerBuffer);
-		if (bytesRead != HEADER_LENGTH)
+		final ByteBuffer headerBuffer = ByteBuffer.allocate(LARGE_HEADER_LENGTH);
+		if (!readHeader(raf.getChannel(), headerBuffer))
 			return null;
-		headerBuffer.rewind();
 		boxHeader.update(headerBuffer);
 		while (!boxHeader.getId().equals(id)) {
 			logger.finer("Found:" + boxHeader.getId() + " Still searching for:" + id + " in file at:" + raf.getChannel().position());
 
 			// Something gone wrong probably not at the start of an atom so return null;
-			if (boxHeader.getLength() < Mp4BoxHeader.HEADER_LENGTH)
+			if (boxHeader.getLongLength() < boxHeader.getHeaderLength())
 				return null;
-			final int noOfBytesSkipped = raf.skipBytes(boxHeader.getDataLength());
-			logger.finer("Skipped:" + noOfBytesSkipped);
-			if (noOfBytesSkipped < boxHeader.getDataLength())
+			final long nextBoxPos = raf.getFilePointer() + boxHeader.getLongDataLength();
+			if (nextBoxPos > raf.length())
 				return null;
-			headerBuffer.rewind();
-			bytesRead = raf.getChannel().read(headerBuffer);
-			logger.finer("Header Bytes Read:" + bytesRead);
-			headerBuffer.rewind();
-			if (bytesRead == Mp4BoxHeader.HEADER_LENGTH)
-				boxHeader.update(headerBuffer);
-			else
+			raf.seek(nextBoxPos);
+			logger.finer("Skipped:" + boxHeader.getLongDataLength());
+			if (!readHeader(raf.getChannel(), headerBuffer))
 				return null;
+			boxHeader.update(headerBuffer);
 		}
 		return boxHeader;
 	}
 
+	/**
+	 * Read the header at the channels position into headerBuffer, including the largesize field if used, and leave
+	 * the channel positioned at the end of the header
+	 * 
+	 * @param fc
+	 * @param headerBuffer
+	 *            at least {@link #LARGE_HEADER_LENGTH} long
+	 * @return false if there were not enough bytes for the header
+	 * @throws IOException
+	 */
+	public static boolean readHeader(final FileChannel fc, final ByteBuffer headerBuffer) throws IOException {
+		headerBuffer.clear();
+		headerBuffer.limit(HEADER_LENGTH);
+		if (fc.read(headerBuffer) != HEADER_LENGTH)
+			return false;
+		if (headerBuffer.getInt(OFFSET_POS) == LARGESIZE_FLAG) {
+			headerBuffer.limit(LARGE_HEADER_LENGTH);
+			if (fc.read(headerBuffer) != LARGESIZE_LENGTH)
+				return false;
+		}
+		headerBuffer.flip();
+		return true;
+	}
+
 	/**
 	 * Seek for box with the specified id starting from the current location of filepointer,
 	 * <p/>
@@ -289,12 +357,12 @@ public class Mp4BoxHeader {
 		while (!boxHeader.getId().equals(id)) {
 			logger.finer("Found:" + boxHeader.getId() + " Still searching for:" + id + " in bytebuffer at" + data.position());
 			// Something gone wrong probably not at the start of an atom so return null;
-			if (boxHeader.getLength() < Mp4BoxHeader.HEADER_LENGTH)
+			if (boxHeader.getLongLength() < boxHeader.getHeaderLength())
 				return null;
-			if (data.remaining() < (boxHeader.getLength() - HEADER_LENGTH))
+			if (data.remaining() < boxHeader.getLongDataLength())
 				// i.e Could happen if Moov header had size incorrectly recorded
 				return null;
-			data.position(data.position() + (boxHeader.getLength() - HEADER_LENGTH));
+			data.position(data.position() + boxHeader.getDataLength());
 			if (data.remaining() >= Mp4BoxHeader.HEADER_LENGTH)
 				boxHeader.update(data);
 			else
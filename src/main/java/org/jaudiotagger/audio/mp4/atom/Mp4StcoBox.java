@@ -3,60 +3,103 @@ package org.jaudiotagger.audio.mp4.atom;
 import java.io.IOException;
 import java.io.RandomAccessFile;
 import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
 
 import org.jaudiotagger.audio.exceptions.CannotReadException;
-import org.jaudiotagger.audio.generic.Utils;
 import org.jaudiotagger.audio.mp4.Mp4AtomIdentifier;
 
 /**
  * StcoBox ( media (stream) header), holds offsets into the Audio data
+ * <p/>
+ * Also used for the co64 box which holds the same table with 8 byte offsets, used when the audio data extends beyond
+ * 4GB. Each track has its own table.
  */
 public class Mp4StcoBox extends AbstractMp4Box {
 	public static final int VERSION_FLAG_POS = 0;
 	public static final int OTHER_FLAG_POS = 1;
 	public static final int NO_OF_OFFSETS_POS = 4;
-
 	public static final int VERSION_FLAG_LENGTH = 1;
 	public static final int OTHER_FLAG_LENGTH = 3;
 	public static final int NO_OF_OFFSETS_LENGTH = 4;
 	public static final int OFFSET_LENGTH = 4;
+	public static final int CO64_OFFSET_LENGTH = 8;
+	public static final int OFFSETS_POS = VERSION_FLAG_LENGTH + OTHER_FLAG_LENGTH + NO_OF_OFFSETS_LENGTH;
 	private int noOfOffSets = 0;
-	private int firstOffSet;
+	private long firstOffSet;
+	private final boolean co64;
 
 	/**
 	 * Construct box from data and show contents
 	 * 
 	 * @param header
-	 *            header info
+	 *            header info, either stco or co64
 	 * @param buffer
 	 *            data of box (doesnt include header data)
 	 */
 	public Mp4StcoBox(final Mp4BoxHeader header, final ByteBuffer buffer) {
 		this.header = header;
+		this.co64 = header.getId().equals(Mp4AtomIdentifier.CO64.getFieldName());
 
 		// Make a slice of databuffer then we can work with relative or absolute methods safetly
 		dataBuffer = buffer.slice();
 
-		// Skip the flags
-		dataBuffer.position(dataBuffer.position() + VERSION_FLAG_LENGTH + OTHER_FLAG_LENGTH);
-
-		// No of offsets
-		this.noOfOffSets = Utils.getIntBE(dataBuffer, dataBuffer.position(), (dataBuffer.position() + NO_OF_OFFSETS_LENGTH - 1));
-		dataBuffer.position(dataBuffer.position() + NO_OF_OFFSETS_LENGTH);
+		// No of offsets, limited to those that fit in the box
+		this.noOfOffSets = Math.max(0, Math.min(dataBuffer.getInt(NO_OF_OFFSETS_POS), (header.getDataLength() - OFFSETS_POS) / getOffsetLength()));
 
 		// First Offset, useful for sanity checks
-		firstOffSet = Utils.getIntBE(dataBuffer, dataBuffer.position(), (dataBuffer.position() + OFFSET_LENGTH - 1));
+		if (noOfOffSets > 0)
+			firstOffSet = getOffset(0);
+	}
+
+	/**
+	 * Construct box from data and adjust offets accordingly
+	 * 
+	 * @param header
+	 *            header info
+	 * @param originalDataBuffer
+	 *            data of box (doesnt include header data)
+	 * @param adjustment
+	 */
+	public Mp4StcoBox(final Mp4BoxHeader header, final ByteBuffer originalDataBuffer, final int adjustment) {
+		this(header, originalDataBuffer);
+		adjustOffsets(adjustment);
+	}
+
+	/**
+	 * @return true if this is a co64 box holding 8 byte offsets
+	 */
+	public boolean isCo64() {
+		return co64;
+	}
+
+	private int getOffsetLength() {
+		return co64 ? CO64_OFFSET_LENGTH : OFFSET_LENGTH;
+	}
+
+	/**
+	 * @param index
+	 * @return the offset, stco offsets are unsigned
+	 */
+	public long getOffset(final int index) {
+		final int pos = OFFSETS_POS + index * getOffsetLength();
+		return co64 ? dataBuffer.getLong(pos) : dataBuffer.getInt(pos) & 0xFFFFFFFFL;
+	}
+
+	/**
+	 * @return the largest offset
+	 */
+	public long getMaxOffset() {
+		long max = 0;
+		for (int i = 0; i < noOfOffSets; i++)
+			max = Math.max(max, getOffset(i));
+		return max;
 	}
 
 	public void printTotalOffset() {
-		int offset = 0;
-		dataBuffer.rewind();
-		dataBuffer.position(VERSION_FLAG_LENGTH + OTHER_FLAG_LENGTH + NO_OF_OFFSETS_LENGTH);
-		for (int i = 0; i < noOfOffSets - 1; i++) {
-			offset += Utils.getIntBE(dataBuffer, dataBuffer.position(), (dataBuffer.position() + OFFSET_LENGTH - 1));
-			dataBuffer.position(dataBuffer.position() + OFFSET_LENGTH);
-		}
-		offset += Utils.getIntBE(dataBuffer, dataBuffer.position(), (dataBuffer.position() + OFFSET_LENGTH - 1));
+		long offset = 0;
+		for (int i = 0; i < noOfOffSets; i++)
+			offset += getOffset(i);
 		System.out.println("Print Offset Total:" + offset);
 	}
 
@@ -65,62 +108,33 @@ public class Mp4StcoBox extends AbstractMp4Box {
 	 */
 	public void printAlloffsets() {
 		System.out.println("Print Offsets:start");
-		dataBuffer.rewind();
-		dataBuffer.position(VERSION_FLAG_LENGTH + OTHER_FLAG_LENGTH + NO_OF_OFFSETS_LENGTH);
-		for (int i = 0; i < noOfOffSets - 1; i++) {
-			final int offset = Utils.getIntBE(dataBuffer, dataBuffer.position(), (dataBuffer.position() + OFFSET_LENGTH - 1));
-			System.out.println("offset into audio data is:" + offset);
-
-			dataBuffer.position(dataBuffer.position() + OFFSET_LENGTH);
-		}
-		final int offset = Utils.getIntBE(dataBuffer, dataBuffer.position(), (dataBuffer.position() + OFFSET_LENGTH - 1));
-		System.out.println("offset into audio data is:" + offset);
+		for (int i = 0; i < noOfOffSets; i++)
+			System.out.println("offset into audio data is:" + getOffset(i));
 		System.out.println("Print Offsets:end");
-
-	}
-
-	public void adjustOffsets(final int adjustment) {
-		// Skip the flags
-		dataBuffer.rewind();
-		dataBuffer.position(dataBuffer.position() + VERSION_FLAG_LENGTH + OTHER_FLAG_LENGTH + NO_OF_OFFSETS_LENGTH);
-		for (int i = 0; i < noOfOffSets; i++) {
-			int offset = Utils.getIntBE(dataBuffer, dataBuffer.position(), (dataBuffer.position() + NO_OF_OFFSETS_LENGTH - 1));
-
-			// Calculate new offset and update buffer
-			offset = offset + adjustment;
-			dataBuffer.put(Utils.getSizeBEInt32(offset));
-		}
 	}
 
 	/**
-	 * Construct box from data and adjust offets accordingly
+	 * Add adjustment to every offset, the table is modified in place through a view of the offsets rather than decoding
+	 * and encoding each offset.
+	 * <p/>
+	 * For stco the caller must check with {@link #getMaxOffset()} that the offsets still fit in 4 bytes
 	 * 
-	 * @param header
-	 *            header info
-	 * @param originalDataBuffer
-	 *            data of box (doesnt include header data)
 	 * @param adjustment
 	 */
-	public Mp4StcoBox(final Mp4BoxHeader header, final ByteBuffer originalDataBuffer, final int adjustment) {
-		this.header = header;
-
-		// Make a slice of databuffer then we can work with relative or absolute methods safetly
-		this.dataBuffer = originalDataBuffer.slice();
-
-		// Skip the flags
-		dataBuffer.position(dataBuffer.position() + VERSION_FLAG_LENGTH + OTHER_FLAG_LENGTH);
-
-		// No of offsets
-		this.noOfOffSets = Utils.getIntBE(dataBuffer, dataBuffer.position(), (dataBuffer.position() + NO_OF_OFFSETS_LENGTH - 1));
-		dataBuffer.position(dataBuffer.position() + NO_OF_OFFSETS_LENGTH);
-
-		for (int i = 0; i < noOfOffSets; i++) {
-			int offset = Utils.getIntBE(dataBuffer, dataBuffer.position(), (dataBuffer.position() + NO_OF_OFFSETS_LENGTH - 1));
-
-			// Calculate new offset and update buffer
-			offset = offset + adjustment;
-			dataBuffer.put(Utils.getSizeBEInt32(offset));
+	public void adjustOffsets(final long adjustment) {
+		dataBuffer.position(OFFSETS_POS);
+		if (co64) {
+			final LongBuffer offsets = dataBuffer.slice().asLongBuffer();
+			for (int i = 0; i < noOfOffSets; i++)
+				offsets.put(i, offsets.get(i) + adjustment);
+		} else {
+			// Unsigned addition wraps the same as signed
+			final int intAdjustment = (int) adjustment;
+			final IntBuffer offsets = dataBuffer.slice().asIntBuffer();
+			for (int i = 0; i < noOfOffSets; i++)
+				offsets.put(i, offsets.get(i) + intAdjustment);
 		}
+		dataBuffer.rewind();
 	}
 
 	/**
@@ -133,11 +147,11 @@ public class Mp4StcoBox extends AbstractMp4Box {
 	}
 
 	/**
-	 * The value of the first offset
+	 * The value of the first offset when the box was read
 	 * 
 	 * @return
 	 */
-	public int getFirstOffSet() {
+	public long getFirstOffSet() {
 		return firstOffSet;
 	}
 
@@ -11,6 +11,6 @@ public class NullPadding extends Mp4BoxHeader {
 
 	public NullPadding(final long startPosition, final long fileSize) {
 		setFilePos(startPosition);
-		length = ((int) (fileSize - startPosition));
+		length = fileSize - startPosition;
 	}
 }
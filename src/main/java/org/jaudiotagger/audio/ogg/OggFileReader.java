@@ -23,9 +23,12 @@ import java.io.RandomAccessFile;
 import java.nio.file.Path;
 import java.util.logging.Logger;
 
+import org.jaudiotagger.audio.AudioFile;
+import org.jaudiotagger.audio.ReadOptions;
 import org.jaudiotagger.audio.exceptions.CannotReadException;
 import org.jaudiotagger.audio.generic.AudioFileReader;
 import org.jaudiotagger.audio.generic.GenericAudioHeader;
+import org.jaudiotagger.audio.ogg.util.OggCodec;
 import org.jaudiotagger.audio.ogg.util.OggInfoReader;
 import org.jaudiotagger.audio.ogg.util.OggPageHeader;
 import org.jaudiotagger.tag.Tag;
@@ -33,7 +36,7 @@ import org.jaudiotagger.tag.Tag;
 /**
  * Read Ogg File Tag and Encoding information
  * <p/>
- * Only implemented for ogg files containing a vorbis stream with vorbis comments
+ * Implemented for ogg files containing a vorbis, opus or flac stream, all of which use vorbis comments
  */
 public class OggFileReader extends AudioFileReader {
 	// Logger Object
@@ -41,10 +44,29 @@ public class OggFileReader extends AudioFileReader {
 
 	private final OggInfoReader ir;
 	private final OggVorbisTagReader vtr;
+	private final OggStreamTagReader str;
 
 	public OggFileReader() {
 		ir = new OggInfoReader();
 		vtr = new OggVorbisTagReader();
+		str = new OggStreamTagReader();
+	}
+
+	/**
+	 * The codec is identified once from the first packet and used by both the audio header and tag reads
+	 */
+	@Override
+	protected AudioFile read(final Path f, final RandomAccessFile raf, final ReadOptions options) throws CannotReadException, IOException {
+		final OggCodec codec = OggCodec.getCodec(raf);
+		GenericAudioHeader info = null;
+		if (options.isAudioHeaderRequired()) {
+			info = ir.read(raf, codec);
+			raf.seek(0);
+		}
+		Tag tag = null;
+		if (options.isTagRequired())
+			tag = getTag(raf, codec, options);
+		return new AudioFile(f, info, tag);
 	}
 
 	@Override
@@ -54,7 +76,18 @@ public class OggFileReader extends AudioFileReader {
 
 	@Override
 	protected Tag getTag(final RandomAccessFile raf) throws CannotReadException, IOException {
-		return vtr.read(raf);
+		return getTag(raf, ReadOptions.ALL);
+	}
+
+	@Override
+	protected Tag getTag(final RandomAccessFile raf, final ReadOptions options) throws CannotReadException, IOException {
+		return getTag(raf, OggCodec.getCodec(raf), options);
+	}
+
+	private Tag getTag(final RandomAccessFile raf, final OggCodec codec, final ReadOptions options) throws CannotReadException, IOException {
+		if (codec == OggCodec.VORBIS)
+			return vtr.read(raf, options);
+		return str.read(raf, options);
 	}
 
 	/**
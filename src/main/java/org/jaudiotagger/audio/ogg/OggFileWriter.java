@@ -30,21 +30,30 @@ import org.jaudiotagger.tag.Tag;
 /**
  * Write tag data to Ogg File
  * <p/>
- * Only works for Ogg files containing a vorbis stream
+ * Works for Ogg files containing a vorbis, opus or flac stream
  */
 public class OggFileWriter extends AudioFileWriter {
 	// Logger Object
 	public static Logger logger = Logger.getLogger("org.jaudiotagger.audio.ogg");
 
 	private final OggVorbisTagWriter vtw = new OggVorbisTagWriter();
+	private final OggStreamTagWriter stw = new OggStreamTagWriter();
 
 	@Override
 	protected void writeTag(final Tag tag, final RandomAccessFile raf, final RandomAccessFile rafTemp) throws CannotReadException, CannotWriteException, IOException {
-		vtw.write(tag, raf, rafTemp);
+		final OggStreamHeader header = OggStreamHeader.readUnlessVorbis(raf);
+		if (header == null)
+			vtw.write(tag, raf, rafTemp);
+		else
+			stw.write(tag, header, raf, rafTemp);
 	}
 
 	@Override
 	protected void deleteTag(final RandomAccessFile raf, final RandomAccessFile tempRaf) throws CannotReadException, CannotWriteException, IOException {
-		vtw.delete(raf, tempRaf);
+		final OggStreamHeader header = OggStreamHeader.readUnlessVorbis(raf);
+		if (header == null)
+			vtw.delete(raf, tempRaf);
+		else
+			stw.delete(header, raf, tempRaf);
 	}
 }
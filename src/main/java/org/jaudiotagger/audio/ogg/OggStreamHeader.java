@@ -0,0 +1,236 @@
+package org.jaudiotagger.audio.ogg;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.logging.Logger;
+
+import org.jaudiotagger.audio.exceptions.CannotReadException;
+import org.jaudiotagger.audio.exceptions.CannotWriteException;
+import org.jaudiotagger.audio.flac.metadatablock.BlockType;
+import org.jaudiotagger.audio.flac.metadatablock.MetadataBlockHeader;
+import org.jaudiotagger.audio.ogg.util.OggCodec;
+import org.jaudiotagger.audio.ogg.util.OggFlacHeader;
+import org.jaudiotagger.audio.ogg.util.OggPacketReader;
+import org.jaudiotagger.audio.ogg.util.OpusHeader;
+
+/**
+ * Header packets of an Ogg Opus or Ogg FLAC stream
+ * <p/>
+ * In both mappings the identification header is alone on the first page, the comment is held in one of the header
+ * packets that follow, and the audio starts on a new page after the last header packet. So the comment can be replaced
+ * by keeping the first page, paginating the header packets again and renumbering the audio pages.
+ */
+public class OggStreamHeader {
+	// Logger Object
+	public static Logger logger = Logger.getLogger("org.jaudiotagger.audio.ogg");
+
+	private static final int NO_COMMENT = -1;
+
+	private final OggCodec codec;
+	private final int serialNumber;
+	private final int firstPageSequence;
+	private final long firstPageEnd;
+	private final List<byte[]> packets;
+	private final int commentIndex;
+	private final long audioStart;
+
+	private OggStreamHeader(final OggCodec codec, final int serialNumber, final int firstPageSequence, final long firstPageEnd, final List<byte[]> packets, final int commentIndex, final long audioStart) {
+		this.codec = codec;
+		this.serialNumber = serialNumber;
+		this.firstPageSequence = firstPageSequence;
+		this.firstPageEnd = firstPageEnd;
+		this.packets = packets;
+		this.commentIndex = commentIndex;
+		this.audioStart = audioStart;
+	}
+
+	/**
+	 * Read the header packets from the start of the file
+	 * 
+	 * @param raf
+	 * @return
+	 * @throws CannotReadException
+	 *             if the stream is not Opus or FLAC, or its headers are not valid
+	 * @throws IOException
+	 */
+	public static OggStreamHeader read(final RandomAccessFile raf) throws CannotReadException, IOException {
+		return read(raf, false);
+	}
+
+	/**
+	 * Read the header packets from the start of the file if the stream is not Vorbis, so the codec is only identified
+	 * once when the caller handles Vorbis streams itself
+	 * 
+	 * @param raf
+	 * @return the header, or null if the stream is Vorbis
+	 * @throws CannotReadException
+	 *             if the headers are not valid
+	 * @throws IOException
+	 */
+	public static OggStreamHeader readUnlessVorbis(final RandomAccessFile raf) throws CannotReadException, IOException {
+		return read(raf, true);
+	}
+
+	private static OggStreamHeader read(final RandomAccessFile raf, final boolean vorbisAllowed) throws CannotReadException, IOException {
+		raf.seek(0);
+		final OggPacketReader reader = new OggPacketReader(raf);
+		final byte[] identification = reader.readPacket();
+		final OggCodec codec = OggCodec.getCodec(identification);
+		if (codec == OggCodec.VORBIS && vorbisAllowed) {
+			raf.seek(0);
+			return null;
+		}
+		if (!reader.isPageFinished())
+			throw new CannotReadException("Ogg identification header is not alone on the first page");
+		final int serialNumber = reader.getPageHeader().getSerialNumber();
+		final int firstPageSequence = reader.getPageHeader().getPageSequence();
+		final long firstPageEnd = raf.getFilePointer();
+
+		final List<byte[]> packets = new ArrayList<byte[]>();
+		int commentIndex = NO_COMMENT;
+		if (codec == OggCodec.OPUS) {
+			final byte[] packet = reader.readPacket();
+			if (!startsWith(packet, OpusHeader.TAGS_CAPTURE_PATTERN_AS_BYTES))
+				throw new CannotReadException("Opus comment header not found");
+			packets.add(packet);
+			commentIndex = 0;
+		} else if (codec == OggCodec.FLAC) {
+			final int headerPackets = new OggFlacHeader(identification).getHeaderPackets();
+			while (headerPackets == 0 ? packets.isEmpty() || !isLastBlock(packets.get(packets.size() - 1)) : packets.size() < headerPackets) {
+				final byte[] packet = reader.readPacket();
+				if (packet.length < MetadataBlockHeader.HEADER_LENGTH || (packet[0] & 0xFF) == 0xFF)
+					throw new CannotReadException("Ogg FLAC metadata block expected");
+				if (commentIndex == NO_COMMENT && (packet[0] & 0x7F) == BlockType.VORBIS_COMMENT.getId())
+					commentIndex = packets.size();
+				packets.add(packet);
+			}
+		} else
+			throw new CannotReadException("Not an Ogg Opus or Ogg FLAC stream");
+
+		final long audioStart = reader.isPageFinished() ? raf.getFilePointer() : -1;
+		logger.config("Read " + codec + " header packets:" + (packets.size() + 1) + ":audio starts at:" + audioStart);
+		return new OggStreamHeader(codec, serialNumber, firstPageSequence, firstPageEnd, packets, commentIndex, audioStart);
+	}
+
+	private static boolean startsWith(final byte[] packet, final byte[] pattern) {
+		return packet.length >= pattern.length && Arrays.equals(pattern, Arrays.copyOf(packet, pattern.length));
+	}
+
+	private static boolean isLastBlock(final byte[] packet) {
+		return (packet[0] & 0x80) != 0;
+	}
+
+	public OggCodec getCodec() {
+		return codec;
+	}
+
+	public int getSerialNumber() {
+		return serialNumber;
+	}
+
+	public int getFirstPageSequence() {
+		return firstPageSequence;
+	}
+
+	/**
+	 * @return end of the first page, which holds the identification header
+	 */
+	public long getFirstPageEnd() {
+		return firstPageEnd;
+	}
+
+	/**
+	 * @return start of the first audio page, or -1 if the audio starts on the page the last header packet finishes on
+	 */
+	public long getAudioStart() {
+		return audioStart;
+	}
+
+	/**
+	 * @return the header packets after the identification header
+	 */
+	public List<byte[]> getPackets() {
+		return Collections.unmodifiableList(packets);
+	}
+
+	public boolean hasComment() {
+		return commentIndex != NO_COMMENT;
+	}
+
+	/**
+	 * @return the vorbis comment without the codec specific prefix, or null if there is no comment
+	 */
+	public byte[] getRawComment() {
+		if (!hasComment())
+			return null;
+		final byte[] packet = packets.get(commentIndex);
+		if (codec == OggCodec.OPUS)
+			return Arrays.copyOfRange(packet, OpusHeader.FIELD_CAPTURE_PATTERN_LENGTH, packet.length);
+		return Arrays.copyOfRange(packet, MetadataBlockHeader.HEADER_LENGTH, packet.length);
+	}
+
+	/**
+	 * Header packets with the comment replaced
+	 * <p/>
+	 * Binary data after the comments of an Opus comment header is kept if its first bit is set, as it then has to be
+	 * preserved, otherwise it is padding and dropped. The FLAC block keeps its last block flag.
+	 * 
+	 * @param rawComment
+	 *            the vorbis comment without framing bit
+	 * @return
+	 * @throws CannotWriteException
+	 *             if there is no comment to replace or the comment is too large
+	 */
+	public List<byte[]> getPacketsWithComment(final byte[] rawComment) throws CannotWriteException {
+		if (!hasComment())
+			throw new CannotWriteException("No comment header found in Ogg " + codec + " stream");
+
+		final byte[] packet = packets.get(commentIndex);
+		final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+		if (codec == OggCodec.OPUS) {
+			baos.write(OpusHeader.TAGS_CAPTURE_PATTERN_AS_BYTES, 0, OpusHeader.TAGS_CAPTURE_PATTERN_AS_BYTES.length);
+			baos.write(rawComment, 0, rawComment.length);
+			final int extraStart = OpusHeader.FIELD_CAPTURE_PATTERN_LENGTH + getCommentLength(packet, OpusHeader.FIELD_CAPTURE_PATTERN_LENGTH);
+			if (extraStart < packet.length && (packet[extraStart] & 0x01) != 0)
+				baos.write(packet, extraStart, packet.length - extraStart);
+		} else {
+			if (rawComment.length >= 1 << 24)
+				throw new CannotWriteException("Comment too large for FLAC metadata block:" + rawComment.length);
+			final byte[] header = new MetadataBlockHeader(isLastBlock(packet), BlockType.VORBIS_COMMENT, rawComment.length).getBytes();
+			baos.write(header, 0, header.length);
+			baos.write(rawComment, 0, rawComment.length);
+		}
+
+		final List<byte[]> newPackets = new ArrayList<byte[]>(packets);
+		newPackets.set(commentIndex, baos.toByteArray());
+		return newPackets;
+	}
+
+	/**
+	 * @param packet
+	 * @param offset
+	 *            start of the vorbis comment
+	 * @return length of the vendor string and comments, or the rest of the packet if the lengths are not valid
+	 */
+	private static int getCommentLength(final byte[] packet, final int offset) {
+		final ByteBuffer bb = ByteBuffer.wrap(packet).order(ByteOrder.LITTLE_ENDIAN);
+		long position = offset;
+		try {
+			position += 4 + (bb.getInt((int) position) & 0xFFFFFFFFL);
+			final long count = bb.getInt((int) position) & 0xFFFFFFFFL;
+			position += 4;
+			for (long i = 0; i < count; i++)
+				position += 4 + (bb.getInt((int) position) & 0xFFFFFFFFL);
+		} catch (final IndexOutOfBoundsException e) {
+			return packet.length - offset;
+		}
+		return (int) Math.min(position, packet.length) - offset;
+	}
+}
@@ -0,0 +1,48 @@
+package org.jaudiotagger.audio.ogg;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.logging.Logger;
+
+import org.jaudiotagger.audio.ReadOptions;
+import org.jaudiotagger.audio.exceptions.CannotReadException;
+import org.jaudiotagger.tag.Tag;
+import org.jaudiotagger.tag.vorbiscomment.VorbisCommentReader;
+import org.jaudiotagger.tag.vorbiscomment.VorbisCommentTag;
+
+/**
+ * Read Vorbis Comment Tag within an Ogg Opus or Ogg FLAC stream
+ * <p/>
+ * Both codecs store a vorbis comment without framing bit, after the 'OpusTags' capture pattern or within a FLAC
+ * VORBIS_COMMENT metadata block
+ */
+public class OggStreamTagReader {
+	// Logger Object
+	public static Logger logger = Logger.getLogger("org.jaudiotagger.audio.ogg");
+
+	private final VorbisCommentReader vorbisCommentReader = new VorbisCommentReader();
+
+	public Tag read(final RandomAccessFile raf, final ReadOptions options) throws CannotReadException, IOException {
+		logger.config("Starting to read ogg stream tag from file:");
+		return read(OggStreamHeader.read(raf), options);
+	}
+
+	/**
+	 * @param header
+	 *            header packets already read from the file
+	 * @param options
+	 * @return
+	 * @throws CannotReadException
+	 * @throws IOException
+	 */
+	public Tag read(final OggStreamHeader header, final ReadOptions options) throws CannotReadException, IOException {
+		if (!header.hasComment()) {
+			logger.warning("No comment header found in Ogg " + header.getCodec() + " stream");
+			return VorbisCommentTag.createNewTag();
+		}
+
+		final VorbisCommentTag tag = vorbisCommentReader.read(header.getRawComment(), false, options);
+		logger.fine("CompletedReadCommentTag");
+		return tag;
+	}
+}
@@ -0,0 +1,69 @@
+package org.jaudiotagger.audio.ogg;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.util.logging.Logger;
+
+import org.jaudiotagger.audio.exceptions.CannotReadException;
+import org.jaudiotagger.audio.exceptions.CannotWriteException;
+import org.jaudiotagger.audio.ogg.util.OggPageWriter;
+import org.jaudiotagger.tag.Tag;
+import org.jaudiotagger.tag.vorbiscomment.VorbisCommentCreator;
+import org.jaudiotagger.tag.vorbiscomment.VorbisCommentTag;
+
+/**
+ * Write Vorbis Comment Tag within an Ogg Opus or Ogg FLAC stream
+ * <p/>
+ * The first page is copied unchanged, the header packets are paginated again with the new comment and the audio pages
+ * are copied, renumbered if the number of header pages has changed.
+ */
+public class OggStreamTagWriter {
+	// Logger Object
+	public static Logger logger = Logger.getLogger("org.jaudiotagger.audio.ogg");
+
+	private final VorbisCommentCreator creator = new VorbisCommentCreator();
+
+	public void delete(final RandomAccessFile raf, final RandomAccessFile tempRaf) throws IOException, CannotReadException, CannotWriteException {
+		delete(OggStreamHeader.read(raf), raf, tempRaf);
+	}
+
+	public void delete(final OggStreamHeader header, final RandomAccessFile raf, final RandomAccessFile tempRaf) throws IOException, CannotReadException, CannotWriteException {
+		write(VorbisCommentTag.createNewTag(), header, raf, tempRaf);
+	}
+
+	public void write(final Tag tag, final RandomAccessFile raf, final RandomAccessFile rafTemp) throws CannotReadException, CannotWriteException, IOException {
+		write(tag, OggStreamHeader.read(raf), raf, rafTemp);
+	}
+
+	/**
+	 * @param tag
+	 * @param header
+	 *            header packets already read from raf
+	 * @param raf
+	 * @param rafTemp
+	 * @throws CannotReadException
+	 * @throws CannotWriteException
+	 * @throws IOException
+	 */
+	public void write(final Tag tag, final OggStreamHeader header, final RandomAccessFile raf, final RandomAccessFile rafTemp) throws CannotReadException, CannotWriteException, IOException {
+		logger.config("Starting to write file:");
+		if (header.getAudioStart() == -1)
+			throw new CannotWriteException("Audio of Ogg " + header.getCodec() + " stream does not start on a new page, file not written");
+
+		final ByteBuffer comment = creator.convert(tag);
+		final byte[] rawComment = new byte[comment.remaining()];
+		comment.get(rawComment);
+
+		// Write 1st page (unchanged) and place writer pointer at end of data
+		raf.seek(0);
+		rafTemp.getChannel().transferFrom(raf.getChannel(), 0, header.getFirstPageEnd());
+		rafTemp.seek(header.getFirstPageEnd());
+
+		final int pageSequence = OggPageWriter.writePackets(header.getPacketsWithComment(rawComment), header.getSerialNumber(), header.getFirstPageSequence(), rafTemp.getChannel());
+		logger.fine("Written header packets, last page sequence:" + pageSequence);
+
+		raf.seek(header.getAudioStart());
+		OggPageWriter.writeRemainingPages(pageSequence, raf, rafTemp);
+	}
+}
@@ -26,6 +26,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.logging.Logger;
 
+import org.jaudiotagger.audio.ReadOptions;
 import org.jaudiotagger.audio.exceptions.CannotReadException;
 import org.jaudiotagger.audio.generic.Utils;
 import org.jaudiotagger.audio.ogg.util.OggPageHeader;
@@ -63,11 +64,24 @@ public class OggVorbisTagReader {
 	 * @throws IOException
 	 */
 	public Tag read(final RandomAccessFile raf) throws CannotReadException, IOException {
+		return read(raf, ReadOptions.ALL);
+	}
+
+	/**
+	 * Read the Logical VorbisComment Tag from the file, only decoding the comments required by the options
+	 * 
+	 * @param raf
+	 * @param options
+	 * @return
+	 * @throws CannotReadException
+	 * @throws IOException
+	 */
+	public Tag read(final RandomAccessFile raf, final ReadOptions options) throws CannotReadException, IOException {
 		logger.config("Starting to read ogg vorbis tag from file:");
 		final byte[] rawVorbisCommentData = readRawPacketData(raf);
 
 		// Begin tag reading
-		final VorbisCommentTag tag = vorbisCommentReader.read(rawVorbisCommentData, true);
+		final VorbisCommentTag tag = vorbisCommentReader.read(rawVorbisCommentData, true, options);
 		logger.fine("CompletedReadCommentTag");
 		return tag;
 	}
@@ -31,6 +31,7 @@ import org.jaudiotagger.audio.exceptions.CannotReadException;
 import org.jaudiotagger.audio.exceptions.CannotWriteException;
 import org.jaudiotagger.audio.ogg.util.OggCRCFactory;
 import org.jaudiotagger.audio.ogg.util.OggPageHeader;
+import org.jaudiotagger.audio.ogg.util.OggPageWriter;
 import org.jaudiotagger.tag.Tag;
 import org.jaudiotagger.tag.vorbiscomment.VorbisCommentTag;
 
@@ -137,13 +138,7 @@ public class OggVorbisTagWriter {
 	 * @param page
 	 */
 	private void calculateChecksumOverPage(final ByteBuffer page) {
-		// CRC should be zero before calculating it
-		page.putInt(OggPageHeader.FIELD_PAGE_CHECKSUM_POS, 0);
-
-		// Compute CRC over the page //TODO shouldnt really use array();
-		final byte[] crc = OggCRCFactory.computeCRC(page.array());
-		for (int i = 0; i < crc.length; i++)
-			page.put(OggPageHeader.FIELD_PAGE_CHECKSUM_POS + i, crc[i]);
+		OggCRCFactory.setPageCRC(page, 0, page.limit());
 
 		// Rewind to start of Page
 		page.rewind();
@@ -394,72 +389,10 @@ public class OggVorbisTagWriter {
 	 * @throws IOException
 	 * @throws CannotReadException
 	 * @throws CannotWriteException
+	 * @see OggPageWriter#writeRemainingPages(int, RandomAccessFile, RandomAccessFile)
 	 */
-	public void writeRemainingPages(int pageSequence, final RandomAccessFile raf, final RandomAccessFile rafTemp) throws IOException, CannotReadException, CannotWriteException {
-		final long startAudio = raf.getFilePointer();
-		final long startAudioWritten = rafTemp.getFilePointer();
-
-		// TODO there is a risk we wont have enough memory to create these buffers
-		final ByteBuffer bb = ByteBuffer.allocate((int) (raf.length() - raf.getFilePointer()));
-		final ByteBuffer bbTemp = ByteBuffer.allocate((int) (raf.length() - raf.getFilePointer()));
-
-		// Read in the rest of the data into bytebuffer and rewind it to start
-		raf.getChannel().read(bb);
-		bb.rewind();
-		while (bb.hasRemaining()) {
-			final OggPageHeader nextPage = OggPageHeader.read(bb);
-
-			// Create buffer large enough for next page (header and data) and set byte order to LE so we can use
-			// putInt method
-			final ByteBuffer nextPageHeaderBuffer = ByteBuffer.allocate(nextPage.getRawHeaderData().length + nextPage.getPageLength());
-			nextPageHeaderBuffer.order(ByteOrder.LITTLE_ENDIAN);
-			nextPageHeaderBuffer.put(nextPage.getRawHeaderData());
-			final ByteBuffer data = bb.slice();
-			data.limit(nextPage.getPageLength());
-			nextPageHeaderBuffer.put(data);
-			nextPageHeaderBuffer.putInt(OggPageHeader.FIELD_PAGE_SEQUENCE_NO_POS, ++pageSequence);
-			calculateChecksumOverPage(nextPageHeaderBuffer);
-			bb.position(bb.position() + nextPage.getPageLength());
-
-			nextPageHeaderBuffer.rewind();
-			bbTemp.put(nextPageHeaderBuffer);
-		}
-		// Now just write as a single IO operation
-		bbTemp.rewind();
-		rafTemp.getChannel().write(bbTemp);
-		// Check we have written all the data
-		// TODO could we do any other checks to check data written correctly ?
-		if ((raf.length() - startAudio) != (rafTemp.length() - startAudioWritten))
-			throw new CannotWriteException("File written counts don't match, file not written");
-	}
-
-	public void writeRemainingPagesOld(int pageSequence, final RandomAccessFile raf, final RandomAccessFile rafTemp) throws IOException, CannotReadException, CannotWriteException {
-		// Now the Page Sequence Number for all the subsequent pages (containing audio frames) are out because there are
-		// less pages before then there used to be, so need to adjust
-		final long startAudio = raf.getFilePointer();
-		final long startAudioWritten = rafTemp.getFilePointer();
-		logger.fine("Writing audio, audio starts in original file at :" + startAudio + ":Written to:" + startAudioWritten);
-		while (raf.getFilePointer() < raf.length()) {
-			logger.fine("Reading Ogg Page");
-			final OggPageHeader nextPage = OggPageHeader.read(raf);
-
-			// Create buffer large enough for next page (header and data) and set byte order to LE so we can use
-			// putInt method
-			final ByteBuffer nextPageHeaderBuffer = ByteBuffer.allocate(nextPage.getRawHeaderData().length + nextPage.getPageLength());
-			nextPageHeaderBuffer.order(ByteOrder.LITTLE_ENDIAN);
-
-			nextPageHeaderBuffer.put(nextPage.getRawHeaderData());
-			raf.getChannel().read(nextPageHeaderBuffer);
-
-			// Recalculate Page Sequence Number
-			nextPageHeaderBuffer.putInt(OggPageHeader.FIELD_PAGE_SEQUENCE_NO_POS, ++pageSequence);
-
-			// Calculate Checksum
-			calculateChecksumOverPage(nextPageHeaderBuffer);
-			rafTemp.getChannel().write(nextPageHeaderBuffer);
-		}
-		if ((raf.length() - startAudio) != (rafTemp.length() - startAudioWritten))
-			throw new CannotWriteException("File written counts don't match, file not written");
+	public void writeRemainingPages(final int pageSequence, final RandomAccessFile raf, final RandomAccessFile rafTemp) throws IOException, CannotReadException, CannotWriteException {
+		OggPageWriter.writeRemainingPages(pageSequence, raf, rafTemp);
 	}
 
 	/**
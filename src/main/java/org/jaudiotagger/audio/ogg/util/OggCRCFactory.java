@@ -18,11 +18,16 @@
  */
 package org.jaudiotagger.audio.ogg.util;
 
+import java.nio.ByteBuffer;
 import java.util.logging.Logger;
 
 /**
  * OffCRC Calculations
  * <p/>
+ * The Ogg CRC-32 has polynomial 0x04c11db7, is not reflected and has no initial or final xor. Eight bytes are processed
+ * at a time using eight lookup tables (slicing-by-8), and the crc can be calculated over any range of a heap or direct
+ * buffer without copying it, in several parts if need be by passing the crc of one part to the update of the next.
+ * <p/>
  * $Id$
  * 
  * @author Raphael Slinckx (KiKiDonK)
@@ -32,53 +37,180 @@ public class OggCRCFactory {
 	// Logger Object
 	public static Logger logger = Logger.getLogger("org.jaudiotagger.audio.ogg");
 
-	private static long[] crc_lookup = new long[256];
-	private static boolean init = false;
+	private static final int POLYNOMIAL = 0x04c11db7;
+
+	private static final int CRC_LENGTH = 4;
+
+	// Table n gives the crc of a byte followed by n zero bytes, so eight bytes can be looked up at once
+	private static final int[][] crc_lookup = new int[8][256];
+
+	// Built once when the class is loaded so the table is fully visible to every thread
+	static {
+		init();
+	}
 
 	public static void init() {
 		for (int i = 0; i < 256; i++) {
-			long r = i << 24;
+			int r = i << 24;
 
 			for (int j = 0; j < 8; j++)
-				if ((r & 0x80000000L) != 0)
-					r = (r << 1) ^ 0x04c11db7L;
+				if ((r & 0x80000000) != 0)
+					r = (r << 1) ^ POLYNOMIAL;
 				else
 					r <<= 1;
 
-			crc_lookup[i] = (r);
+			crc_lookup[0][i] = r;
 		}
-		init = true;
+		for (int n = 1; n < crc_lookup.length; n++)
+			for (int i = 0; i < 256; i++)
+				crc_lookup[n][i] = (crc_lookup[n - 1][i] << 8) ^ crc_lookup[0][crc_lookup[n - 1][i] >>> 24];
 	}
 
 	public boolean checkCRC(final byte[] data, final byte[] crc) {
-		return new String(crc).equals(new String(computeCRC(data)));
+		final int expected = (crc[0] & 0xff) | (crc[1] & 0xff) << 8 | (crc[2] & 0xff) << 16 | (crc[3] & 0xff) << 24;
+		return update(0, data, 0, data.length) == expected;
 	}
 
 	public static byte[] computeCRC(final byte[] data) {
+		final int crc = update(0, data, 0, data.length);
+
+		final byte[] sum = new byte[CRC_LENGTH];
 
-		if (!init)
-			init();
+		sum[0] = (byte) crc;
+		sum[1] = (byte) (crc >>> 8);
+		sum[2] = (byte) (crc >>> 16);
+		sum[3] = (byte) (crc >>> 24);
 
-		long crc_reg = 0;
+		return sum;
+	}
 
-		for (final byte aData : data) {
-			final int tmp = (int) (((crc_reg >>> 24) & 0xff) ^ u(aData));
+	/**
+	 * Continue calculating a crc over more data
+	 * 
+	 * @param crc
+	 *            crc of the data so far, zero to start
+	 * @param data
+	 * @param offset
+	 * @param length
+	 * @return crc including data from offset to offset + length
+	 */
+	public static int update(int crc, final byte[] data, int offset, final int length) {
+		final int[] t0 = crc_lookup[0];
+		final int[] t1 = crc_lookup[1];
+		final int[] t2 = crc_lookup[2];
+		final int[] t3 = crc_lookup[3];
+		final int[] t4 = crc_lookup[4];
+		final int[] t5 = crc_lookup[5];
+		final int[] t6 = crc_lookup[6];
+		final int[] t7 = crc_lookup[7];
+
+		final int end = offset + length;
+		for (final int end8 = end - 7; offset < end8; offset += 8) {
+			final int x = crc ^ ((data[offset] & 0xff) << 24 | (data[offset + 1] & 0xff) << 16 | (data[offset + 2] & 0xff) << 8 | (data[offset + 3] & 0xff));
+			crc = t7[x >>> 24] ^ t6[(x >>> 16) & 0xff] ^ t5[(x >>> 8) & 0xff] ^ t4[x & 0xff] ^ t3[data[offset + 4] & 0xff] ^ t2[data[offset + 5] & 0xff] ^ t1[data[offset + 6] & 0xff]
+					^ t0[data[offset + 7] & 0xff];
+		}
+		for (; offset < end; offset++)
+			crc = (crc << 8) ^ t0[((crc >>> 24) ^ data[offset]) & 0xff];
+		return crc;
+	}
 
-			crc_reg = (crc_reg << 8) ^ crc_lookup[tmp];
-			crc_reg &= 0xffffffff;
+	/**
+	 * Continue calculating a crc over more data, the position and limit of data are not used or changed
+	 * 
+	 * @param crc
+	 *            crc of the data so far, zero to start
+	 * @param data
+	 *            heap or direct buffer
+	 * @param offset
+	 *            absolute index within data
+	 * @param length
+	 * @return crc including data from offset to offset + length
+	 */
+	public static int update(int crc, final ByteBuffer data, int offset, final int length) {
+		if (data.hasArray())
+			return update(crc, data.array(), data.arrayOffset() + offset, length);
+
+		final int[] t0 = crc_lookup[0];
+		final int[] t1 = crc_lookup[1];
+		final int[] t2 = crc_lookup[2];
+		final int[] t3 = crc_lookup[3];
+		final int[] t4 = crc_lookup[4];
+		final int[] t5 = crc_lookup[5];
+		final int[] t6 = crc_lookup[6];
+		final int[] t7 = crc_lookup[7];
+
+		final int end = offset + length;
+		for (final int end8 = end - 7; offset < end8; offset += 8) {
+			final int x = crc ^ ((data.get(offset) & 0xff) << 24 | (data.get(offset + 1) & 0xff) << 16 | (data.get(offset + 2) & 0xff) << 8 | (data.get(offset + 3) & 0xff));
+			crc = t7[x >>> 24] ^ t6[(x >>> 16) & 0xff] ^ t5[(x >>> 8) & 0xff] ^ t4[x & 0xff] ^ t3[data.get(offset + 4) & 0xff] ^ t2[data.get(offset + 5) & 0xff]
+					^ t1[data.get(offset + 6) & 0xff] ^ t0[data.get(offset + 7) & 0xff];
 		}
+		for (; offset < end; offset++)
+			crc = (crc << 8) ^ t0[((crc >>> 24) ^ data.get(offset)) & 0xff];
+		return crc;
+	}
 
-		final byte[] sum = new byte[4];
+	/**
+	 * Continue calculating a crc over zero bytes
+	 * 
+	 * @param crc
+	 * @param length
+	 *            number of zero bytes
+	 * @return crc
+	 */
+	private static int updateZeros(int crc, final int length) {
+		for (int i = 0; i < length; i++)
+			crc = (crc << 8) ^ crc_lookup[0][crc >>> 24];
+		return crc;
+	}
 
-		sum[0] = (byte) (crc_reg & 0xffL);
-		sum[1] = (byte) ((crc_reg >>> 8) & 0xffL);
-		sum[2] = (byte) ((crc_reg >>> 16) & 0xffL);
-		sum[3] = (byte) ((crc_reg >>> 24) & 0xffL);
+	/**
+	 * Calculate the crc of a page as if its checksum field were zero, so the page does not need to be modified first
+	 * 
+	 * @param page
+	 * @param offset
+	 *            start of the page within page buffer
+	 * @param length
+	 *            length of the page including its header
+	 * @return crc
+	 */
+	public static int getPageCRC(final ByteBuffer page, final int offset, final int length) {
+		final int afterChecksum = OggPageHeader.FIELD_PAGE_CHECKSUM_POS + CRC_LENGTH;
+		int crc = update(0, page, offset, OggPageHeader.FIELD_PAGE_CHECKSUM_POS);
+		crc = updateZeros(crc, CRC_LENGTH);
+		return update(crc, page, offset + afterChecksum, length - afterChecksum);
+	}
 
-		return sum;
+	/**
+	 * Calculate the crc of a page and store it in the checksum field of the page
+	 * 
+	 * @param page
+	 * @param offset
+	 *            start of the page within page buffer
+	 * @param length
+	 *            length of the page including its header
+	 */
+	public static void setPageCRC(final ByteBuffer page, final int offset, final int length) {
+		final int crc = getPageCRC(page, offset, length);
+		final int checksumPos = offset + OggPageHeader.FIELD_PAGE_CHECKSUM_POS;
+		page.put(checksumPos, (byte) crc);
+		page.put(checksumPos + 1, (byte) (crc >>> 8));
+		page.put(checksumPos + 2, (byte) (crc >>> 16));
+		page.put(checksumPos + 3, (byte) (crc >>> 24));
 	}
 
-	private static int u(final int n) {
-		return n & 0xff;
+	/**
+	 * @param page
+	 * @param offset
+	 *            start of the page within page buffer
+	 * @param length
+	 *            length of the page including its header
+	 * @return true if the checksum field of the page matches the page
+	 */
+	public static boolean checkPageCRC(final ByteBuffer page, final int offset, final int length) {
+		final int checksumPos = offset + OggPageHeader.FIELD_PAGE_CHECKSUM_POS;
+		final int checksum = (page.get(checksumPos) & 0xff) | (page.get(checksumPos + 1) & 0xff) << 8 | (page.get(checksumPos + 2) & 0xff) << 16 | (page.get(checksumPos + 3) & 0xff) << 24;
+		return getPageCRC(page, offset, length) == checksum;
 	}
 }
@@ -0,0 +1,42 @@
+package org.jaudiotagger.audio.ogg.util;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+
+import org.jaudiotagger.audio.exceptions.CannotReadException;
+
+/**
+ * Codec of the logical stream within an Ogg file, identified by the start of the first packet
+ */
+public enum OggCodec {
+	VORBIS, OPUS, FLAC;
+
+	/**
+	 * @param firstPacket
+	 *            identification header, the first packet of the stream
+	 * @return the codec, Vorbis if the packet is not recognised as Opus or FLAC
+	 */
+	public static OggCodec getCodec(final byte[] firstPacket) {
+		if (OpusIdentificationHeader.isOpusIdentificationHeader(firstPacket))
+			return OPUS;
+		if (OggFlacHeader.isOggFlacHeader(firstPacket))
+			return FLAC;
+		return VORBIS;
+	}
+
+	/**
+	 * Read the first packet from the start of the file to identify the codec, the file pointer is left at the start of
+	 * the file
+	 * 
+	 * @param raf
+	 * @return
+	 * @throws CannotReadException
+	 * @throws IOException
+	 */
+	public static OggCodec getCodec(final RandomAccessFile raf) throws CannotReadException, IOException {
+		raf.seek(0);
+		final OggCodec codec = getCodec(new OggPacketReader(raf).readPacket());
+		raf.seek(0);
+		return codec;
+	}
+}
@@ -0,0 +1,79 @@
+package org.jaudiotagger.audio.ogg.util;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import org.jaudiotagger.audio.exceptions.CannotReadException;
+import org.jaudiotagger.audio.flac.metadatablock.BlockType;
+import org.jaudiotagger.audio.flac.metadatablock.MetadataBlockDataStreamInfo;
+import org.jaudiotagger.audio.flac.metadatablock.MetadataBlockHeader;
+
+/**
+ * Ogg FLAC identification header, the first packet of an Ogg FLAC stream
+ * <p/>
+ * From https://xiph.org/flac/ogg_mapping.html
+ * <p/>
+ * The packet is coded as follows:
+ * <p/>
+ * 1) [packet_type] = 0x7F 2) [signature] = 'FLAC' 3) [major_version] and [minor_version] = one byte each 4)
+ * [header_packets] = read 16 bits as unsigned big endian integer, the number of header packets that follow, zero if
+ * unknown 5) 'fLaC' 6) the STREAMINFO metadata block including its header
+ * <p/>
+ * Each header packet that follows holds one other metadata block, the first must be the VORBIS_COMMENT block.
+ */
+public class OggFlacHeader {
+	public static final byte PACKET_TYPE = 0x7F;
+
+	public static final byte[] CAPTURE_PATTERN_AS_BYTES = { 'F', 'L', 'A', 'C' };
+
+	public static final byte[] NATIVE_CAPTURE_PATTERN_AS_BYTES = { 'f', 'L', 'a', 'C' };
+
+	public static final int FIELD_CAPTURE_PATTERN_POS = 1;
+	public static final int FIELD_HEADER_PACKETS_POS = 7;
+	public static final int FIELD_NATIVE_CAPTURE_PATTERN_POS = 9;
+	public static final int FIELD_STREAM_INFO_POS = 13;
+
+	public static final int LENGTH = FIELD_STREAM_INFO_POS + MetadataBlockHeader.HEADER_LENGTH + MetadataBlockDataStreamInfo.STREAM_INFO_DATA_LENGTH;
+
+	private final int headerPackets;
+	private final MetadataBlockDataStreamInfo streamInfo;
+
+	public OggFlacHeader(final byte[] flacData) throws CannotReadException {
+		if (!isOggFlacHeader(flacData) || flacData.length < LENGTH)
+			throw new CannotReadException("Not an Ogg FLAC identification header");
+		if (!Arrays.equals(NATIVE_CAPTURE_PATTERN_AS_BYTES, Arrays.copyOfRange(flacData, FIELD_NATIVE_CAPTURE_PATTERN_POS, FIELD_STREAM_INFO_POS)))
+			throw new CannotReadException("Ogg FLAC identification header does not contain a flac stream");
+
+		final MetadataBlockHeader header = new MetadataBlockHeader(ByteBuffer.wrap(flacData, FIELD_STREAM_INFO_POS, MetadataBlockHeader.HEADER_LENGTH).slice());
+		if (header.getBlockType() != BlockType.STREAMINFO)
+			throw new CannotReadException("Ogg FLAC identification header does not start with STREAMINFO block");
+
+		headerPackets = ((flacData[FIELD_HEADER_PACKETS_POS] & 0xFF) << 8) + (flacData[FIELD_HEADER_PACKETS_POS + 1] & 0xFF);
+		final int streamInfoStart = FIELD_STREAM_INFO_POS + MetadataBlockHeader.HEADER_LENGTH;
+		streamInfo = new MetadataBlockDataStreamInfo(Arrays.copyOfRange(flacData, streamInfoStart, streamInfoStart + MetadataBlockDataStreamInfo.STREAM_INFO_DATA_LENGTH));
+	}
+
+	/**
+	 * @param data
+	 * @return true if data starts with the Ogg FLAC packet type and capture pattern
+	 */
+	public static boolean isOggFlacHeader(final byte[] data) {
+		if (data.length < FIELD_CAPTURE_PATTERN_POS + CAPTURE_PATTERN_AS_BYTES.length || data[0] != PACKET_TYPE)
+			return false;
+		for (int i = 0; i < CAPTURE_PATTERN_AS_BYTES.length; i++)
+			if (data[FIELD_CAPTURE_PATTERN_POS + i] != CAPTURE_PATTERN_AS_BYTES[i])
+				return false;
+		return true;
+	}
+
+	/**
+	 * @return number of header packets after this one, zero if unknown
+	 */
+	public int getHeaderPackets() {
+		return headerPackets;
+	}
+
+	public MetadataBlockDataStreamInfo getStreamInfo() {
+		return streamInfo;
+	}
+}
@@ -25,22 +25,34 @@ import java.util.Arrays;
 import java.util.logging.Logger;
 
 import org.jaudiotagger.audio.exceptions.CannotReadException;
+import org.jaudiotagger.audio.flac.metadatablock.MetadataBlockDataStreamInfo;
 import org.jaudiotagger.audio.generic.GenericAudioHeader;
 import org.jaudiotagger.logging.ErrorMessage;
 import org.jaudiotagger.tag.id3.AbstractID3v2Tag;
 
 /**
- * Read encoding info, only implemented for vorbis streams
+ * Read encoding info, implemented for vorbis, opus and flac streams
  */
 public class OggInfoReader {
 	// Logger Object
 	public static Logger logger = Logger.getLogger("org.jaudiotagger.audio.ogg.atom");
 
 	public GenericAudioHeader read(final RandomAccessFile raf) throws CannotReadException, IOException {
+		return read(raf, null);
+	}
+
+	/**
+	 * @param raf
+	 * @param codec
+	 *            codec of the stream if it has already been identified, or null to identify it from the first page
+	 * @return
+	 * @throws CannotReadException
+	 * @throws IOException
+	 */
+	public GenericAudioHeader read(final RandomAccessFile raf, OggCodec codec) throws CannotReadException, IOException {
 		long start = raf.getFilePointer();
 		final GenericAudioHeader info = new GenericAudioHeader();
 		logger.fine("Started");
-		long oldPos;
 
 		// Check start of file does it have Ogg pattern
 		byte[] b = new byte[OggPageHeader.CAPTURE_PATTERN.length];
@@ -50,41 +62,18 @@ public class OggInfoReader {
 			if (AbstractID3v2Tag.isId3Tag(raf)) {
 				raf.read(b);
 				if ((Arrays.equals(b, OggPageHeader.CAPTURE_PATTERN)))
-					start = raf.getFilePointer();
+					start = raf.getFilePointer() - OggPageHeader.CAPTURE_PATTERN.length;
 			} else
 				throw new CannotReadException(ErrorMessage.OGG_HEADER_CANNOT_BE_FOUND.getMsg(new String(b)));
 		}
 
 		// Now work backwards from file looking for the last ogg page, it reads the granule position for this last page
 		// which must be set.
-		// TODO should do buffering to cut down the number of file reads
-		raf.seek(start);
 		double pcmSamplesNumber = -1;
-		raf.seek(raf.length() - 2);
-		while (raf.getFilePointer() >= 4) {
-			if (raf.read() == OggPageHeader.CAPTURE_PATTERN[3]) {
-				raf.seek(raf.getFilePointer() - OggPageHeader.FIELD_CAPTURE_PATTERN_LENGTH);
-				final byte[] ogg = new byte[3];
-				raf.readFully(ogg);
-				if (ogg[0] == OggPageHeader.CAPTURE_PATTERN[0] && ogg[1] == OggPageHeader.CAPTURE_PATTERN[1] && ogg[2] == OggPageHeader.CAPTURE_PATTERN[2]) {
-					raf.seek(raf.getFilePointer() - 3);
-
-					oldPos = raf.getFilePointer();
-					raf.seek(raf.getFilePointer() + OggPageHeader.FIELD_PAGE_SEGMENTS_POS);
-					final int pageSegments = raf.readByte() & 0xFF; // Unsigned
-					raf.seek(oldPos);
-
-					b = new byte[OggPageHeader.OGG_PAGE_HEADER_FIXED_LENGTH + pageSegments];
-					raf.readFully(b);
-
-					final OggPageHeader pageHeader = new OggPageHeader(b);
-					raf.seek(0);
-					pcmSamplesNumber = pageHeader.getAbsoluteGranulePosition();
-					break;
-				}
-			}
-			raf.seek(raf.getFilePointer() - 2);
-		}
+		final OggPageHeader lastPageHeader = OggPageScanner.findLastPage(raf, start);
+		if (lastPageHeader != null)
+			pcmSamplesNumber = lastPageHeader.getAbsoluteGranulePosition();
+		raf.seek(0);
 
 		if (pcmSamplesNumber == -1)
 			// According to spec a value of -1 indicates no packet finished on this page, this should not occur
@@ -94,6 +83,13 @@ public class OggInfoReader {
 		final OggPageHeader pageHeader = OggPageHeader.read(raf);
 		final byte[] vorbisData = new byte[pageHeader.getPageLength()];
 		raf.read(vorbisData);
+		if (codec == null)
+			codec = OggCodec.getCodec(vorbisData);
+		if (codec == OggCodec.OPUS)
+			return readOpus(info, vorbisData, pcmSamplesNumber, raf.length());
+		if (codec == OggCodec.FLAC)
+			return readFlac(info, vorbisData, pcmSamplesNumber, raf.length());
+
 		final VorbisIdentificationHeader vorbisIdentificationHeader = new VorbisIdentificationHeader(vorbisData);
 
 		// Map to generic encodingInfo
@@ -125,7 +121,64 @@ public class OggInfoReader {
 		return info;
 	}
 
-	private int computeBitrate(final int length, final long size) {
-		return (int) ((size / 1000) * 8 / length);
+	/**
+	 * Granule positions of an Opus stream count samples at 48kHz including the pre-skip samples that are discarded
+	 * 
+	 * @param info
+	 * @param opusData
+	 * @param pcmSamplesNumber
+	 *            granule position of the last page
+	 * @param size
+	 * @return
+	 * @throws CannotReadException
+	 */
+	private GenericAudioHeader readOpus(final GenericAudioHeader info, final byte[] opusData, final double pcmSamplesNumber, final long size) throws CannotReadException {
+		final OpusIdentificationHeader opusIdentificationHeader = new OpusIdentificationHeader(opusData);
+		if (!opusIdentificationHeader.isValid())
+			throw new CannotReadException("Unsupported Opus identification header version:" + (opusData[OpusIdentificationHeader.FIELD_VERSION_POS] & 0xFF));
+
+		info.setPreciseLength((float) (Math.max(0, pcmSamplesNumber - opusIdentificationHeader.getPreSkip()) / OpusHeader.GRANULE_SAMPLE_RATE));
+		info.setChannelNumber(opusIdentificationHeader.getChannelNumber());
+		info.setSamplingRate(opusIdentificationHeader.getInputSampleRate() != 0 ? opusIdentificationHeader.getInputSampleRate() : OpusHeader.GRANULE_SAMPLE_RATE);
+		info.setEncodingType(opusIdentificationHeader.getEncodingType());
+		info.setExtraEncodingInfos("");
+		info.setBitrate(computeBitrate(info.getPreciseLength(), size));
+		info.setVariableBitRate(true);
+		logger.fine("Finished");
+		return info;
+	}
+
+	/**
+	 * Ogg FLAC streams hold the FLAC STREAMINFO block in the first packet, the granule position is only used if it does
+	 * not give the total number of samples
+	 * 
+	 * @param info
+	 * @param flacData
+	 * @param pcmSamplesNumber
+	 *            granule position of the last page
+	 * @param size
+	 * @return
+	 * @throws CannotReadException
+	 */
+	private GenericAudioHeader readFlac(final GenericAudioHeader info, final byte[] flacData, final double pcmSamplesNumber, final long size) throws CannotReadException {
+		final MetadataBlockDataStreamInfo streamInfo = new OggFlacHeader(flacData).getStreamInfo();
+		if (streamInfo.getPreciseLength() > 0)
+			info.setPreciseLength(streamInfo.getPreciseLength());
+		else if (streamInfo.getSamplingRate() > 0)
+			info.setPreciseLength((float) (pcmSamplesNumber / streamInfo.getSamplingRate()));
+		info.setChannelNumber(streamInfo.getChannelNumber());
+		info.setSamplingRate(streamInfo.getSamplingRate());
+		info.setBitsPerSample(streamInfo.getBitsPerSample());
+		info.setEncodingType(streamInfo.getEncodingType());
+		info.setExtraEncodingInfos("");
+		info.setBitrate(computeBitrate(info.getPreciseLength(), size));
+		info.setVariableBitRate(true);
+		info.setLossless(true);
+		logger.fine("Finished");
+		return info;
+	}
+
+	private int computeBitrate(final float length, final long size) {
+		return length > 0 ? (int) ((size / 1000) * 8 / length) : 0;
 	}
 }
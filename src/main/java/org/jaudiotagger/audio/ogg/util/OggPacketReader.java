@@ -0,0 +1,67 @@
+package org.jaudiotagger.audio.ogg.util;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.logging.Logger;
+
+import org.jaudiotagger.audio.exceptions.CannotReadException;
+
+/**
+ * Read the packets of an Ogg stream in order, joining the parts of packets that continue over several pages, shared by
+ * the readers of each codec
+ * <p/>
+ * Reading starts at the file pointer, which must be at the start of a page, and the file pointer is left at the end of
+ * the last packet read.
+ */
+public class OggPacketReader {
+	// Logger Object
+	public static Logger logger = Logger.getLogger("org.jaudiotagger.audio.ogg");
+
+	private final RandomAccessFile raf;
+	private OggPageHeader pageHeader;
+	private int nextPacket;
+
+	public OggPacketReader(final RandomAccessFile raf) {
+		this.raf = raf;
+	}
+
+	/**
+	 * @return the next packet
+	 * @throws IOException
+	 * @throws CannotReadException
+	 *             if there are no more pages
+	 */
+	public byte[] readPacket() throws IOException, CannotReadException {
+		final ByteArrayOutputStream packet = new ByteArrayOutputStream();
+		while (true) {
+			while (pageHeader == null || nextPacket >= pageHeader.getPacketList().size()) {
+				if (raf.getFilePointer() >= raf.length())
+					throw new CannotReadException("Ogg stream finished before packet was complete");
+				pageHeader = OggPageHeader.read(raf);
+				nextPacket = 0;
+			}
+
+			final byte[] b = new byte[pageHeader.getPacketList().get(nextPacket++).getLength()];
+			raf.readFully(b);
+			packet.write(b);
+			if (!isPageFinished() || !pageHeader.isLastPacketIncomplete())
+				return packet.toByteArray();
+		}
+	}
+
+	/**
+	 * @return true if no more packets start on the page the last packet finished on, so the file pointer is at the
+	 *         start of the next page
+	 */
+	public boolean isPageFinished() {
+		return pageHeader != null && nextPacket >= pageHeader.getPacketList().size();
+	}
+
+	/**
+	 * @return header of the page the last packet finished on
+	 */
+	public OggPageHeader getPageHeader() {
+		return pageHeader;
+	}
+}
@@ -0,0 +1,137 @@
+package org.jaudiotagger.audio.ogg.util;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.logging.Logger;
+
+/**
+ * Find the last page of an Ogg stream by reading blocks backwards from the end of the file and searching them for the
+ * capture pattern, as needed to get the final granule position.
+ * <p/>
+ * A capture pattern is only accepted as the start of a page if the page it starts is complete and its checksum is
+ * correct, so capture patterns within trailing junk or within the data of a page are skipped. If no page has a correct
+ * checksum the last complete page is used instead.
+ */
+public class OggPageScanner {
+	// Logger Object
+	public static Logger logger = Logger.getLogger("org.jaudiotagger.audio.ogg.atom");
+
+	/**
+	 * Amount read from the file at a time, larger than most last pages so usually only one read is needed
+	 */
+	private static final int BLOCK_SIZE = 16384;
+
+	private static final int INCOMPLETE_PAGE = 0;
+
+	private static final int INVALID_PAGE = -1;
+
+	private OggPageScanner() {
+	}
+
+	/**
+	 * Find the last page in the file, the file pointer of raf is not changed
+	 *
+	 * @param raf
+	 * @param start
+	 *            start of the first page in the file, the search stops there
+	 * @return header of the last page with its start byte set, or null if there are no complete pages
+	 * @throws IOException
+	 */
+	public static OggPageHeader findLastPage(final RandomAccessFile raf, final long start) throws IOException {
+		final FileChannel fc = raf.getChannel();
+		final long fileLength = fc.size();
+		final ByteBuffer block = ByteBuffer.allocate(BLOCK_SIZE);
+		ByteBuffer pageBuffer = null;
+		OggPageHeader unchecked = null;
+
+		long blockEnd = fileLength;
+		while (blockEnd - start >= OggPageHeader.OGG_PAGE_HEADER_FIXED_LENGTH) {
+			final long blockStart = Math.max(start, blockEnd - BLOCK_SIZE);
+			block.clear();
+			block.limit((int) (blockEnd - blockStart));
+			while (block.hasRemaining())
+				if (fc.read(block, blockStart + block.position()) < 0)
+					break;
+			final int blockLength = block.position();
+
+			for (int i = blockLength - OggPageHeader.CAPTURE_PATTERN.length; i >= 0; i--) {
+				if (!isCapturePattern(block, i))
+					continue;
+
+				ByteBuffer page = block;
+				int offset = i;
+				int pageLength = getPageLength(block, i, blockLength - i);
+				if (pageLength == INCOMPLETE_PAGE) {
+					if (pageBuffer == null)
+						pageBuffer = ByteBuffer.allocate(OggPageHeader.MAXIMUM_PAGE_SIZE);
+					pageBuffer.clear();
+					pageBuffer.limit((int) Math.min(OggPageHeader.MAXIMUM_PAGE_SIZE, fileLength - blockStart - i));
+					while (pageBuffer.hasRemaining())
+						if (fc.read(pageBuffer, blockStart + i + pageBuffer.position()) < 0)
+							break;
+					page = pageBuffer;
+					offset = 0;
+					pageLength = getPageLength(pageBuffer, 0, pageBuffer.position());
+				}
+				if (pageLength <= 0)
+					continue;
+
+				if (OggCRCFactory.checkPageCRC(page, offset, pageLength))
+					return createPageHeader(page, offset, blockStart + i);
+				if (unchecked == null)
+					unchecked = createPageHeader(page, offset, blockStart + i);
+			}
+
+			if (blockStart == start)
+				break;
+			// Overlap blocks so a capture pattern across the boundary is found
+			blockEnd = blockStart + OggPageHeader.CAPTURE_PATTERN.length - 1;
+		}
+
+		if (unchecked != null)
+			logger.warning("No page with a valid checksum found, using last page at:" + unchecked.getStartByte());
+		return unchecked;
+	}
+
+	private static boolean isCapturePattern(final ByteBuffer bb, final int offset) {
+		for (int i = 0; i < OggPageHeader.CAPTURE_PATTERN.length; i++)
+			if (bb.get(offset + i) != OggPageHeader.CAPTURE_PATTERN[i])
+				return false;
+		return true;
+	}
+
+	/**
+	 * @param bb
+	 * @param offset
+	 *            start of the page
+	 * @param available
+	 *            bytes available from offset
+	 * @return length of the page including its header, INCOMPLETE_PAGE if the page does not fit in available or
+	 *         INVALID_PAGE if the header is not valid
+	 */
+	private static int getPageLength(final ByteBuffer bb, final int offset, final int available) {
+		if (available < OggPageHeader.OGG_PAGE_HEADER_FIXED_LENGTH)
+			return INCOMPLETE_PAGE;
+		if (bb.get(offset + OggPageHeader.FIELD_STREAM_STRUCTURE_VERSION_POS) != 0)
+			return INVALID_PAGE;
+
+		final int pageSegments = bb.get(offset + OggPageHeader.FIELD_PAGE_SEGMENTS_POS) & 0xFF;
+		int pageLength = OggPageHeader.OGG_PAGE_HEADER_FIXED_LENGTH + pageSegments;
+		if (available < pageLength)
+			return INCOMPLETE_PAGE;
+		for (int i = 0; i < pageSegments; i++)
+			pageLength += bb.get(offset + OggPageHeader.OGG_PAGE_HEADER_FIXED_LENGTH + i) & 0xFF;
+		return available < pageLength ? INCOMPLETE_PAGE : pageLength;
+	}
+
+	private static OggPageHeader createPageHeader(final ByteBuffer bb, final int offset, final long startByte) {
+		final byte[] b = new byte[OggPageHeader.OGG_PAGE_HEADER_FIXED_LENGTH + (bb.get(offset + OggPageHeader.FIELD_PAGE_SEGMENTS_POS) & 0xFF)];
+		for (int i = 0; i < b.length; i++)
+			b[i] = bb.get(offset + i);
+		final OggPageHeader pageHeader = new OggPageHeader(b);
+		pageHeader.setStartByte(startByte);
+		return pageHeader;
+	}
+}
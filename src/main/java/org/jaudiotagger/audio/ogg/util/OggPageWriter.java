@@ -0,0 +1,261 @@
+package org.jaudiotagger.audio.ogg.util;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.util.List;
+import java.util.logging.Logger;
+
+import org.jaudiotagger.audio.exceptions.CannotReadException;
+import org.jaudiotagger.audio.exceptions.CannotWriteException;
+import org.jaudiotagger.logging.ErrorMessage;
+import org.jaudiotagger.tag.TagOptionSingleton;
+
+/**
+ * Write Ogg pages, shared by the writers of each codec
+ * <p/>
+ * Header packets are paginated from scratch, the audio pages that follow them are streamed from the original file
+ * through a fixed size window and only renumbered if the number of header pages has changed.
+ */
+public class OggPageWriter {
+	// Logger Object
+	public static Logger logger = Logger.getLogger("org.jaudiotagger.audio.ogg");
+
+	/**
+	 * Size of the window pages are renumbered in, large enough to always hold a complete page
+	 */
+	private static final int PAGE_WINDOW_SIZE = 2 * OggPageHeader.MAXIMUM_PAGE_SIZE;
+
+	/**
+	 * Granule position of a page on which no packet finishes
+	 */
+	private static final long NO_PACKET_FINISHED = -1;
+
+	private OggPageWriter() {
+	}
+
+	/**
+	 * Write packets as new pages, each packet starting on the page the previous packet finishes on and the last page
+	 * finishing with the last packet, as required for the header packets of Opus and FLAC streams. The granule position
+	 * of header pages is zero, or -1 for a page on which no packet finishes.
+	 *
+	 * @param packets
+	 * @param serialNumber
+	 *            serial number of the logical stream
+	 * @param pageSequence
+	 *            sequence number of the page before the first page written
+	 * @param fc
+	 *            written from its current position
+	 * @return sequence number of the last page written
+	 * @throws IOException
+	 */
+	public static int writePackets(final List<byte[]> packets, final int serialNumber, int pageSequence, final FileChannel fc) throws IOException {
+		// A packet is laced as a run of 255 values ending with a value less than 255
+		final ByteArrayOutputStream lacingValues = new ByteArrayOutputStream();
+		final ByteArrayOutputStream data = new ByteArrayOutputStream();
+		for (final byte[] packet : packets) {
+			for (int i = 0; i < packet.length / OggPageHeader.MAXIMUM_SEGMENT_SIZE; i++)
+				lacingValues.write(OggPageHeader.MAXIMUM_SEGMENT_SIZE);
+			lacingValues.write(packet.length % OggPageHeader.MAXIMUM_SEGMENT_SIZE);
+			data.write(packet);
+		}
+		final byte[] lacing = lacingValues.toByteArray();
+		final byte[] packetData = data.toByteArray();
+
+		final ByteBuffer page = ByteBuffer.allocate(OggPageHeader.MAXIMUM_PAGE_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+		int segment = 0;
+		int dataPosition = 0;
+		boolean continued = false;
+		while (segment < lacing.length) {
+			final int pageSegments = Math.min(OggPageHeader.MAXIMUM_NO_OF_SEGMENT_SIZE, lacing.length - segment);
+			int pageDataLength = 0;
+			boolean packetFinished = false;
+			for (int i = segment; i < segment + pageSegments; i++) {
+				pageDataLength += lacing[i] & 0xFF;
+				if ((lacing[i] & 0xFF) < OggPageHeader.MAXIMUM_SEGMENT_SIZE)
+					packetFinished = true;
+			}
+
+			page.clear();
+			page.put(OggPageHeader.CAPTURE_PATTERN);
+			page.put((byte) 0);
+			page.put(continued ? OggPageHeader.HeaderTypeFlag.CONTINUED_PACKET.getFileValue() : OggPageHeader.HeaderTypeFlag.FRESH_PACKET.getFileValue());
+			page.putLong(packetFinished ? 0 : NO_PACKET_FINISHED);
+			page.putInt(serialNumber);
+			page.putInt(++pageSequence);
+			page.putInt(0);
+			page.put((byte) pageSegments);
+			page.put(lacing, segment, pageSegments);
+			page.put(packetData, dataPosition, pageDataLength);
+			page.flip();
+			OggCRCFactory.setPageCRC(page, 0, page.limit());
+			while (page.hasRemaining())
+				fc.write(page);
+
+			continued = (lacing[segment + pageSegments - 1] & 0xFF) == OggPageHeader.MAXIMUM_SEGMENT_SIZE;
+			segment += pageSegments;
+			dataPosition += pageDataLength;
+		}
+		return pageSequence;
+	}
+
+	/**
+	 * Write all the remaining pages as they are except that the page sequence needs to be modified.
+	 * <p/>
+	 * If the first remaining page already has the next sequence number the number of header pages has not changed so
+	 * the rest of the file is copied as is, otherwise the pages are streamed through a fixed size window renumbering
+	 * each page and recalculating its checksum.
+	 *
+	 * @param pageSequence
+	 *            sequence number of the last page already written
+	 * @param raf
+	 *            positioned at the first remaining page
+	 * @param rafTemp
+	 * @throws IOException
+	 * @throws CannotReadException
+	 * @throws CannotWriteException
+	 */
+	public static void writeRemainingPages(final int pageSequence, final RandomAccessFile raf, final RandomAccessFile rafTemp) throws IOException, CannotReadException, CannotWriteException {
+		final long startAudio = raf.getFilePointer();
+		final long startAudioWritten = rafTemp.getFilePointer();
+		logger.fine("Writing audio, audio starts in original file at :" + startAudio + ":Written to:" + startAudioWritten);
+
+		if (isNextPageInSequence(pageSequence, raf.getChannel(), startAudio)) {
+			logger.fine("Page sequence unchanged, copying audio");
+			copyRemainingPages(raf.getChannel(), startAudio, rafTemp.getChannel());
+		} else
+			renumberRemainingPages(pageSequence, raf.getChannel(), startAudio, rafTemp.getChannel());
+
+		// Check we have written all the data
+		// TODO could we do any other checks to check data written correctly ?
+		if ((raf.length() - startAudio) != (rafTemp.length() - startAudioWritten))
+			throw new CannotWriteException("File written counts don't match, file not written");
+	}
+
+	/**
+	 * @param pageSequence
+	 * @param fc
+	 * @param position
+	 *            start of the next page
+	 * @return true if the page at position has the sequence number following pageSequence
+	 * @throws IOException
+	 */
+	private static boolean isNextPageInSequence(final int pageSequence, final FileChannel fc, final long position) throws IOException {
+		final ByteBuffer header = ByteBuffer.allocate(OggPageHeader.OGG_PAGE_HEADER_FIXED_LENGTH).order(ByteOrder.LITTLE_ENDIAN);
+		while (header.hasRemaining())
+			if (fc.read(header, position + header.position()) < 0)
+				return false;
+		return isPageStart(header, 0) && header.getInt(OggPageHeader.FIELD_PAGE_SEQUENCE_NO_POS) == pageSequence + 1;
+	}
+
+	/**
+	 * Copy from position to the end of the file in chunks
+	 * 
+	 * @param fc
+	 * @param position
+	 * @param fcTemp
+	 * @throws IOException
+	 */
+	private static void copyRemainingPages(final FileChannel fc, long position, final FileChannel fcTemp) throws IOException {
+		final long chunkSize = TagOptionSingleton.getInstance().getWriteChunkSize();
+		final long end = fc.size();
+		while (position < end) {
+			final long transferred = fc.transferTo(position, Math.min(chunkSize, end - position), fcTemp);
+			if (transferred <= 0)
+				break;
+			position += transferred;
+		}
+	}
+
+	/**
+	 * Read the pages from position to the end of the file through a window that always holds at least one complete page,
+	 * renumbering and checksumming each complete page in place before writing it out
+	 * 
+	 * @param pageSequence
+	 * @param fc
+	 * @param position
+	 * @param fcTemp
+	 * @throws IOException
+	 * @throws CannotReadException
+	 */
+	private static void renumberRemainingPages(int pageSequence, final FileChannel fc, long position, final FileChannel fcTemp) throws IOException, CannotReadException {
+		final ByteBuffer window = ByteBuffer.allocate(PAGE_WINDOW_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+		final long end = fc.size();
+		while (true) {
+			while (window.hasRemaining() && position < end) {
+				final int read = fc.read(window, position);
+				if (read < 0)
+					break;
+				position += read;
+			}
+			window.flip();
+			if (!window.hasRemaining())
+				break;
+
+			int pageStart = 0;
+			int pageLength;
+			while ((pageLength = getCompletePageLength(window, pageStart)) > 0) {
+				window.putInt(pageStart + OggPageHeader.FIELD_PAGE_SEQUENCE_NO_POS, ++pageSequence);
+				OggCRCFactory.setPageCRC(window, pageStart, pageLength);
+				pageStart += pageLength;
+			}
+
+			// Partial page at end of file is copied as is
+			if (pageStart == 0 && position >= end) {
+				logger.warning("Incomplete ogg page at end of file copied without renumbering");
+				pageStart = window.limit();
+			}
+
+			final ByteBuffer pages = window.duplicate();
+			pages.position(0).limit(pageStart);
+			while (pages.hasRemaining())
+				fcTemp.write(pages);
+
+			window.position(pageStart);
+			window.compact();
+		}
+	}
+
+	/**
+	 * @param window
+	 * @param pageStart
+	 * @return length of the page starting at pageStart including its header, or zero if the page is not complete within
+	 *         the window
+	 * @throws CannotReadException
+	 *             if there is no page at pageStart
+	 */
+	private static int getCompletePageLength(final ByteBuffer window, final int pageStart) throws CannotReadException {
+		final int available = window.limit() - pageStart;
+		if (available < OggPageHeader.OGG_PAGE_HEADER_FIXED_LENGTH)
+			return 0;
+		if (!isPageStart(window, pageStart)) {
+			final byte[] b = new byte[OggPageHeader.CAPTURE_PATTERN.length];
+			for (int i = 0; i < b.length; i++)
+				b[i] = window.get(pageStart + i);
+			throw new CannotReadException(ErrorMessage.OGG_HEADER_CANNOT_BE_FOUND.getMsg(new String(b)));
+		}
+
+		final int pageSegments = window.get(pageStart + OggPageHeader.FIELD_PAGE_SEGMENTS_POS) & 0xFF;
+		int pageLength = OggPageHeader.OGG_PAGE_HEADER_FIXED_LENGTH + pageSegments;
+		if (available < pageLength)
+			return 0;
+		for (int i = 0; i < pageSegments; i++)
+			pageLength += window.get(pageStart + OggPageHeader.OGG_PAGE_HEADER_FIXED_LENGTH + i) & 0xFF;
+		return available < pageLength ? 0 : pageLength;
+	}
+
+	/**
+	 * @param bb
+	 * @param pageStart
+	 * @return true if the capture pattern is at pageStart
+	 */
+	private static boolean isPageStart(final ByteBuffer bb, final int pageStart) {
+		for (int i = 0; i < OggPageHeader.CAPTURE_PATTERN.length; i++)
+			if (bb.get(pageStart + i) != OggPageHeader.CAPTURE_PATTERN[i])
+				return false;
+		return true;
+	}
+}
@@ -0,0 +1,18 @@
+package org.jaudiotagger.audio.ogg.util;
+
+/**
+ * Defines variables common to all opus headers
+ */
+public interface OpusHeader {
+	// Capture patterns at start of the identification and comment headers
+	public static final byte[] HEAD_CAPTURE_PATTERN_AS_BYTES = { 'O', 'p', 'u', 's', 'H', 'e', 'a', 'd' };
+
+	public static final byte[] TAGS_CAPTURE_PATTERN_AS_BYTES = { 'O', 'p', 'u', 's', 'T', 'a', 'g', 's' };
+
+	public static final int FIELD_CAPTURE_PATTERN_POS = 0;
+
+	public static final int FIELD_CAPTURE_PATTERN_LENGTH = 8;
+
+	// Granule positions are always in samples at 48kHz whatever the input sample rate was
+	public static final int GRANULE_SAMPLE_RATE = 48000;
+}
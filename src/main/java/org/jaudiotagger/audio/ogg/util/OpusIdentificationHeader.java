@@ -0,0 +1,92 @@
+package org.jaudiotagger.audio.ogg.util;
+
+import java.util.logging.Logger;
+
+/**
+ * Opus Identification header
+ * <p/>
+ * From https://tools.ietf.org/html/rfc7845#section-5.1
+ * <p/>
+ * The identification header is coded as follows:
+ * <p/>
+ * 1) [magic_signature] = 'OpusHead' 2) [version] = read 8 bits, major version in the upper 4 bits 3) [channel_count] =
+ * read 8 bits as unsigned integer 4) [pre_skip] = read 16 bits as unsigned little endian integer, samples at 48kHz to
+ * discard from the start of the decoded output 5) [input_sample_rate] = read 32 bits as unsigned little endian integer,
+ * informational only 6) [output_gain] = read 16 bits as signed little endian integer 7) [channel_mapping_family] = read
+ * 8 bits, optionally followed by a channel mapping table
+ */
+public class OpusIdentificationHeader implements OpusHeader {
+	// Logger Object
+	public static Logger logger = Logger.getLogger("org.jaudiotagger.audio.ogg.atom");
+
+	public static final int FIELD_VERSION_POS = 8;
+	public static final int FIELD_CHANNEL_COUNT_POS = 9;
+	public static final int FIELD_PRE_SKIP_POS = 10;
+	public static final int FIELD_INPUT_SAMPLE_RATE_POS = 12;
+	public static final int FIELD_OUTPUT_GAIN_POS = 16;
+	public static final int FIELD_CHANNEL_MAPPING_FAMILY_POS = 18;
+
+	public static final int MINIMUM_LENGTH = 19;
+
+	private final boolean isValid;
+	private int version, channelCount, preSkip, inputSampleRate;
+
+	public OpusIdentificationHeader(final byte[] opusData) {
+		isValid = isOpusIdentificationHeader(opusData) && (u(opusData[FIELD_VERSION_POS]) >>> 4) == 0;
+		if (isValid) {
+			version = u(opusData[FIELD_VERSION_POS]);
+			channelCount = u(opusData[FIELD_CHANNEL_COUNT_POS]);
+			preSkip = u(opusData[FIELD_PRE_SKIP_POS]) + (u(opusData[FIELD_PRE_SKIP_POS + 1]) << 8);
+			inputSampleRate = u(opusData[FIELD_INPUT_SAMPLE_RATE_POS]) + (u(opusData[FIELD_INPUT_SAMPLE_RATE_POS + 1]) << 8) + (u(opusData[FIELD_INPUT_SAMPLE_RATE_POS + 2]) << 16)
+					+ (u(opusData[FIELD_INPUT_SAMPLE_RATE_POS + 3]) << 24);
+			logger.fine("version" + version + ":channelCount" + channelCount + ":preSkip" + preSkip + ":inputSampleRate" + inputSampleRate);
+		}
+	}
+
+	/**
+	 * @param data
+	 * @return true if data starts with the Opus identification header capture pattern
+	 */
+	public static boolean isOpusIdentificationHeader(final byte[] data) {
+		if (data.length < MINIMUM_LENGTH)
+			return false;
+		for (int i = 0; i < FIELD_CAPTURE_PATTERN_LENGTH; i++)
+			if (data[FIELD_CAPTURE_PATTERN_POS + i] != HEAD_CAPTURE_PATTERN_AS_BYTES[i])
+				return false;
+		return true;
+	}
+
+	public int getVersion() {
+		return version;
+	}
+
+	public int getChannelNumber() {
+		return channelCount;
+	}
+
+	/**
+	 * @return samples at 48kHz to discard from the start of the stream, not included in the duration
+	 */
+	public int getPreSkip() {
+		return preSkip;
+	}
+
+	/**
+	 * @return sample rate of the original input, zero if unknown
+	 */
+	public int getInputSampleRate() {
+		return inputSampleRate;
+	}
+
+	public String getEncodingType() {
+		return "Opus";
+	}
+
+	public boolean isValid() {
+		return isValid;
+	}
+
+	private int u(final int i) {
+		return i & 0xFF;
+	}
+}
@@ -20,16 +20,21 @@ package org.jaudiotagger.audio.wav;
 
 import java.io.IOException;
 import java.io.RandomAccessFile;
+import java.nio.file.Path;
 
+import org.jaudiotagger.audio.AudioFile;
+import org.jaudiotagger.audio.ReadOptions;
 import org.jaudiotagger.audio.exceptions.CannotReadException;
 import org.jaudiotagger.audio.generic.AudioFileReader;
 import org.jaudiotagger.audio.generic.GenericAudioHeader;
+import org.jaudiotagger.audio.wav.util.WavChunkIndex;
 import org.jaudiotagger.audio.wav.util.WavInfoReader;
 import org.jaudiotagger.tag.Tag;
 
 public class WavFileReader extends AudioFileReader {
 
 	private final WavInfoReader ir = new WavInfoReader();
+	private final WavTagReader tr = new WavTagReader();
 
 	@Override
 	protected GenericAudioHeader getEncodingInfo(final RandomAccessFile raf) throws CannotReadException, IOException {
@@ -37,7 +42,18 @@ public class WavFileReader extends AudioFileReader {
 	}
 
 	@Override
-	protected Tag getTag(final RandomAccessFile raf) throws CannotReadException {
-		return new WavTag();
+	protected Tag getTag(final RandomAccessFile raf) throws CannotReadException, IOException {
+		return tr.read(raf);
+	}
+
+	/*
+	 * The chunks are only indexed once for both the audio header and the tag
+	 */
+	@Override
+	protected AudioFile read(final Path f, final RandomAccessFile raf, final ReadOptions options) throws CannotReadException, IOException {
+		final WavChunkIndex index = WavChunkIndex.read(raf);
+		final GenericAudioHeader info = options.isAudioHeaderRequired() ? ir.read(raf, index) : null;
+		final Tag tag = options.isTagRequired() ? tr.read(raf, index) : null;
+		return new AudioFile(f, info, tag);
 	}
 }
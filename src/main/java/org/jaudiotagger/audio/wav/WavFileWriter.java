@@ -21,18 +21,30 @@ package org.jaudiotagger.audio.wav;
 import java.io.IOException;
 import java.io.RandomAccessFile;
 
+import org.jaudiotagger.audio.exceptions.CannotReadException;
 import org.jaudiotagger.audio.exceptions.CannotWriteException;
 import org.jaudiotagger.audio.generic.AudioFileWriter;
 import org.jaudiotagger.tag.Tag;
 
+/**
+ * Write/delete the LIST INFO and id3 chunks of a WAV file
+ */
 public class WavFileWriter extends AudioFileWriter {
+
+	private final WavTagWriter tw = new WavTagWriter();
+
+	@Override
+	protected void writeTag(final Tag tag, final RandomAccessFile raf, final RandomAccessFile rafTemp) throws CannotReadException, CannotWriteException, IOException {
+		tw.write(tag, raf, rafTemp);
+	}
+
 	@Override
-	protected void writeTag(final Tag tag, final RandomAccessFile raf, final RandomAccessFile rafTemp) throws CannotWriteException, IOException {
-		// Nothing to do for wav file, no tag are supported
+	protected boolean writeTagInPlace(final Tag tag, final RandomAccessFile raf) throws CannotReadException, CannotWriteException, IOException {
+		return tw.writeInPlace(tag, raf);
 	}
 
 	@Override
-	protected void deleteTag(final RandomAccessFile raf, final RandomAccessFile tempRaf) throws CannotWriteException, IOException {
-		// Nothing to do for wav file, no tag are supported
+	protected void deleteTag(final RandomAccessFile raf, final RandomAccessFile tempRaf) throws CannotReadException, CannotWriteException, IOException {
+		tw.delete(raf, tempRaf);
 	}
 }
@@ -0,0 +1,43 @@
+package org.jaudiotagger.audio.wav;
+
+import org.jaudiotagger.tag.FieldKey;
+
+/**
+ * Identifiers of the LIST INFO chunk items that hold the fields supported by {@link WavTag}
+ */
+public enum WavInfoIdentifier {
+	ARTIST("IART", FieldKey.ARTIST),
+	ALBUM("IPRD", FieldKey.ALBUM),
+	TITLE("INAM", FieldKey.TITLE),
+	TRACK("ITRK", FieldKey.TRACK),
+	YEAR("ICRD", FieldKey.YEAR),
+	GENRE("IGNR", FieldKey.GENRE),
+	COMMENT("ICMT", FieldKey.COMMENT);
+
+	private final String code;
+	private final FieldKey fieldKey;
+
+	WavInfoIdentifier(final String code, final FieldKey fieldKey) {
+		this.code = code;
+		this.fieldKey = fieldKey;
+	}
+
+	public String getCode() {
+		return code;
+	}
+
+	public FieldKey getFieldKey() {
+		return fieldKey;
+	}
+
+	/**
+	 * @param code
+	 * @return the identifier of the item, or null if the item does not hold a supported field
+	 */
+	public static WavInfoIdentifier getByCode(final String code) {
+		for (final WavInfoIdentifier identifier : values())
+			if (identifier.code.equals(code))
+				return identifier;
+		return null;
+	}
+}
@@ -18,9 +18,78 @@
  */
 package org.jaudiotagger.audio.wav;
 
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 import org.jaudiotagger.audio.generic.GenericTag;
+import org.jaudiotagger.tag.FieldKey;
+import org.jaudiotagger.tag.id3.AbstractID3v2Tag;
 
+/**
+ * The fields of a WAV file, read from and written to its LIST INFO chunk.
+ * <p/>
+ * If the file has an id3 chunk its tag is also available, fields missing from the LIST INFO chunk are read from the
+ * ID3 tag and when written the ID3 tag is updated with the fields of this tag that have changed since it was read.
+ * Values that LIST INFO cannot hold, as they are not ISO-8859-1, are only written to the ID3 tag.
+ */
 public class WavTag extends GenericTag {
+	/**
+	 * LIST INFO items that do not hold a supported field, kept so they are written back unchanged
+	 */
+	private final Map<String, String> otherInfoItems = new LinkedHashMap<String, String>();
+
+	private AbstractID3v2Tag id3Tag;
+
+	/**
+	 * Values of the supported fields when the tag was read, fields that still have these values are not written to the
+	 * ID3 tag so its other values of the field are kept
+	 */
+	private final Map<FieldKey, String> valuesRead = new EnumMap<FieldKey, String>(FieldKey.class);
+
+	/**
+	 * @return the tag of the id3 chunk, or null if the file has none
+	 */
+	public AbstractID3v2Tag getID3Tag() {
+		return id3Tag;
+	}
+
+	/**
+	 * @param id3Tag
+	 *            the tag to write to the id3 chunk, or null to not write an id3 chunk
+	 */
+	public void setID3Tag(final AbstractID3v2Tag id3Tag) {
+		this.id3Tag = id3Tag;
+		// The new ID3 tag was not read with the fields of this tag
+		valuesRead.clear();
+	}
+
+	Map<String, String> getOtherInfoItems() {
+		return otherInfoItems;
+	}
+
+	/**
+	 * Record the values of the supported fields once the tag has been read
+	 */
+	void setValuesRead() {
+		for (final WavInfoIdentifier identifier : WavInfoIdentifier.values())
+			valuesRead.put(identifier.getFieldKey(), getFirst(identifier.getFieldKey()));
+	}
+
+	/**
+	 * @param genericKey
+	 * @return true if the field has been changed since the tag was read, or the tag was not read with the ID3 tag
+	 */
+	boolean isChanged(final FieldKey genericKey) {
+		final String valueRead = valuesRead.get(genericKey);
+		return valueRead == null || !valueRead.equals(getFirst(genericKey));
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return super.isEmpty() && otherInfoItems.isEmpty() && (id3Tag == null || id3Tag.isEmpty());
+	}
+
 	@Override
 	public String toString() {
 		final String output = "WAV " + super.toString();
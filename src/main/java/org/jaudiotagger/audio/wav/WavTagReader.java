@@ -0,0 +1,172 @@
+package org.jaudiotagger.audio.wav;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.logging.Logger;
+
+import org.jaudiotagger.audio.exceptions.CannotReadException;
+import org.jaudiotagger.audio.wav.util.WavChunk;
+import org.jaudiotagger.audio.wav.util.WavChunkIndex;
+import org.jaudiotagger.tag.FieldDataInvalidException;
+import org.jaudiotagger.tag.TagException;
+import org.jaudiotagger.tag.datatype.CharsetCodecs;
+import org.jaudiotagger.tag.id3.AbstractID3v2Tag;
+import org.jaudiotagger.tag.id3.ID3v22Tag;
+import org.jaudiotagger.tag.id3.ID3v23Tag;
+import org.jaudiotagger.tag.id3.ID3v24Tag;
+
+/**
+ * Reads the fields of a WAV file from its LIST INFO chunk and id3 chunk
+ */
+public class WavTagReader {
+	// Logger Object
+	public static Logger logger = Logger.getLogger("org.jaudiotagger.audio.wav");
+
+	static final String ID3 = "id3 ";
+	static final String ID3_UPPER_CASE = "ID3 ";
+
+	/**
+	 * Identifier and size of each item in the LIST INFO chunk
+	 */
+	static final int INFO_ITEM_HEADER_LENGTH = 8;
+
+	/**
+	 * Length of the INFO type at the start of the LIST chunk data
+	 */
+	static final int LIST_TYPE_LENGTH = 4;
+
+	public WavTag read(final RandomAccessFile raf) throws CannotReadException, IOException {
+		return read(raf, WavChunkIndex.read(raf));
+	}
+
+	/**
+	 * @param raf
+	 * @param index
+	 *            the chunks of the file
+	 * @return the tag, empty if the file has no LIST INFO or id3 chunk
+	 * @throws CannotReadException
+	 * @throws IOException
+	 */
+	public WavTag read(final RandomAccessFile raf, final WavChunkIndex index) throws CannotReadException, IOException {
+		final WavTag tag = new WavTag();
+		for (final WavChunk chunk : index.getChunks())
+			if (isInfoChunk(chunk))
+				readInfo(raf, chunk, tag);
+			else if (isID3Chunk(chunk) && tag.getID3Tag() == null)
+				tag.setID3Tag(readID3(raf, chunk));
+
+		if (tag.getID3Tag() != null)
+			for (final WavInfoIdentifier identifier : WavInfoIdentifier.values()) {
+				final String value = tag.getID3Tag().getFirst(identifier.getFieldKey());
+				if (value.length() == 0)
+					continue;
+				// The ID3 value is used if LIST INFO does not have the field, or only has a copy of the ID3 value
+				// that lost the characters LIST INFO cannot hold
+				final String infoValue = tag.getFirst(identifier.getFieldKey());
+				if (infoValue.length() == 0 || !canBeEncodedInInfo(value) && infoValue.equals(new String(value.getBytes(StandardCharsets.ISO_8859_1), StandardCharsets.ISO_8859_1)))
+					try {
+						tag.setField(identifier.getFieldKey(), value);
+					} catch (final FieldDataInvalidException e) {
+						logger.warning("Unable to use ID3 " + identifier.getFieldKey() + " value:" + e.getMessage());
+					}
+			}
+		tag.setValuesRead();
+		return tag;
+	}
+
+	/**
+	 * @param value
+	 * @return true if the value can be held by a LIST INFO item, which are ISO-8859-1
+	 */
+	static boolean canBeEncodedInInfo(final String value) {
+		return CharsetCodecs.getEncoder(StandardCharsets.ISO_8859_1.name()).canEncode(value);
+	}
+
+	static boolean isInfoChunk(final WavChunk chunk) {
+		return WavChunkIndex.LIST.equals(chunk.getId()) && WavChunkIndex.INFO.equals(chunk.getListType());
+	}
+
+	static boolean isID3Chunk(final WavChunk chunk) {
+		return ID3.equals(chunk.getId()) || ID3_UPPER_CASE.equals(chunk.getId());
+	}
+
+	private void readInfo(final RandomAccessFile raf, final WavChunk chunk, final WavTag tag) throws IOException {
+		if (chunk.getSize() > Integer.MAX_VALUE) {
+			logger.warning("Ignoring LIST INFO chunk that is too large " + chunk);
+			return;
+		}
+		final byte[] data = new byte[(int) chunk.getSize()];
+		raf.seek(chunk.getDataOffset());
+		raf.readFully(data);
+		final ByteBuffer items = ByteBuffer.wrap(data).order(ByteOrder.LITTLE_ENDIAN);
+
+		int position = LIST_TYPE_LENGTH;
+		while (position + INFO_ITEM_HEADER_LENGTH <= data.length) {
+			final String id = new String(data, position, 4, StandardCharsets.ISO_8859_1);
+			final long size = items.getInt(position + 4) & 0xFFFFFFFFL;
+			if (position + INFO_ITEM_HEADER_LENGTH + size > data.length) {
+				logger.warning("LIST INFO item " + id + " ends after its chunk " + chunk);
+				break;
+			}
+			final String value = getValue(data, position + INFO_ITEM_HEADER_LENGTH, (int) size);
+			position += INFO_ITEM_HEADER_LENGTH + size + (size & 1);
+
+			final WavInfoIdentifier identifier = WavInfoIdentifier.getByCode(id);
+			if (identifier == null)
+				tag.getOtherInfoItems().put(id, value);
+			else if (value.length() > 0)
+				try {
+					tag.addField(identifier.getFieldKey(), value);
+				} catch (final FieldDataInvalidException e) {
+					logger.warning("Unable to read LIST INFO item " + id + ":" + e.getMessage());
+				}
+		}
+	}
+
+	/**
+	 * @return the text of an item without the null terminator
+	 */
+	private static String getValue(final byte[] data, final int offset, final int size) {
+		int length = size;
+		while (length > 0 && data[offset + length - 1] == 0)
+			length--;
+		return new String(data, offset, length, StandardCharsets.ISO_8859_1);
+	}
+
+	/**
+	 * @return the ID3 tag, or null if the chunk does not hold a valid tag
+	 */
+	private AbstractID3v2Tag readID3(final RandomAccessFile raf, final WavChunk chunk) throws IOException {
+		if (chunk.getSize() > Integer.MAX_VALUE || chunk.getSize() < AbstractID3v2Tag.TAG_HEADER_LENGTH) {
+			logger.warning("Ignoring id3 chunk that is not valid " + chunk);
+			return null;
+		}
+		final byte[] data = new byte[(int) chunk.getSize()];
+		raf.seek(chunk.getDataOffset());
+		raf.readFully(data);
+		if (!"ID3".equals(new String(data, 0, 3, StandardCharsets.ISO_8859_1))) {
+			logger.warning("Ignoring id3 chunk without an ID3 tag " + chunk);
+			return null;
+		}
+
+		try {
+			switch (data[3]) {
+			case 2:
+				return new ID3v22Tag(ByteBuffer.wrap(data), "");
+			case 3:
+				return new ID3v23Tag(ByteBuffer.wrap(data), "");
+			case 4:
+				return new ID3v24Tag(ByteBuffer.wrap(data), "");
+			default:
+				logger.warning("Ignoring id3 chunk with unknown ID3 version " + data[3]);
+				return null;
+			}
+		} catch (final TagException e) {
+			logger.warning("Unable to read id3 chunk " + chunk + ":" + e.getMessage());
+			return null;
+		}
+	}
+}
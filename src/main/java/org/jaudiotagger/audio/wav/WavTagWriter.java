@@ -0,0 +1,362 @@
+package org.jaudiotagger.audio.wav;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.logging.Logger;
+
+import org.jaudiotagger.audio.exceptions.CannotReadException;
+import org.jaudiotagger.audio.exceptions.CannotWriteException;
+import org.jaudiotagger.audio.wav.util.WavChunk;
+import org.jaudiotagger.audio.wav.util.WavChunkIndex;
+import org.jaudiotagger.tag.FieldDataInvalidException;
+import org.jaudiotagger.tag.Tag;
+import org.jaudiotagger.tag.TagOptionSingleton;
+import org.jaudiotagger.tag.id3.AbstractID3v2Tag;
+import org.jaudiotagger.tag.id3.ID3v22Tag;
+import org.jaudiotagger.tag.id3.ID3v23Tag;
+import org.jaudiotagger.tag.id3.ID3v24Tag;
+import org.jaudiotagger.tag.reference.ID3V2Version;
+
+/**
+ * Writes the fields of a WAV file to a LIST INFO chunk and, if the tag has an ID3 tag, an id3 chunk. Values that are
+ * not ISO-8859-1 are left out of the LIST INFO chunk and only written to the ID3 tag, which is created if needed.
+ * <p/>
+ * All other chunks are left as they are. The metadata is written in place if a run of adjacent LIST INFO, id3 and
+ * padding chunks is large enough to hold it, or if the metadata is at the end of the file, or the file has none, so it
+ * can grow without moving any other chunk. Otherwise the file is rewritten with the metadata before the data chunk
+ * followed by padding of {@link TagOptionSingleton#getWavPaddingPolicy()}.
+ */
+public class WavTagWriter {
+	// Logger Object
+	public static Logger logger = Logger.getLogger("org.jaudiotagger.audio.wav");
+
+	static final String JUNK = "JUNK";
+
+	/**
+	 * Chunks that only reserve space and can be overwritten
+	 */
+	private static final Set<String> PADDING_IDS = new HashSet<String>(Arrays.asList(JUNK, "junk", "PAD ", "FLLR"));
+
+	private static final long MAX_CHUNK_SIZE = 0xFFFFFFFFL;
+	private static final int ZERO_BUFFER_SIZE = 8192;
+
+	/**
+	 * Adjacent chunks that can be replaced by the metadata
+	 */
+	private static class Run {
+		private final long start;
+		private long end;
+		private final List<WavChunk> chunks = new ArrayList<WavChunk>();
+
+		private Run(final long start) {
+			this.start = start;
+			this.end = start;
+		}
+
+		private long getSpace() {
+			return end - start;
+		}
+	}
+
+	/**
+	 * Write the tag into the space of the existing metadata and padding chunks, or at the end of the file if the
+	 * metadata is last
+	 *
+	 * @param tag
+	 * @param raf
+	 * @return true if the tag was written, false if it does not fit and the file is unmodified
+	 * @throws CannotReadException
+	 * @throws CannotWriteException
+	 * @throws IOException
+	 */
+	public boolean writeInPlace(final Tag tag, final RandomAccessFile raf) throws CannotReadException, CannotWriteException, IOException {
+		final WavChunkIndex index = WavChunkIndex.read(raf);
+		final byte[] metadata = createMetadata((WavTag) tag);
+		final long fileLength = raf.length();
+
+		final List<Run> runs = new ArrayList<Run>();
+		Run run = null;
+		for (final WavChunk chunk : index.getChunks()) {
+			if (!isReplaceable(chunk)) {
+				run = null;
+				continue;
+			}
+			if (run == null) {
+				run = new Run(chunk.getOffset());
+				runs.add(run);
+			}
+			run.chunks.add(chunk);
+			run.end = getEnd(chunk, fileLength);
+		}
+
+		Run chosen = null;
+		for (final Run candidate : runs)
+			// Any space left over has to be filled with a padding chunk
+			if (candidate.getSpace() == metadata.length || candidate.getSpace() >= metadata.length + WavChunk.HEADER_LENGTH) {
+				chosen = candidate;
+				break;
+			}
+
+		long newLength = fileLength;
+		if (chosen == null) {
+			// Can only grow into the end of the file if nothing follows the last chunk, the metadata is only moved
+			// there from before the data chunk when there is none to move
+			final boolean isRunLast = run != null && run.end == fileLength;
+			if (index.isTruncated() || index.getEnd() < fileLength || !(isRunLast || !hasMetadata(index)))
+				return false;
+			chosen = isRunLast ? run : new Run(index.getEnd());
+			newLength = chosen.start + metadata.length;
+			if (!index.isRF64() && newLength - WavChunk.HEADER_LENGTH > MAX_CHUNK_SIZE)
+				return false;
+		}
+		logger.config("Writing " + metadata.length + " bytes of WAV metadata in place at " + chosen.start);
+
+		for (final WavChunk chunk : index.getChunks())
+			if (isMetadata(chunk) && !chosen.chunks.contains(chunk))
+				writePadding(raf, chunk.getOffset(), getEnd(chunk, fileLength) - chunk.getOffset());
+
+		raf.seek(chosen.start);
+		raf.write(metadata);
+		if (newLength != fileLength) {
+			raf.setLength(newLength);
+			writeRiffSize(raf, index, -1, newLength);
+		} else if (chosen.getSpace() > metadata.length)
+			writePadding(raf, chosen.start + metadata.length, chosen.getSpace() - metadata.length);
+		return true;
+	}
+
+	/**
+	 * Rewrite the file to rafTemp with the metadata before the data chunk
+	 *
+	 * @param tag
+	 * @param raf
+	 * @param rafTemp
+	 * @throws CannotReadException
+	 * @throws CannotWriteException
+	 * @throws IOException
+	 */
+	public void write(final Tag tag, final RandomAccessFile raf, final RandomAccessFile rafTemp) throws CannotReadException, CannotWriteException, IOException {
+		final byte[] metadata = createMetadata((WavTag) tag);
+		int padding = TagOptionSingleton.getInstance().getWavPaddingPolicy().getPaddingSize(metadata.length);
+		if (padding > 0)
+			padding = Math.max(padding + (padding & 1), WavChunk.HEADER_LENGTH);
+		write(raf, rafTemp, metadata, padding);
+	}
+
+	/**
+	 * Rewrite the file to rafTemp without any metadata or padding chunks
+	 *
+	 * @param raf
+	 * @param rafTemp
+	 * @throws CannotReadException
+	 * @throws CannotWriteException
+	 * @throws IOException
+	 */
+	public void delete(final RandomAccessFile raf, final RandomAccessFile rafTemp) throws CannotReadException, CannotWriteException, IOException {
+		write(raf, rafTemp, new byte[0], 0);
+	}
+
+	private void write(final RandomAccessFile raf, final RandomAccessFile rafTemp, final byte[] metadata, final int padding) throws CannotReadException, CannotWriteException, IOException {
+		final WavChunkIndex index = WavChunkIndex.read(raf);
+		if (index.isTruncated())
+			throw new CannotWriteException("Unable to rewrite WAV file whose last chunk ends after the end of the file");
+		final FileChannel source = raf.getChannel();
+		final FileChannel destination = rafTemp.getChannel();
+		final long fileLength = source.size();
+
+		rafTemp.seek(0);
+		copy(source, 0, WavChunkIndex.RIFF_HEADER_LENGTH, destination);
+		boolean isMetadataWritten = false;
+		long ds64DataOffset = -1;
+		for (final WavChunk chunk : index.getChunks()) {
+			if (isReplaceable(chunk))
+				continue;
+			if (WavChunkIndex.DATA.equals(chunk.getId()) && !isMetadataWritten) {
+				writeMetadata(rafTemp, metadata, padding);
+				isMetadataWritten = true;
+			}
+			if (WavChunkIndex.DS64.equals(chunk.getId()))
+				ds64DataOffset = destination.position() + WavChunk.HEADER_LENGTH;
+			copy(source, chunk.getOffset(), getEnd(chunk, fileLength) - chunk.getOffset(), destination);
+			// The pad byte of the last chunk of the file can be missing
+			if (chunk.getEnd() > fileLength)
+				rafTemp.write(0);
+		}
+		if (!isMetadataWritten)
+			writeMetadata(rafTemp, metadata, padding);
+		writeRiffSize(rafTemp, index, ds64DataOffset, destination.size());
+	}
+
+	private static void writeMetadata(final RandomAccessFile rafTemp, final byte[] metadata, final int padding) throws IOException {
+		rafTemp.write(metadata);
+		if (padding > 0)
+			writePadding(rafTemp, rafTemp.getFilePointer(), padding);
+	}
+
+	private static void copy(final FileChannel source, final long start, final long length, final FileChannel destination) throws CannotWriteException, IOException {
+		final long chunkSize = TagOptionSingleton.getInstance().getWriteChunkSize();
+		long position = start;
+		while (position < start + length) {
+			final long transferred = source.transferTo(position, Math.min(chunkSize, start + length - position), destination);
+			if (transferred <= 0)
+				throw new CannotWriteException("Was meant to copy " + length + " bytes but only copied " + (position - start) + " bytes");
+			position += transferred;
+		}
+	}
+
+	/**
+	 * Updates the size in the RIFF header, or for RF64 files the RIFF size in the ds64 chunk
+	 *
+	 * @param ds64DataOffset
+	 *            where the data of the ds64 chunk is in the file being written, only used for RF64 files
+	 */
+	private static void writeRiffSize(final RandomAccessFile raf, final WavChunkIndex index, final long ds64DataOffset, final long fileLength) throws CannotWriteException, IOException {
+		final long riffSize = fileLength - WavChunk.HEADER_LENGTH;
+		final ByteBuffer size = ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN);
+		if (index.isRF64()) {
+			final WavChunk ds64 = index.getChunk(WavChunkIndex.DS64);
+			size.putLong(riffSize);
+			raf.seek(ds64DataOffset >= 0 ? ds64DataOffset : ds64.getDataOffset());
+		} else {
+			if (riffSize > MAX_CHUNK_SIZE)
+				throw new CannotWriteException("WAV file would be larger than 4GB, only RF64 files can be that large");
+			size.putInt((int) riffSize);
+			raf.seek(4);
+		}
+		raf.write(size.array(), 0, size.position());
+	}
+
+	/**
+	 * Writes a JUNK chunk filling length bytes, the old content is cleared
+	 */
+	private static void writePadding(final RandomAccessFile raf, final long offset, final long length) throws IOException {
+		raf.seek(offset);
+		raf.write(createChunkHeader(JUNK, length - WavChunk.HEADER_LENGTH));
+		final byte[] zeros = new byte[(int) Math.min(ZERO_BUFFER_SIZE, length)];
+		for (long remaining = length - WavChunk.HEADER_LENGTH; remaining > 0; remaining -= zeros.length)
+			raf.write(zeros, 0, (int) Math.min(zeros.length, remaining));
+	}
+
+	/**
+	 * @return where the chunk ends, not including a pad byte that is missing at the end of the file
+	 */
+	private static long getEnd(final WavChunk chunk, final long fileLength) {
+		return Math.min(chunk.getEnd(), fileLength);
+	}
+
+	private static boolean isMetadata(final WavChunk chunk) {
+		return WavTagReader.isInfoChunk(chunk) || WavTagReader.isID3Chunk(chunk);
+	}
+
+	private static boolean hasMetadata(final WavChunkIndex index) {
+		for (final WavChunk chunk : index.getChunks())
+			if (isMetadata(chunk))
+				return true;
+		return false;
+	}
+
+	private static boolean isReplaceable(final WavChunk chunk) {
+		return isMetadata(chunk) || PADDING_IDS.contains(chunk.getId());
+	}
+
+	/**
+	 * @return the LIST INFO chunk followed by the id3 chunk, either is left out if it would be empty
+	 */
+	private static byte[] createMetadata(final WavTag tag) throws CannotWriteException, IOException {
+		final ByteArrayOutputStream metadata = new ByteArrayOutputStream();
+
+		final ByteArrayOutputStream items = new ByteArrayOutputStream();
+		for (final WavInfoIdentifier identifier : WavInfoIdentifier.values()) {
+			final String value = tag.getFirst(identifier.getFieldKey());
+			if (WavTagReader.canBeEncodedInInfo(value))
+				writeInfoItem(items, identifier.getCode(), value);
+			else if (tag.getID3Tag() == null)
+				// Only an ID3 tag can hold the value
+				tag.setID3Tag(createID3Tag());
+		}
+		for (final Map.Entry<String, String> item : tag.getOtherInfoItems().entrySet())
+			writeInfoItem(items, item.getKey(), item.getValue());
+		if (items.size() > 0) {
+			metadata.write(createChunkHeader(WavChunkIndex.LIST, WavTagReader.LIST_TYPE_LENGTH + items.size()));
+			metadata.write(WavChunkIndex.INFO.getBytes(StandardCharsets.ISO_8859_1));
+			items.writeTo(metadata);
+		}
+
+		final AbstractID3v2Tag id3Tag = tag.getID3Tag();
+		if (id3Tag != null) {
+			updateID3Tag(tag, id3Tag);
+			if (!id3Tag.isEmpty()) {
+				final ByteArrayOutputStream id3 = new ByteArrayOutputStream();
+				id3Tag.write(id3);
+				metadata.write(createChunkHeader(WavTagReader.ID3, id3.size()));
+				id3.writeTo(metadata);
+				if ((id3.size() & 1) != 0)
+					metadata.write(0);
+			}
+		}
+		return metadata.toByteArray();
+	}
+
+	/**
+	 * Writes a null terminated item, empty values are left out
+	 */
+	private static void writeInfoItem(final ByteArrayOutputStream items, final String id, final String value) throws IOException {
+		if (value.length() == 0)
+			return;
+		final byte[] data = value.getBytes(StandardCharsets.ISO_8859_1);
+		items.write(createChunkHeader(id, data.length + 1));
+		items.write(data);
+		items.write(0);
+		if ((data.length & 1) == 0)
+			items.write(0);
+	}
+
+	/**
+	 * Update the ID3 tag with the fields of the WAV tag that have changed, the fields that have not are left as they
+	 * are so any other values they have in the ID3 tag are kept
+	 */
+	private static void updateID3Tag(final WavTag tag, final AbstractID3v2Tag id3Tag) throws CannotWriteException {
+		for (final WavInfoIdentifier identifier : WavInfoIdentifier.values()) {
+			final String value = tag.getFirst(identifier.getFieldKey());
+			if (!tag.isChanged(identifier.getFieldKey()) || value.equals(id3Tag.getFirst(identifier.getFieldKey())))
+				continue;
+			try {
+				if (value.length() == 0)
+					id3Tag.deleteField(identifier.getFieldKey());
+				else
+					id3Tag.setField(identifier.getFieldKey(), value);
+			} catch (final FieldDataInvalidException e) {
+				throw new CannotWriteException(e);
+			}
+		}
+	}
+
+	/**
+	 * @return an empty tag of the ID3 version used for new tags
+	 */
+	private static AbstractID3v2Tag createID3Tag() {
+		if (TagOptionSingleton.getInstance().getID3V2Version() == ID3V2Version.ID3_V23)
+			return new ID3v23Tag();
+		else if (TagOptionSingleton.getInstance().getID3V2Version() == ID3V2Version.ID3_V22)
+			return new ID3v22Tag();
+		return new ID3v24Tag();
+	}
+
+	private static byte[] createChunkHeader(final String id, final long size) {
+		final ByteBuffer header = ByteBuffer.allocate(WavChunk.HEADER_LENGTH).order(ByteOrder.LITTLE_ENDIAN);
+		header.put(id.getBytes(StandardCharsets.ISO_8859_1));
+		header.putInt((int) size);
+		return header.array();
+	}
+}
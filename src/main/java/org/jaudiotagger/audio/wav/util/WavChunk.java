@@ -0,0 +1,68 @@
+package org.jaudiotagger.audio.wav.util;
+
+/**
+ * Location of a chunk found in a RIFF or RF64 file, the data of the chunk is not read.
+ */
+public class WavChunk {
+	/**
+	 * Length of the identifier and size at the start of every chunk
+	 */
+	public static final int HEADER_LENGTH = 8;
+
+	private final String id;
+	private final String listType;
+	private final long offset;
+	private final long size;
+
+	/**
+	 * @param id
+	 *            four character identifier of the chunk
+	 * @param listType
+	 *            four character type of a LIST chunk, or null for other chunks
+	 * @param offset
+	 *            where the chunk header starts in the file
+	 * @param size
+	 *            size of the chunk data, not including the header or pad byte
+	 */
+	public WavChunk(final String id, final String listType, final long offset, final long size) {
+		this.id = id;
+		this.listType = listType;
+		this.offset = offset;
+		this.size = size;
+	}
+
+	public String getId() {
+		return id;
+	}
+
+	/**
+	 * @return the type of a LIST chunk such as INFO, or null if this is not a LIST chunk
+	 */
+	public String getListType() {
+		return listType;
+	}
+
+	public long getOffset() {
+		return offset;
+	}
+
+	public long getSize() {
+		return size;
+	}
+
+	public long getDataOffset() {
+		return offset + HEADER_LENGTH;
+	}
+
+	/**
+	 * @return where the next chunk starts, chunks with an odd size are followed by a pad byte
+	 */
+	public long getEnd() {
+		return getDataOffset() + size + (size & 1);
+	}
+
+	@Override
+	public String toString() {
+		return id + (listType != null ? ":" + listType : "") + " at " + offset + " size " + size;
+	}
+}
@@ -0,0 +1,191 @@
+package org.jaudiotagger.audio.wav.util;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Logger;
+
+import org.jaudiotagger.audio.exceptions.CannotReadException;
+
+/**
+ * The chunks of a RIFF or RF64 WAVE file, found by reading each chunk header and seeking over the chunk data.
+ * <p/>
+ * RF64 files hold the sizes of chunks larger than 4GB in the ds64 chunk that must be the first chunk, the size in the
+ * header of such chunks is 0xFFFFFFFF. If the last chunk extends past the end of the file, as happens when the sizes
+ * are not updated after recording, it is shortened to the data actually present and the index is marked truncated.
+ */
+public class WavChunkIndex {
+	// Logger Object
+	public static Logger logger = Logger.getLogger("org.jaudiotagger.audio.wav");
+
+	public static final String RIFF = "RIFF";
+	public static final String RF64 = "RF64";
+	public static final String WAVE = "WAVE";
+	public static final String DS64 = "ds64";
+	public static final String FMT = "fmt ";
+	public static final String DATA = "data";
+	public static final String LIST = "LIST";
+	public static final String INFO = "INFO";
+
+	/**
+	 * Length of the RIFF or RF64 identifier, size and WAVE type at the start of the file
+	 */
+	public static final int RIFF_HEADER_LENGTH = 12;
+
+	/**
+	 * Length of the RIFF size, data size, sample count and table length of the ds64 chunk
+	 */
+	public static final int DS64_MINIMUM_LENGTH = 28;
+
+	/**
+	 * Chunk size used by RF64 files when the real size is held in the ds64 chunk
+	 */
+	public static final long RF64_SIZE_IN_DS64 = 0xFFFFFFFFL;
+
+	private static final int DS64_TABLE_ENTRY_LENGTH = 12;
+	private static final int LIST_TYPE_LENGTH = 4;
+
+	private final boolean isRF64;
+	private final List<WavChunk> chunks;
+	private final boolean isTruncated;
+
+	private WavChunkIndex(final boolean isRF64, final List<WavChunk> chunks, final boolean isTruncated) {
+		this.isRF64 = isRF64;
+		this.chunks = Collections.unmodifiableList(chunks);
+		this.isTruncated = isTruncated;
+	}
+
+	/**
+	 * Reads the chunk headers of the file, the position of raf is left undefined
+	 *
+	 * @param raf
+	 * @return the chunks of the file in the order they are found
+	 * @throws CannotReadException
+	 *             if this is not a RIFF or RF64 WAVE file
+	 * @throws IOException
+	 */
+	public static WavChunkIndex read(final RandomAccessFile raf) throws CannotReadException, IOException {
+		final long fileLength = raf.length();
+		if (fileLength < RIFF_HEADER_LENGTH)
+			throw new CannotReadException("This is not a WAV File (<12 bytes)");
+
+		raf.seek(0);
+		final ByteBuffer header = readBuffer(raf, RIFF_HEADER_LENGTH);
+		final String form = getId(header, 0);
+		if (!(RIFF.equals(form) || RF64.equals(form)) || !WAVE.equals(getId(header, 8)))
+			throw new CannotReadException("Wav RIFF Header not valid");
+		final boolean isRF64 = RF64.equals(form);
+
+		final List<WavChunk> chunks = new ArrayList<WavChunk>();
+		final Map<String, Long> ds64Sizes = new HashMap<String, Long>();
+		long position = RIFF_HEADER_LENGTH;
+		while (position + WavChunk.HEADER_LENGTH <= fileLength) {
+			raf.seek(position);
+			final ByteBuffer chunkHeader = readBuffer(raf, WavChunk.HEADER_LENGTH);
+			final String id = getId(chunkHeader, 0);
+			if (!isValidId(id)) {
+				logger.warning("Ignoring " + (fileLength - position) + " bytes that are not a chunk at " + position);
+				break;
+			}
+			long size = chunkHeader.getInt(4) & 0xFFFFFFFFL;
+
+			if (isRF64)
+				if (chunks.isEmpty()) {
+					if (!DS64.equals(id))
+						throw new CannotReadException("RF64 file does not start with a ds64 chunk");
+					readDs64(raf, size, ds64Sizes);
+				} else if (size == RF64_SIZE_IN_DS64 && ds64Sizes.containsKey(id))
+					size = ds64Sizes.get(id);
+
+			String listType = null;
+			if (LIST.equals(id) && size >= LIST_TYPE_LENGTH && position + WavChunk.HEADER_LENGTH + LIST_TYPE_LENGTH <= fileLength)
+				listType = getId(readBuffer(raf, LIST_TYPE_LENGTH), 0);
+
+			final WavChunk chunk = new WavChunk(id, listType, position, size);
+			if (chunk.getDataOffset() + size > fileLength) {
+				final long available = fileLength - chunk.getDataOffset();
+				logger.warning("Chunk " + chunk + " ends after the end of the file, only " + available + " bytes are available");
+				chunks.add(new WavChunk(id, listType, position, available));
+				return new WavChunkIndex(isRF64, chunks, true);
+			}
+			chunks.add(chunk);
+			position = chunk.getEnd();
+		}
+		return new WavChunkIndex(isRF64, chunks, false);
+	}
+
+	/**
+	 * Reads the sizes held by the ds64 chunk, the data chunk size is keyed by its identifier like those in the table
+	 */
+	private static void readDs64(final RandomAccessFile raf, final long size, final Map<String, Long> ds64Sizes) throws CannotReadException, IOException {
+		if (size < DS64_MINIMUM_LENGTH || size > raf.length() - raf.getFilePointer())
+			throw new CannotReadException("RF64 ds64 chunk not valid, size " + size);
+		final ByteBuffer ds64 = readBuffer(raf, (int) size);
+		ds64Sizes.put(DATA, ds64.getLong(8));
+		final long tableLength = ds64.getInt(24) & 0xFFFFFFFFL;
+		for (int i = 0; i < tableLength && DS64_MINIMUM_LENGTH + (i + 1) * DS64_TABLE_ENTRY_LENGTH <= size; i++) {
+			final int entry = DS64_MINIMUM_LENGTH + i * DS64_TABLE_ENTRY_LENGTH;
+			ds64Sizes.put(getId(ds64, entry), ds64.getLong(entry + 4));
+		}
+	}
+
+	private static ByteBuffer readBuffer(final RandomAccessFile raf, final int length) throws IOException {
+		final byte[] b = new byte[length];
+		raf.readFully(b);
+		return ByteBuffer.wrap(b).order(ByteOrder.LITTLE_ENDIAN);
+	}
+
+	private static String getId(final ByteBuffer b, final int offset) {
+		return new String(b.array(), offset, 4, StandardCharsets.ISO_8859_1);
+	}
+
+	private static boolean isValidId(final String id) {
+		for (int i = 0; i < id.length(); i++)
+			if (id.charAt(i) < 0x20 || id.charAt(i) > 0x7E)
+				return false;
+		return true;
+	}
+
+	/**
+	 * @return true if this is an RF64 file whose sizes are held in the ds64 chunk
+	 */
+	public boolean isRF64() {
+		return isRF64;
+	}
+
+	/**
+	 * @return true if the last chunk extends past the end of the file
+	 */
+	public boolean isTruncated() {
+		return isTruncated;
+	}
+
+	public List<WavChunk> getChunks() {
+		return chunks;
+	}
+
+	/**
+	 * @param id
+	 * @return the first chunk with this identifier, or null if there is none
+	 */
+	public WavChunk getChunk(final String id) {
+		for (final WavChunk chunk : chunks)
+			if (chunk.getId().equals(id))
+				return chunk;
+		return null;
+	}
+
+	/**
+	 * @return where the last chunk ends
+	 */
+	public long getEnd() {
+		return chunks.isEmpty() ? RIFF_HEADER_LENGTH : chunks.get(chunks.size() - 1).getEnd();
+	}
+}
@@ -25,37 +25,52 @@ import org.jaudiotagger.audio.exceptions.CannotReadException;
 import org.jaudiotagger.audio.generic.GenericAudioHeader;
 
 public class WavInfoReader {
+	/**
+	 * Length of the fmt chunk passed to {@link WavFormatHeader}, including the chunk header, up to the last byte it reads
+	 * which is the format code at the start of the extensible format sub format
+	 */
+	private static final int FORMAT_HEADER_LENGTH = 34;
+
 	public GenericAudioHeader read(final RandomAccessFile raf) throws CannotReadException, IOException {
-		// Reads wav header----------------------------------------
-		final GenericAudioHeader info = new GenericAudioHeader();
+		return read(raf, WavChunkIndex.read(raf));
+	}
 
-		if (raf.length() < 12)
-			throw new CannotReadException("This is not a WAV File (<12 bytes)");
-		byte[] b = new byte[12];
-		raf.read(b);
-
-		final WavRIFFHeader wh = new WavRIFFHeader(b);
-		if (wh.isValid()) {
-			b = new byte[34];
-			raf.read(b);
-
-			final WavFormatHeader wfh = new WavFormatHeader(b);
-			if (wfh.isValid()) {
-				// Populates
-				// encodingInfo----------------------------------------------------
-				info.setPreciseLength(((float) raf.length() - (float) 36) / wfh.getBytesPerSecond());
-				info.setChannelNumber(wfh.getChannelNumber());
-				info.setSamplingRate(wfh.getSamplingRate());
-				info.setBitsPerSample(wfh.getBitsPerSample());
-				info.setEncodingType("WAV-RIFF " + wfh.getBitsPerSample() + " bits");
-				info.setExtraEncodingInfos("");
-				info.setBitrate(wfh.getBytesPerSecond() * 8 / 1000);
-				info.setVariableBitRate(false);
-			} else
-				throw new CannotReadException("Wav Format Header not valid");
-		} else
-			throw new CannotReadException("Wav RIFF Header not valid");
+	/**
+	 * Reads the format from the fmt chunk and calculates the length from the size of the data chunk
+	 *
+	 * @param raf
+	 * @param index
+	 *            the chunks of the file
+	 * @return the audio header
+	 * @throws CannotReadException
+	 * @throws IOException
+	 */
+	public GenericAudioHeader read(final RandomAccessFile raf, final WavChunkIndex index) throws CannotReadException, IOException {
+		final WavChunk fmt = index.getChunk(WavChunkIndex.FMT);
+		if (fmt == null)
+			throw new CannotReadException("Wav Format Header not found");
+		final WavChunk data = index.getChunk(WavChunkIndex.DATA);
+		if (data == null)
+			throw new CannotReadException("Wav data chunk not found");
 
+		// Zero filled when the chunk is shorter so the optional extensible fields are not read from the next chunk
+		final byte[] b = new byte[FORMAT_HEADER_LENGTH];
+		raf.seek(fmt.getOffset());
+		raf.readFully(b, 0, (int) Math.min(b.length, WavChunk.HEADER_LENGTH + fmt.getSize()));
+
+		final WavFormatHeader wfh = new WavFormatHeader(b);
+		if (!wfh.isValid() || fmt.getSize() < 16 || wfh.getBytesPerSecond() <= 0)
+			throw new CannotReadException("Wav Format Header not valid");
+
+		final GenericAudioHeader info = new GenericAudioHeader();
+		info.setPreciseLength((float) data.getSize() / wfh.getBytesPerSecond());
+		info.setChannelNumber(wfh.getChannelNumber());
+		info.setSamplingRate(wfh.getSamplingRate());
+		info.setBitsPerSample(wfh.getBitsPerSample());
+		info.setEncodingType("WAV-RIFF " + wfh.getBitsPerSample() + " bits");
+		info.setExtraEncodingInfos("");
+		info.setBitrate(wfh.getBytesPerSecond() * 8 / 1000);
+		info.setVariableBitRate(false);
 		return info;
 	}
 }
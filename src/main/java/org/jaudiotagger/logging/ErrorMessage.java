@@ -52,7 +52,8 @@ public enum ErrorMessage {
 			"No Deleter associated with this extension:{0}"), UNABLE_TO_FIND_FILE("Unable to find:{0}"), NO_PERMISSIONS_TO_WRITE_TO_FILE("Unable to write to:{0}"), DO_NOT_KNOW_HOW_TO_CREATE_THIS_ATOM_TYPE(
 			"DO not know how to create this atom type {0}"), OGG_CONTAINS_ID3TAG("Ogg File contains invalid ID3 Tag, skipping ID3 Tag of length:{0}"), FLAC_CONTAINS_ID3TAG(
 			"Flac File contains invalid ID3 Tag, skipping ID3 Tag of length:{0}"), ADDITIONAL_MOOV_ATOM_AT_END_OF_MP4("Additional moov atom found at end of file starting at offset {0}"), ATOM_LENGTH_LARGER_THAN_DATA(
-			"The atom {0} states its data length to be {1} but there are only {2} bytes remaining in the file"), INVALID_FIELD_FOR_ID3V1TAG("Invalid field {0} for ID3v1 tag"), NO_AUDIO_HEADER_FOUND("No audio header found within {0}"), ;
+			"The atom {0} states its data length to be {1} but there are only {2} bytes remaining in the file"), INVALID_FIELD_FOR_ID3V1TAG("Invalid field {0} for ID3v1 tag"), NO_AUDIO_HEADER_FOUND("No audio header found within {0}"), MP4_CHANGES_TO_FILE_FAILED_OFFSETS_TOO_LARGE(
+			"Unable to make changes to Mp4 file, moving the audio data would put chunk offsets in {0} atom beyond 4GB"), ;
 
 	String msg;
 
@@ -23,7 +23,7 @@ package org.jaudiotagger.logging;
  * For Formatting metadata contents of a file as simple text
  */
 public class PlainTextTagDisplayFormatter extends AbstractTagDisplayFormatter {
-	private static PlainTextTagDisplayFormatter formatter;
+	private static volatile PlainTextTagDisplayFormatter formatter;
 
 	StringBuffer sb = new StringBuffer();
 	StringBuffer indent = new StringBuffer();
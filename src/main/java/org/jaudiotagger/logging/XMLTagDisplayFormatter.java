@@ -30,7 +30,7 @@ import java.text.StringCharacterIterator;
  * to create technical reports.
  */
 public class XMLTagDisplayFormatter extends AbstractTagDisplayFormatter {
-	private static XMLTagDisplayFormatter formatter;
+	private static volatile XMLTagDisplayFormatter formatter;
 
 	protected static final String xmlOpenStart = "<";
 	protected static final String xmlOpenEnd = ">";
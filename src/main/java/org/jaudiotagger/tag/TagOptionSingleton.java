@@ -27,6 +27,7 @@ package org.jaudiotagger.tag;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.LinkedList;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.jaudiotagger.tag.id3.framebody.AbstractID3v2FrameBody;
 import org.jaudiotagger.tag.id3.framebody.FrameBodyCOMM;
@@ -35,15 +36,17 @@ import org.jaudiotagger.tag.id3.framebody.ID3v24FrameBody;
 import org.jaudiotagger.tag.id3.valuepair.TextEncoding;
 import org.jaudiotagger.tag.lyrics3.Lyrics3v2Fields;
 import org.jaudiotagger.tag.options.PadNumberOption;
+import org.jaudiotagger.tag.options.PaddingPolicy;
+import org.jaudiotagger.tag.options.WriteDurability;
 import org.jaudiotagger.tag.reference.GenreTypes;
 import org.jaudiotagger.tag.reference.ID3V2Version;
 import org.jaudiotagger.tag.reference.Languages;
 
 public class TagOptionSingleton {
 	/**
-     *
-     */
-	private static HashMap<String, TagOptionSingleton> tagOptionTable = new HashMap<String, TagOptionSingleton>();
+	 * Options are read from many threads when files are read concurrently
+	 */
+	private static final ConcurrentHashMap<String, TagOptionSingleton> tagOptionTable = new ConcurrentHashMap<String, TagOptionSingleton>();
 
 	/**
      *
@@ -53,7 +56,7 @@ public class TagOptionSingleton {
 	/**
      *
      */
-	private static String defaultOptions = DEFAULT;
+	private static volatile String defaultOptions = DEFAULT;
 
 	/**
      *
@@ -256,6 +259,57 @@ public class TagOptionSingleton {
 	 */
 	private long writeChunkSize = 5000000;
 
+	/**
+	 * If the new metadata fits in the space already used by metadata and padding write it directly into the original
+	 * file rather than via a temporary file
+	 */
+	private boolean writeInPlace = true;
+
+	/**
+	 * How modified files are synced to disk
+	 */
+	private WriteDurability writeDurability = WriteDurability.FSYNC_ON_CLOSE;
+
+	/**
+	 * Defer decoding ID3v2.3 and ID3v2.4 frame bodies until they are accessed
+	 */
+	private boolean lazyFrameDecoding = false;
+
+	/**
+	 * Leave the image data of FLAC picture blocks in the file until it is accessed
+	 */
+	private boolean lazyFlacPictureLoading = true;
+
+	/**
+	 * How many bytes are searched for the first MP3 frame before giving up
+	 */
+	private int mp3SyncSearchLimit = 4 * 1024 * 1024;
+
+	/**
+	 * Walk every MP3 frame when reading to get the exact duration
+	 */
+	private boolean mp3ExactDuration = false;
+
+	/**
+	 * Index the whole of a written MP4 to check it rather than only checking the boxes that were changed
+	 */
+	private boolean mp4VerifyWriteByReparsing = false;
+
+	/**
+	 * Padding reserved after the MP4 metadata when the audio data has to be moved
+	 */
+	private PaddingPolicy mp4PaddingPolicy = PaddingPolicy.NONE;
+
+	/**
+	 * Padding reserved after the FLAC metadata blocks when the audio frames have to be moved
+	 */
+	private PaddingPolicy flacPaddingPolicy = PaddingPolicy.fixed(4000);
+
+	/**
+	 * Padding reserved after the WAV metadata chunks when the file has to be rewritten
+	 */
+	private PaddingPolicy wavPaddingPolicy = PaddingPolicy.fixed(1000);
+
 	private boolean isWriteMp4GenresAsText = false;
 
 	private ID3V2Version id3v2Version = ID3V2Version.ID3_V23;
@@ -283,7 +337,9 @@ public class TagOptionSingleton {
 
 		if (tagOptions == null) {
 			tagOptions = new TagOptionSingleton();
-			tagOptionTable.put(instanceKey, tagOptions);
+			final TagOptionSingleton existing = tagOptionTable.putIfAbsent(instanceKey, tagOptions);
+			if (existing != null)
+				tagOptions = existing;
 		}
 
 		return tagOptions;
@@ -729,6 +785,16 @@ public class TagOptionSingleton {
 		isAndroid = false;
 		isEncodeUTF16BomAsLittleEndian = true;
 		writeChunkSize = 5000000;
+		writeInPlace = true;
+		writeDurability = WriteDurability.FSYNC_ON_CLOSE;
+		lazyFrameDecoding = false;
+		lazyFlacPictureLoading = true;
+		mp3SyncSearchLimit = 4 * 1024 * 1024;
+		mp3ExactDuration = false;
+		mp4VerifyWriteByReparsing = false;
+		mp4PaddingPolicy = PaddingPolicy.NONE;
+		flacPaddingPolicy = PaddingPolicy.fixed(4000);
+		wavPaddingPolicy = PaddingPolicy.fixed(1000);
 		isWriteMp4GenresAsText = false;
 		padNumberTotalLength = PadNumberOption.PAD_ONE_ZERO;
 		id3v2Version = ID3V2Version.ID3_V23;
@@ -1040,6 +1106,136 @@ public class TagOptionSingleton {
 		this.writeChunkSize = writeChunkSize;
 	}
 
+	/**
+	 * When enabled, if the new metadata fits within the existing metadata and padding of the file only those bytes are
+	 * rewritten in the original file and it is synced once at the end, otherwise the file is rewritten via a
+	 * temporary file.
+	 */
+	public boolean isWriteInPlace() {
+		return writeInPlace;
+	}
+
+	public void setWriteInPlace(final boolean writeInPlace) {
+		this.writeInPlace = writeInPlace;
+	}
+
+	/**
+	 * How much effort is made to get changes onto disk when writing files, defaults to syncing each modified file once
+	 * before it is closed. Bulk jobs that can recreate their files can use {@link WriteDurability#NONE} for throughput.
+	 */
+	public WriteDurability getWriteDurability() {
+		return writeDurability;
+	}
+
+	public void setWriteDurability(final WriteDurability writeDurability) {
+		this.writeDurability = writeDurability;
+	}
+
+	/**
+	 * If enabled the bodies of ID3v2.3 and ID3v2.4 frames are only decoded when first accessed, so reading a few fields
+	 * from a tag with artwork or lyrics does not decode them. Frames that are not accessed are written back unchanged.
+	 * Compressed, encrypted and unsynchronised frames are always decoded on read.
+	 */
+	public boolean isLazyFrameDecoding() {
+		return lazyFrameDecoding;
+	}
+
+	public void setLazyFrameDecoding(final boolean lazyFrameDecoding) {
+		this.lazyFrameDecoding = lazyFrameDecoding;
+	}
+
+	/**
+	 * If enabled only the position of the image data of FLAC picture blocks is recorded when the tag is read, and the
+	 * image data is read from the file when first accessed. Pictures that are never accessed are copied straight from
+	 * the file when the tag is written to a new file. Enabled by default, so reading the tags of many files does not
+	 * read every picture into memory. The file must not be changed by anything else while the tag is in use, disable
+	 * this if the tag is kept after the file may have been changed or deleted by another program.
+	 */
+	public boolean isLazyFlacPictureLoading() {
+		return lazyFlacPictureLoading;
+	}
+
+	public void setLazyFlacPictureLoading(final boolean lazyFlacPictureLoading) {
+		this.lazyFlacPictureLoading = lazyFlacPictureLoading;
+	}
+
+	/**
+	 * The number of bytes after the ID3v2 tag searched for the first MP3 frame, if no frame is found within this limit
+	 * the file is not treated as an MP3. Only corrupt files or files with large amounts of junk before the audio need
+	 * more than the default of 4MB.
+	 */
+	public int getMp3SyncSearchLimit() {
+		return mp3SyncSearchLimit;
+	}
+
+	public void setMp3SyncSearchLimit(final int mp3SyncSearchLimit) {
+		this.mp3SyncSearchLimit = mp3SyncSearchLimit;
+	}
+
+	/**
+	 * If enabled the header of every frame of an MP3 is read when the audio header is read, giving the exact frame
+	 * count, duration and average bitrate even for variable bitrate files without a Xing or VBRI frame. This reads
+	 * through the whole file so is disabled by default.
+	 */
+	public boolean isMp3ExactDuration() {
+		return mp3ExactDuration;
+	}
+
+	public void setMp3ExactDuration(final boolean mp3ExactDuration) {
+		this.mp3ExactDuration = mp3ExactDuration;
+	}
+
+	/**
+	 * After writing an MP4 the moov, ilst and mdat headers are read from where they were planned to be written and the
+	 * chunk offsets are checked to have moved by the same amount as mdat. If enabled the whole of the new file is
+	 * indexed again instead, which reads all of moov.
+	 */
+	public boolean isMp4VerifyWriteByReparsing() {
+		return mp4VerifyWriteByReparsing;
+	}
+
+	public void setMp4VerifyWriteByReparsing(final boolean mp4VerifyWriteByReparsing) {
+		this.mp4VerifyWriteByReparsing = mp4VerifyWriteByReparsing;
+	}
+
+	/**
+	 * When the MP4 metadata no longer fits in the space available and the audio data has to be moved, a free atom of
+	 * this size is written after the metadata so later edits can be written in place. Defaults to
+	 * {@link PaddingPolicy#NONE}.
+	 */
+	public PaddingPolicy getMp4PaddingPolicy() {
+		return mp4PaddingPolicy;
+	}
+
+	public void setMp4PaddingPolicy(final PaddingPolicy mp4PaddingPolicy) {
+		this.mp4PaddingPolicy = mp4PaddingPolicy;
+	}
+
+	/**
+	 * When the FLAC metadata blocks no longer fit in the space before the audio frames and the audio has to be moved, a
+	 * PADDING block of this size is written after the metadata so later edits can be written in place. Defaults to a
+	 * fixed 4000 bytes.
+	 */
+	public PaddingPolicy getFlacPaddingPolicy() {
+		return flacPaddingPolicy;
+	}
+
+	public void setFlacPaddingPolicy(final PaddingPolicy flacPaddingPolicy) {
+		this.flacPaddingPolicy = flacPaddingPolicy;
+	}
+
+	/**
+	 * When the WAV metadata chunks no longer fit in the space available and the file has to be rewritten, a JUNK chunk
+	 * of this size is written after them so later edits can be written in place. Defaults to a fixed 1000 bytes.
+	 */
+	public PaddingPolicy getWavPaddingPolicy() {
+		return wavPaddingPolicy;
+	}
+
+	public void setWavPaddingPolicy(final PaddingPolicy wavPaddingPolicy) {
+		this.wavPaddingPolicy = wavPaddingPolicy;
+	}
+
 	/**
 	 * If enabled we always use the ©gen atom rather than the gnre atom when writing genres to mp4s This is known to
 	 * help some android apps
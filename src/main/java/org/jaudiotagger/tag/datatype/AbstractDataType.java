@@ -22,6 +22,7 @@
  */
 package org.jaudiotagger.tag.datatype;
 
+import java.nio.ByteBuffer;
 import java.util.Arrays;
 import java.util.logging.Logger;
 
@@ -274,6 +275,39 @@ public abstract class AbstractDataType {
 	 */
 	public abstract void readByteArray(byte[] arr, int offset) throws InvalidDataTypeException;
 
+	/**
+	 * Read the datatype from the buffer starting at offset, the limit of the buffer marks the end of the data available
+	 * to the datatype in the same way as the length of the array does for {@link #readByteArray(byte[], int)}. The
+	 * position of the buffer is not changed.
+	 * <p/>
+	 * Datatypes that can decode directly from the buffer override this, by default the bytes from offset to the limit
+	 * are copied to an array and read with {@link #readByteArray(byte[], int)}.
+	 * 
+	 * @param buffer
+	 * @param offset
+	 * @throws org.jaudiotagger.tag.InvalidDataTypeException
+	 */
+	public void read(final ByteBuffer buffer, final int offset) throws InvalidDataTypeException {
+		if (offset < 0 || offset > buffer.limit())
+			throw new InvalidDataTypeException("Offset to buffer is out of bounds: offset = " + offset + ", buffer.limit = " + buffer.limit());
+		final byte[] arr = new byte[buffer.limit() - offset];
+		slice(buffer, offset, arr.length).get(arr);
+		readByteArray(arr, 0);
+	}
+
+	/**
+	 * @param buffer
+	 * @param offset
+	 * @param length
+	 * @return a buffer sharing the content of buffer from offset for length bytes, buffer itself is not changed
+	 */
+	protected static ByteBuffer slice(final ByteBuffer buffer, final int offset, final int length) {
+		final ByteBuffer slice = buffer.duplicate();
+		slice.limit(offset + length);
+		slice.position(offset);
+		return slice.slice();
+	}
+
 	/**
 	 * Starting point write ID3 Datatype back to array of bytes. This class must be overridden.
 	 * 
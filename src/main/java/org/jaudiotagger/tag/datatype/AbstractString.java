@@ -23,7 +23,6 @@
  */
 package org.jaudiotagger.tag.datatype;
 
-import java.nio.charset.Charset;
 import java.nio.charset.CharsetEncoder;
 
 import org.jaudiotagger.tag.id3.AbstractTagFrameBody;
@@ -103,7 +102,7 @@ public abstract class AbstractString extends AbstractDataType {
 		// need to worry about LE,BE at this point it makes no difference)
 		final byte textEncoding = this.getBody().getTextEncoding();
 		final String charSetName = TextEncoding.getInstanceOf().getValueForId(textEncoding);
-		final CharsetEncoder encoder = Charset.forName(charSetName).newEncoder();
+		final CharsetEncoder encoder = CharsetCodecs.getEncoder(charSetName);
 
 		if (encoder.canEncode((String) value))
 			return true;
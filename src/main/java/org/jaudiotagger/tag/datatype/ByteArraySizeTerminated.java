@@ -23,6 +23,8 @@
  */
 package org.jaudiotagger.tag.datatype;
 
+import java.nio.ByteBuffer;
+
 import org.jaudiotagger.tag.InvalidDataTypeException;
 import org.jaudiotagger.tag.id3.AbstractTagFrameBody;
 
@@ -70,19 +72,31 @@ public class ByteArraySizeTerminated extends AbstractDataType {
 	public void readByteArray(final byte[] arr, final int offset) throws InvalidDataTypeException {
 		if (arr == null)
 			throw new NullPointerException("Byte array is null");
+		read(ByteBuffer.wrap(arr), offset);
+	}
 
+	/**
+	 * Copies the bytes from offset to the limit of the buffer, this is the only copy made of the data when reading a
+	 * frame body
+	 * 
+	 * @param buffer
+	 * @param offset
+	 * @throws IndexOutOfBoundsException
+	 */
+	@Override
+	public void read(final ByteBuffer buffer, final int offset) throws InvalidDataTypeException {
 		if (offset < 0)
-			throw new IndexOutOfBoundsException("Offset to byte array is out of bounds: offset = " + offset + ", array.length = " + arr.length);
+			throw new IndexOutOfBoundsException("Offset to byte array is out of bounds: offset = " + offset + ", array.length = " + buffer.limit());
 
 		// Empty Byte Array
-		if (offset >= arr.length) {
+		if (offset >= buffer.limit()) {
 			value = null;
 			return;
 		}
 
-		final int len = arr.length - offset;
-		value = new byte[len];
-		System.arraycopy(arr, offset, value, 0, len);
+		final byte[] data = new byte[buffer.limit() - offset];
+		slice(buffer, offset, data.length).get(data);
+		value = data;
 	}
 
 	/**
@@ -0,0 +1,143 @@
+package org.jaudiotagger.tag.datatype;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.logging.Logger;
+
+import org.jaudiotagger.tag.id3.valuepair.TextEncoding;
+
+/**
+ * Per thread cache of the charset decoders and encoders used by the text datatypes, together with scratch space for
+ * decoding.
+ * <p/>
+ * Creating a decoder or encoder for every String read or written was a significant part of the cost of reading a tag
+ * with many text fields. A decoder or encoder returned by this class is reset and belongs to the calling thread, it
+ * must not be kept once the String has been decoded or encoded.
+ */
+public final class CharsetCodecs {
+	// Logger Object
+	public static Logger logger = Logger.getLogger("org.jaudiotagger.tag.datatype");
+
+	/**
+	 * Scratch space kept by each thread, larger Strings use space allocated for just that String
+	 */
+	private static final int MAX_SCRATCH_SIZE = 8192;
+
+	private static final Charset ISO_8859_1 = Charset.forName(TextEncoding.CHARSET_ISO_8859_1);
+
+	private static final ThreadLocal<CharsetCodecs> codecs = new ThreadLocal<CharsetCodecs>() {
+		@Override
+		protected CharsetCodecs initialValue() {
+			return new CharsetCodecs();
+		}
+	};
+
+	private final Map<String, CharsetDecoder> decoders = new HashMap<String, CharsetDecoder>();
+	private final Map<String, CharsetEncoder> encoders = new HashMap<String, CharsetEncoder>();
+	private CharBuffer chars = CharBuffer.allocate(256);
+	private byte[] bytes = new byte[256];
+
+	private CharsetCodecs() {}
+
+	/**
+	 * @param charSetName
+	 * @return a reset decoder for the charset owned by the current thread
+	 */
+	public static CharsetDecoder getDecoder(final String charSetName) {
+		return codecs.get().decoder(charSetName);
+	}
+
+	private CharsetDecoder decoder(final String charSetName) {
+		CharsetDecoder decoder = decoders.get(charSetName);
+		if (decoder == null) {
+			decoder = Charset.forName(charSetName).newDecoder();
+			decoders.put(charSetName, decoder);
+		}
+		return decoder.reset();
+	}
+
+	/**
+	 * @param charSetName
+	 * @return a reset encoder for the charset owned by the current thread
+	 */
+	public static CharsetEncoder getEncoder(final String charSetName) {
+		final Map<String, CharsetEncoder> encoders = codecs.get().encoders;
+		CharsetEncoder encoder = encoders.get(charSetName);
+		if (encoder == null) {
+			encoder = Charset.forName(charSetName).newEncoder();
+			encoders.put(charSetName, encoder);
+		}
+		return encoder.reset();
+	}
+
+	/**
+	 * Decode the remaining bytes of the buffer, the position of the buffer is moved to the end of the bytes decoded.
+	 * <p/>
+	 * Decoding stops at the first malformed or unmappable input which is logged, the String decoded up to that point is
+	 * returned. ISO-8859-1, and UTF-8 that only contains ASCII, cannot fail so is decoded without a decoder.
+	 *
+	 * @param buffer
+	 * @param charSetName
+	 * @return the decoded String
+	 */
+	public static String decode(final ByteBuffer buffer, final String charSetName) {
+		final CharsetCodecs cache = codecs.get();
+		final boolean isLatin1 = charSetName.equals(TextEncoding.CHARSET_ISO_8859_1);
+		if (isLatin1 || charSetName.equals(TextEncoding.CHARSET_UTF_8)) {
+			final int length = buffer.remaining();
+			final byte[] data;
+			final int offset;
+			if (buffer.hasArray()) {
+				data = buffer.array();
+				offset = buffer.arrayOffset() + buffer.position();
+			} else {
+				data = cache.getBytes(length);
+				offset = 0;
+				buffer.duplicate().get(data, 0, length);
+			}
+			if (isLatin1 || isAscii(data, offset, length)) {
+				buffer.position(buffer.limit());
+				return new String(data, offset, length, ISO_8859_1);
+			}
+		}
+
+		final CharsetDecoder decoder = cache.decoder(charSetName);
+		final CharBuffer outBuffer = cache.getChars((int) (buffer.remaining() * decoder.maxCharsPerByte()) + 1);
+		final CoderResult coderResult = decoder.decode(buffer, outBuffer, true);
+		if (coderResult.isError())
+			logger.warning("Decoding error:" + coderResult.toString());
+		decoder.flush(outBuffer);
+		outBuffer.flip();
+		return outBuffer.toString();
+	}
+
+	private static boolean isAscii(final byte[] data, final int offset, final int length) {
+		for (int i = offset; i < offset + length; i++)
+			if (data[i] < 0)
+				return false;
+		return true;
+	}
+
+	private CharBuffer getChars(final int size) {
+		if (size > MAX_SCRATCH_SIZE)
+			return CharBuffer.allocate(size);
+		if (chars.capacity() < size)
+			chars = CharBuffer.allocate(Math.min(MAX_SCRATCH_SIZE, Math.max(size, chars.capacity() * 2)));
+		chars.clear();
+		return chars;
+	}
+
+	private byte[] getBytes(final int size) {
+		if (size > MAX_SCRATCH_SIZE)
+			return new byte[size];
+		if (bytes.length < size)
+			bytes = new byte[Math.min(MAX_SCRATCH_SIZE, Math.max(size, bytes.length * 2))];
+		return bytes;
+	}
+}
@@ -2,6 +2,7 @@ package org.jaudiotagger.tag.datatype;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.ListIterator;
@@ -70,7 +71,7 @@ public class MultipleTextEncodedStringNullTerminated extends AbstractDataType {
 	 * Strings or until reached the end of the array. The offset should be set to byte after the last null terminated
 	 * String found.
 	 * 
-	 * @param arr
+	 * @param buffer
 	 *            to read the Strings from
 	 * @param offset
 	 *            in the array to start reading from
@@ -78,14 +79,14 @@ public class MultipleTextEncodedStringNullTerminated extends AbstractDataType {
 	 *             if unable to find any null terminated Strings
 	 */
 	@Override
-	public void readByteArray(final byte[] arr, int offset) throws InvalidDataTypeException {
+	public void read(final ByteBuffer buffer, int offset) throws InvalidDataTypeException {
 		logger.finer("Reading MultipleTextEncodedStringNullTerminated from array from offset:" + offset);
 		// Continue until unable to read a null terminated String
 		while (true) {
 			try {
 				// Read String
 				final TextEncodedStringNullTerminated next = new TextEncodedStringNullTerminated(identifier, frameBody);
-				next.readByteArray(arr, offset);
+				next.read(buffer, offset);
 
 				if (next.getSize() == 0)
 					break;
@@ -111,6 +112,11 @@ public class MultipleTextEncodedStringNullTerminated extends AbstractDataType {
 		logger.finer("Read  MultipleTextEncodedStringNullTerminated:" + value + " size:" + size);
 	}
 
+	@Override
+	public void readByteArray(final byte[] arr, final int offset) throws InvalidDataTypeException {
+		read(ByteBuffer.wrap(arr), offset);
+	}
+
 	/**
 	 * For every String write to bytebuffer
 	 * 
@@ -23,6 +23,8 @@
  */
 package org.jaudiotagger.tag.datatype;
 
+import java.nio.ByteBuffer;
+
 import org.jaudiotagger.tag.InvalidDataTypeException;
 import org.jaudiotagger.tag.id3.AbstractTagFrameBody;
 import org.jaudiotagger.tag.id3.ID3Tags;
@@ -110,16 +112,28 @@ public class NumberFixedLength extends AbstractDataType {
 	public void readByteArray(final byte[] arr, final int offset) throws InvalidDataTypeException {
 		if (arr == null)
 			throw new NullPointerException("Byte array is null");
-		if ((offset < 0) || (offset >= arr.length))
-			throw new InvalidDataTypeException("Offset to byte array is out of bounds: offset = " + offset + ", array.length = " + arr.length);
+		read(ByteBuffer.wrap(arr), offset);
+	}
+
+	/**
+	 * Read the number from the buffer
+	 * 
+	 * @param buffer
+	 * @param offset
+	 * @throws InvalidDataTypeException
+	 */
+	@Override
+	public void read(final ByteBuffer buffer, final int offset) throws InvalidDataTypeException {
+		if ((offset < 0) || (offset >= buffer.limit()))
+			throw new InvalidDataTypeException("Offset to byte array is out of bounds: offset = " + offset + ", array.length = " + buffer.limit());
 
-		if (offset + size > arr.length)
-			throw new InvalidDataTypeException("Offset plus size to byte array is out of bounds: offset = " + offset + ", size = " + size + " + arr.length " + arr.length);
+		if (offset + size > buffer.limit())
+			throw new InvalidDataTypeException("Offset plus size to byte array is out of bounds: offset = " + offset + ", size = " + size + " + arr.length " + buffer.limit());
 
 		long lvalue = 0;
 		for (int i = offset; i < (offset + size); i++) {
 			lvalue <<= 8;
-			lvalue += (arr[i] & 0xff);
+			lvalue += (buffer.get(i) & 0xff);
 		}
 		value = lvalue;
 		logger.config("Read NumberFixedlength:" + value);
@@ -23,6 +23,7 @@
  */
 package org.jaudiotagger.tag.datatype;
 
+import java.nio.ByteBuffer;
 import java.util.Iterator;
 import java.util.Map;
 import java.util.TreeSet;
@@ -188,14 +189,14 @@ public class NumberHashMap extends NumberFixedLength implements HashMapInterface
 	/**
 	 * Read the key from the buffer.
 	 * 
-	 * @param arr
+	 * @param buffer
 	 * @param offset
 	 * @throws InvalidDataTypeException
 	 *             if emptyValues are not allowed and the eky was invalid.
 	 */
 	@Override
-	public void readByteArray(final byte[] arr, final int offset) throws InvalidDataTypeException {
-		super.readByteArray(arr, offset);
+	public void read(final ByteBuffer buffer, final int offset) throws InvalidDataTypeException {
+		super.read(buffer, offset);
 
 		// Mismatch:Superclass uses Long, but maps expect Integer
 		final Integer intValue = ((Long) value).intValue();
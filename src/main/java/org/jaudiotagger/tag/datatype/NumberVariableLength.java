@@ -23,6 +23,8 @@
  */
 package org.jaudiotagger.tag.datatype;
 
+import java.nio.ByteBuffer;
+
 import org.jaudiotagger.tag.InvalidDataTypeException;
 import org.jaudiotagger.tag.id3.AbstractTagFrameBody;
 import org.jaudiotagger.tag.id3.ID3Tags;
@@ -141,7 +143,18 @@ public class NumberVariableLength extends AbstractDataType {
 		// Coding error, should never happen
 		if (arr == null)
 			throw new NullPointerException("Byte array is null");
+		read(ByteBuffer.wrap(arr), offset);
+	}
 
+	/**
+	 * Read from the buffer, the number continues to the limit of the buffer
+	 * 
+	 * @param buffer
+	 * @param offset
+	 * @throws IllegalArgumentException
+	 */
+	@Override
+	public void read(final ByteBuffer buffer, final int offset) throws InvalidDataTypeException {
 		// Coding error, should never happen as far as I can see
 		if (offset < 0)
 			throw new IllegalArgumentException("negativer offset into an array offset:" + offset);
@@ -151,21 +164,21 @@ public class NumberVariableLength extends AbstractDataType {
 		// with this additional datatype wheras it didnt exist but I think this is probably an advantage the frame is
 		// more likely to be parsed by other applications if it contains optional fields.
 		// if not optional problem with this frame
-		if (offset >= arr.length)
+		if (offset >= buffer.limit())
 			if (minLength == 0) {
 				value = (long) 0;
 				return;
 			} else
-				throw new InvalidDataTypeException("Offset to byte array is out of bounds: offset = " + offset + ", array.length = " + arr.length);
+				throw new InvalidDataTypeException("Offset to byte array is out of bounds: offset = " + offset + ", array.length = " + buffer.limit());
 
 		long lvalue = 0;
 
 		// Read the bytes (starting from offset), the most significant byte of the number being constructed is read
 		// first,
 		// we then shift the resulting long one byte over to make room for the next byte
-		for (int i = offset; i < arr.length; i++) {
+		for (int i = offset; i < buffer.limit(); i++) {
 			lvalue <<= 8;
-			lvalue += (arr[i] & 0xff);
+			lvalue += (buffer.get(i) & 0xff);
 		}
 
 		value = lvalue;
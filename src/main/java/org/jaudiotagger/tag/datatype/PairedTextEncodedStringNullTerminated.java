@@ -2,6 +2,7 @@ package org.jaudiotagger.tag.datatype;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.logging.Level;
@@ -73,7 +74,7 @@ public class PairedTextEncodedStringNullTerminated extends AbstractDataType {
 	 * Strings or until reached the end of the array. The offset should be set to byte after the last null terminated
 	 * String found.
 	 * 
-	 * @param arr
+	 * @param buffer
 	 *            to read the Strings from
 	 * @param offset
 	 *            in the array to start reading from
@@ -81,14 +82,14 @@ public class PairedTextEncodedStringNullTerminated extends AbstractDataType {
 	 *             if unable to find any null terminated Strings
 	 */
 	@Override
-	public void readByteArray(final byte[] arr, int offset) throws InvalidDataTypeException {
+	public void read(final ByteBuffer buffer, int offset) throws InvalidDataTypeException {
 		logger.finer("Reading PairTextEncodedStringNullTerminated from array from offset:" + offset);
 		// Continue until unable to read a null terminated String
 		while (true) {
 			try {
 				// Read Key
 				final TextEncodedStringNullTerminated key = new TextEncodedStringNullTerminated(identifier, frameBody);
-				key.readByteArray(arr, offset);
+				key.read(buffer, offset);
 				size += key.getSize();
 				offset += key.getSize();
 				if (key.getSize() == 0)
@@ -97,7 +98,7 @@ public class PairedTextEncodedStringNullTerminated extends AbstractDataType {
 				try {
 					// Read Value
 					final TextEncodedStringNullTerminated result = new TextEncodedStringNullTerminated(identifier, frameBody);
-					result.readByteArray(arr, offset);
+					result.read(buffer, offset);
 					size += result.getSize();
 					offset += result.getSize();
 					if (result.getSize() == 0)
@@ -107,10 +108,10 @@ public class PairedTextEncodedStringNullTerminated extends AbstractDataType {
 				} catch (final InvalidDataTypeException idte) {
 					// Value may not be null terminated if it is the last value
 					// Read Value
-					if (offset >= arr.length)
+					if (offset >= buffer.limit())
 						break;
 					final TextEncodedStringSizeTerminated result = new TextEncodedStringSizeTerminated(identifier, frameBody);
-					result.readByteArray(arr, offset);
+					result.read(buffer, offset);
 					size += result.getSize();
 					offset += result.getSize();
 					if (result.getSize() == 0)
@@ -131,6 +132,11 @@ public class PairedTextEncodedStringNullTerminated extends AbstractDataType {
 		logger.finer("Read  PairTextEncodedStringNullTerminated:" + value + " size:" + size);
 	}
 
+	@Override
+	public void readByteArray(final byte[] arr, final int offset) throws InvalidDataTypeException {
+		read(ByteBuffer.wrap(arr), offset);
+	}
+
 	/**
 	 * For every String write to byteBuffer
 	 * 
@@ -3,10 +3,7 @@ package org.jaudiotagger.tag.datatype;
 import java.nio.ByteBuffer;
 import java.nio.CharBuffer;
 import java.nio.charset.CharacterCodingException;
-import java.nio.charset.Charset;
-import java.nio.charset.CharsetDecoder;
 import java.nio.charset.CharsetEncoder;
-import java.nio.charset.CoderResult;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -74,7 +71,7 @@ public class PartOfSet extends AbstractString {
 	 * Must take into account the text encoding defined in the Encoding Object ID3 Text Frames often allow multiple
 	 * strings separated by the null char appropriate for the encoding.
 	 * 
-	 * @param arr
+	 * @param buffer
 	 *            this is the buffer for the frame
 	 * @param offset
 	 *            this is where to start reading in the buffer for this field
@@ -82,32 +79,27 @@ public class PartOfSet extends AbstractString {
 	 * @throws IndexOutOfBoundsException
 	 */
 	@Override
-	public void readByteArray(final byte[] arr, final int offset) throws InvalidDataTypeException {
+	public void read(final ByteBuffer buffer, final int offset) throws InvalidDataTypeException {
 		logger.finest("Reading from array from offset:" + offset);
 
-		// Get the Specified Decoder
 		final String charSetName = getTextEncodingCharSet();
-		final CharsetDecoder decoder = Charset.forName(charSetName).newDecoder();
 
 		// Decode sliced inBuffer
-		final ByteBuffer inBuffer = ByteBuffer.wrap(arr, offset, arr.length - offset).slice();
-		final CharBuffer outBuffer = CharBuffer.allocate(arr.length - offset);
-		decoder.reset();
-		final CoderResult coderResult = decoder.decode(inBuffer, outBuffer, true);
-		if (coderResult.isError())
-			logger.warning("Decoding error:" + coderResult.toString());
-		decoder.flush(outBuffer);
-		outBuffer.flip();
+		final String stringValue = CharsetCodecs.decode(slice(buffer, offset, buffer.limit() - offset), charSetName);
 
 		// Store value
-		final String stringValue = outBuffer.toString();
 		value = new PartOfSetValue(stringValue);
 
 		// SetSize, important this is correct for finding the next datatype
-		setSize(arr.length - offset);
+		setSize(buffer.limit() - offset);
 		logger.config("Read SizeTerminatedString:" + value + " size:" + size);
 	}
 
+	@Override
+	public void readByteArray(final byte[] arr, final int offset) throws InvalidDataTypeException {
+		read(ByteBuffer.wrap(arr), offset);
+	}
+
 	/**
 	 * Write String into byte array
 	 * <p/>
@@ -129,14 +121,14 @@ public class PartOfSet extends AbstractString {
 			String charSetName = getTextEncodingCharSet();
 			if (charSetName.equals(TextEncoding.CHARSET_UTF_16)) {
 				charSetName = TextEncoding.CHARSET_UTF_16_LE_ENCODING_FORMAT;
-				final CharsetEncoder encoder = Charset.forName(charSetName).newEncoder();
+				final CharsetEncoder encoder = CharsetCodecs.getEncoder(charSetName);
 				// Note remember LE BOM is ff fe but this is handled by encoder Unicode char is fe ff
 				final ByteBuffer bb = encoder.encode(CharBuffer.wrap('\ufeff' + value));
 				data = new byte[bb.limit()];
 				bb.get(data, 0, bb.limit());
 
 			} else {
-				final CharsetEncoder encoder = Charset.forName(charSetName).newEncoder();
+				final CharsetEncoder encoder = CharsetCodecs.getEncoder(charSetName);
 				final ByteBuffer bb = encoder.encode(CharBuffer.wrap(value));
 				data = new byte[bb.limit()];
 				bb.get(data, 0, bb.limit());
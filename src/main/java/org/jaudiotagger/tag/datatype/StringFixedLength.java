@@ -26,7 +26,6 @@ package org.jaudiotagger.tag.datatype;
 import java.nio.ByteBuffer;
 import java.nio.CharBuffer;
 import java.nio.charset.CharacterCodingException;
-import java.nio.charset.Charset;
 import java.nio.charset.CharsetDecoder;
 import java.nio.charset.CharsetEncoder;
 
@@ -74,25 +73,25 @@ public class StringFixedLength extends AbstractString {
 	/**
 	 * Read a string from buffer of fixed size(size has already been set in constructor)
 	 * 
-	 * @param arr
+	 * @param buffer
 	 *            this is the buffer for the frame
 	 * @param offset
 	 *            this is where to start reading in the buffer for this field
 	 */
 	@Override
-	public void readByteArray(final byte[] arr, final int offset) throws InvalidDataTypeException {
+	public void read(final ByteBuffer buffer, final int offset) throws InvalidDataTypeException {
 		logger.config("Reading from array from offset:" + offset);
 		try {
 			final String charSetName = getTextEncodingCharSet();
-			final CharsetDecoder decoder = Charset.forName(charSetName).newDecoder();
+			final CharsetDecoder decoder = CharsetCodecs.getDecoder(charSetName);
 
 			// Decode buffer if runs into problems should through exception which we
 			// catch and then set value to empty string.
-			logger.finest("Array length is:" + arr.length + "offset is:" + offset + "Size is:" + size);
+			logger.finest("Array length is:" + buffer.limit() + "offset is:" + offset + "Size is:" + size);
 
-			if (arr.length - offset < size)
+			if (buffer.limit() - offset < size)
 				throw new InvalidDataTypeException("byte array is to small to retrieve string of declared length:" + size);
-			final String str = decoder.decode(ByteBuffer.wrap(arr, offset, size)).toString();
+			final String str = decoder.decode(slice(buffer, offset, size)).toString();
 			if (str == null)
 				throw new NullPointerException("String is null");
 			value = str;
@@ -103,6 +102,11 @@ public class StringFixedLength extends AbstractString {
 		logger.config("Read StringFixedLength:" + value);
 	}
 
+	@Override
+	public void readByteArray(final byte[] arr, final int offset) throws InvalidDataTypeException {
+		read(ByteBuffer.wrap(arr), offset);
+	}
+
 	/**
 	 * Write String into byte array
 	 * <p/>
@@ -130,11 +134,11 @@ public class StringFixedLength extends AbstractString {
 			String charSetName = getTextEncodingCharSet();
 			if (charSetName.equals(TextEncoding.CHARSET_UTF_16)) {
 				charSetName = TextEncoding.CHARSET_UTF_16_LE_ENCODING_FORMAT;
-				final CharsetEncoder encoder = Charset.forName(charSetName).newEncoder();
+				final CharsetEncoder encoder = CharsetCodecs.getEncoder(charSetName);
 				// Note remember LE BOM is ff fe but tis is handled by encoder Unicode char is fe ff
 				dataBuffer = encoder.encode(CharBuffer.wrap('\ufeff' + (String) value));
 			} else {
-				final CharsetEncoder encoder = Charset.forName(charSetName).newEncoder();
+				final CharsetEncoder encoder = CharsetCodecs.getEncoder(charSetName);
 				dataBuffer = encoder.encode(CharBuffer.wrap((String) value));
 			}
 		} catch (final CharacterCodingException ce) {
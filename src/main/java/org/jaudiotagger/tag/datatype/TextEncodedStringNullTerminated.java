@@ -3,10 +3,7 @@ package org.jaudiotagger.tag.datatype;
 import java.nio.ByteBuffer;
 import java.nio.CharBuffer;
 import java.nio.charset.CharacterCodingException;
-import java.nio.charset.Charset;
-import java.nio.charset.CharsetDecoder;
 import java.nio.charset.CharsetEncoder;
-import java.nio.charset.CoderResult;
 
 import org.jaudiotagger.tag.InvalidDataTypeException;
 import org.jaudiotagger.tag.TagOptionSingleton;
@@ -57,28 +54,27 @@ public class TextEncodedStringNullTerminated extends AbstractString {
 	 * Must take into account the text encoding defined in the Encoding Object ID3 Text Frames often allow multiple
 	 * strings separated by the null char appropriate for the encoding.
 	 * 
-	 * @param arr
+	 * @param buffer
 	 *            this is the buffer for the frame
 	 * @param offset
 	 *            this is where to start reading in the buffer for this field
 	 */
 	@Override
-	public void readByteArray(final byte[] arr, final int offset) throws InvalidDataTypeException {
-		if (offset >= arr.length)
+	public void read(final ByteBuffer buffer, final int offset) throws InvalidDataTypeException {
+		if (offset >= buffer.limit())
 			throw new InvalidDataTypeException("Unable to find null terminated string");
 		int bufferSize;
 
 		logger.finer("Reading from array starting from offset:" + offset);
 		int size;
 
-		// Get the Specified Decoder
 		final String charSetName = getTextEncodingCharSet();
-		final CharsetDecoder decoder = Charset.forName(charSetName).newDecoder();
 
 		// We only want to load up to null terminator, data after this is part of different
 		// field and it may not be possible to decode it so do the check before we do
 		// do the decoding,encoding dependent.
-		final ByteBuffer buffer = ByteBuffer.wrap(arr, offset, arr.length - offset);
+		final ByteBuffer data = buffer.duplicate();
+		data.position(offset);
 		int endPosition = 0;
 
 		// Latin-1 and UTF-8 strings are terminated by a single-byte null,
@@ -86,24 +82,24 @@ public class TextEncodedStringNullTerminated extends AbstractString {
 		final boolean nullIsOneByte = (charSetName.equals(TextEncoding.CHARSET_ISO_8859_1) || charSetName.equals(TextEncoding.CHARSET_UTF_8));
 
 		boolean isNullTerminatorFound = false;
-		while (buffer.hasRemaining()) {
-			byte nextByte = buffer.get();
+		while (data.hasRemaining()) {
+			byte nextByte = data.get();
 			if (nextByte == 0x00) {
 				if (nullIsOneByte) {
-					buffer.mark();
-					buffer.reset();
-					endPosition = buffer.position() - 1;
+					data.mark();
+					data.reset();
+					endPosition = data.position() - 1;
 					logger.finest("Null terminator found starting at:" + endPosition);
 
 					isNullTerminatorFound = true;
 					break;
 				} else // Looking for two-byte null
-				if (buffer.hasRemaining()) {
-					nextByte = buffer.get();
+				if (data.hasRemaining()) {
+					nextByte = data.get();
 					if (nextByte == 0x00) {
-						buffer.mark();
-						buffer.reset();
-						endPosition = buffer.position() - 2;
+						data.mark();
+						data.reset();
+						endPosition = data.position() - 2;
 						logger.finest("UTF16:Null terminator found starting  at:" + endPosition);
 						isNullTerminatorFound = true;
 						break;
@@ -112,9 +108,9 @@ public class TextEncodedStringNullTerminated extends AbstractString {
 						// so will just start looking again in next invocation of loop
 					}
 				} else {
-					buffer.mark();
-					buffer.reset();
-					endPosition = buffer.position() - 1;
+					data.mark();
+					data.reset();
+					endPosition = data.position() - 1;
 					logger.warning("UTF16:Should be two null terminator marks but only found one starting at:" + endPosition);
 
 					isNullTerminatorFound = true;
@@ -122,8 +118,8 @@ public class TextEncodedStringNullTerminated extends AbstractString {
 				}
 			} else // If UTF16, we should only be looking on 2 byte boundaries
 			if (!nullIsOneByte)
-				if (buffer.hasRemaining())
-					buffer.get();
+				if (data.hasRemaining())
+					data.get();
 		}
 
 		if (!isNullTerminatorFound)
@@ -147,20 +143,17 @@ public class TextEncodedStringNullTerminated extends AbstractString {
 			value = "";
 		else {
 			// Decode sliced inBuffer
-			final ByteBuffer inBuffer = ByteBuffer.wrap(arr, offset, bufferSize).slice();
-			final CharBuffer outBuffer = CharBuffer.allocate(bufferSize);
-			decoder.reset();
-			final CoderResult coderResult = decoder.decode(inBuffer, outBuffer, true);
-			if (coderResult.isError())
-				logger.warning("Problem decoding text encoded null terminated string:" + coderResult.toString());
-			decoder.flush(outBuffer);
-			outBuffer.flip();
-			value = outBuffer.toString();
+			value = CharsetCodecs.decode(slice(buffer, offset, bufferSize), charSetName);
 		}
 		// Set Size so offset is ready for next field (includes the null terminator)
 		logger.config("Read NullTerminatedString:" + value + " size inc terminator:" + size);
 	}
 
+	@Override
+	public void readByteArray(final byte[] arr, final int offset) throws InvalidDataTypeException {
+		read(ByteBuffer.wrap(arr), offset);
+	}
+
 	/**
 	 * Write String into byte array, adding a null character to the end of the String
 	 * 
@@ -177,21 +170,21 @@ public class TextEncodedStringNullTerminated extends AbstractString {
 			if (charSetName.equals(TextEncoding.CHARSET_UTF_16)) {
 				if (TagOptionSingleton.getInstance().isEncodeUTF16BomAsLittleEndian()) {
 					charSetName = TextEncoding.CHARSET_UTF_16_LE_ENCODING_FORMAT;
-					final CharsetEncoder encoder = Charset.forName(charSetName).newEncoder();
+					final CharsetEncoder encoder = CharsetCodecs.getEncoder(charSetName);
 					// Note remember LE BOM is ff fe but this is handled by encoder Unicode char is fe ff
 					final ByteBuffer bb = encoder.encode(CharBuffer.wrap('\ufeff' + (String) value + '\0'));
 					data = new byte[bb.limit()];
 					bb.get(data, 0, bb.limit());
 				} else {
 					charSetName = TextEncoding.CHARSET_UTF_16_BE_ENCODING_FORMAT;
-					final CharsetEncoder encoder = Charset.forName(charSetName).newEncoder();
+					final CharsetEncoder encoder = CharsetCodecs.getEncoder(charSetName);
 					// Note BE BOM will leave as fe ff
 					final ByteBuffer bb = encoder.encode(CharBuffer.wrap('\ufeff' + (String) value + '\0'));
 					data = new byte[bb.limit()];
 					bb.get(data, 0, bb.limit());
 				}
 			} else {
-				final CharsetEncoder encoder = Charset.forName(charSetName).newEncoder();
+				final CharsetEncoder encoder = CharsetCodecs.getEncoder(charSetName);
 				final ByteBuffer bb = encoder.encode(CharBuffer.wrap((String) value + '\0'));
 				data = new byte[bb.limit()];
 				bb.get(data, 0, bb.limit());
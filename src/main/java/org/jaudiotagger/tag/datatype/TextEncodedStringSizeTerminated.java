@@ -3,10 +3,7 @@ package org.jaudiotagger.tag.datatype;
 import java.nio.ByteBuffer;
 import java.nio.CharBuffer;
 import java.nio.charset.CharacterCodingException;
-import java.nio.charset.Charset;
-import java.nio.charset.CharsetDecoder;
 import java.nio.charset.CharsetEncoder;
-import java.nio.charset.CoderResult;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
@@ -68,7 +65,7 @@ public class TextEncodedStringSizeTerminated extends AbstractString {
 	 * Must take into account the text encoding defined in the Encoding Object ID3 Text Frames often allow multiple
 	 * strings seperated by the null char appropriate for the encoding.
 	 * 
-	 * @param arr
+	 * @param buffer
 	 *            this is the buffer for the frame
 	 * @param offset
 	 *            this is where to start reading in the buffer for this field
@@ -76,44 +73,42 @@ public class TextEncodedStringSizeTerminated extends AbstractString {
 	 * @throws IndexOutOfBoundsException
 	 */
 	@Override
-	public void readByteArray(final byte[] arr, final int offset) throws InvalidDataTypeException {
-		logger.finest("Reading from array from offset:" + offset);
+	public void read(final ByteBuffer buffer, final int offset) throws InvalidDataTypeException {
+		logger.finest("Reading from buffer from offset:" + offset);
+		final int length = buffer.limit() - offset;
 
-		// Get the Specified Decoder
 		final String charSetName = getTextEncodingCharSet();
-		final CharsetDecoder decoder = Charset.forName(charSetName).newDecoder();
-		decoder.reset();
 
 		// Decode sliced inBuffer
 		ByteBuffer inBuffer;
 		if (TagOptionSingleton.getInstance().isAndroid()) {
 			// #302 [dallen] truncating array manually since the decoder.decode() does not honor the offset in the in
 			// buffer
-			final byte[] truncArr = new byte[arr.length - offset];
-			System.arraycopy(arr, offset, truncArr, 0, truncArr.length);
+			final byte[] truncArr = new byte[length];
+			slice(buffer, offset, length).get(truncArr);
 			inBuffer = ByteBuffer.wrap(truncArr);
 		} else
-			inBuffer = ByteBuffer.wrap(arr, offset, arr.length - offset).slice();
+			inBuffer = slice(buffer, offset, length);
 
-		final CharBuffer outBuffer = CharBuffer.allocate(arr.length - offset);
-		final CoderResult coderResult = decoder.decode(inBuffer, outBuffer, true);
-		if (coderResult.isError())
-			logger.warning("Decoding error:" + coderResult.toString());
-		decoder.flush(outBuffer);
-		outBuffer.flip();
+		final String decoded = CharsetCodecs.decode(inBuffer, charSetName);
 
 		// If using UTF16 with BOM we then search through the text removing any BOMs that could exist
 		// for multiple values, BOM could be Big Endian or Little Endian
 		if (charSetName.equals(TextEncoding.CHARSET_UTF_16))
-			value = outBuffer.toString().replace("\ufeff", "").replace("\ufffe", "");
+			value = decoded.replace("\ufeff", "").replace("\ufffe", "");
 		else
-			value = outBuffer.toString();
+			value = decoded;
 		// SetSize, important this is correct for finding the next datatype
-		setSize(arr.length - offset);
+		setSize(length);
 		logger.config("Read SizeTerminatedString:" + value + " size:" + size);
 
 	}
 
+	@Override
+	public void readByteArray(final byte[] arr, final int offset) throws InvalidDataTypeException {
+		read(ByteBuffer.wrap(arr), offset);
+	}
+
 	/**
 	 * Write String using specified encoding
 	 * 
@@ -152,7 +147,7 @@ public class TextEncodedStringSizeTerminated extends AbstractString {
 	 * @throws CharacterCodingException
 	 */
 	private ByteBuffer writeStringUTF16LEBOM(final String next, final int i, final int noOfValues) throws CharacterCodingException {
-		final CharsetEncoder encoder = Charset.forName(TextEncoding.CHARSET_UTF_16_LE_ENCODING_FORMAT).newEncoder();
+		final CharsetEncoder encoder = CharsetCodecs.getEncoder(TextEncoding.CHARSET_UTF_16_LE_ENCODING_FORMAT);
 		ByteBuffer bb = null;
 		// Note remember LE BOM is ff fe but this is handled by encoder Unicode char is fe ff
 		if ((i + 1) == noOfValues)
@@ -175,7 +170,7 @@ public class TextEncodedStringSizeTerminated extends AbstractString {
 	 * @throws CharacterCodingException
 	 */
 	private ByteBuffer writeStringUTF16BEBOM(final String next, final int i, final int noOfValues) throws CharacterCodingException {
-		final CharsetEncoder encoder = Charset.forName(TextEncoding.CHARSET_UTF_16_BE_ENCODING_FORMAT).newEncoder();
+		final CharsetEncoder encoder = CharsetCodecs.getEncoder(TextEncoding.CHARSET_UTF_16_BE_ENCODING_FORMAT);
 		ByteBuffer bb = null;
 		// Add BOM
 		if ((i + 1) == noOfValues)
@@ -258,7 +253,7 @@ public class TextEncodedStringSizeTerminated extends AbstractString {
 					else if (actualCharSet.equals(TextEncoding.CHARSET_UTF_16_BE_ENCODING_FORMAT))
 						outputBuffer.put(writeStringUTF16BEBOM(next, i, values.size()));
 				} else
-					outputBuffer.put(writeString(Charset.forName(charSetName).newEncoder(), next, i, values.size()));
+					outputBuffer.put(writeString(CharsetCodecs.getEncoder(charSetName), next, i, values.size()));
 			}
 			outputBuffer.flip();
 			data = new byte[outputBuffer.limit()];
@@ -31,6 +31,7 @@ import org.jaudiotagger.tag.TagOptionSingleton;
 import org.jaudiotagger.tag.TagTextField;
 import org.jaudiotagger.tag.id3.framebody.AbstractID3v2FrameBody;
 import org.jaudiotagger.tag.id3.framebody.FrameBodyEncrypted;
+import org.jaudiotagger.tag.id3.framebody.FrameBodyRegistry;
 import org.jaudiotagger.tag.id3.framebody.FrameBodyUnsupported;
 import org.jaudiotagger.tag.id3.valuepair.TextEncoding;
 import org.jaudiotagger.utils.EqualsUtil;
@@ -92,6 +93,22 @@ public abstract class AbstractID3v2Frame extends AbstractTagFrame implements Tag
 	 */
 	EncodingFlags encodingFlags = null;
 
+	/**
+	 * Whether decoding of the body is deferred until it is first accessed when the frame is read
+	 */
+	protected boolean lazyBodyDecoding = TagOptionSingleton.getInstance().isLazyFrameDecoding();
+
+	/**
+	 * The body data as read from file when decoding of the body has been deferred until it is first accessed, null
+	 * once the body has been decoded
+	 */
+	private byte[] undecodedBody;
+
+	/**
+	 * Identifier used to decode the deferred body, may differ from the frame identifier
+	 */
+	private String undecodedBodyIdentifier;
+
 	/**
 	 * Create a frame based on another frame
 	 * 
@@ -121,14 +138,21 @@ public abstract class AbstractID3v2Frame extends AbstractTagFrame implements Tag
 		logger.config("Creating empty frame of type" + identifier);
 		this.identifier = identifier;
 
-		// Use reflection to map id to frame body, which makes things much easier
-		// to keep things up to date.
+		// Map id to frame body using the constructors looked up once by the registry
+		final Constructor<? extends AbstractID3v2FrameBody> construct = FrameBodyRegistry.getEmptyConstructor(identifier);
 		try {
-			final Class<AbstractID3v2FrameBody> c = (Class<AbstractID3v2FrameBody>) Class.forName("org.jaudiotagger.tag.id3.framebody.FrameBody" + identifier);
-			frameBody = c.newInstance();
-		} catch (final ClassNotFoundException cnfe) {
-			logger.severe(cnfe.getMessage());
-			frameBody = new FrameBodyUnsupported(identifier);
+			if (construct == null) {
+				logger.severe("No frame body for identifier:" + identifier);
+				frameBody = new FrameBodyUnsupported(identifier);
+			} else
+				frameBody = construct.newInstance();
+		}
+		// Should not happen, frame bodies do not throw from the empty constructor
+		catch (final InvocationTargetException ite) {
+			logger.log(Level.SEVERE, "InvocationTargetException:" + identifier, ite.getCause());
+			if (ite.getCause() instanceof RuntimeException)
+				throw (RuntimeException) ite.getCause();
+			throw new RuntimeException(ite.getCause());
 		}
 		// Instantiate Interface/Abstract should not happen
 		catch (final InstantiationException ie) {
@@ -235,34 +259,31 @@ public abstract class AbstractID3v2Frame extends AbstractTagFrame implements Tag
 	 * @throws InvalidFrameException
 	 *             unable to construct a framebody from the data
 	 */
-	@SuppressWarnings("unchecked")
-	// TODO using reflection is rather slow perhaps we should change this
 	protected AbstractID3v2FrameBody readBody(final String identifier, final ByteBuffer byteBuffer, final int frameSize) throws InvalidFrameException, InvalidDataTypeException {
-		// Use reflection to map id to frame body, which makes things much easier
-		// to keep things up to date,although slight performance hit.
+		// Map id to frame body using the constructors looked up once by the registry, so there is no reflective
+		// lookup for each frame read
 		logger.finest("Creating framebody:start");
 
 		AbstractID3v2FrameBody frameBody;
+		final Constructor<? extends AbstractID3v2FrameBody> construct = FrameBodyRegistry.getReadConstructor(identifier);
 		try {
-			final Class<AbstractID3v2FrameBody> c = (Class<AbstractID3v2FrameBody>) Class.forName("org.jaudiotagger.tag.id3.framebody.FrameBody" + identifier);
-			final Class<?>[] constructorParameterTypes = { Class.forName("java.nio.ByteBuffer"), Integer.TYPE };
-			final Object[] constructorParameterValues = { byteBuffer, frameSize };
-			final Constructor<AbstractID3v2FrameBody> construct = c.getConstructor(constructorParameterTypes);
-			frameBody = (construct.newInstance(constructorParameterValues));
-		}
-		// No class defined for this frame type,use FrameUnsupported
-		catch (final ClassNotFoundException cex) {
-			logger.config(getLoggingFilename() + ":" + "Identifier not recognised:" + identifier + " using FrameBodyUnsupported");
-			try {
-				frameBody = new FrameBodyUnsupported(byteBuffer, frameSize);
-			}
-			// Should only throw InvalidFrameException but unfortunately legacy hierachy forces
-			// read method to declare it can throw InvalidtagException
-			catch (final InvalidFrameException ife) {
-				throw ife;
-			} catch (final InvalidTagException te) {
-				throw new InvalidFrameException(te.getMessage());
-			}
+			// No class defined for this frame type,use FrameUnsupported
+			if (construct == null) {
+				if (FrameBodyRegistry.getFrameBodyClass(identifier) != null)
+					throw new NoSuchMethodException("FrameBody" + identifier + "(ByteBuffer, int)");
+				logger.config(getLoggingFilename() + ":" + "Identifier not recognised:" + identifier + " using FrameBodyUnsupported");
+				try {
+					frameBody = new FrameBodyUnsupported(byteBuffer, frameSize);
+				}
+				// Should only throw InvalidFrameException but unfortunately legacy hierachy forces
+				// read method to declare it can throw InvalidtagException
+				catch (final InvalidFrameException ife) {
+					throw ife;
+				} catch (final InvalidTagException te) {
+					throw new InvalidFrameException(te.getMessage());
+				}
+			} else
+				frameBody = construct.newInstance(byteBuffer, frameSize);
 		}
 		// An error has occurred during frame instantiation, if underlying cause is an unchecked exception or error
 		// propagate it up otherwise mark this frame as invalid
@@ -299,6 +320,90 @@ public abstract class AbstractID3v2Frame extends AbstractTagFrame implements Tag
 		return frameBody;
 	}
 
+	/**
+	 * Keep a copy of the body data instead of decoding it, the body is decoded by {@link #getBody()} the first time it
+	 * is accessed and a body that is never accessed is written back unchanged.
+	 * 
+	 * @param identifier
+	 *            the identifier to decode the body with
+	 * @param byteBuffer
+	 *            containing the body data from its position to its limit, the position is not moved
+	 */
+	protected void deferBody(final String identifier, final ByteBuffer byteBuffer) {
+		undecodedBody = new byte[byteBuffer.remaining()];
+		byteBuffer.duplicate().get(undecodedBody);
+		undecodedBodyIdentifier = identifier;
+		frameBody = null;
+	}
+
+	/**
+	 * Decode a body read from file, subclasses convert bodies that are not valid for their version
+	 * 
+	 * @param identifier
+	 * @param byteBuffer
+	 * @param frameSize
+	 * @return a newly created FrameBody
+	 * @throws InvalidFrameException
+	 * @throws InvalidDataTypeException
+	 */
+	protected AbstractID3v2FrameBody decodeBody(final String identifier, final ByteBuffer byteBuffer, final int frameSize) throws InvalidFrameException, InvalidDataTypeException {
+		return readBody(identifier, byteBuffer, frameSize);
+	}
+
+	/**
+	 * @return true if the body has been decoded, false if it has been read from file but not yet decoded
+	 */
+	public boolean isBodyDecoded() {
+		return undecodedBody == null;
+	}
+
+	/**
+	 * Returns the body, decoding it first if decoding was deferred when the frame was read. If the deferred body cannot
+	 * be decoded it is kept as an unsupported body so that it is still written back unchanged.
+	 */
+	@Override
+	public AbstractTagFrameBody getBody() {
+		if (undecodedBody != null) {
+			final byte[] data = undecodedBody;
+			undecodedBody = null;
+			try {
+				frameBody = decodeBody(undecodedBodyIdentifier, ByteBuffer.wrap(data), data.length);
+			} catch (final InvalidTagException ite) {
+				logger.warning(getLoggingFilename() + ":" + "Unable to decode frame body:" + getIdentifier() + ":" + ite.getMessage());
+				frameBody = new FrameBodyUnsupported(getIdentifier(), data);
+				frameBody.setHeader(this);
+			}
+		}
+		return frameBody;
+	}
+
+	@Override
+	public void setBody(final AbstractTagFrameBody frameBody) {
+		undecodedBody = null;
+		super.setBody(frameBody);
+	}
+
+	/**
+	 * @return the body data to write, the data read from file if the body has not been decoded otherwise the body
+	 *         encoded
+	 */
+	protected byte[] getBodyBytes() {
+		if (undecodedBody != null)
+			return undecodedBody;
+		final ByteArrayOutputStream bodyOutputStream = new ByteArrayOutputStream();
+		((AbstractID3v2FrameBody) frameBody).write(bodyOutputStream);
+		return bodyOutputStream.toByteArray();
+	}
+
+	/**
+	 * @return size of the body, without decoding a deferred body
+	 */
+	protected int getBodySize() {
+		if (undecodedBody != null)
+			return undecodedBody.length;
+		return frameBody.getSize();
+	}
+
 	/**
 	 * Get the next frame id, throwing an exception if unable to do this and check against just having padded data
 	 * 
@@ -342,24 +447,22 @@ public abstract class AbstractID3v2Frame extends AbstractTagFrame implements Tag
 	 * @throws InvalidFrameException
 	 *             if unable to construct a framebody for the identifier and body provided.
 	 */
-	@SuppressWarnings("unchecked")
-	// TODO using reflection is rather slow perhaps we should change this
 	protected AbstractID3v2FrameBody readBody(final String identifier, final AbstractID3v2FrameBody body) throws InvalidFrameException {
 		/*
-		 * Use reflection to map id to frame body, which makes things much easier to keep things up to date, although
-		 * slight performance hit.
+		 * Map id to frame body using the class found by the registry, only used when converting so the conversion
+		 * constructor itself is still looked up here.
 		 */
-		AbstractID3v2FrameBody frameBody;
-		try {
-			final Class<AbstractID3v2FrameBody> c = (Class<AbstractID3v2FrameBody>) Class.forName("org.jaudiotagger.tag.id3.framebody.FrameBody" + identifier);
-			final Class<?>[] constructorParameterTypes = { body.getClass() };
-			final Object[] constructorParameterValues = { body };
-			final Constructor<AbstractID3v2FrameBody> construct = c.getConstructor(constructorParameterTypes);
-			frameBody = (construct.newInstance(constructorParameterValues));
-		} catch (final ClassNotFoundException cex) {
+		final Class<? extends AbstractID3v2FrameBody> c = FrameBodyRegistry.getFrameBodyClass(identifier);
+		if (c == null) {
 			logger.config("Identifier not recognised:" + identifier + " unable to create framebody");
 			throw new InvalidFrameException("FrameBody" + identifier + " does not exist");
 		}
+
+		AbstractID3v2FrameBody frameBody;
+		try {
+			final Constructor<? extends AbstractID3v2FrameBody> construct = c.getConstructor(body.getClass());
+			frameBody = construct.newInstance(body);
+		}
 		// If suitable constructor does not exist
 		catch (final NoSuchMethodException sme) {
 			logger.log(Level.SEVERE, "No such method:" + sme.getMessage(), sme);
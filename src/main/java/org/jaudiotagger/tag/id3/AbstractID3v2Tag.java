@@ -42,13 +42,16 @@ import java.util.List;
 import java.util.ListIterator;
 import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.Set;
 import java.util.TreeSet;
 import java.util.logging.Level;
 
 import org.jaudiotagger.audio.AudioFile;
+import org.jaudiotagger.audio.ReadOptions;
 import org.jaudiotagger.audio.exceptions.UnableToCreateFileException;
 import org.jaudiotagger.audio.exceptions.UnableToModifyFileException;
 import org.jaudiotagger.audio.exceptions.UnableToRenameFileException;
+import org.jaudiotagger.audio.generic.ReadContext;
 import org.jaudiotagger.audio.generic.Utils;
 import org.jaudiotagger.audio.mp3.MP3File;
 import org.jaudiotagger.logging.ErrorMessage;
@@ -58,6 +61,7 @@ import org.jaudiotagger.tag.FieldKey;
 import org.jaudiotagger.tag.KeyNotFoundException;
 import org.jaudiotagger.tag.Tag;
 import org.jaudiotagger.tag.TagField;
+import org.jaudiotagger.tag.TagOptionSingleton;
 import org.jaudiotagger.tag.datatype.DataTypes;
 import org.jaudiotagger.tag.datatype.Pair;
 import org.jaudiotagger.tag.datatype.PairedTextEncodedStringNullTerminated;
@@ -126,6 +130,11 @@ public abstract class AbstractID3v2Tag extends AbstractID3Tag implements Tag {
 	 */
 	public HashMap<String, Object> encryptedFrameMap = null;
 
+	/**
+	 * Whether frames read defer decoding their bodies until accessed, only supported by ID3v2.3 and ID3v2.4
+	 */
+	protected boolean lazyFrameDecoding = TagOptionSingleton.getInstance().isLazyFrameDecoding();
+
 	/**
 	 * Holds the ids of invalid duplicate frames
 	 */
@@ -968,27 +977,31 @@ public abstract class AbstractID3v2Tag extends AbstractID3Tag implements Tag {
 	 * @throws java.io.IOException
 	 */
 	public static long getV2TagSizeIfExists(final Path file) throws IOException {
-		FileInputStream fis = null;
-		FileChannel fc = null;
-		ByteBuffer bb = null;
+		final ReadContext context = new ReadContext(file);
 		try {
-			// Files
-			fis = new FileInputStream(file.toFile());
-			fc = fis.getChannel();
-
-			// Read possible Tag header Byte Buffer
-			bb = ByteBuffer.allocate(TAG_HEADER_LENGTH);
-			fc.read(bb);
-			bb.flip();
-			if (bb.limit() < (TAG_HEADER_LENGTH))
-				return 0;
+			return getV2TagSizeIfExists(context);
 		} finally {
-			if (fc != null)
-				fc.close();
-
-			if (fis != null)
-				fis.close();
+			context.close();
 		}
+	}
+
+	/**
+	 * Checks to see if the file contains an ID3tag and if so return its size as reported in the tag header and return
+	 * the size of the tag (including header), if no such tag exists return zero.
+	 * <p/>
+	 * Reads from the already opened file rather than opening it again
+	 * 
+	 * @param context
+	 * @return the end of the tag in the file or zero if no tag exists.
+	 * @throws java.io.IOException
+	 */
+	public static long getV2TagSizeIfExists(final ReadContext context) throws IOException {
+		// Read possible Tag header Byte Buffer
+		final ByteBuffer bb = ByteBuffer.allocate(TAG_HEADER_LENGTH);
+		context.readFully(bb, 0);
+		bb.flip();
+		if (bb.limit() < (TAG_HEADER_LENGTH))
+			return 0;
 
 		// ID3 identifier
 		final byte[] tagIdentifier = new byte[FIELD_TAGID_LENGTH];
@@ -1152,6 +1165,8 @@ public abstract class AbstractID3v2Tag extends AbstractID3Tag implements Tag {
 			// Store original modification time
 			final FileTime lastModified = Files.getLastModifiedTime(file);
 
+			Utils.syncBeforeClose(fcOut);
+
 			// Close Channels and locks
 			if (fcIn != null)
 				if (fcIn.isOpen())
@@ -1210,11 +1225,10 @@ public abstract class AbstractID3v2Tag extends AbstractID3Tag implements Tag {
 		}
 
 		try {
-			fc = new RandomAccessFile(file.toFile(), "rws").getChannel();
+			fc = Utils.openForWriting(file).getChannel();
 			fileLock = getFileLockForWriting(fc, file.toFile().getPath());
-			fc.write(headerBuffer);
-			fc.write(ByteBuffer.wrap(bodyByteBuffer));
-			fc.write(ByteBuffer.wrap(new byte[padding]));
+			Utils.writeFully(fc, headerBuffer, ByteBuffer.wrap(bodyByteBuffer), ByteBuffer.wrap(new byte[padding]));
+			Utils.syncBeforeClose(fc);
 		} catch (final FileNotFoundException fe) {
 			logger.log(Level.SEVERE, getLoggingFilename() + fe.getMessage(), fe);
 			if (fe.getMessage().equals(FileSystemMessage.ACCESS_IS_DENIED.getMsg())) {
@@ -1321,6 +1335,53 @@ public abstract class AbstractID3v2Tag extends AbstractID3Tag implements Tag {
 			frameMap.put(newFrame.getIdentifier(), newFrame);
 	}
 
+	/**
+	 * Remove the frames that do not hold any of the fields required by readOptions, frames that were read lazily are
+	 * removed without their bodies being decoded
+	 * 
+	 * @param readOptions
+	 */
+	protected void retainFields(final ReadOptions readOptions) {
+		if (readOptions.isAllFieldsRequired())
+			return;
+
+		Set<String> frameIds = null;
+		if (readOptions.getFields() != null) {
+			frameIds = new HashSet<String>();
+			for (final FieldKey genericKey : readOptions.getFields())
+				try {
+					addFrameIds(genericKey, frameIds);
+				} catch (final KeyNotFoundException knfe) {
+					// Not supported by this version of ID3
+				}
+		}
+
+		final String artworkId = getFrameAndSubIdFromGenericKey(FieldKey.COVER_ART).getFrameId();
+		retainFrames(frameMap, frameIds, artworkId, readOptions.isArtworkRequired());
+		retainFrames(encryptedFrameMap, frameIds, artworkId, readOptions.isArtworkRequired());
+	}
+
+	/**
+	 * Add the keys of the frame map that hold the field
+	 * 
+	 * @param genericKey
+	 * @param frameIds
+	 * @throws KeyNotFoundException
+	 *             if the field is not supported by this version of ID3
+	 */
+	protected void addFrameIds(final FieldKey genericKey, final Set<String> frameIds) throws KeyNotFoundException {
+		frameIds.add(getFrameAndSubIdFromGenericKey(genericKey).getFrameId());
+	}
+
+	private static void retainFrames(final Map<String, Object> map, final Set<String> frameIds, final String artworkId, final boolean isArtworkRequired) {
+		final Iterator<String> iterator = map.keySet().iterator();
+		while (iterator.hasNext()) {
+			final String frameId = iterator.next();
+			if (frameId.equals(artworkId) ? !isArtworkRequired : frameIds != null && !frameIds.contains(frameId))
+				iterator.remove();
+		}
+	}
+
 	/**
 	 * Add frame to the frame map
 	 * 
@@ -1328,7 +1389,8 @@ public abstract class AbstractID3v2Tag extends AbstractID3Tag implements Tag {
 	 * @param next
 	 */
 	protected void loadFrameIntoMap(final String frameId, final AbstractID3v2Frame next) {
-		if (next.getBody() instanceof FrameBodyEncrypted)
+		// Check the field so that a frame whose body decoding has been deferred is not decoded
+		if (next.frameBody instanceof FrameBodyEncrypted)
 			loadFrameIntoSpecifiedMap(encryptedFrameMap, frameId, next);
 		else
 			loadFrameIntoSpecifiedMap(frameMap, frameId, next);
@@ -46,7 +46,7 @@ public abstract class AbstractTagFrame extends AbstractTagItem {
 	 * @param copyObject
 	 */
 	public AbstractTagFrame(final AbstractTagFrame copyObject) {
-		this.frameBody = (AbstractTagFrameBody) ID3Tags.copyObject(copyObject.frameBody);
+		this.frameBody = (AbstractTagFrameBody) ID3Tags.copyObject(copyObject.getBody());
 		this.frameBody.setHeader(this);
 	}
 
@@ -83,13 +83,15 @@ public abstract class AbstractTagFrame extends AbstractTagItem {
 		if (!(obj instanceof AbstractTagFrame))
 			return false;
 
-		if ((frameBody == null) && (((AbstractTagFrame) obj).frameBody == null))
+		final AbstractTagFrameBody body = getBody();
+		final AbstractTagFrameBody objBody = ((AbstractTagFrame) obj).getBody();
+		if ((body == null) && (objBody == null))
 			return true;
 
-		if ((frameBody == null) || (((AbstractTagFrame) obj).frameBody == null))
+		if ((body == null) || (objBody == null))
 			return false;
 
-		return frameBody.isSubsetOf(((AbstractTagFrame) obj).frameBody) && super.isSubsetOf(obj);
+		return body.isSubsetOf(objBody) && super.isSubsetOf(obj);
 
 	}
 
@@ -109,7 +111,7 @@ public abstract class AbstractTagFrame extends AbstractTagItem {
 			return false;
 
 		final AbstractTagFrame that = (AbstractTagFrame) obj;
-		return EqualsUtil.areEqual(this.getIdentifier(), that.getIdentifier()) && EqualsUtil.areEqual(this.frameBody, that.frameBody) && super.equals(that);
+		return EqualsUtil.areEqual(this.getIdentifier(), that.getIdentifier()) && EqualsUtil.areEqual(this.getBody(), that.getBody()) && super.equals(that);
 
 	}
 
@@ -235,6 +235,20 @@ public class ID3Tags {
 		return id;
 	}
 
+	/**
+	 * Copy constructor of each class copied by {@link #copyObject(Object)}, null if the class does not have one
+	 */
+	private static final ClassValue<Constructor<?>> copyConstructors = new ClassValue<Constructor<?>>() {
+		@Override
+		protected Constructor<?> computeValue(final Class<?> type) {
+			try {
+				return type.getConstructor(type);
+			} catch (final NoSuchMethodException ex) {
+				return null;
+			}
+		}
+	};
+
 	/**
 	 * Unable to instantiate abstract classes, so can't call the copy constructor. So find out the instantiated class
 	 * name and call the copy constructor through reflection (e.g for a a FrameBody would have to have a constructor
@@ -246,20 +260,13 @@ public class ID3Tags {
 	 *             if no suitable constructor exists
 	 */
 	public static Object copyObject(final Object copyObject) {
-		Constructor<?> constructor;
-		Class<?>[] constructorParameterArray;
-		Object[] parameterArray;
 		if (copyObject == null)
 			return null;
-		try {
-			constructorParameterArray = new Class[1];
-			constructorParameterArray[0] = copyObject.getClass();
-			constructor = copyObject.getClass().getConstructor(constructorParameterArray);
-			parameterArray = new Object[1];
-			parameterArray[0] = copyObject;
-			return constructor.newInstance(parameterArray);
-		} catch (final NoSuchMethodException ex) {
+		final Constructor<?> constructor = copyConstructors.get(copyObject.getClass());
+		if (constructor == null)
 			throw new IllegalArgumentException("NoSuchMethodException: Error finding constructor to create copy:" + copyObject.getClass().getName());
+		try {
+			return constructor.newInstance(copyObject);
 		} catch (final IllegalAccessException ex) {
 			throw new IllegalArgumentException("IllegalAccessException: No access to run constructor to create copy" + copyObject.getClass().getName());
 		} catch (final InstantiationException ex) {
@@ -200,6 +200,19 @@ public class ID3v11Tag extends ID3v1Tag {
 			}
 	}
 
+	/**
+	 * Creates a new ID3v11 datatype from the last 128 bytes of a file that have already been read into a buffer
+	 * 
+	 * @param byteBuffer
+	 * @param loggingFilename
+	 * @throws TagNotFoundException
+	 */
+	public ID3v11Tag(final ByteBuffer byteBuffer, final String loggingFilename) throws TagNotFoundException {
+		setLoggingFilename(loggingFilename);
+		byteBuffer.rewind();
+		read(byteBuffer);
+	}
+
 	/**
 	 * Creates a new ID3v11 datatype.
 	 * 
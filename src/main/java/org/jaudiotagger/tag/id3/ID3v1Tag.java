@@ -171,6 +171,19 @@ public class ID3v1Tag extends AbstractID3v1Tag implements Tag {
 		}
 	}
 
+	/**
+	 * Creates a new ID3v1 datatype from the last 128 bytes of a file that have already been read into a buffer
+	 * 
+	 * @param byteBuffer
+	 * @param loggingFilename
+	 * @throws TagNotFoundException
+	 */
+	public ID3v1Tag(final ByteBuffer byteBuffer, final String loggingFilename) throws TagNotFoundException {
+		setLoggingFilename(loggingFilename);
+		byteBuffer.rewind();
+		read(byteBuffer);
+	}
+
 	/**
 	 * Creates a new ID3v1 datatype.
 	 * 
@@ -17,6 +17,8 @@ package org.jaudiotagger.tag.id3;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
 import java.math.BigInteger;
 import java.nio.ByteBuffer;
 import java.util.logging.Level;
@@ -31,6 +33,7 @@ import org.jaudiotagger.tag.InvalidFrameException;
 import org.jaudiotagger.tag.InvalidFrameIdentifierException;
 import org.jaudiotagger.tag.id3.framebody.AbstractID3v2FrameBody;
 import org.jaudiotagger.tag.id3.framebody.FrameBodyDeprecated;
+import org.jaudiotagger.tag.id3.framebody.FrameBodyRegistry;
 import org.jaudiotagger.tag.id3.framebody.FrameBodyUnsupported;
 import org.jaudiotagger.tag.id3.valuepair.TextEncoding;
 import org.jaudiotagger.utils.EqualsUtil;
@@ -106,7 +109,6 @@ public class ID3v22Frame extends AbstractID3v2Frame {
 	 * 
 	 * @param identifier
 	 */
-	@SuppressWarnings("unchecked")
 	public ID3v22Frame(final String identifier) {
 
 		logger.config("Creating empty frame of type" + identifier);
@@ -129,14 +131,21 @@ public class ID3v22Frame extends AbstractID3v2Frame {
 			else if (ID3Tags.isID3v22FrameIdentifier(bodyIdentifier))
 				bodyIdentifier = ID3Tags.convertFrameID22To23(bodyIdentifier);
 
-		// Use reflection to map id to frame body, which makes things much easier
-		// to keep things up to date.
+		// Map id to frame body using the constructors looked up once by the registry
+		final Constructor<? extends AbstractID3v2FrameBody> construct = FrameBodyRegistry.getEmptyConstructor(bodyIdentifier);
 		try {
-			final Class<AbstractID3v2FrameBody> c = (Class<AbstractID3v2FrameBody>) Class.forName("org.jaudiotagger.tag.id3.framebody.FrameBody" + bodyIdentifier);
-			frameBody = c.newInstance();
-		} catch (final ClassNotFoundException cnfe) {
-			logger.log(Level.SEVERE, cnfe.getMessage(), cnfe);
-			frameBody = new FrameBodyUnsupported(identifier);
+			if (construct == null) {
+				logger.severe("No frame body for identifier:" + bodyIdentifier);
+				frameBody = new FrameBodyUnsupported(identifier);
+			} else
+				frameBody = construct.newInstance();
+		}
+		// Should not happen, frame bodies do not throw from the empty constructor
+		catch (final InvocationTargetException ite) {
+			logger.log(Level.SEVERE, ite.getCause().getMessage(), ite.getCause());
+			if (ite.getCause() instanceof RuntimeException)
+				throw (RuntimeException) ite.getCause();
+			throw new RuntimeException(ite.getCause());
 		}
 		// Instantiate Interface/Abstract should not happen
 		catch (final InstantiationException ie) {
@@ -27,6 +27,7 @@ import java.util.List;
 import java.util.logging.Level;
 
 import org.jaudiotagger.FileConstants;
+import org.jaudiotagger.audio.ReadOptions;
 import org.jaudiotagger.audio.mp3.MP3File;
 import org.jaudiotagger.logging.ErrorMessage;
 import org.jaudiotagger.tag.EmptyFrameException;
@@ -192,8 +193,21 @@ public class ID3v22Tag extends AbstractID3v2Tag {
 	 * @throws TagException
 	 */
 	public ID3v22Tag(final ByteBuffer buffer, final String loggingFilename) throws TagException {
+		this(buffer, loggingFilename, ReadOptions.ALL);
+	}
+
+	/**
+	 * Creates a new ID3v2_2 datatype keeping only the frames that hold the fields required by readOptions.
+	 * 
+	 * @param buffer
+	 * @param loggingFilename
+	 * @param readOptions
+	 * @throws TagException
+	 */
+	public ID3v22Tag(final ByteBuffer buffer, final String loggingFilename, final ReadOptions readOptions) throws TagException {
 		setLoggingFilename(loggingFilename);
 		this.read(buffer);
+		retainFields(readOptions);
 	}
 
 	/**
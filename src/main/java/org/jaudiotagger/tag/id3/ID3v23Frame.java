@@ -251,6 +251,22 @@ public class ID3v23Frame extends AbstractID3v2Frame {
 		read(byteBuffer);
 	}
 
+	/**
+	 * Creates a new ID3v23Frame dataType by reading from byteBuffer, deferring decoding of the body until it is accessed
+	 * if lazyBodyDecoding is set.
+	 * 
+	 * @param byteBuffer
+	 *            to read from
+	 * @param loggingFilename
+	 * @param lazyBodyDecoding
+	 * @throws org.jaudiotagger.tag.InvalidFrameException
+	 */
+	public ID3v23Frame(final ByteBuffer byteBuffer, final String loggingFilename, final boolean lazyBodyDecoding) throws InvalidFrameException, InvalidDataTypeException {
+		setLoggingFilename(loggingFilename);
+		this.lazyBodyDecoding = lazyBodyDecoding;
+		read(byteBuffer);
+	}
+
 	/**
 	 * Creates a new ID3v23Frame dataType by reading from byteBuffer.
 	 * 
@@ -271,7 +287,7 @@ public class ID3v23Frame extends AbstractID3v2Frame {
 	 */
 	@Override
 	public int getSize() {
-		return frameBody.getSize() + ID3v23Frame.FRAME_HEADER_SIZE;
+		return getBodySize() + ID3v23Frame.FRAME_HEADER_SIZE;
 	}
 
 	/**
@@ -384,21 +400,34 @@ public class ID3v23Frame extends AbstractID3v2Frame {
 				// Create Buffer that only contains the body of this frame rather than the remainder of tag
 				frameBodyBuffer = byteBuffer.slice();
 				frameBodyBuffer.limit(realFrameSize);
+				if (lazyBodyDecoding) {
+					deferBody(id, frameBodyBuffer);
+					return;
+				}
 				frameBody = readBody(id, frameBodyBuffer, realFrameSize);
 			}
-			// TODO code seems to assume that if the frame created is not a v23FrameBody
-			// it should be deprecated, but what about if somehow a V24Frame has been put into a V23 Tag, shouldn't
-			// it then be created as FrameBodyUnsupported
-			if (!(frameBody instanceof ID3v23FrameBody)) {
-				logger.config(getLoggingFilename() + ":Converted frameBody with:" + identifier + " to deprecated frameBody");
-				frameBody = new FrameBodyDeprecated((AbstractID3v2FrameBody) frameBody);
-			}
+			frameBody = toID3v23FrameBody((AbstractID3v2FrameBody) frameBody);
 		} finally {
 			// Update position of main buffer, so no attempt is made to reread these bytes
 			byteBuffer.position(byteBuffer.position() + realFrameSize);
 		}
 	}
 
+	@Override
+	protected AbstractID3v2FrameBody decodeBody(final String identifier, final ByteBuffer byteBuffer, final int frameSize) throws InvalidFrameException, InvalidDataTypeException {
+		return toID3v23FrameBody(readBody(identifier, byteBuffer, frameSize));
+	}
+
+	// TODO code seems to assume that if the frame created is not a v23FrameBody
+	// it should be deprecated, but what about if somehow a V24Frame has been put into a V23 Tag, shouldn't
+	// it then be created as FrameBodyUnsupported
+	private AbstractID3v2FrameBody toID3v23FrameBody(final AbstractID3v2FrameBody body) {
+		if (body instanceof ID3v23FrameBody)
+			return body;
+		logger.config(getLoggingFilename() + ":Converted frameBody with:" + identifier + " to deprecated frameBody");
+		return new FrameBodyDeprecated(body);
+	}
+
 	/**
 	 * Write the frame to bufferOutputStream
 	 * 
@@ -411,17 +440,16 @@ public class ID3v23Frame extends AbstractID3v2Frame {
 		// write body
 		final ByteBuffer headerBuffer = ByteBuffer.allocate(FRAME_HEADER_SIZE);
 
-		// Write Frame Body Data
-		final ByteArrayOutputStream bodyOutputStream = new ByteArrayOutputStream();
-		((AbstractID3v2FrameBody) frameBody).write(bodyOutputStream);
+		// Write Frame Body Data, unchanged if it was never decoded
+		final byte[] bodyBuffer = getBodyBytes();
 		// Write Frame Header write Frame ID
 		if (getIdentifier().length() == 3)
 			identifier = identifier + ' ';
 		headerBuffer.put(Utils.getDefaultBytes(getIdentifier(), "ISO-8859-1"), 0, FRAME_ID_SIZE);
 		// Write Frame Size
-		final int size = frameBody.getSize();
+		final int size = bodyBuffer.length;
 		logger.fine("Frame Size Is:" + size);
-		headerBuffer.putInt(frameBody.getSize());
+		headerBuffer.putInt(size);
 
 		// Write the Flags
 		// Status Flags:leave as they were when we read
@@ -445,7 +473,7 @@ public class ID3v23Frame extends AbstractID3v2Frame {
 				tagBuffer.write(groupIdentifier);
 
 			// Add body to the Byte Array Output Stream
-			tagBuffer.write(bodyOutputStream.toByteArray());
+			tagBuffer.write(bodyBuffer);
 		} catch (final IOException ioe) {
 			// This could never happen coz not writing to file, so convert to RuntimeException
 			throw new RuntimeException(ioe);
@@ -675,7 +703,7 @@ public class ID3v23Frame extends AbstractID3v2Frame {
 		MP3File.getStructureFormatter().addElement(TYPE_FRAME_SIZE, frameSize);
 		statusFlags.createStructure();
 		encodingFlags.createStructure();
-		frameBody.createStructure();
+		getBody().createStructure();
 		MP3File.getStructureFormatter().closeHeadingElement(TYPE_FRAME);
 	}
 
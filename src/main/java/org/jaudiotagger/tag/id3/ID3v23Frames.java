@@ -118,7 +118,7 @@ public class ID3v23Frames extends ID3Frames {
 	public static final String FRAME_ID_V3_COMPOSER_SORT_ORDER_ITUNES = "TSOC";
 	public static final String FRAME_ID_V3_SET_SUBTITLE = "TSST";
 
-	private static ID3v23Frames id3v23Frames;
+	private static volatile ID3v23Frames id3v23Frames;
 
 	/**
 	 * Maps from Generic key to ID3 key
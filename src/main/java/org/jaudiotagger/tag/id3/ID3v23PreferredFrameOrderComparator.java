@@ -8,7 +8,7 @@ import java.util.List;
  * Orders frame Ids so that the most important frames are writtne first
  */
 public class ID3v23PreferredFrameOrderComparator implements Comparator<String> {
-	private static ID3v23PreferredFrameOrderComparator comparator;
+	private static volatile ID3v23PreferredFrameOrderComparator comparator;
 	private static List<String> frameIdsInPreferredOrder = new ArrayList<String>();
 	static {
 		// these are the key ones we want at the top
@@ -25,9 +25,11 @@ import java.util.Comparator;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Set;
 import java.util.logging.Level;
 
 import org.jaudiotagger.FileConstants;
+import org.jaudiotagger.audio.ReadOptions;
 import org.jaudiotagger.audio.mp3.MP3File;
 import org.jaudiotagger.logging.ErrorMessage;
 import org.jaudiotagger.tag.EmptyFrameException;
@@ -293,8 +295,24 @@ public class ID3v23Tag extends AbstractID3v2Tag {
 	 * @throws TagException
 	 */
 	public ID3v23Tag(final ByteBuffer buffer, final String loggingFilename) throws TagException {
+		this(buffer, loggingFilename, ReadOptions.ALL);
+	}
+
+	/**
+	 * Creates a new ID3v2_3 datatype keeping only the frames that hold the fields required by readOptions, the frames kept are decoded when accessed.
+	 * 
+	 * @param buffer
+	 * @param loggingFilename
+	 * @param readOptions
+	 * @throws TagException
+	 */
+	public ID3v23Tag(final ByteBuffer buffer, final String loggingFilename, final ReadOptions readOptions) throws TagException {
 		setLoggingFilename(loggingFilename);
+		// Frames not required are dropped so there is no point decoding them
+		if (!readOptions.isAllFieldsRequired())
+			lazyFrameDecoding = true;
 		this.read(buffer);
+		retainFields(readOptions);
 	}
 
 	/**
@@ -509,7 +527,7 @@ public class ID3v23Tag extends AbstractID3v2Tag {
 			try {
 				// Read Frame
 				logger.finest(getLoggingFilename() + ":Looking for next frame at:" + byteBuffer.position());
-				next = new ID3v23Frame(byteBuffer, getLoggingFilename());
+				next = new ID3v23Frame(byteBuffer, getLoggingFilename(), lazyFrameDecoding);
 				id = next.getIdentifier();
 				loadFrameIntoMap(id, next);
 			}
@@ -948,6 +966,18 @@ public class ID3v23Tag extends AbstractID3v2Tag {
 			return super.getValue(genericKey, index);
 	}
 
+	/**
+	 * The year is held by the aggregated TYER and TDAT frames when both are present
+	 */
+	@Override
+	protected void addFrameIds(final FieldKey genericKey, final Set<String> frameIds) throws KeyNotFoundException {
+		super.addFrameIds(genericKey, frameIds);
+		if (genericKey == FieldKey.YEAR) {
+			frameIds.add(TyerTdatAggregatedFrame.ID_TYER_TDAT);
+			frameIds.add(ID3v23Frames.FRAME_ID_V3_TDAT);
+		}
+	}
+
 	@Override
 	protected void loadFrameIntoSpecifiedMap(final HashMap<String, Object> map, final String frameId, final AbstractID3v2Frame frame) {
 		if (!(frameId.equals(ID3v23Frames.FRAME_ID_V3_TYER)) && !(frameId.equals(ID3v23Frames.FRAME_ID_V3_TDAT))) {
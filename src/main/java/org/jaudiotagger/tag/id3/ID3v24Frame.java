@@ -295,6 +295,22 @@ public class ID3v24Frame extends AbstractID3v2Frame {
 		read(byteBuffer);
 	}
 
+	/**
+	 * Creates a new ID3v24Frame dataType by reading from byteBuffer, deferring decoding of the body until it is accessed
+	 * if lazyBodyDecoding is set.
+	 * 
+	 * @param byteBuffer
+	 *            to read from
+	 * @param loggingFilename
+	 * @param lazyBodyDecoding
+	 * @throws org.jaudiotagger.tag.InvalidFrameException
+	 */
+	public ID3v24Frame(final ByteBuffer byteBuffer, final String loggingFilename, final boolean lazyBodyDecoding) throws InvalidFrameException, InvalidDataTypeException {
+		setLoggingFilename(loggingFilename);
+		this.lazyBodyDecoding = lazyBodyDecoding;
+		read(byteBuffer);
+	}
+
 	/**
 	 * Creates a new ID3v24Frame datatype by reading from byteBuffer.
 	 * 
@@ -333,7 +349,7 @@ public class ID3v24Frame extends AbstractID3v2Frame {
 	 */
 	@Override
 	public int getSize() {
-		return frameBody.getSize() + ID3v24Frame.FRAME_HEADER_SIZE;
+		return getBodySize() + ID3v24Frame.FRAME_HEADER_SIZE;
 	}
 
 	/**
@@ -553,18 +569,30 @@ public class ID3v24Frame extends AbstractID3v2Frame {
 				frameBodyBuffer = byteBuffer.slice();
 				frameBodyBuffer.limit(realFrameSize);
 				frameBody = readEncryptedBody(identifier, byteBuffer, frameSize);
+			} else if (lazyBodyDecoding && !((EncodingFlags) encodingFlags).isUnsynchronised() && !((EncodingFlags) encodingFlags).isDataLengthIndicator()) {
+				deferBody(identifier, frameBodyBuffer);
+				return;
 			} else
 				frameBody = readBody(identifier, frameBodyBuffer, syncSize);
-			if (!(frameBody instanceof ID3v24FrameBody)) {
-				logger.config(getLoggingFilename() + ":" + "Converted frame body with:" + identifier + " to deprecated framebody");
-				frameBody = new FrameBodyDeprecated((AbstractID3v2FrameBody) frameBody);
-			}
+			frameBody = toID3v24FrameBody((AbstractID3v2FrameBody) frameBody);
 		} finally {
 			// Update position of main buffer, so no attempt is made to reread these bytes
 			byteBuffer.position(byteBuffer.position() + realFrameSize);
 		}
 	}
 
+	@Override
+	protected AbstractID3v2FrameBody decodeBody(final String identifier, final ByteBuffer byteBuffer, final int frameSize) throws InvalidFrameException, InvalidDataTypeException {
+		return toID3v24FrameBody(readBody(identifier, byteBuffer, frameSize));
+	}
+
+	private AbstractID3v2FrameBody toID3v24FrameBody(final AbstractID3v2FrameBody body) {
+		if (body instanceof ID3v24FrameBody)
+			return body;
+		logger.config(getLoggingFilename() + ":" + "Converted frame body with:" + identifier + " to deprecated framebody");
+		return new FrameBodyDeprecated(body);
+	}
+
 	/**
 	 * Write the frame. Writes the frame header but writing the data is delegated to the frame body.
 	 * 
@@ -580,12 +608,10 @@ public class ID3v24Frame extends AbstractID3v2Frame {
 		// write bodybuffer
 		final ByteBuffer headerBuffer = ByteBuffer.allocate(FRAME_HEADER_SIZE);
 
-		// Write Frame Body Data to a new stream
-		final ByteArrayOutputStream bodyOutputStream = new ByteArrayOutputStream();
-		((AbstractID3v2FrameBody) frameBody).write(bodyOutputStream);
+		// Write Frame Body Data, unchanged if it was never decoded
+		byte[] bodyBuffer = getBodyBytes();
 
 		// Does it need unsynchronizing, and are we allowing unsychronizing
-		byte[] bodyBuffer = bodyOutputStream.toByteArray();
 		unsynchronization = TagOptionSingleton.getInstance().isUnsyncTags() && ID3Unsynchronization.requiresUnsynchronization(bodyBuffer);
 		if (unsynchronization) {
 			bodyBuffer = ID3Unsynchronization.unsynchronize(bodyBuffer);
@@ -940,7 +966,7 @@ public class ID3v24Frame extends AbstractID3v2Frame {
 		MP3File.getStructureFormatter().addElement(TYPE_FRAME_SIZE, frameSize);
 		statusFlags.createStructure();
 		encodingFlags.createStructure();
-		frameBody.createStructure();
+		getBody().createStructure();
 		MP3File.getStructureFormatter().closeHeadingElement(TYPE_FRAME);
 	}
 
@@ -94,7 +94,7 @@ import java.util.List;
  * Orders frame Ids so that the most important frames are writtne first
  */
 public class ID3v24PreferredFrameOrderComparator implements Comparator<String> {
-	private static ID3v24PreferredFrameOrderComparator comparator;
+	private static volatile ID3v24PreferredFrameOrderComparator comparator;
 	private static List frameIdsInPreferredOrder = new ArrayList<String>();
 
 	static {
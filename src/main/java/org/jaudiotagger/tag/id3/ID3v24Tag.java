@@ -28,6 +28,7 @@ import java.util.List;
 import java.util.logging.Level;
 
 import org.jaudiotagger.FileConstants;
+import org.jaudiotagger.audio.ReadOptions;
 import org.jaudiotagger.audio.mp3.MP3File;
 import org.jaudiotagger.logging.ErrorMessage;
 import org.jaudiotagger.tag.EmptyFrameException;
@@ -549,11 +550,27 @@ public class ID3v24Tag extends AbstractID3v2Tag {
 	 * @throws TagException
 	 */
 	public ID3v24Tag(final ByteBuffer buffer, final String loggingFilename) throws TagException {
+		this(buffer, loggingFilename, ReadOptions.ALL);
+	}
+
+	/**
+	 * Creates a new ID3v2_4 datatype keeping only the frames that hold the fields required by readOptions, the frames kept are decoded when accessed.
+	 * 
+	 * @param buffer
+	 * @param loggingFilename
+	 * @param readOptions
+	 * @throws TagException
+	 */
+	public ID3v24Tag(final ByteBuffer buffer, final String loggingFilename, final ReadOptions readOptions) throws TagException {
 		frameMap = new LinkedHashMap<String, Object>();
 		encryptedFrameMap = new LinkedHashMap();
 
 		setLoggingFilename(loggingFilename);
+		// Frames not required are dropped so there is no point decoding them
+		if (!readOptions.isAllFieldsRequired())
+			lazyFrameDecoding = true;
 		this.read(buffer);
+		retainFields(readOptions);
 	}
 
 	/**
@@ -772,7 +789,7 @@ public class ID3v24Tag extends AbstractID3v2Tag {
 			try {
 				// Read Frame
 				logger.finest(getLoggingFilename() + ":" + "looking for next frame at:" + byteBuffer.position());
-				next = new ID3v24Frame(byteBuffer, getLoggingFilename());
+				next = new ID3v24Frame(byteBuffer, getLoggingFilename(), lazyFrameDecoding);
 				id = next.getIdentifier();
 				loadFrameIntoMap(id, next);
 			}
@@ -27,11 +27,11 @@ import java.io.ByteArrayOutputStream;
 import java.io.UnsupportedEncodingException;
 import java.net.URLEncoder;
 import java.nio.ByteBuffer;
-import java.nio.charset.Charset;
 import java.nio.charset.CharsetEncoder;
 
 import org.jaudiotagger.logging.ErrorMessage;
 import org.jaudiotagger.tag.InvalidTagException;
+import org.jaudiotagger.tag.datatype.CharsetCodecs;
 import org.jaudiotagger.tag.datatype.DataTypes;
 import org.jaudiotagger.tag.datatype.StringSizeTerminated;
 import org.jaudiotagger.tag.id3.valuepair.TextEncoding;
@@ -108,7 +108,7 @@ public abstract class AbstractFrameBodyUrlLink extends AbstractID3v2FrameBody {
 	 */
 	@Override
 	public void write(final ByteArrayOutputStream tagBuffer) {
-		final CharsetEncoder encoder = Charset.forName(TextEncoding.CHARSET_ISO_8859_1).newEncoder();
+		final CharsetEncoder encoder = CharsetCodecs.getEncoder(TextEncoding.CHARSET_ISO_8859_1);
 		final String origUrl = getUrlLink();
 		if (!encoder.canEncode(origUrl)) {
 			// ALL W Frames only support ISO-8859-1 for the url itself, if unable to encode let us assume
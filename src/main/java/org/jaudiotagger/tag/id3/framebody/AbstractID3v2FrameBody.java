@@ -26,6 +26,7 @@ package org.jaudiotagger.tag.id3.framebody;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.nio.BufferUnderflowException;
 import java.nio.ByteBuffer;
 
 import org.jaudiotagger.audio.mp3.MP3File;
@@ -135,17 +136,18 @@ public abstract class AbstractID3v2FrameBody extends AbstractTagFrameBody {
 	 * @throws InvalidFrameException
 	 *             if unable to construct a frameBody from the ByteBuffer
 	 */
-	// TODO why don't we just slice byteBuffer, set limit to size and convert readByteArray to take a ByteBuffer
-	// then we wouldn't have to temporary allocate space for the buffer, using lots of needless memory
-	// and providing extra work for the garbage collector.
 	@Override
 	public void read(final ByteBuffer byteBuffer) throws InvalidTagException {
 		final int size = getSize();
 		logger.config("Reading body for" + this.getIdentifier() + ":" + size);
 
-		// Allocate a buffer to the size of the Frame Body and read from file
-		final byte[] buffer = new byte[size];
-		byteBuffer.get(buffer);
+		// Read the datatypes directly from a slice of the tag buffer limited to the size of the Frame Body rather than
+		// copying the body into an array, the position of byteBuffer is moved past the body
+		if (size > byteBuffer.remaining())
+			throw new BufferUnderflowException();
+		final ByteBuffer buffer = byteBuffer.slice();
+		buffer.limit(size);
+		byteBuffer.position(byteBuffer.position() + size);
 
 		// Offset into buffer, incremented by length of previous dataType
 		// this offset is only used internally to decide where to look for the next
@@ -168,7 +170,7 @@ public abstract class AbstractID3v2FrameBody extends AbstractTagFrameBody {
 			// Try and load it with data from the Buffer
 			// if it fails frame is invalid
 			try {
-				object.readByteArray(buffer, offset);
+				object.read(buffer, offset);
 			} catch (final InvalidDataTypeException e) {
 				logger.warning("Problem reading datatype within Frame Body:" + e.getMessage());
 				throw e;
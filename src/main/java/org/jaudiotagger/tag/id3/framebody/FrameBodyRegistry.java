@@ -0,0 +1,128 @@
+package org.jaudiotagger.tag.id3.framebody;
+
+import java.lang.reflect.Constructor;
+import java.nio.ByteBuffer;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.logging.Logger;
+
+import org.jaudiotagger.tag.id3.ID3v22Frames;
+import org.jaudiotagger.tag.id3.ID3v23Frames;
+import org.jaudiotagger.tag.id3.ID3v24Frames;
+
+/**
+ * Maps frame identifiers to the frame body class and constructors used to create them.
+ * <p/>
+ * The frame body for an identifier is the class named FrameBody followed by the identifier, looking the class and its
+ * constructors up by reflection for every frame read was a significant part of the cost of reading a tag. So the
+ * lookups are done once for every identifier known to {@link ID3v22Frames}, {@link ID3v23Frames} and
+ * {@link ID3v24Frames} when this class is initialized, any other identifier is resolved the first time it is seen.
+ * Only identifiers that have a frame body are remembered, so the registry can hold no more entries than there are frame
+ * body classes however many unknown identifiers are read from files.
+ */
+public final class FrameBodyRegistry {
+	// Logger Object
+	public static Logger logger = Logger.getLogger("org.jaudiotagger.tag.id3");
+
+	private static final String FRAME_BODY_CLASS_PREFIX = "org.jaudiotagger.tag.id3.framebody.FrameBody";
+
+	/**
+	 * Class and constructors for one identifier, all null if there is no frame body for the identifier
+	 */
+	private static final class Entry {
+		private static final Entry NONE = new Entry(null, null, null);
+
+		private final Class<? extends AbstractID3v2FrameBody> frameBodyClass;
+		private final Constructor<? extends AbstractID3v2FrameBody> emptyConstructor;
+		private final Constructor<? extends AbstractID3v2FrameBody> readConstructor;
+
+		private Entry(final Class<? extends AbstractID3v2FrameBody> frameBodyClass, final Constructor<? extends AbstractID3v2FrameBody> emptyConstructor, final Constructor<? extends AbstractID3v2FrameBody> readConstructor) {
+			this.frameBodyClass = frameBodyClass;
+			this.emptyConstructor = emptyConstructor;
+			this.readConstructor = readConstructor;
+		}
+	}
+
+	private static final ConcurrentMap<String, Entry> entries = new ConcurrentHashMap<String, Entry>();
+
+	static {
+		register(ID3v22Frames.getInstanceOf().getIdToValueMap().keySet());
+		register(ID3v23Frames.getInstanceOf().getIdToValueMap().keySet());
+		register(ID3v24Frames.getInstanceOf().getIdToValueMap().keySet());
+	}
+
+	private FrameBodyRegistry() {}
+
+	private static void register(final Set<String> identifiers) {
+		for (final String identifier : identifiers)
+			getEntry(identifier);
+	}
+
+	private static Entry getEntry(final String identifier) {
+		Entry entry = entries.get(identifier);
+		if (entry == null) {
+			entry = createEntry(identifier);
+			if (entry == Entry.NONE)
+				return entry;
+			final Entry existing = entries.putIfAbsent(identifier, entry);
+			if (existing != null)
+				entry = existing;
+		}
+		return entry;
+	}
+
+	private static Entry createEntry(final String identifier) {
+		final Class<? extends AbstractID3v2FrameBody> frameBodyClass;
+		try {
+			frameBodyClass = Class.forName(FRAME_BODY_CLASS_PREFIX + identifier).asSubclass(AbstractID3v2FrameBody.class);
+		} catch (final ClassNotFoundException cnfe) {
+			logger.finest("No frame body for identifier:" + identifier);
+			return Entry.NONE;
+		} catch (final ClassCastException cce) {
+			logger.finest("Not a frame body for identifier:" + identifier);
+			return Entry.NONE;
+		}
+		return new Entry(frameBodyClass, getConstructor(frameBodyClass), getConstructor(frameBodyClass, ByteBuffer.class, Integer.TYPE));
+	}
+
+	private static Constructor<? extends AbstractID3v2FrameBody> getConstructor(final Class<? extends AbstractID3v2FrameBody> frameBodyClass, final Class<?>... parameterTypes) {
+		try {
+			return frameBodyClass.getConstructor(parameterTypes);
+		} catch (final NoSuchMethodException nsme) {
+			return null;
+		}
+	}
+
+	/**
+	 * @return the number of identifiers remembered
+	 */
+	static int size() {
+		return entries.size();
+	}
+
+	/**
+	 * @param identifier
+	 * @return the frame body class for this identifier, or null if there isn't one
+	 */
+	public static Class<? extends AbstractID3v2FrameBody> getFrameBodyClass(final String identifier) {
+		return getEntry(identifier).frameBodyClass;
+	}
+
+	/**
+	 * @param identifier
+	 * @return the constructor that creates an empty frame body for this identifier, or null if there isn't one
+	 */
+	public static Constructor<? extends AbstractID3v2FrameBody> getEmptyConstructor(final String identifier) {
+		return getEntry(identifier).emptyConstructor;
+	}
+
+	/**
+	 * @param identifier
+	 * @return the constructor that reads a frame body for this identifier from a (ByteBuffer, frameSize), or null if
+	 *         there isn't one
+	 */
+	public static Constructor<? extends AbstractID3v2FrameBody> getReadConstructor(final String identifier) {
+		return getEntry(identifier).readConstructor;
+	}
+}
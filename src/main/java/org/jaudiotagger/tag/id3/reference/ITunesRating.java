@@ -6,7 +6,7 @@ package org.jaudiotagger.tag.id3.reference;
  * Rating=0 → POPM=0 Rating=1 → POPM=20 Rating=2 → POPM=40 Rating=3 → POPM=60 Rating=4 → POPM=80 Rating=5 → POPM=100
  */
 public class ITunesRating extends ID3Rating {
-	private static ID3Rating rating = null;
+	private static volatile ID3Rating rating = null;
 
 	private ITunesRating() {}
 
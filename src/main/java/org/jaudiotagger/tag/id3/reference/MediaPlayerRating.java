@@ -6,7 +6,7 @@ package org.jaudiotagger.tag.id3.reference;
  * Rating=0 → POPM=0 Rating=1 → POPM=1 Rating=2 → POPM=64 Rating=3 → POPM=128 Rating=4 → POPM=196 Rating=5 → POPM=255
  */
 public class MediaPlayerRating extends ID3Rating {
-	private static ID3Rating rating = null;
+	private static volatile ID3Rating rating = null;
 
 	private MediaPlayerRating() {}
 
@@ -25,7 +25,7 @@ package org.jaudiotagger.tag.id3.valuepair;
 import org.jaudiotagger.tag.datatype.AbstractIntStringValuePair;
 
 public class ChannelTypes extends AbstractIntStringValuePair {
-	private static ChannelTypes channelTypes;
+	private static volatile ChannelTypes channelTypes;
 
 	public static ChannelTypes getInstanceOf() {
 		if (channelTypes == null)
@@ -24,7 +24,7 @@ package org.jaudiotagger.tag.id3.valuepair;
 import org.jaudiotagger.tag.datatype.AbstractIntStringValuePair;
 
 public class EventTimingTypes extends AbstractIntStringValuePair {
-	private static EventTimingTypes eventTimingTypes;
+	private static volatile EventTimingTypes eventTimingTypes;
 
 	public static EventTimingTypes getInstanceOf() {
 		if (eventTimingTypes == null)
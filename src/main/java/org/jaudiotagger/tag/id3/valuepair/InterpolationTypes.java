@@ -24,7 +24,7 @@ package org.jaudiotagger.tag.id3.valuepair;
 import org.jaudiotagger.tag.datatype.AbstractIntStringValuePair;
 
 public class InterpolationTypes extends AbstractIntStringValuePair {
-	private static InterpolationTypes interpolationTypes;
+	private static volatile InterpolationTypes interpolationTypes;
 
 	public static InterpolationTypes getInstanceOf() {
 		if (interpolationTypes == null)
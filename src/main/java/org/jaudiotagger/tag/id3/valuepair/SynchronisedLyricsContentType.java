@@ -6,7 +6,7 @@ import org.jaudiotagger.tag.datatype.AbstractIntStringValuePair;
  * Content Type used by Sysnchronised Lyrics Frame (SYLT)
  */
 public class SynchronisedLyricsContentType extends AbstractIntStringValuePair {
-	private static SynchronisedLyricsContentType eventTimingTypes;
+	private static volatile SynchronisedLyricsContentType eventTimingTypes;
 
 	public static SynchronisedLyricsContentType getInstanceOf() {
 		if (SynchronisedLyricsContentType.eventTimingTypes == null)
@@ -53,7 +53,7 @@ public class TextEncoding extends AbstractIntStringValuePair {
 	// The number of bytes used to hold the text encoding field size
 	public static final int TEXT_ENCODING_FIELD_SIZE = 1;
 
-	private static TextEncoding textEncodings;
+	private static volatile TextEncoding textEncodings;
 
 	public static TextEncoding getInstanceOf() {
 		if (textEncodings == null)
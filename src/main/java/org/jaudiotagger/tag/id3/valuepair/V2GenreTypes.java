@@ -13,7 +13,7 @@ import org.jaudiotagger.tag.reference.GenreTypes;
  * </p>
  */
 public class V2GenreTypes {
-	private static V2GenreTypes v2GenresTypes;
+	private static volatile V2GenreTypes v2GenresTypes;
 
 	private V2GenreTypes() {
 
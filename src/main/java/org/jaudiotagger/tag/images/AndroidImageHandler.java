@@ -9,7 +9,7 @@ import java.io.IOException;
  * TODO need to provide Android compatible implementations
  */
 public class AndroidImageHandler implements ImageHandler {
-	private static AndroidImageHandler instance;
+	private static volatile AndroidImageHandler instance;
 
 	public static AndroidImageHandler getInstanceOf() {
 		if (instance == null)
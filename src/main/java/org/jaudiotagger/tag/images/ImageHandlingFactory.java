@@ -7,8 +7,8 @@ import org.jaudiotagger.tag.TagOptionSingleton;
  * different to those provided by Android
  */
 public class ImageHandlingFactory {
-	private static StandardImageHandler standardImageHandler;
-	private static AndroidImageHandler androidImageHandler;
+	private static volatile StandardImageHandler standardImageHandler;
+	private static volatile AndroidImageHandler androidImageHandler;
 
 	public static ImageHandler getInstance() {
 		// Normal
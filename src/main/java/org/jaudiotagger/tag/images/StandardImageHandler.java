@@ -17,7 +17,7 @@ import org.jaudiotagger.tag.id3.valuepair.ImageFormats;
  * Image Handling used when running on standard JVM
  */
 public class StandardImageHandler implements ImageHandler {
-	private static StandardImageHandler instance;
+	private static volatile StandardImageHandler instance;
 
 	public static StandardImageHandler getInstanceOf() {
 		if (instance == null)
@@ -25,7 +25,7 @@ import org.jaudiotagger.tag.datatype.AbstractStringStringValuePair;
 
 public class Lyrics3v2Fields extends AbstractStringStringValuePair {
 
-	private static Lyrics3v2Fields lyrics3Fields;
+	private static volatile Lyrics3v2Fields lyrics3Fields;
 
 	/**
 	 * CRLF int set
@@ -138,6 +138,14 @@ public class Mp4Tag extends AbstractTag {
 		tagFieldToMp4Field.put(FieldKey.COUNTRY, Mp4FieldKey.COUNTRY);
 	}
 
+	/**
+	 * @param genericKey
+	 * @return the mp4 field the generic key is mapped to, or null if not supported
+	 */
+	public static Mp4FieldKey getMp4FieldKey(final FieldKey genericKey) {
+		return tagFieldToMp4Field.get(genericKey);
+	}
+
 	/**
 	 * Create genre field
 	 * <p/>
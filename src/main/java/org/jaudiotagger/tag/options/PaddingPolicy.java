@@ -0,0 +1,87 @@
+package org.jaudiotagger.tag.options;
+
+/**
+ * How much padding to reserve after the metadata when a file has to be rewritten anyway because the metadata no longer
+ * fits, so that later edits that make the metadata a little larger can be written in place.
+ * <p/>
+ * The padding is a fixed number of bytes plus a percentage of the size of the metadata, and never less than the
+ * minimum. Padding is only added when the audio data has to be moved, not when the metadata fits in the existing space.
+ */
+public final class PaddingPolicy {
+	/**
+	 * Never add padding
+	 */
+	public static final PaddingPolicy NONE = new PaddingPolicy(0, 0, 0);
+
+	private final int fixedSize;
+	private final int percentageOfTag;
+	private final int minimumSize;
+
+	/**
+	 * @param fixedSize
+	 *            bytes of padding
+	 * @param percentageOfTag
+	 *            additional padding as a percentage of the size of the metadata
+	 * @param minimumSize
+	 *            least padding to reserve
+	 */
+	public PaddingPolicy(final int fixedSize, final int percentageOfTag, final int minimumSize) {
+		if (fixedSize < 0 || percentageOfTag < 0 || minimumSize < 0)
+			throw new IllegalArgumentException("Padding cannot be negative:" + fixedSize + ":" + percentageOfTag + ":" + minimumSize);
+		this.fixedSize = fixedSize;
+		this.percentageOfTag = percentageOfTag;
+		this.minimumSize = minimumSize;
+	}
+
+	/**
+	 * @param size
+	 * @return policy always reserving size bytes
+	 */
+	public static PaddingPolicy fixed(final int size) {
+		return new PaddingPolicy(size, 0, 0);
+	}
+
+	/**
+	 * @param percentage
+	 * @return policy reserving a percentage of the size of the metadata
+	 */
+	public static PaddingPolicy percentageOfTag(final int percentage) {
+		return new PaddingPolicy(0, percentage, 0);
+	}
+
+	/**
+	 * @param percentage
+	 * @param size
+	 * @return policy reserving a percentage of the size of the metadata but at least size bytes
+	 */
+	public static PaddingPolicy percentageOfTag(final int percentage, final int size) {
+		return new PaddingPolicy(0, percentage, size);
+	}
+
+	/**
+	 * @param tagSize
+	 *            size of the metadata being written
+	 * @return bytes of padding to reserve
+	 */
+	public int getPaddingSize(final int tagSize) {
+		final long padding = fixedSize + (long) tagSize * percentageOfTag / 100;
+		return (int) Math.min(Integer.MAX_VALUE, Math.max(minimumSize, padding));
+	}
+
+	public int getFixedSize() {
+		return fixedSize;
+	}
+
+	public int getPercentageOfTag() {
+		return percentageOfTag;
+	}
+
+	public int getMinimumSize() {
+		return minimumSize;
+	}
+
+	@Override
+	public String toString() {
+		return "PaddingPolicy fixed:" + fixedSize + ":percentage:" + percentageOfTag + ":minimum:" + minimumSize;
+	}
+}
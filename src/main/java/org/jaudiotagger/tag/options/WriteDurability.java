@@ -0,0 +1,25 @@
+package org.jaudiotagger.tag.options;
+
+/**
+ * How much effort is made to ensure changes are on disk before a write returns.
+ * <p/>
+ * NONE leaves it to the operating system to flush changes, FSYNC_ON_CLOSE syncs each modified file once just before
+ * it is closed, SYNC_EVERY_WRITE opens files in synchronous mode so every individual write (and the file metadata) is
+ * synced. Bulk retagging jobs can use NONE to trade per file durability for throughput.
+ */
+public enum WriteDurability {
+	NONE("rw"), FSYNC_ON_CLOSE("rw"), SYNC_EVERY_WRITE("rws");
+
+	private final String fileMode;
+
+	WriteDurability(final String fileMode) {
+		this.fileMode = fileMode;
+	}
+
+	/**
+	 * @return mode to use when opening a RandomAccessFile for writing
+	 */
+	public String getFileMode() {
+		return fileMode;
+	}
+}
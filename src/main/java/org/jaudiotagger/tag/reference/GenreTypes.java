@@ -44,7 +44,7 @@ public class GenreTypes extends AbstractIntStringValuePair {
 		return MAX_STANDARD_GENRE_ID;
 	}
 
-	private static GenreTypes genreTypes;
+	private static volatile GenreTypes genreTypes;
 
 	public static GenreTypes getInstanceOf() {
 		if (genreTypes == null)
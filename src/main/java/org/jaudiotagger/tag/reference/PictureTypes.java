@@ -32,7 +32,7 @@ import org.jaudiotagger.tag.datatype.AbstractIntStringValuePair;
  * Picture fields.
  */
 public class PictureTypes extends AbstractIntStringValuePair {
-	private static PictureTypes pictureTypes;
+	private static volatile PictureTypes pictureTypes;
 
 	public static PictureTypes getInstanceOf() {
 		if (pictureTypes == null)
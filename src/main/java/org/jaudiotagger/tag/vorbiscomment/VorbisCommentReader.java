@@ -20,12 +20,18 @@
 package org.jaudiotagger.tag.vorbiscomment;
 
 import java.io.IOException;
+import java.nio.charset.Charset;
+import java.util.HashSet;
+import java.util.Set;
 import java.util.logging.Logger;
 
+import org.jaudiotagger.audio.ReadOptions;
 import org.jaudiotagger.audio.exceptions.CannotReadException;
 import org.jaudiotagger.audio.generic.Utils;
 import org.jaudiotagger.audio.ogg.util.VorbisHeader;
 import org.jaudiotagger.logging.ErrorMessage;
+import org.jaudiotagger.tag.FieldKey;
+import org.jaudiotagger.tag.id3.valuepair.TextEncoding;
 
 /**
  * Create the VorbisCommentTag by reading from the raw packet data
@@ -67,6 +73,8 @@ public class VorbisCommentReader {
 	 */
 	private static final int JAUDIOTAGGER_MAX_COMMENT_LENGTH = 10000000;
 
+	private static final Charset ISO_8859_1 = Charset.forName(TextEncoding.CHARSET_ISO_8859_1);
+
 	public VorbisCommentReader() {
 
 	}
@@ -79,7 +87,21 @@ public class VorbisCommentReader {
 	 * @throws CannotReadException
 	 */
 	public VorbisCommentTag read(final byte[] rawdata, final boolean isFramingBit) throws IOException, CannotReadException {
+		return read(rawdata, isFramingBit, ReadOptions.ALL);
+	}
 
+	/**
+	 * Comments for fields not required by the options are skipped without being decoded
+	 *
+	 * @param rawdata
+	 * @param isFramingBit
+	 * @param options
+	 * @return logical representation of VorbisCommentTag
+	 * @throws IOException
+	 * @throws CannotReadException
+	 */
+	public VorbisCommentTag read(final byte[] rawdata, final boolean isFramingBit, final ReadOptions options) throws IOException, CannotReadException {
+		final Set<String> requiredIds = getRequiredIds(options);
 		final VorbisCommentTag tag = new VorbisCommentTag();
 
 		byte[] b = new byte[FIELD_VENDOR_LENGTH_LENGTH];
@@ -114,6 +136,8 @@ public class VorbisCommentReader {
 			} else if (commentLength > rawdata.length) {
 				logger.warning(ErrorMessage.VORBIS_COMMENT_LENGTH_LARGE_THAN_HEADER.getMsg(commentLength, rawdata.length));
 				break;
+			} else if (requiredIds != null && !requiredIds.contains(getId(rawdata, pos, commentLength))) {
+				pos += commentLength;
 			} else {
 				b = new byte[commentLength];
 				System.arraycopy(rawdata, pos, b, 0, commentLength);
@@ -131,4 +155,38 @@ public class VorbisCommentReader {
 				throw new CannotReadException(ErrorMessage.OGG_VORBIS_NO_FRAMING_BIT.getMsg((rawdata[pos] & 0x01)));
 		return tag;
 	}
+
+	/**
+	 * @param options
+	 * @return the upper case ids of the comments to read, or null if all comments are read
+	 */
+	private static Set<String> getRequiredIds(final ReadOptions options) {
+		if (options.getFields() == null)
+			return null;
+		final Set<String> ids = new HashSet<String>();
+		for (final FieldKey key : options.getFields()) {
+			final VorbisCommentFieldKey vorbisKey = VorbisCommentTag.getVorbisCommentFieldKey(key);
+			if (vorbisKey != null)
+				ids.add(vorbisKey.getFieldName().toUpperCase());
+		}
+		if (options.isArtworkRequired()) {
+			ids.add(VorbisCommentFieldKey.METADATA_BLOCK_PICTURE.getFieldName());
+			ids.add(VorbisCommentFieldKey.COVERART.getFieldName());
+			ids.add(VorbisCommentFieldKey.COVERARTMIME.getFieldName());
+		}
+		return ids;
+	}
+
+	/**
+	 * @param rawdata
+	 * @param offset
+	 * @param length
+	 * @return the upper case id of the comment, the text before the first '='
+	 */
+	private static String getId(final byte[] rawdata, final int offset, final int length) {
+		int end = offset;
+		while (end < offset + length && rawdata[end] != '=')
+			end++;
+		return new String(rawdata, offset, end - offset, ISO_8859_1).toUpperCase();
+	}
 }
@@ -145,6 +145,14 @@ public class VorbisCommentTag extends AbstractTag {
 
 	}
 
+	/**
+	 * @param genericKey
+	 * @return the vorbis comment field the generic key is mapped to, or null if not supported
+	 */
+	public static VorbisCommentFieldKey getVorbisCommentFieldKey(final FieldKey genericKey) {
+		return tagFieldToOggField.get(genericKey);
+	}
+
 	/**
 	 * Use to construct a new tag properly initialized
 	 * 
@@ -0,0 +1,79 @@
+package org.jaudiotagger.audio;
+
+import java.io.FileNotFoundException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import junit.framework.TestCase;
+
+import org.jaudiotagger.AbstractTestCase;
+import org.jaudiotagger.tag.FieldKey;
+
+public class ConcurrentReadsTest extends TestCase {
+
+	private static final String[] SOURCES = { "testV1vbrOld0.mp3", "testV1Cbr128ID3v1v2.mp3", "test5.m4a", "test.flac", "test.ogg", "test1.wma", "test.wav" };
+	private static final int COPIES = 20;
+
+	private final List<Path> files = new ArrayList<Path>();
+
+	@Override
+	public void setUp() {
+		for (int counter = 0; counter < COPIES; counter++)
+			for (final String source : SOURCES)
+				files.add(AbstractTestCase.copyAudioToTmp(source, Paths.get(ConcurrentReadsTest.class.getSimpleName() + "-" + counter + "-" + source)));
+	}
+
+	@Override
+	public void tearDown() {
+		for (final Path file : files)
+			file.toFile().delete();
+	}
+
+	public void testConcurrentReadsMatchSequentialReads() throws Exception {
+		final ExecutorService executor = Executors.newFixedThreadPool(8);
+		try {
+			final List<Future<AudioFile>> results = AudioFileIO.readAll(files, executor);
+			assertEquals(files.size(), results.size());
+			for (int i = 0; i < files.size(); i++) {
+				final AudioFile concurrent = results.get(i).get();
+				final AudioFile sequential = AudioFileIO.read(files.get(i));
+				assertEquals(files.get(i), concurrent.getFile());
+				assertEquals(sequential.getAudioHeader().getTrackLength(), concurrent.getAudioHeader().getTrackLength());
+				assertEquals(sequential.getAudioHeader().getBitRate(), concurrent.getAudioHeader().getBitRate());
+				assertEquals(sequential.getAudioHeader().getSampleRate(), concurrent.getAudioHeader().getSampleRate());
+				if (sequential.getTag() != null)
+					assertEquals(sequential.getTag().getFirst(FieldKey.TITLE), concurrent.getTag().getFirst(FieldKey.TITLE));
+			}
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	public void testFailureIsReportedPerFile() throws Exception {
+		final List<Path> toRead = new ArrayList<Path>();
+		toRead.add(files.get(0));
+		toRead.add(Paths.get("doesnotexist.mp3"));
+		toRead.add(files.get(1));
+
+		final ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			final List<Future<AudioFile>> results = AudioFileIO.readAll(toRead, executor);
+			assertNotNull(results.get(0).get());
+			try {
+				results.get(1).get();
+				fail("Expected read of missing file to fail");
+			} catch (final ExecutionException ee) {
+				assertTrue(ee.getCause() instanceof FileNotFoundException);
+			}
+			assertNotNull(results.get(2).get());
+		} finally {
+			executor.shutdown();
+		}
+	}
+}
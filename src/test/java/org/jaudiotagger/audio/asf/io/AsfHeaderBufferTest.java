@@ -0,0 +1,70 @@
+package org.jaudiotagger.audio.asf.io;
+
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+import junit.framework.TestCase;
+
+import org.jaudiotagger.AbstractTestCase;
+import org.jaudiotagger.audio.AudioFile;
+import org.jaudiotagger.audio.AudioFileIO;
+import org.jaudiotagger.audio.ReadOptions;
+import org.jaudiotagger.audio.asf.data.AsfHeader;
+import org.jaudiotagger.tag.FieldKey;
+
+/**
+ * Tests the ASF header object is read once and the rest of the file is copied unchanged when writing.
+ */
+public class AsfHeaderBufferTest extends TestCase {
+
+	private static AsfHeaderBuffer read(final Path file) throws Exception {
+		final FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+		try {
+			return AsfHeaderBuffer.read(channel, 0);
+		} finally {
+			channel.close();
+		}
+	}
+
+	public void testHeaderObjectRead() throws Exception {
+		final Path testFile = AbstractTestCase.copyAudioToTmp("test1.wma", Paths.get("testAsfHeaderBuffer.wma"));
+		final AsfHeaderBuffer buffer = read(testFile);
+		assertNotNull(buffer);
+		final AsfHeader header = AsfHeaderReader.readHeader(testFile);
+		assertEquals(header.getChunkEnd(), buffer.getSize());
+		assertEquals(header.getChunkCount(), AsfHeaderReader.readTagHeader(buffer).getChunkCount());
+	}
+
+	public void testNotAsf() throws Exception {
+		final Path testFile = AbstractTestCase.copyAudioToTmp("test.flac", Paths.get("testAsfHeaderBufferNotAsf.wma"));
+		assertNull(read(testFile));
+	}
+
+	public void testAudioHeaderOnly() throws Exception {
+		final Path testFile = AbstractTestCase.copyAudioToTmp("test1.wma", Paths.get("testAsfHeaderBufferAudioOnly.wma"));
+		final AudioFile af = AudioFileIO.read(testFile, ReadOptions.AUDIO_HEADER_ONLY);
+		assertNull(af.getTag());
+		assertEquals(AudioFileIO.read(testFile).getAudioHeader().getTrackLength(), af.getAudioHeader().getTrackLength());
+	}
+
+	public void testDataCopiedUnchangedOnWrite() throws Exception {
+		final Path testFile = AbstractTestCase.copyAudioToTmp("test1.wma", Paths.get("testAsfHeaderBufferWrite.wma"));
+		final byte[] before = Files.readAllBytes(testFile);
+		final long headerSizeBefore = read(testFile).getSize();
+
+		final AudioFile af = AudioFileIO.read(testFile);
+		af.getTag().setField(FieldKey.TITLE, "a title long enough to change the size of the header object");
+		af.commit();
+
+		final byte[] after = Files.readAllBytes(testFile);
+		final long headerSizeAfter = read(testFile).getSize();
+		assertTrue(headerSizeAfter != headerSizeBefore);
+		assertEquals(before.length - headerSizeBefore, after.length - headerSizeAfter);
+		assertTrue(Arrays.equals(Arrays.copyOfRange(before, (int) headerSizeBefore, before.length), Arrays.copyOfRange(after, (int) headerSizeAfter, after.length)));
+		assertEquals("a title long enough to change the size of the header object", AudioFileIO.read(testFile).getTag().getFirst(FieldKey.TITLE));
+	}
+}
@@ -0,0 +1,109 @@
+package org.jaudiotagger.audio.generic;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import junit.framework.TestCase;
+
+import org.jaudiotagger.AbstractTestCase;
+import org.jaudiotagger.audio.AudioFile;
+import org.jaudiotagger.audio.AudioFileIO;
+import org.jaudiotagger.audio.ReadOptions;
+import org.jaudiotagger.audio.exceptions.CannotWriteException;
+import org.jaudiotagger.audio.mp3.MP3File;
+import org.jaudiotagger.tag.FieldKey;
+import org.jaudiotagger.tag.Tag;
+import org.jaudiotagger.tag.id3.ID3v23Tag;
+import org.jaudiotagger.tag.images.ArtworkFactory;
+
+/**
+ * Check only the parts of a file required by the read options are read
+ */
+public class ReadOptionsTest extends TestCase {
+
+	private static Path createTaggedFile(final String fileName, final String newFileName) throws Exception {
+		final Path testFile = AbstractTestCase.copyAudioToTmp(fileName, Paths.get(newFileName));
+		final AudioFile af = AudioFileIO.read(testFile);
+		final Tag tag = af.getTagOrCreateAndSetDefault();
+		tag.setField(FieldKey.TITLE, "title");
+		tag.setField(FieldKey.ARTIST, "artist");
+		tag.setField(FieldKey.ALBUM, "album");
+		tag.setField(ArtworkFactory.createArtworkFromFile(AbstractTestCase.dataPath.resolve("coverart.png")));
+		af.commit();
+		return testFile;
+	}
+
+	private static void checkFieldsRead(final Path testFile) throws Exception {
+		AudioFile af = AudioFileIO.read(testFile, ReadOptions.fields(FieldKey.TITLE, FieldKey.ALBUM));
+		assertNull(af.getAudioHeader());
+		assertEquals("title", af.getTag().getFirst(FieldKey.TITLE));
+		assertEquals("album", af.getTag().getFirst(FieldKey.ALBUM));
+		assertEquals("", af.getTag().getFirst(FieldKey.ARTIST));
+		assertNull(af.getTag().getFirstArtwork());
+
+		af = AudioFileIO.read(testFile, ReadOptions.fields(FieldKey.ARTIST).withArtwork().withAudioHeader());
+		assertNotNull(af.getAudioHeader());
+		assertEquals("artist", af.getTag().getFirst(FieldKey.ARTIST));
+		assertEquals("", af.getTag().getFirst(FieldKey.TITLE));
+		assertNotNull(af.getTag().getFirstArtwork());
+	}
+
+	public void testAudioHeaderOnly() throws Exception {
+		final Path testFile = createTaggedFile("test.flac", "testReadOptionsHeader.flac");
+		final AudioFile af = AudioFileIO.read(testFile, ReadOptions.AUDIO_HEADER_ONLY);
+		assertNull(af.getTag());
+		assertEquals(AudioFileIO.read(testFile).getAudioHeader().getTrackLength(), af.getAudioHeader().getTrackLength());
+	}
+
+	public void testTagOnlyMp3() throws Exception {
+		final Path testFile = createTaggedFile("testV1.mp3", "testReadOptionsTag.mp3");
+		final AudioFile af = AudioFileIO.read(testFile, ReadOptions.TAG_ONLY);
+		assertNull(af.getAudioHeader());
+		assertEquals("artist", af.getTag().getFirst(FieldKey.ARTIST));
+		assertNotNull(af.getTag().getFirstArtwork());
+	}
+
+	public void testFieldsFlac() throws Exception {
+		checkFieldsRead(createTaggedFile("test.flac", "testReadOptionsFields.flac"));
+	}
+
+	public void testFieldsOgg() throws Exception {
+		checkFieldsRead(createTaggedFile("test.ogg", "testReadOptionsFields.ogg"));
+	}
+
+	public void testFieldsMp3() throws Exception {
+		checkFieldsRead(createTaggedFile("testV1.mp3", "testReadOptionsFields.mp3"));
+	}
+
+	public void testYearMp3V23() throws Exception {
+		final Path testFile = AbstractTestCase.copyAudioToTmp("testV1.mp3", Paths.get("testReadOptionsYear.mp3"));
+		final MP3File mp3File = (MP3File) AudioFileIO.read(testFile);
+		final ID3v23Tag v23Tag = new ID3v23Tag();
+		v23Tag.setField(FieldKey.TITLE, "title");
+		v23Tag.setField(FieldKey.YEAR, "2004-03-12");
+		mp3File.setID3v2Tag(v23Tag);
+		mp3File.commit();
+
+		final AudioFile af = AudioFileIO.read(testFile, ReadOptions.fields(FieldKey.YEAR));
+		assertTrue(((MP3File) af).getID3v2Tag() instanceof ID3v23Tag);
+		assertEquals("2004-03-12", af.getTag().getFirst(FieldKey.YEAR));
+		assertEquals("", af.getTag().getFirst(FieldKey.TITLE));
+	}
+
+	public void testFieldsMp4() throws Exception {
+		checkFieldsRead(createTaggedFile("test.m4a", "testReadOptionsFields.m4a"));
+	}
+
+	public void testPartiallyReadFileCannotBeWritten() throws Exception {
+		final Path testFile = createTaggedFile("test.flac", "testReadOptionsWrite.flac");
+		final AudioFile af = AudioFileIO.read(testFile, ReadOptions.fields(FieldKey.TITLE).withAudioHeader());
+		af.getTag().setField(FieldKey.TITLE, "changed");
+		try {
+			af.commit();
+			fail("Expected CannotWriteException");
+		} catch (final CannotWriteException e) {
+			// expected
+		}
+		assertEquals("title", AudioFileIO.read(testFile).getTag().getFirst(FieldKey.TITLE));
+	}
+}
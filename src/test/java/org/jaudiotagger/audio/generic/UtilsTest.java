@@ -1,10 +1,15 @@
 package org.jaudiotagger.audio.generic;
 
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.DataInputStream;
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.GatheringByteChannel;
+import java.nio.channels.WritableByteChannel;
 import java.nio.file.Paths;
+import java.util.Arrays;
 
 import junit.framework.TestCase;
 
@@ -161,4 +166,45 @@ public class UtilsTest extends TestCase {
 		assertEquals(0X32807018, val);
 	}
 
+
+	public void testWriteFully() throws IOException {
+		final ByteArrayOutputStream out = new ByteArrayOutputStream();
+		final WritableByteChannel channel = Channels.newChannel(out);
+		// Only writes a few bytes per call so must be called repeatedly
+		final GatheringByteChannel slowChannel = new GatheringByteChannel() {
+			@Override
+			public int write(final ByteBuffer src) throws IOException {
+				final ByteBuffer part = src.duplicate();
+				part.limit(Math.min(src.limit(), src.position() + 3));
+				final int written = channel.write(part);
+				src.position(src.position() + written);
+				return written;
+			}
+
+			@Override
+			public long write(final ByteBuffer[] srcs, final int offset, final int length) throws IOException {
+				for (int i = offset; i < offset + length; i++)
+					if (srcs[i].hasRemaining())
+						return write(srcs[i]);
+				return 0;
+			}
+
+			@Override
+			public long write(final ByteBuffer[] srcs) throws IOException {
+				return write(srcs, 0, srcs.length);
+			}
+
+			@Override
+			public boolean isOpen() {
+				return true;
+			}
+
+			@Override
+			public void close() {}
+		};
+
+		final long written = Utils.writeFully(slowChannel, ByteBuffer.wrap(new byte[] { 1, 2, 3, 4, 5 }), ByteBuffer.wrap(new byte[0]), ByteBuffer.wrap(new byte[] { 6, 7 }));
+		assertEquals(7, written);
+		assertTrue(Arrays.equals(new byte[] { 1, 2, 3, 4, 5, 6, 7 }, out.toByteArray()));
+	}
 }
@@ -0,0 +1,45 @@
+package org.jaudiotagger.audio.generic;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import junit.framework.TestCase;
+
+import org.jaudiotagger.AbstractTestCase;
+import org.jaudiotagger.audio.AudioFile;
+import org.jaudiotagger.audio.AudioFileIO;
+import org.jaudiotagger.tag.FieldKey;
+import org.jaudiotagger.tag.TagOptionSingleton;
+import org.jaudiotagger.tag.options.WriteDurability;
+
+/**
+ * Check files are written correctly whatever the durability level
+ */
+public class WriteDurabilityTest extends TestCase {
+
+	private static final String[] SOURCES = { "testV1Cbr128ID3v1v2.mp3", "test5.m4a", "test.flac", "test.ogg", "test1.wma" };
+
+	@Override
+	public void tearDown() {
+		TagOptionSingleton.getInstance().setToDefault();
+	}
+
+	public void testDefaultIsFsyncOnClose() {
+		assertEquals(WriteDurability.FSYNC_ON_CLOSE, TagOptionSingleton.getInstance().getWriteDurability());
+	}
+
+	public void testWriteWithEachDurability() throws Exception {
+		for (final WriteDurability durability : WriteDurability.values()) {
+			TagOptionSingleton.getInstance().setWriteDurability(durability);
+			for (final String source : SOURCES) {
+				final Path testFile = AbstractTestCase.copyAudioToTmp(source, Paths.get("testWriteDurability" + durability + source));
+				AudioFile af = AudioFileIO.read(testFile);
+				af.getTagOrCreateAndSetDefault().setField(FieldKey.TITLE, durability.name());
+				af.commit();
+
+				af = AudioFileIO.read(testFile);
+				assertEquals(source, durability.name(), af.getTag().getFirst(FieldKey.TITLE));
+			}
+		}
+	}
+}
@@ -0,0 +1,112 @@
+package org.jaudiotagger.audio.generic;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+
+import junit.framework.TestCase;
+
+import org.jaudiotagger.AbstractTestCase;
+import org.jaudiotagger.audio.AudioFile;
+import org.jaudiotagger.audio.AudioFileIO;
+import org.jaudiotagger.tag.FieldKey;
+import org.jaudiotagger.tag.Tag;
+import org.jaudiotagger.tag.TagOptionSingleton;
+
+/**
+ * Check tags are written in place when they fit and the strategy used is reported
+ */
+public class WriteInPlaceTest extends TestCase {
+
+	@Override
+	public void tearDown() {
+		TagOptionSingleton.getInstance().setToDefault();
+	}
+
+	private static String createLongValue(final int length) {
+		final char[] value = new char[length];
+		Arrays.fill(value, 'x');
+		return new String(value);
+	}
+
+	public void testFlacWrittenInPlaceWhenFitsInPadding() throws Exception {
+		final Path testFile = AbstractTestCase.copyAudioToTmp("test.flac", Paths.get("testWriteInPlace.flac"));
+		final long sizeBefore = Files.size(testFile);
+
+		AudioFile af = AudioFileIO.read(testFile);
+		af.getTag().setField(FieldKey.TITLE, "in place");
+		assertEquals(WriteStrategy.IN_PLACE, AudioFileIO.write(af));
+		assertEquals(sizeBefore, Files.size(testFile));
+
+		af = AudioFileIO.read(testFile);
+		assertEquals("in place", af.getTag().getFirst(FieldKey.TITLE));
+	}
+
+	public void testFlacUsesTempFileWhenTooBig() throws Exception {
+		final Path testFile = AbstractTestCase.copyAudioToTmp("test.flac", Paths.get("testWriteInPlaceTooBig.flac"));
+		final long sizeBefore = Files.size(testFile);
+
+		AudioFile af = AudioFileIO.read(testFile);
+		final String value = createLongValue(100000);
+		af.getTag().setField(FieldKey.COMMENT, value);
+		assertEquals(WriteStrategy.TEMP_FILE, AudioFileIO.write(af));
+		assertTrue(Files.size(testFile) > sizeBefore);
+
+		af = AudioFileIO.read(testFile);
+		assertEquals(value, af.getTag().getFirst(FieldKey.COMMENT));
+	}
+
+	public void testFlacReportedInPlaceWhenOptionDisabled() throws Exception {
+		TagOptionSingleton.getInstance().setWriteInPlace(false);
+		final Path testFile = AbstractTestCase.copyAudioToTmp("test.flac", Paths.get("testWriteInPlaceDisabled.flac"));
+
+		AudioFile af = AudioFileIO.read(testFile);
+		af.getTag().setField(FieldKey.TITLE, "not in place");
+		assertEquals(WriteStrategy.IN_PLACE, AudioFileIO.write(af));
+
+		af = AudioFileIO.read(testFile);
+		assertEquals("not in place", af.getTag().getFirst(FieldKey.TITLE));
+	}
+
+	public void testMp3WriteStrategy() throws Exception {
+		final Path testFile = AbstractTestCase.copyAudioToTmp("testV1Cbr128ID3v1v2.mp3", Paths.get("testWriteInPlace.mp3"));
+		final long sizeBefore = Files.size(testFile);
+
+		AudioFile af = AudioFileIO.read(testFile);
+		af.getTag().setField(FieldKey.TITLE, "in place");
+		assertEquals(WriteStrategy.IN_PLACE, AudioFileIO.write(af));
+		assertEquals(sizeBefore, Files.size(testFile));
+
+		af = AudioFileIO.read(testFile);
+		final Tag tag = af.getTag();
+		assertEquals("in place", tag.getFirst(FieldKey.TITLE));
+		final String value = createLongValue(100000);
+		tag.setField(FieldKey.COMMENT, value);
+		assertEquals(WriteStrategy.TEMP_FILE, AudioFileIO.write(af));
+
+		af = AudioFileIO.read(testFile);
+		assertEquals(value, af.getTag().getFirst(FieldKey.COMMENT));
+	}
+
+	public void testMp4WriteStrategy() throws Exception {
+		final Path testFile = AbstractTestCase.copyAudioToTmp("test5.m4a", Paths.get("testWriteInPlace.m4a"));
+		final long sizeBefore = Files.size(testFile);
+
+		// Fits in the free atom after ilst
+		AudioFile af = AudioFileIO.read(testFile);
+		af.getTag().setField(FieldKey.TITLE, "in place");
+		assertEquals(WriteStrategy.IN_PLACE, AudioFileIO.write(af));
+		assertEquals(sizeBefore, Files.size(testFile));
+
+		af = AudioFileIO.read(testFile);
+		final Tag tag = af.getTag();
+		assertEquals("in place", tag.getFirst(FieldKey.TITLE));
+		final String value = createLongValue(100000);
+		tag.setField(FieldKey.COMMENT, value);
+		assertEquals(WriteStrategy.TEMP_FILE, AudioFileIO.write(af));
+
+		af = AudioFileIO.read(testFile);
+		assertEquals(value, af.getTag().getFirst(FieldKey.COMMENT));
+	}
+}
@@ -15,8 +15,11 @@
  */
 package org.jaudiotagger.audio.mp3;
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.text.SimpleDateFormat;
 import java.util.Date;
 
@@ -544,4 +547,52 @@ public class MP3AudioHeaderTest extends TestCase {
 		assertEquals("Fraunhofer", mp3AudioHeader.getEncoder());
 
 	}
+
+	/**
+	 * Junk that has many sync bytes and a few possible frame headers that are not followed by valid frames
+	 */
+	private static byte[] createJunk(final int length) {
+		final byte[] junk = new byte[length];
+		for (int i = 0; i < length; i += 2)
+			junk[i] = (byte) 0xFF;
+		for (int i = 1000; i < length - 4; i += 1000) {
+			junk[i] = (byte) 0xFF;
+			junk[i + 1] = (byte) 0xFB;
+			junk[i + 2] = (byte) 0x90;
+			junk[i + 3] = 0;
+		}
+		return junk;
+	}
+
+	private static Path createFileWithJunkBeforeAudio(final String fileName, final int junkLength) throws Exception {
+		final Path testFile = AbstractTestCase.copyAudioToTmp("testV1Cbr128.mp3", Paths.get(fileName));
+		final byte[] audio = Files.readAllBytes(testFile);
+		final ByteArrayOutputStream out = new ByteArrayOutputStream();
+		out.write(createJunk(junkLength));
+		out.write(audio);
+		Files.write(testFile, out.toByteArray());
+		return testFile;
+	}
+
+	public void testSyncFoundAfterJunk() throws Exception {
+		final long audioStart = new MP3AudioHeader(AbstractTestCase.dataPath.resolve("testV1Cbr128.mp3")).getMp3StartByte();
+		final Path testFile = createFileWithJunkBeforeAudio("testSyncAfterJunk.mp3", 100000);
+		final MP3AudioHeader mp3AudioHeader = new MP3AudioHeader(testFile, 0);
+		assertEquals(100000 + audioStart, mp3AudioHeader.getMp3StartByte());
+		assertEquals("128", mp3AudioHeader.getBitRate());
+	}
+
+	public void testSyncSearchGivesUpAtLimit() throws Exception {
+		final Path testFile = createFileWithJunkBeforeAudio("testSyncSearchLimit.mp3", 100000);
+		try {
+			TagOptionSingleton.getInstance().setMp3SyncSearchLimit(50000);
+			new MP3AudioHeader(testFile, 0);
+			fail("Expected InvalidAudioFrameException");
+		} catch (final InvalidAudioFrameException e) {
+			// expected
+		} finally {
+			TagOptionSingleton.getInstance().setToDefault();
+		}
+		assertTrue(new MP3AudioHeader().seek(testFile, 50000));
+	}
 }
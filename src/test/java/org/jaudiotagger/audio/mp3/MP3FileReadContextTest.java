@@ -0,0 +1,66 @@
+package org.jaudiotagger.audio.mp3;
+
+import java.io.RandomAccessFile;
+import java.nio.file.Path;
+
+import junit.framework.TestCase;
+
+import org.jaudiotagger.AbstractTestCase;
+import org.jaudiotagger.audio.generic.ReadContext;
+import org.jaudiotagger.tag.FieldKey;
+import org.jaudiotagger.tag.id3.AbstractID3v2Tag;
+
+/**
+ * Check mp3 files are only opened once when read
+ */
+public class MP3FileReadContextTest extends TestCase {
+
+	public void testReadOpensFileOnce() throws Exception {
+		final Path testFile = AbstractTestCase.copyAudioToTmp("testV1vbrOld0.mp3");
+		final MP3File mp3File = new MP3File(testFile);
+		assertEquals(1, mp3File.getFileOpenCount());
+		assertTrue(mp3File.getFileReadCount() > 0);
+		assertTrue(mp3File.getFileReadCount() < 10);
+	}
+
+	public void testReadTagsOpensFileOnce() throws Exception {
+		final Path testFile = AbstractTestCase.copyAudioToTmp("testV1Cbr128ID3v1v2.mp3");
+		final MP3File mp3File = new MP3File(testFile);
+		assertEquals(1, mp3File.getFileOpenCount());
+		assertTrue(mp3File.hasID3v1Tag());
+		assertTrue(mp3File.hasID3v2Tag());
+		assertEquals(mp3File.getID3v1Tag().getFirst(FieldKey.TITLE), mp3File.getID3v2Tag().getFirst(FieldKey.TITLE));
+	}
+
+	public void testSharedContextMatchesPathRead() throws Exception {
+		final Path testFile = AbstractTestCase.copyAudioToTmp("testV1vbrOld0.mp3");
+		final ReadContext context = new ReadContext(testFile);
+		try {
+			final long startByte = AbstractID3v2Tag.getV2TagSizeIfExists(context);
+			assertEquals(AbstractID3v2Tag.getV2TagSizeIfExists(testFile), startByte);
+
+			final MP3AudioHeader fromContext = new MP3AudioHeader(context, startByte);
+			final MP3AudioHeader fromPath = new MP3AudioHeader(testFile, startByte);
+			assertEquals(fromPath.getMp3StartByte(), fromContext.getMp3StartByte());
+			assertEquals(fromPath.getNumberOfFrames(), fromContext.getNumberOfFrames());
+			assertEquals(fromPath.getBitRate(), fromContext.getBitRate());
+			assertEquals(1, context.getOpenCount());
+		} finally {
+			context.close();
+		}
+	}
+
+	public void testOnlyOpensByContextCounted() throws Exception {
+		final Path testFile = AbstractTestCase.copyAudioToTmp("testV1vbrOld0.mp3");
+		final RandomAccessFile raf = new RandomAccessFile(testFile.toFile(), "r");
+		try {
+			final ReadContext context = new ReadContext(testFile, raf);
+			AbstractID3v2Tag.getV2TagSizeIfExists(context);
+			assertEquals(0, context.getOpenCount());
+			assertTrue(context.getReadCount() > 0);
+			context.close();
+		} finally {
+			raf.close();
+		}
+	}
+}
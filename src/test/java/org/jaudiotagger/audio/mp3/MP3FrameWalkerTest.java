@@ -0,0 +1,114 @@
+package org.jaudiotagger.audio.mp3;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.CancellationException;
+
+import junit.framework.TestCase;
+
+import org.jaudiotagger.AbstractTestCase;
+import org.jaudiotagger.audio.AudioFileIO;
+import org.jaudiotagger.tag.TagOptionSingleton;
+
+/**
+ * Test walking the frames of an MP3 to get the exact frame count and a seek index
+ */
+public class MP3FrameWalkerTest extends TestCase {
+
+	@Override
+	public void tearDown() {
+		TagOptionSingleton.getInstance().setToDefault();
+	}
+
+	public void testFrameCountMatchesXingFrame() throws Exception {
+		final Path testFile = AbstractTestCase.copyAudioToTmp("testV1vbrNew0.mp3");
+		final MP3AudioHeader audioHeader = new MP3File(testFile).getMP3AudioHeader();
+		final MP3FrameIndex index = new MP3FrameWalker().walk(testFile, audioHeader);
+		assertEquals(audioHeader.getNumberOfFrames(), index.getFrameCount());
+		assertEquals(audioHeader.getPreciseTrackLength(), index.getPreciseTrackLength(), 0.001);
+		assertEquals(44100, index.getSamplingRate());
+		assertTrue(index.isVariableBitRate());
+		assertEquals(0, index.getIndexSize());
+	}
+
+	public void testMpeg2FrameCount() throws Exception {
+		final Path testFile = AbstractTestCase.copyAudioToTmp("testV2vbrNew0.mp3");
+		final MP3AudioHeader audioHeader = new MP3File(testFile).getMP3AudioHeader();
+		final MP3FrameIndex index = new MP3FrameWalker().walk(testFile, audioHeader);
+		assertEquals(audioHeader.getNumberOfFrames(), index.getFrameCount());
+		assertEquals(Files.size(testFile), index.getAudioEndByte());
+	}
+
+	/**
+	 * Audio from a 128kbps and a 192kbps file joined together without a Xing frame, the estimate from the first frame is
+	 * wrong but the walk is exact
+	 */
+	public void testVariableBitRateWithoutXingFrame() throws Exception {
+		final MP3FrameIndex first = getFrames("testV1Cbr128.mp3");
+		final MP3FrameIndex second = getFrames("testV1Cbr192.mp3");
+		final ByteArrayOutputStream out = new ByteArrayOutputStream();
+		out.write(getAudio("testV1Cbr128.mp3", first));
+		out.write(getAudio("testV1Cbr192.mp3", second));
+		final Path testFile = AbstractTestCase.copyAudioToTmp("testV1Cbr128.mp3", Paths.get("testFrameWalkerVbr.mp3"));
+		Files.write(testFile, out.toByteArray());
+
+		final long frames = first.getFrameCount() + second.getFrameCount();
+		MP3AudioHeader audioHeader = (MP3AudioHeader) AudioFileIO.read(testFile).getAudioHeader();
+		assertTrue(audioHeader.getNumberOfFrames() != frames);
+		assertNull(audioHeader.getFrameIndex());
+
+		TagOptionSingleton.getInstance().setMp3ExactDuration(true);
+		audioHeader = (MP3AudioHeader) AudioFileIO.read(testFile).getAudioHeader();
+		assertEquals(frames, audioHeader.getNumberOfFrames());
+		assertEquals(frames * 1152 / 44100.0, audioHeader.getPreciseTrackLength(), 0.0001);
+		assertTrue(audioHeader.isVariableBitRate());
+		assertEquals(160, audioHeader.getBitRateAsNumber());
+	}
+
+	public void testSeekIndex() throws Exception {
+		final Path testFile = AbstractTestCase.copyAudioToTmp("testV1Cbr128.mp3");
+		final MP3AudioHeader audioHeader = new MP3File(testFile).getMP3AudioHeader();
+		final MP3FrameIndex index = new MP3FrameWalker(10).walk(testFile, audioHeader);
+		assertEquals((index.getFrameCount() + 9) / 10, index.getIndexSize());
+		assertEquals(index.getAudioStartByte(), index.getSeekOffset(0));
+		assertEquals(index.getSeekOffset(20), index.getSeekOffset(29));
+		assertTrue(index.getSeekOffset(30) > index.getSeekOffset(29));
+		assertEquals(index.getSeekOffset(index.getFrameCount() / 2), index.getSeekOffsetForTime(index.getPreciseTrackLength() / 2));
+
+		// Constant bitrate so frames are 417 bytes, or 418 with padding
+		final byte[] data = Files.readAllBytes(testFile);
+		for (int frame = 0; frame < index.getFrameCount(); frame += 10) {
+			final int offset = (int) index.getSeekOffset(frame);
+			assertEquals((byte) 0xFF, data[offset]);
+			assertTrue(offset - index.getAudioStartByte() >= 417L * frame);
+			assertTrue(offset - index.getAudioStartByte() <= 418L * frame);
+		}
+	}
+
+	public void testCancel() throws Exception {
+		final Path testFile = AbstractTestCase.copyAudioToTmp("testV1Cbr128.mp3");
+		final MP3AudioHeader audioHeader = new MP3File(testFile).getMP3AudioHeader();
+		final MP3FrameWalker walker = new MP3FrameWalker();
+		walker.cancel();
+		try {
+			walker.walk(testFile, audioHeader);
+			fail("Expected CancellationException");
+		} catch (final CancellationException e) {
+			// expected
+		}
+	}
+
+	private static MP3FrameIndex getFrames(final String fileName) throws Exception {
+		final Path testFile = AbstractTestCase.copyAudioToTmp(fileName);
+		return new MP3FrameWalker().walk(testFile, new MP3File(testFile).getMP3AudioHeader());
+	}
+
+	private static byte[] getAudio(final String fileName, final MP3FrameIndex index) throws Exception {
+		final byte[] data = Files.readAllBytes(AbstractTestCase.dataPath.resolve(fileName));
+		final byte[] audio = new byte[(int) index.getAudioSize()];
+		System.arraycopy(data, (int) index.getAudioStartByte(), audio, 0, audio.length);
+		return audio;
+	}
+}
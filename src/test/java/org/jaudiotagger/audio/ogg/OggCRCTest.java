@@ -0,0 +1,106 @@
+package org.jaudiotagger.audio.ogg;
+
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+
+import junit.framework.TestCase;
+
+import org.jaudiotagger.AbstractTestCase;
+import org.jaudiotagger.audio.ogg.util.OggCRCFactory;
+import org.jaudiotagger.audio.ogg.util.OggPageHeader;
+
+/**
+ * Check the table driven crc against calculating it a bit at a time
+ */
+public class OggCRCTest extends TestCase {
+
+	private static int bitwiseCRC(final byte[] data, final int offset, final int length) {
+		int crc = 0;
+		for (int i = offset; i < offset + length; i++) {
+			crc ^= (data[i] & 0xff) << 24;
+			for (int j = 0; j < 8; j++)
+				crc = (crc & 0x80000000) != 0 ? (crc << 1) ^ 0x04c11db7 : crc << 1;
+		}
+		return crc;
+	}
+
+	private static byte[] randomData(final int length) {
+		final byte[] data = new byte[length];
+		new Random(length).nextBytes(data);
+		return data;
+	}
+
+	public void testArrayRanges() {
+		final byte[] data = randomData(1000);
+		for (int offset = 0; offset < 9; offset++)
+			for (int length = 0; length < 40; length++)
+				assertEquals(bitwiseCRC(data, offset, length), OggCRCFactory.update(0, data, offset, length));
+		assertEquals(bitwiseCRC(data, 3, 997), OggCRCFactory.update(0, data, 3, 997));
+	}
+
+	public void testHeapAndDirectBuffers() {
+		final byte[] data = randomData(5000);
+		final ByteBuffer direct = ByteBuffer.allocateDirect(data.length);
+		direct.put(data);
+		// Slice so the heap buffer has an array offset
+		final ByteBuffer heap = ByteBuffer.wrap(randomData(5010));
+		heap.position(10);
+		final ByteBuffer slice = heap.slice();
+		slice.put(data);
+		for (final int length : new int[] { 0, 1, 7, 8, 9, 100, 4999 }) {
+			assertEquals(bitwiseCRC(data, 1, length), OggCRCFactory.update(0, direct, 1, length));
+			assertEquals(bitwiseCRC(data, 1, length), OggCRCFactory.update(0, slice, 1, length));
+		}
+		assertEquals(data.length, direct.position());
+	}
+
+	public void testIncrementalUpdate() {
+		final byte[] data = randomData(3000);
+		final int crc = OggCRCFactory.update(0, data, 0, 1234);
+		assertEquals(bitwiseCRC(data, 0, data.length), OggCRCFactory.update(crc, data, 1234, data.length - 1234));
+	}
+
+	public void testComputeCRC() {
+		final byte[] data = randomData(300);
+		final byte[] crc = OggCRCFactory.computeCRC(data);
+		final ByteBuffer expected = ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN).putInt(bitwiseCRC(data, 0, data.length));
+		assertTrue(Arrays.equals(expected.array(), crc));
+		assertTrue(new OggCRCFactory().checkCRC(data, crc));
+		crc[0]++;
+		assertFalse(new OggCRCFactory().checkCRC(data, crc));
+	}
+
+	public void testPageCRC() throws Exception {
+		final Path testFile = AbstractTestCase.copyAudioToTmp("test.ogg");
+		final RandomAccessFile raf = new RandomAccessFile(testFile.toFile(), "r");
+		final ByteBuffer file = ByteBuffer.allocateDirect((int) raf.length());
+		try {
+			raf.getChannel().read(file);
+		} finally {
+			raf.close();
+		}
+		file.flip();
+		int pages = 0;
+		while (file.hasRemaining()) {
+			final int start = file.position();
+			final OggPageHeader pageHeader = OggPageHeader.read(file);
+			final int length = file.position() - start + pageHeader.getPageLength();
+			assertTrue(OggCRCFactory.checkPageCRC(file, start, length));
+
+			final int checksumPos = start + OggPageHeader.FIELD_PAGE_CHECKSUM_POS;
+			file.put(checksumPos, (byte) (file.get(checksumPos) ^ 1));
+			assertFalse(OggCRCFactory.checkPageCRC(file, start, length));
+			OggCRCFactory.setPageCRC(file, start, length);
+			assertTrue(OggCRCFactory.checkPageCRC(file, start, length));
+			assertEquals(pageHeader.getCheckSum(), file.duplicate().order(ByteOrder.LITTLE_ENDIAN).getInt(checksumPos));
+
+			file.position(start + length);
+			pages++;
+		}
+		assertEquals(10, pages);
+	}
+}
@@ -0,0 +1,134 @@
+package org.jaudiotagger.audio.ogg;
+
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+import org.jaudiotagger.audio.AudioFile;
+import org.jaudiotagger.audio.AudioFileIO;
+import org.jaudiotagger.audio.flac.metadatablock.BlockType;
+import org.jaudiotagger.audio.flac.metadatablock.MetadataBlockDataStreamInfo;
+import org.jaudiotagger.audio.flac.metadatablock.MetadataBlockHeader;
+import org.jaudiotagger.audio.generic.GenericAudioHeader;
+import org.jaudiotagger.audio.ogg.util.OggFlacHeader;
+import org.jaudiotagger.tag.FieldKey;
+import org.jaudiotagger.tag.vorbiscomment.VorbisCommentTag;
+
+/**
+ * Read and write Ogg FLAC files
+ */
+public class OggFlacTest extends TestCase {
+	private static final int SAMPLE_RATE = 44100;
+
+	private static final long TOTAL_SAMPLES = 441000;
+
+	private static final byte[] APPLICATION_DATA = { 't', 'e', 's', 't', 1, 2, 3, 4 };
+
+	/**
+	 * @param headerPackets
+	 *            number of header packets to declare, zero if unknown
+	 * @param totalSamples
+	 * @return the first packet, 'FLAC' mapping header followed by the STREAMINFO block
+	 */
+	private static byte[] createFlacHeader(final int headerPackets, final long totalSamples) {
+		final ByteBuffer bb = ByteBuffer.allocate(OggFlacHeader.LENGTH);
+		bb.put(OggFlacHeader.PACKET_TYPE);
+		bb.put(OggFlacHeader.CAPTURE_PATTERN_AS_BYTES);
+		bb.put((byte) 1);
+		bb.put((byte) 0);
+		bb.putShort((short) headerPackets);
+		bb.put(OggFlacHeader.NATIVE_CAPTURE_PATTERN_AS_BYTES);
+		bb.put(new MetadataBlockHeader(false, BlockType.STREAMINFO, MetadataBlockDataStreamInfo.STREAM_INFO_DATA_LENGTH).getBytes());
+
+		// Block sizes, frame sizes unknown
+		bb.putShort((short) 4096);
+		bb.putShort((short) 4096);
+		bb.put(new byte[6]);
+		// 20 bits sample rate, 3 bits channels - 1, 5 bits bits per sample - 1, 36 bits total samples
+		final int channels = 2;
+		final int bitsPerSample = 16;
+		bb.put((byte) (SAMPLE_RATE >>> 12));
+		bb.put((byte) (SAMPLE_RATE >>> 4));
+		bb.put((byte) (((SAMPLE_RATE & 0x0F) << 4) | ((channels - 1) << 1) | ((bitsPerSample - 1) >>> 4)));
+		bb.put((byte) ((((bitsPerSample - 1) & 0x0F) << 4) | (int) ((totalSamples >>> 32) & 0x0F)));
+		bb.putInt((int) totalSamples);
+		return bb.array();
+	}
+
+	private static byte[] createBlock(final boolean isLastBlock, final BlockType blockType, final byte[] data) {
+		return OggTestStream.concat(new MetadataBlockHeader(isLastBlock, blockType, data.length).getBytes(), data);
+	}
+
+	private static Path createFlacFile(final String fileName, final int headerPackets, final long totalSamples) throws Exception {
+		final List<byte[]> headers = Arrays.asList(createBlock(false, BlockType.VORBIS_COMMENT, OggTestStream.createComment("artist", "title")), createBlock(true, BlockType.APPLICATION, APPLICATION_DATA));
+		return OggTestStream.create(fileName, createFlacHeader(headerPackets, totalSamples), headers, TOTAL_SAMPLES / OggTestStream.AUDIO_PAGES);
+	}
+
+	private static List<byte[]> readHeaderPackets(final Path file) throws Exception {
+		final RandomAccessFile raf = new RandomAccessFile(file.toFile(), "r");
+		try {
+			return OggStreamHeader.read(raf).getPackets();
+		} finally {
+			raf.close();
+		}
+	}
+
+	public void testReadOggFlac() throws Exception {
+		final Path testFile = createFlacFile("testReadOggFlac.oga", 2, TOTAL_SAMPLES);
+		final AudioFile af = AudioFileIO.read(testFile);
+		final GenericAudioHeader header = (GenericAudioHeader) af.getAudioHeader();
+		assertEquals(10.0f, header.getPreciseLength());
+		assertEquals(2, header.getChannelNumber());
+		assertEquals(SAMPLE_RATE, header.getSampleRateAsNumber());
+		assertEquals(16, header.getBitsPerSample());
+		assertEquals("FLAC 16 bits", header.getEncodingType());
+		assertTrue(header.isLossless());
+		assertEquals("artist", af.getTag().getFirst(FieldKey.ARTIST));
+		assertEquals("title", af.getTag().getFirst(FieldKey.TITLE));
+	}
+
+	/**
+	 * Number of header packets and total samples unknown, so the header packets end at the last metadata block and
+	 * the length comes from the last granule position
+	 */
+	public void testReadOggFlacUnknownCounts() throws Exception {
+		final Path testFile = createFlacFile("testReadOggFlacUnknown.ogg", 0, 0);
+		final AudioFile af = AudioFileIO.read(testFile);
+		assertEquals(10.0f, ((GenericAudioHeader) af.getAudioHeader()).getPreciseLength());
+		assertEquals("title", af.getTag().getFirst(FieldKey.TITLE));
+		assertEquals(2, readHeaderPackets(testFile).size());
+	}
+
+	public void testWriteOggFlac() throws Exception {
+		final Path testFile = createFlacFile("testWriteOggFlac.oga", 2, TOTAL_SAMPLES);
+		final List<ByteBuffer> audio = OggTestStream.getAudioData(OggTestStream.readPages(testFile));
+
+		AudioFile af = AudioFileIO.read(testFile);
+		af.getTag().setField(FieldKey.TITLE, "new title");
+		af.getTag().setField(FieldKey.COMMENT, new String(new char[100000]).replace('\0', 'f'));
+		af.commit();
+
+		af = AudioFileIO.read(testFile);
+		assertEquals("artist", af.getTag().getFirst(FieldKey.ARTIST));
+		assertEquals("new title", af.getTag().getFirst(FieldKey.TITLE));
+		assertEquals(10.0f, ((GenericAudioHeader) af.getAudioHeader()).getPreciseLength());
+
+		final List<byte[]> headers = readHeaderPackets(testFile);
+		assertEquals(2, headers.size());
+		assertEquals(BlockType.VORBIS_COMMENT.getId(), headers.get(0)[0]);
+		assertTrue(Arrays.equals(createBlock(true, BlockType.APPLICATION, APPLICATION_DATA), headers.get(1)));
+
+		final List<byte[]> pages = OggTestStream.readPages(testFile);
+		assertTrue(OggTestStream.isValid(pages));
+		assertEquals(audio, OggTestStream.getAudioData(pages));
+
+		af.setTag(VorbisCommentTag.createNewTag());
+		af.commit();
+		assertEquals("", AudioFileIO.read(testFile).getTag().getFirst(FieldKey.TITLE));
+		assertTrue(OggTestStream.isValid(OggTestStream.readPages(testFile)));
+	}
+}
@@ -0,0 +1,172 @@
+package org.jaudiotagger.audio.ogg;
+
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+import org.jaudiotagger.audio.AudioFile;
+import org.jaudiotagger.audio.AudioFileIO;
+import org.jaudiotagger.audio.generic.GenericAudioHeader;
+import org.jaudiotagger.audio.ogg.util.OggCodec;
+import org.jaudiotagger.audio.ogg.util.OggPageHeader;
+import org.jaudiotagger.audio.ogg.util.OpusHeader;
+import org.jaudiotagger.tag.FieldKey;
+import org.jaudiotagger.tag.vorbiscomment.VorbisCommentTag;
+
+/**
+ * Read and write Ogg Opus files
+ */
+public class OggOpusTest extends TestCase {
+	private static final int PRE_SKIP = 312;
+
+	private static final long SAMPLES_PER_PAGE = 48000;
+
+	private static final String LONG_VALUE = new String(new char[150000]).replace('\0', 'o');
+
+	private static byte[] createOpusHead(final int channels, final int inputSampleRate) {
+		final ByteBuffer bb = ByteBuffer.allocate(19).order(ByteOrder.LITTLE_ENDIAN);
+		bb.put(OpusHeader.HEAD_CAPTURE_PATTERN_AS_BYTES);
+		bb.put((byte) 1);
+		bb.put((byte) channels);
+		bb.putShort((short) PRE_SKIP);
+		bb.putInt(inputSampleRate);
+		bb.putShort((short) 0);
+		bb.put((byte) 0);
+		return bb.array();
+	}
+
+	private static Path createOpusFile(final String fileName, final byte[] extraData) throws Exception {
+		final byte[] opusTags = OggTestStream.concat(OpusHeader.TAGS_CAPTURE_PATTERN_AS_BYTES, OggTestStream.createComment("artist", "title"), extraData);
+		return OggTestStream.create(fileName, createOpusHead(2, 44100), Collections.singletonList(opusTags), SAMPLES_PER_PAGE);
+	}
+
+	private static byte[] readOpusTags(final Path file) throws Exception {
+		final RandomAccessFile raf = new RandomAccessFile(file.toFile(), "r");
+		try {
+			return OggStreamHeader.read(raf).getPackets().get(0);
+		} finally {
+			raf.close();
+		}
+	}
+
+	private static long getGranule(final byte[] page) {
+		return ByteBuffer.wrap(page).order(ByteOrder.LITTLE_ENDIAN).getLong(OggPageHeader.FIELD_ABSOLUTE_GRANULE_POS);
+	}
+
+	private static boolean endsWith(final byte[] data, final byte[] suffix) {
+		return data.length >= suffix.length && Arrays.equals(suffix, Arrays.copyOfRange(data, data.length - suffix.length, data.length));
+	}
+
+	public void testReadOpus() throws Exception {
+		final Path testFile = createOpusFile("testReadOpus.opus", new byte[0]);
+		final AudioFile af = AudioFileIO.read(testFile);
+		final GenericAudioHeader header = (GenericAudioHeader) af.getAudioHeader();
+		assertEquals((float) (SAMPLES_PER_PAGE * OggTestStream.AUDIO_PAGES - PRE_SKIP) / 48000, header.getPreciseLength());
+		assertEquals(2, header.getChannelNumber());
+		assertEquals(44100, header.getSampleRateAsNumber());
+		assertEquals("Opus", header.getEncodingType());
+		assertTrue(header.isVariableBitRate());
+		assertEquals("artist", af.getTag().getFirst(FieldKey.ARTIST));
+		assertEquals("title", af.getTag().getFirst(FieldKey.TITLE));
+
+		final RandomAccessFile raf = new RandomAccessFile(testFile.toFile(), "r");
+		try {
+			assertEquals(OggCodec.OPUS, OggCodec.getCodec(raf));
+		} finally {
+			raf.close();
+		}
+	}
+
+	/**
+	 * A header without the input sample rate is reported at the rate Opus is decoded at
+	 */
+	public void testReadOpusUnknownInputSampleRate() throws Exception {
+		final byte[] opusTags = OggTestStream.concat(OpusHeader.TAGS_CAPTURE_PATTERN_AS_BYTES, OggTestStream.createComment("artist", "title"));
+		final Path testFile = OggTestStream.create("testReadOpusNoRate.opus", createOpusHead(1, 0), Collections.singletonList(opusTags), SAMPLES_PER_PAGE);
+		final GenericAudioHeader header = (GenericAudioHeader) AudioFileIO.read(testFile).getAudioHeader();
+		assertEquals(48000, header.getSampleRateAsNumber());
+		assertEquals(1, header.getChannelNumber());
+	}
+
+	public void testWriteOpus() throws Exception {
+		final Path testFile = createOpusFile("testWriteOpus.opus", new byte[0]);
+		final List<ByteBuffer> audio = OggTestStream.getAudioData(OggTestStream.readPages(testFile));
+
+		AudioFile af = AudioFileIO.read(testFile);
+		af.getTag().setField(FieldKey.TITLE, "new title");
+		af.getTag().setField(FieldKey.ALBUM, "album");
+		af.commit();
+
+		af = AudioFileIO.read(testFile);
+		assertEquals("artist", af.getTag().getFirst(FieldKey.ARTIST));
+		assertEquals("new title", af.getTag().getFirst(FieldKey.TITLE));
+		assertEquals("album", af.getTag().getFirst(FieldKey.ALBUM));
+		assertEquals((float) (SAMPLES_PER_PAGE * OggTestStream.AUDIO_PAGES - PRE_SKIP) / 48000, ((GenericAudioHeader) af.getAudioHeader()).getPreciseLength());
+
+		final List<byte[]> pages = OggTestStream.readPages(testFile);
+		assertEquals(2 + OggTestStream.AUDIO_PAGES, pages.size());
+		assertTrue(OggTestStream.isValid(pages));
+		assertEquals(audio, OggTestStream.getAudioData(pages));
+	}
+
+	/**
+	 * Comment that needs several pages, so the audio pages are renumbered, then replaced by an empty tag
+	 */
+	public void testWriteLargeOpusTag() throws Exception {
+		final Path testFile = createOpusFile("testWriteLargeOpus.opus", new byte[0]);
+		final List<ByteBuffer> audio = OggTestStream.getAudioData(OggTestStream.readPages(testFile));
+
+		AudioFile af = AudioFileIO.read(testFile);
+		af.getTag().setField(FieldKey.COMMENT, LONG_VALUE);
+		af.commit();
+
+		af = AudioFileIO.read(testFile);
+		assertEquals(LONG_VALUE, af.getTag().getFirst(FieldKey.COMMENT));
+		List<byte[]> pages = OggTestStream.readPages(testFile);
+		assertTrue(pages.size() > 2 + OggTestStream.AUDIO_PAGES);
+		assertTrue(OggTestStream.isValid(pages));
+		assertEquals(audio, OggTestStream.getAudioData(pages));
+
+		// Only the page that finishes the comment has a granule position, on the others no packet finishes
+		final int lastCommentPage = pages.size() - OggTestStream.AUDIO_PAGES - 1;
+		for (int i = 1; i < lastCommentPage; i++)
+			assertEquals(-1, getGranule(pages.get(i)));
+		assertEquals(0, getGranule(pages.get(lastCommentPage)));
+
+		af.setTag(VorbisCommentTag.createNewTag());
+		af.commit();
+		af = AudioFileIO.read(testFile);
+		assertEquals("", af.getTag().getFirst(FieldKey.ARTIST));
+		assertEquals("", af.getTag().getFirst(FieldKey.COMMENT));
+		pages = OggTestStream.readPages(testFile);
+		assertEquals(2 + OggTestStream.AUDIO_PAGES, pages.size());
+		assertTrue(OggTestStream.isValid(pages));
+		assertEquals(audio, OggTestStream.getAudioData(pages));
+	}
+
+	/**
+	 * Binary data after the comments must be kept if its first bit is set, otherwise it is padding
+	 */
+	public void testOpusTagsExtraData() throws Exception {
+		final byte[] extraData = { 0x01, 0x10, 0x20, 0x30 };
+		Path testFile = createOpusFile("testOpusExtraData.opus", extraData);
+		AudioFile af = AudioFileIO.read(testFile);
+		af.getTag().setField(FieldKey.TITLE, "new title");
+		af.commit();
+		assertEquals("new title", AudioFileIO.read(testFile).getTag().getFirst(FieldKey.TITLE));
+		assertTrue(endsWith(readOpusTags(testFile), extraData));
+
+		final byte[] padding = { 0x00, 0x00, 0x00, 0x00 };
+		testFile = createOpusFile("testOpusPadding.opus", padding);
+		final int length = readOpusTags(testFile).length;
+		af = AudioFileIO.read(testFile);
+		af.commit();
+		assertEquals(length - padding.length, readOpusTags(testFile).length);
+	}
+}
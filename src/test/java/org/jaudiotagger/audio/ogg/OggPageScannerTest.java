@@ -0,0 +1,100 @@
+package org.jaudiotagger.audio.ogg;
+
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+import junit.framework.TestCase;
+
+import org.jaudiotagger.AbstractTestCase;
+import org.jaudiotagger.audio.AudioFileIO;
+import org.jaudiotagger.audio.generic.GenericAudioHeader;
+import org.jaudiotagger.audio.ogg.util.OggPageHeader;
+import org.jaudiotagger.audio.ogg.util.OggPageScanner;
+
+/**
+ * Check the last page is found by scanning backwards from the end of the file
+ */
+public class OggPageScannerTest extends TestCase {
+
+	/**
+	 * @return the last page found by reading every page from the start
+	 */
+	private static OggPageHeader readLastPageForwards(final RandomAccessFile raf) throws Exception {
+		OggPageHeader pageHeader = null;
+		raf.seek(0);
+		while (raf.getFilePointer() < raf.length()) {
+			final long start = raf.getFilePointer();
+			pageHeader = OggPageHeader.read(raf);
+			pageHeader.setStartByte(start);
+			raf.seek(raf.getFilePointer() + pageHeader.getPageLength());
+		}
+		return pageHeader;
+	}
+
+	private static OggPageHeader findLastPage(final Path file) throws Exception {
+		final RandomAccessFile raf = new RandomAccessFile(file.toFile(), "r");
+		try {
+			raf.seek(10);
+			final OggPageHeader pageHeader = OggPageScanner.findLastPage(raf, 0);
+			assertEquals(10, raf.getFilePointer());
+			return pageHeader;
+		} finally {
+			raf.close();
+		}
+	}
+
+	private static void assertSamePage(final OggPageHeader expected, final OggPageHeader actual) {
+		assertEquals(expected.getStartByte(), actual.getStartByte());
+		assertEquals(expected.getPageSequence(), actual.getPageSequence());
+		assertEquals(expected.getAbsoluteGranulePosition(), actual.getAbsoluteGranulePosition());
+		assertTrue(Arrays.equals(expected.getRawHeaderData(), actual.getRawHeaderData()));
+	}
+
+	public void testFindLastPage() throws Exception {
+		for (final String fileName : new String[] { "test.ogg", "test3.ogg", "test76.ogg", "testlargeimage.ogg" }) {
+			final Path testFile = AbstractTestCase.copyAudioToTmp(fileName);
+			final RandomAccessFile raf = new RandomAccessFile(testFile.toFile(), "r");
+			final OggPageHeader expected;
+			try {
+				expected = readLastPageForwards(raf);
+			} finally {
+				raf.close();
+			}
+			assertSamePage(expected, findLastPage(testFile));
+		}
+	}
+
+	/**
+	 * Trailing junk, including a capture pattern that does not start a valid page and is larger than a block
+	 */
+	public void testTrailingJunk() throws Exception {
+		final Path testFile = AbstractTestCase.copyAudioToTmp("test.ogg", Paths.get("testScanTrailingJunk.ogg"));
+		final float trackLength = ((GenericAudioHeader) AudioFileIO.read(testFile).getAudioHeader()).getPreciseLength();
+		final OggPageHeader expected = findLastPage(testFile);
+
+		// Copy of the last page with its data corrupted, then junk
+		final byte[] data = Files.readAllBytes(testFile);
+		final byte[] junk = new byte[40000];
+		final int lastPageLength = (int) (data.length - expected.getStartByte());
+		System.arraycopy(data, (int) expected.getStartByte(), junk, 0, lastPageLength);
+		junk[lastPageLength - 1]++;
+		Arrays.fill(junk, lastPageLength, junk.length, (byte) 'O');
+		Files.write(testFile, junk, StandardOpenOption.APPEND);
+
+		assertSamePage(expected, findLastPage(testFile));
+		assertEquals(trackLength, ((GenericAudioHeader) AudioFileIO.read(testFile).getAudioHeader()).getPreciseLength());
+	}
+
+	public void testNoValidPages() throws Exception {
+		final Path testFile = AbstractTestCase.copyAudioToTmp("test.ogg", Paths.get("testScanNoPages.ogg"));
+		final byte[] junk = new byte[50000];
+		Arrays.fill(junk, (byte) 'S');
+		System.arraycopy(OggPageHeader.CAPTURE_PATTERN, 0, junk, 100, OggPageHeader.CAPTURE_PATTERN.length);
+		Files.write(testFile, junk);
+		assertNull(findLastPage(testFile));
+	}
+}
@@ -0,0 +1,163 @@
+package org.jaudiotagger.audio.ogg;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+import org.jaudiotagger.AbstractTestCase;
+import org.jaudiotagger.audio.AudioFile;
+import org.jaudiotagger.audio.AudioFileIO;
+import org.jaudiotagger.audio.ogg.util.OggCRCFactory;
+import org.jaudiotagger.audio.ogg.util.OggPageHeader;
+import org.jaudiotagger.tag.FieldKey;
+
+/**
+ * Check the audio pages are renumbered with valid checksums when the number of header pages changes, and copied as is
+ * when it does not
+ */
+public class OggRenumberPagesTest extends TestCase {
+
+	/**
+	 * Comment long enough to need several pages
+	 */
+	private static final String LONG_VALUE = new String(new char[200000]).replace('\0', 'x');
+
+	/**
+	 * Times the audio of test.ogg is repeated so the audio is much larger than the window it is renumbered in
+	 */
+	private static final int AUDIO_COPIES = 40;
+
+	private static final int EOS_FLAG = 0x04;
+
+	private static final int HEADER_TYPE_POS = 5;
+
+	private static final int GRANULE_POS = 6;
+
+	private static List<byte[]> readPages(final Path file) throws Exception {
+		final ByteBuffer bb = ByteBuffer.wrap(Files.readAllBytes(file));
+		final List<byte[]> pages = new ArrayList<byte[]>();
+		while (bb.hasRemaining()) {
+			final int start = bb.position();
+			final OggPageHeader pageHeader = OggPageHeader.read(bb);
+			final byte[] page = new byte[pageHeader.getRawHeaderData().length + pageHeader.getPageLength()];
+			bb.position(start);
+			bb.get(page);
+			pages.add(page);
+		}
+		return pages;
+	}
+
+	private static void setSequenceAndChecksum(final byte[] page, final int pageSequence) {
+		final ByteBuffer bb = ByteBuffer.wrap(page).order(ByteOrder.LITTLE_ENDIAN);
+		bb.putInt(OggPageHeader.FIELD_PAGE_SEQUENCE_NO_POS, pageSequence);
+		OggCRCFactory.setPageCRC(bb, 0, page.length);
+	}
+
+	private static boolean isAudioPage(final byte[] page) {
+		return ByteBuffer.wrap(page).order(ByteOrder.LITTLE_ENDIAN).getLong(GRANULE_POS) != 0;
+	}
+
+	/**
+	 * Create a file from test.ogg with its audio pages repeated
+	 */
+	private static Path createLongFile(final String fileName) throws Exception {
+		final Path testFile = AbstractTestCase.copyAudioToTmp("test.ogg", Paths.get(fileName));
+		final List<byte[]> pages = readPages(testFile);
+		final ByteArrayOutputStream out = new ByteArrayOutputStream();
+		int pageSequence = 0;
+		for (final byte[] page : pages)
+			if (!isAudioPage(page)) {
+				out.write(page);
+				pageSequence++;
+			}
+		for (int i = 0; i < AUDIO_COPIES; i++)
+			for (final byte[] original : pages)
+				if (isAudioPage(original)) {
+					final byte[] page = original.clone();
+					if (i < AUDIO_COPIES - 1)
+						page[HEADER_TYPE_POS] &= ~EOS_FLAG;
+					setSequenceAndChecksum(page, pageSequence++);
+					out.write(page);
+				}
+		Files.write(testFile, out.toByteArray());
+		return testFile;
+	}
+
+	/**
+	 * Check every page has the next sequence number and a valid checksum
+	 */
+	private static List<byte[]> checkPages(final Path file) throws Exception {
+		final List<byte[]> pages = readPages(file);
+		for (int i = 0; i < pages.size(); i++) {
+			final byte[] page = pages.get(i);
+			assertEquals(i, ByteBuffer.wrap(page).order(ByteOrder.LITTLE_ENDIAN).getInt(OggPageHeader.FIELD_PAGE_SEQUENCE_NO_POS));
+			assertTrue(OggCRCFactory.checkPageCRC(ByteBuffer.wrap(page), 0, page.length));
+		}
+		return pages;
+	}
+
+	private static void write(final Path file, final String value) throws Exception {
+		AudioFile af = AudioFileIO.read(file);
+		af.getTag().setField(FieldKey.COMMENT, value);
+		af.commit();
+
+		af = AudioFileIO.read(file);
+		assertEquals(value, af.getTag().getFirst(FieldKey.COMMENT));
+	}
+
+	/**
+	 * Apart from the first audio page, which may share a page with the setup header, the audio pages must be the same
+	 * after the page sequence and checksum fields
+	 */
+	private static void assertSameAudio(final List<byte[]> before, final List<byte[]> after, final int from) {
+		int audioPages = 0;
+		for (final byte[] page : before)
+			if (isAudioPage(page))
+				audioPages++;
+		for (int i = 1; i < audioPages; i++) {
+			final byte[] pageBefore = before.get(before.size() - i);
+			final byte[] pageAfter = after.get(after.size() - i);
+			assertTrue(Arrays.equals(Arrays.copyOfRange(pageBefore, from, pageBefore.length), Arrays.copyOfRange(pageAfter, from, pageAfter.length)));
+		}
+	}
+
+	public void testRenumberMorePages() throws Exception {
+		final Path testFile = createLongFile("testRenumberMorePages.ogg");
+		final List<byte[]> before = checkPages(testFile);
+		write(testFile, LONG_VALUE);
+		final List<byte[]> after = checkPages(testFile);
+		assertTrue(after.size() > before.size());
+		assertSameAudio(before, after, OggPageHeader.OGG_PAGE_HEADER_FIXED_LENGTH);
+	}
+
+	public void testRenumberFewerPages() throws Exception {
+		final Path testFile = createLongFile("testRenumberFewerPages.ogg");
+		final List<byte[]> original = checkPages(testFile);
+		write(testFile, LONG_VALUE);
+		write(testFile, "short");
+		final List<byte[]> after = checkPages(testFile);
+		assertEquals(original.size(), after.size());
+		assertSameAudio(original, after, OggPageHeader.OGG_PAGE_HEADER_FIXED_LENGTH);
+	}
+
+	/**
+	 * Comment changes but still needs the same number of pages so the audio is copied unchanged
+	 */
+	public void testSamePageCount() throws Exception {
+		final Path testFile = createLongFile("testRenumberSamePageCount.ogg");
+		write(testFile, LONG_VALUE);
+		final List<byte[]> before = checkPages(testFile);
+		write(testFile, LONG_VALUE.replace('x', 'y') + "y");
+		final List<byte[]> after = checkPages(testFile);
+		assertEquals(before.size(), after.size());
+		assertSameAudio(before, after, 0);
+	}
+}
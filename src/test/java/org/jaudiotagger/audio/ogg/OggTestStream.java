@@ -0,0 +1,156 @@
+package org.jaudiotagger.audio.ogg;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.jaudiotagger.AbstractTestCase;
+import org.jaudiotagger.audio.ogg.util.OggCRCFactory;
+import org.jaudiotagger.audio.ogg.util.OggPageHeader;
+import org.jaudiotagger.audio.ogg.util.OggPageWriter;
+import org.jaudiotagger.tag.FieldKey;
+import org.jaudiotagger.tag.Tag;
+import org.jaudiotagger.tag.vorbiscomment.VorbisCommentCreator;
+import org.jaudiotagger.tag.vorbiscomment.VorbisCommentTag;
+
+/**
+ * Create Ogg streams for codecs there are no test files for, with random audio packets
+ */
+class OggTestStream {
+	static final int SERIAL_NUMBER = 0x2A2A;
+
+	static final int AUDIO_PAGES = 30;
+
+	private static final int BOS_FLAG = 0x02;
+
+	private static final int EOS_FLAG = 0x04;
+
+	/**
+	 * @return a vorbis comment with artist and title set, without framing bit
+	 */
+	static byte[] createComment(final String artist, final String title) throws Exception {
+		final Tag tag = VorbisCommentTag.createNewTag();
+		tag.setField(FieldKey.ARTIST, artist);
+		tag.setField(FieldKey.TITLE, title);
+		final ByteBuffer bb = new VorbisCommentCreator().convert(tag);
+		final byte[] comment = new byte[bb.remaining()];
+		bb.get(comment);
+		return comment;
+	}
+
+	static byte[] concat(final byte[]... parts) {
+		final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+		for (final byte[] part : parts)
+			baos.write(part, 0, part.length);
+		return baos.toByteArray();
+	}
+
+	/**
+	 * Write the identification header alone on the first page, the header packets from the next page and then audio
+	 * pages each with a few random packets
+	 * 
+	 * @param fileName
+	 * @param identification
+	 * @param headers
+	 * @param samplesPerPage
+	 *            granule position increase per audio page
+	 * @return
+	 */
+	static Path create(final String fileName, final byte[] identification, final List<byte[]> headers, final long samplesPerPage) throws Exception {
+		final Path file = AbstractTestCase.dataTempPath.resolve(fileName);
+		Files.createDirectories(file.getParent());
+		final FileChannel fc = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+		try {
+			fc.write(ByteBuffer.wrap(createPage(BOS_FLAG, 0, 0, identification)));
+			int pageSequence = OggPageWriter.writePackets(headers, SERIAL_NUMBER, 0, fc);
+			final Random random = new Random(fileName.hashCode());
+			for (int i = 1; i <= AUDIO_PAGES; i++) {
+				final byte[][] packets = new byte[3][];
+				for (int j = 0; j < packets.length; j++) {
+					packets[j] = new byte[200 + random.nextInt(600)];
+					random.nextBytes(packets[j]);
+					packets[j][0] = (byte) 0xFF;
+				}
+				fc.write(ByteBuffer.wrap(createPage(i == AUDIO_PAGES ? EOS_FLAG : 0, samplesPerPage * i, ++pageSequence, packets)));
+			}
+		} finally {
+			fc.close();
+		}
+		return file;
+	}
+
+	/**
+	 * @return a single page holding the packets, which must fit on one page
+	 */
+	static byte[] createPage(final int headerType, final long granule, final int pageSequence, final byte[]... packets) {
+		final ByteArrayOutputStream lacing = new ByteArrayOutputStream();
+		final byte[] data = concat(packets);
+		for (final byte[] packet : packets) {
+			for (int i = 0; i < packet.length / OggPageHeader.MAXIMUM_SEGMENT_SIZE; i++)
+				lacing.write(OggPageHeader.MAXIMUM_SEGMENT_SIZE);
+			lacing.write(packet.length % OggPageHeader.MAXIMUM_SEGMENT_SIZE);
+		}
+
+		final ByteBuffer page = ByteBuffer.allocate(OggPageHeader.OGG_PAGE_HEADER_FIXED_LENGTH + lacing.size() + data.length).order(ByteOrder.LITTLE_ENDIAN);
+		page.put(OggPageHeader.CAPTURE_PATTERN);
+		page.put((byte) 0);
+		page.put((byte) headerType);
+		page.putLong(granule);
+		page.putInt(SERIAL_NUMBER);
+		page.putInt(pageSequence);
+		page.putInt(0);
+		page.put((byte) lacing.size());
+		page.put(lacing.toByteArray());
+		page.put(data);
+		OggCRCFactory.setPageCRC(page, 0, page.limit());
+		return page.array();
+	}
+
+	/**
+	 * @return each page of the file, including its header
+	 */
+	static List<byte[]> readPages(final Path file) throws Exception {
+		final ByteBuffer bb = ByteBuffer.wrap(Files.readAllBytes(file));
+		final List<byte[]> pages = new ArrayList<byte[]>();
+		while (bb.hasRemaining()) {
+			final int start = bb.position();
+			final OggPageHeader pageHeader = OggPageHeader.read(bb);
+			final byte[] page = new byte[pageHeader.getRawHeaderData().length + pageHeader.getPageLength()];
+			bb.position(start);
+			bb.get(page);
+			pages.add(page);
+		}
+		return pages;
+	}
+
+	/**
+	 * @return true if the pages are numbered in order from zero and all have a valid checksum
+	 */
+	static boolean isValid(final List<byte[]> pages) {
+		for (int i = 0; i < pages.size(); i++) {
+			final ByteBuffer page = ByteBuffer.wrap(pages.get(i)).order(ByteOrder.LITTLE_ENDIAN);
+			if (page.getInt(OggPageHeader.FIELD_PAGE_SEQUENCE_NO_POS) != i || !OggCRCFactory.checkPageCRC(page, 0, page.limit()))
+				return false;
+		}
+		return true;
+	}
+
+	/**
+	 * @return the data of the last audio pages, which must be unchanged by writing a tag
+	 */
+	static List<ByteBuffer> getAudioData(final List<byte[]> pages) {
+		final List<ByteBuffer> audio = new ArrayList<ByteBuffer>();
+		for (final byte[] page : pages.subList(pages.size() - AUDIO_PAGES, pages.size())) {
+			final int headerLength = OggPageHeader.OGG_PAGE_HEADER_FIXED_LENGTH + (page[OggPageHeader.FIELD_PAGE_SEGMENTS_POS] & 0xFF);
+			audio.add(ByteBuffer.wrap(page, headerLength, page.length - headerLength));
+		}
+		return audio;
+	}
+}
@@ -0,0 +1,56 @@
+package org.jaudiotagger.tag.datatype;
+
+import java.nio.ByteBuffer;
+
+import junit.framework.TestCase;
+
+import org.jaudiotagger.tag.id3.valuepair.TextEncoding;
+
+/**
+ * Test decoding with the per thread codecs
+ */
+public class CharsetCodecsTest extends TestCase {
+	public void testDecodeLatin1() throws Exception {
+		final ByteBuffer buffer = ByteBuffer.wrap("xcaf\u00e9x".getBytes(TextEncoding.CHARSET_ISO_8859_1));
+		buffer.position(1);
+		buffer.limit(5);
+		assertEquals("caf\u00e9", CharsetCodecs.decode(buffer, TextEncoding.CHARSET_ISO_8859_1));
+		assertEquals(5, buffer.position());
+	}
+
+	public void testDecodeUtf8FromDirectBuffer() throws Exception {
+		for (final String value : new String[] { "ascii only", "caf\u00e9 \u4e2d\u6587" }) {
+			final byte[] data = value.getBytes(TextEncoding.CHARSET_UTF_8);
+			final ByteBuffer buffer = ByteBuffer.allocateDirect(data.length);
+			buffer.put(data);
+			buffer.flip();
+			assertEquals(value, CharsetCodecs.decode(buffer, TextEncoding.CHARSET_UTF_8));
+			assertFalse(buffer.hasRemaining());
+		}
+	}
+
+	public void testDecodeUtf16WithBom() throws Exception {
+		final ByteBuffer buffer = ByteBuffer.wrap(new byte[] { (byte) 0xff, (byte) 0xfe, 'a', 0, 'b', 0 });
+		assertEquals("ab", CharsetCodecs.decode(buffer, TextEncoding.CHARSET_UTF_16));
+	}
+
+	public void testDecodeStopsAtMalformedInput() {
+		final ByteBuffer buffer = ByteBuffer.wrap(new byte[] { 'o', 'k', (byte) 0xc3, 'x', 'y' });
+		assertEquals("ok", CharsetCodecs.decode(buffer, TextEncoding.CHARSET_UTF_8));
+	}
+
+	public void testDecodeLargerThanScratch() {
+		final byte[] data = new byte[20000];
+		for (int i = 0; i < data.length; i++)
+			data[i] = (byte) (0x80 | (i & 0x3f));
+		// Lone continuation bytes, decoding stops immediately
+		assertEquals("", CharsetCodecs.decode(ByteBuffer.wrap(data), TextEncoding.CHARSET_UTF_8));
+		assertEquals(data.length / 2, CharsetCodecs.decode(ByteBuffer.wrap(data), TextEncoding.CHARSET_UTF_16BE).length());
+	}
+
+	public void testCodecsAreReusedAndReset() {
+		assertSame(CharsetCodecs.getEncoder(TextEncoding.CHARSET_UTF_16_LE_ENCODING_FORMAT), CharsetCodecs.getEncoder(TextEncoding.CHARSET_UTF_16_LE_ENCODING_FORMAT));
+		assertSame(CharsetCodecs.getDecoder(TextEncoding.CHARSET_UTF_8), CharsetCodecs.getDecoder(TextEncoding.CHARSET_UTF_8));
+		assertTrue(CharsetCodecs.getEncoder(TextEncoding.CHARSET_ISO_8859_1).canEncode("abc"));
+	}
+}
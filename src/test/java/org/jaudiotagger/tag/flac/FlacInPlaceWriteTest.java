@@ -0,0 +1,178 @@
+package org.jaudiotagger.tag.flac;
+
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+import org.jaudiotagger.AbstractTestCase;
+import org.jaudiotagger.audio.AudioFile;
+import org.jaudiotagger.audio.AudioFileIO;
+import org.jaudiotagger.audio.flac.metadatablock.BlockType;
+import org.jaudiotagger.audio.flac.metadatablock.MetadataBlockHeader;
+import org.jaudiotagger.audio.generic.WriteStrategy;
+import org.jaudiotagger.tag.FieldKey;
+import org.jaudiotagger.tag.TagOptionSingleton;
+import org.jaudiotagger.tag.id3.valuepair.ImageFormats;
+import org.jaudiotagger.tag.options.PaddingPolicy;
+import org.jaudiotagger.tag.reference.PictureTypes;
+
+/**
+ * Test Flac tags are written in place around the blocks that have not changed
+ */
+public class FlacInPlaceWriteTest extends TestCase {
+	@Override
+	public void setUp() {
+		TagOptionSingleton.getInstance().setToDefault();
+	}
+
+	@Override
+	public void tearDown() {
+		TagOptionSingleton.getInstance().setToDefault();
+	}
+
+	private static String createLongValue(final int length) {
+		final char[] value = new char[length];
+		Arrays.fill(value, 'x');
+		return new String(value);
+	}
+
+	/**
+	 * @return offset of each picture block in the file
+	 */
+	private static List<Long> getPictureOffsets(final Path file) throws Exception {
+		final List<Long> offsets = new ArrayList<Long>();
+		final RandomAccessFile raf = new RandomAccessFile(file.toFile(), "r");
+		try {
+			raf.seek(4);
+			boolean isLastBlock = false;
+			while (!isLastBlock) {
+				final long offset = raf.getFilePointer();
+				final MetadataBlockHeader mbh = MetadataBlockHeader.readHeader(raf);
+				if (mbh.getBlockType() == BlockType.PICTURE)
+					offsets.add(offset);
+				raf.seek(raf.getFilePointer() + mbh.getDataLength());
+				isLastBlock = mbh.isLastBlock();
+			}
+		} finally {
+			raf.close();
+		}
+		return offsets;
+	}
+
+	/**
+	 * @return size of the padding block that is the last metadata block, or 0
+	 */
+	private static int getLastPadding(final Path file) throws Exception {
+		final RandomAccessFile raf = new RandomAccessFile(file.toFile(), "r");
+		try {
+			raf.seek(4);
+			while (true) {
+				final MetadataBlockHeader mbh = MetadataBlockHeader.readHeader(raf);
+				raf.seek(raf.getFilePointer() + mbh.getDataLength());
+				if (mbh.isLastBlock())
+					return mbh.getBlockType() == BlockType.PADDING ? MetadataBlockHeader.HEADER_LENGTH + mbh.getDataLength() : 0;
+			}
+		} finally {
+			raf.close();
+		}
+	}
+
+	private static byte[] addPictures(final Path testFile) throws Exception {
+		final byte[] imageData = Files.readAllBytes(AbstractTestCase.dataPath.resolve("coverart.png"));
+		final AudioFile f = AudioFileIO.read(testFile);
+		final FlacTag tag = (FlacTag) f.getTag();
+		tag.setField(tag.createArtworkField(imageData, PictureTypes.DEFAULT_ID, ImageFormats.MIME_TYPE_PNG, "front", 200, 200, 24, 0));
+		tag.addField(tag.createArtworkField(Files.readAllBytes(AbstractTestCase.dataPath.resolve("coverart.jpg")), 4, ImageFormats.MIME_TYPE_JPEG, "back", 200, 200, 24, 0));
+		f.commit();
+		return imageData;
+	}
+
+	public void testPicturesNotMovedWhenCommentChanges() throws Exception {
+		final Path testFile = AbstractTestCase.copyAudioToTmp("test2.flac", Paths.get("testFlacInPlacePictures.flac"));
+		addPictures(testFile);
+		final List<Long> pictureOffsets = getPictureOffsets(testFile);
+		final long sizeBefore = Files.size(testFile);
+
+		AudioFile f = AudioFileIO.read(testFile);
+		f.getTag().setField(FieldKey.ARTIST, "a somewhat longer artist than before");
+		assertEquals(WriteStrategy.IN_PLACE, AudioFileIO.write(f));
+		assertEquals(sizeBefore, Files.size(testFile));
+		assertEquals(pictureOffsets, getPictureOffsets(testFile));
+
+		f = AudioFileIO.read(testFile);
+		assertEquals("a somewhat longer artist than before", f.getTag().getFirst(FieldKey.ARTIST));
+		assertEquals(2, ((FlacTag) f.getTag()).getImages().size());
+		assertEquals("front", ((FlacTag) f.getTag()).getImages().get(0).getDescription());
+		assertEquals("back", ((FlacTag) f.getTag()).getImages().get(1).getDescription());
+	}
+
+	/**
+	 * A picture at the offset it was read from is only left there if its content is unchanged, not just its length
+	 */
+	public void testPictureOfSameLengthRewritten() throws Exception {
+		final Path testFile = AbstractTestCase.copyAudioToTmp("test2.flac", Paths.get("testFlacInPlaceChangedPicture.flac"));
+		addPictures(testFile);
+
+		// Image data changed without changing its length
+		AudioFile f = AudioFileIO.read(testFile);
+		final byte[] imageData = ((FlacTag) f.getTag()).getImages().get(0).getImageData();
+		imageData[imageData.length / 2] ^= 0xFF;
+		f.getTag().setField(FieldKey.ARTIST, "artist");
+		assertEquals(WriteStrategy.IN_PLACE, AudioFileIO.write(f));
+
+		f = AudioFileIO.read(testFile);
+		assertEquals("artist", f.getTag().getFirst(FieldKey.ARTIST));
+		assertTrue(Arrays.equals(imageData, ((FlacTag) f.getTag()).getImages().get(0).getImageData()));
+		assertEquals("back", ((FlacTag) f.getTag()).getImages().get(1).getDescription());
+	}
+
+	public void testCommentWrittenIntoSpaceOfRemovedPicture() throws Exception {
+		final Path testFile = AbstractTestCase.copyAudioToTmp("test2.flac", Paths.get("testFlacInPlaceRemovedPicture.flac"));
+		addPictures(testFile);
+		final List<Long> pictureOffsets = getPictureOffsets(testFile);
+		final long sizeBefore = Files.size(testFile);
+
+		// Bigger than the padding but fits in the space of the removed picture
+		final String value = createLongValue(8000);
+		AudioFile f = AudioFileIO.read(testFile);
+		((FlacTag) f.getTag()).getImages().remove(0);
+		f.getTag().setField(FieldKey.COMMENT, value);
+		assertEquals(WriteStrategy.IN_PLACE, AudioFileIO.write(f));
+		assertEquals(sizeBefore, Files.size(testFile));
+		assertEquals(Arrays.asList(pictureOffsets.get(1)), getPictureOffsets(testFile));
+
+		f = AudioFileIO.read(testFile);
+		assertEquals(value, f.getTag().getFirst(FieldKey.COMMENT));
+		assertEquals(1, ((FlacTag) f.getTag()).getImages().size());
+		assertEquals("back", ((FlacTag) f.getTag()).getImages().get(0).getDescription());
+	}
+
+	public void testPaddingPolicyUsedWhenAudioMoved() throws Exception {
+		TagOptionSingleton.getInstance().setFlacPaddingPolicy(PaddingPolicy.fixed(10000));
+		final Path testFile = AbstractTestCase.copyAudioToTmp("test2.flac", Paths.get("testFlacPaddingPolicy.flac"));
+		final byte[] imageData = addPictures(testFile);
+		assertEquals(10000, getLastPadding(testFile));
+
+		final String value = createLongValue(20000);
+		AudioFile f = AudioFileIO.read(testFile);
+		f.getTag().setField(FieldKey.COMMENT, value);
+		assertEquals(WriteStrategy.TEMP_FILE, AudioFileIO.write(f));
+		assertEquals(10000, getLastPadding(testFile));
+
+		f = AudioFileIO.read(testFile);
+		assertEquals(value, f.getTag().getFirst(FieldKey.COMMENT));
+		assertTrue(Arrays.equals(imageData, ((FlacTag) f.getTag()).getImages().get(0).getImageData()));
+
+		TagOptionSingleton.getInstance().setFlacPaddingPolicy(PaddingPolicy.NONE);
+		f.getTag().setField(FieldKey.COMMENT, value + value);
+		assertEquals(WriteStrategy.TEMP_FILE, AudioFileIO.write(f));
+		assertEquals(0, getLastPadding(testFile));
+		assertEquals(value + value, AudioFileIO.read(testFile).getTag().getFirst(FieldKey.COMMENT));
+	}
+}
@@ -0,0 +1,105 @@
+package org.jaudiotagger.tag.flac;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+
+import org.jaudiotagger.AbstractTestCase;
+import org.jaudiotagger.audio.AudioFile;
+import org.jaudiotagger.audio.AudioFileIO;
+import org.jaudiotagger.audio.flac.FlacTagCreator;
+import org.jaudiotagger.audio.flac.metadatablock.MetadataBlockDataPicture;
+import org.jaudiotagger.tag.FieldKey;
+import org.jaudiotagger.tag.TagOptionSingleton;
+import org.jaudiotagger.tag.id3.valuepair.ImageFormats;
+import org.jaudiotagger.tag.reference.PictureTypes;
+
+/**
+ * Test reading Flac picture blocks with the image data left in the file until accessed
+ */
+public class LazyFlacPictureTest extends AbstractTestCase {
+	@Override
+	public void tearDown() {
+		TagOptionSingleton.getInstance().setToDefault();
+	}
+
+	private static byte[] addPicture(final Path testFile) throws Exception {
+		final byte[] imageData = Files.readAllBytes(AbstractTestCase.dataPath.resolve("coverart.png"));
+		final AudioFile f = AudioFileIO.read(testFile);
+		final FlacTag tag = (FlacTag) f.getTag();
+		tag.setField(FieldKey.TITLE, "title");
+		tag.setField(tag.createArtworkField(imageData, PictureTypes.DEFAULT_ID, ImageFormats.MIME_TYPE_PNG, "cover", 200, 200, 24, 0));
+		f.commit();
+		return imageData;
+	}
+
+	public void testDefaultIsLazy() {
+		assertTrue(TagOptionSingleton.getInstance().isLazyFlacPictureLoading());
+	}
+
+	public void testImageDataReadWhenAccessed() throws Exception {
+		final Path testFile = AbstractTestCase.copyAudioToTmp("test2.flac", Paths.get("testLazyFlacPicture.flac"));
+		final byte[] imageData = addPicture(testFile);
+
+		TagOptionSingleton.getInstance().setLazyFlacPictureLoading(true);
+		final AudioFile f = AudioFileIO.read(testFile);
+		final FlacTag tag = (FlacTag) f.getTag();
+		assertEquals("title", tag.getFirst(FieldKey.TITLE));
+		assertEquals(1, tag.getImages().size());
+		final MetadataBlockDataPicture image = tag.getImages().get(0);
+		assertFalse(image.isImageDataLoaded());
+		assertEquals(imageData.length, image.getImageDataLength());
+		assertEquals(ImageFormats.MIME_TYPE_PNG, image.getMimeType());
+		assertEquals("cover", image.getDescription());
+
+		assertTrue(Arrays.equals(imageData, image.getImageData()));
+		assertTrue(image.isImageDataLoaded());
+	}
+
+	public void testUntouchedPictureCopiedToNewFile() throws Exception {
+		final Path testFile = AbstractTestCase.copyAudioToTmp("test2.flac", Paths.get("testLazyFlacPictureCopied.flac"));
+		final byte[] imageData = addPicture(testFile);
+
+		TagOptionSingleton.getInstance().setLazyFlacPictureLoading(true);
+		AudioFile f = AudioFileIO.read(testFile);
+		FlacTag tag = (FlacTag) f.getTag();
+
+		// Too big to fit in the padding so the audio has to be moved
+		final char[] comment = new char[FlacTagCreator.DEFAULT_PADDING * 2];
+		Arrays.fill(comment, 'c');
+		tag.setField(FieldKey.COMMENT, new String(comment));
+		f.commit();
+		final MetadataBlockDataPicture image = tag.getImages().get(0);
+		assertFalse(image.isImageDataLoaded());
+
+		// Found in the new file before it replaced the original, and moved to it once it had
+		assertEquals(testFile, image.getBlockFile());
+		assertFalse(image.moveToWrittenBlock(testFile));
+		assertTrue(Arrays.equals(imageData, image.getImageData()));
+
+		TagOptionSingleton.getInstance().setLazyFlacPictureLoading(false);
+		f = AudioFileIO.read(testFile);
+		tag = (FlacTag) f.getTag();
+		assertEquals("title", tag.getFirst(FieldKey.TITLE));
+		assertEquals(new String(comment), tag.getFirst(FieldKey.COMMENT));
+		assertEquals(1, tag.getImages().size());
+		assertTrue(Arrays.equals(imageData, tag.getImages().get(0).getImageData()));
+	}
+
+	public void testPictureKeptWhenWrittenInPlace() throws Exception {
+		final Path testFile = AbstractTestCase.copyAudioToTmp("test2.flac", Paths.get("testLazyFlacPictureInPlace.flac"));
+		final byte[] imageData = addPicture(testFile);
+
+		TagOptionSingleton.getInstance().setLazyFlacPictureLoading(true);
+		AudioFile f = AudioFileIO.read(testFile);
+		f.getTag().setField(FieldKey.ARTIST, "artist");
+		f.commit();
+
+		TagOptionSingleton.getInstance().setLazyFlacPictureLoading(false);
+		f = AudioFileIO.read(testFile);
+		final FlacTag tag = (FlacTag) f.getTag();
+		assertEquals("artist", tag.getFirst(FieldKey.ARTIST));
+		assertTrue(Arrays.equals(imageData, tag.getImages().get(0).getImageData()));
+	}
+}
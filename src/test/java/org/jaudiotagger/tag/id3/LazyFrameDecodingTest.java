@@ -0,0 +1,113 @@
+package org.jaudiotagger.tag.id3;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+
+import org.jaudiotagger.AbstractTestCase;
+import org.jaudiotagger.audio.AudioFileIO;
+import org.jaudiotagger.audio.mp3.MP3File;
+import org.jaudiotagger.tag.FieldKey;
+import org.jaudiotagger.tag.TagOptionSingleton;
+import org.jaudiotagger.tag.id3.framebody.FrameBodyAPIC;
+import org.jaudiotagger.tag.id3.valuepair.TextEncoding;
+import org.jaudiotagger.tag.reference.PictureTypes;
+
+/**
+ * Test reading ID3v2 tags with frame body decoding deferred until the body is accessed
+ */
+public class LazyFrameDecodingTest extends AbstractTestCase {
+	private static final byte[] IMAGE_DATA = { (byte) 0x89, 'P', 'N', 'G', 0, 1, 2, 3, 4, 5, 6, 7 };
+
+	@Override
+	public void tearDown() {
+		TagOptionSingleton.getInstance().setToDefault();
+	}
+
+	private static void addFrames(final AbstractID3v2Tag tag) throws Exception {
+		tag.setField(FieldKey.TITLE, "title");
+		tag.setField(FieldKey.ARTIST, "artist");
+		final AbstractID3v2Frame frame = tag.createFrame(ID3v24Frames.FRAME_ID_ATTACHED_PICTURE);
+		frame.setBody(new FrameBodyAPIC(TextEncoding.ISO_8859_1, "image/png", (byte) PictureTypes.DEFAULT_ID.intValue(), "cover", IMAGE_DATA));
+		tag.setFrame(frame);
+	}
+
+	private static byte[] write(final AbstractID3v2Tag tag) throws Exception {
+		final ByteArrayOutputStream out = new ByteArrayOutputStream();
+		tag.write(Channels.newChannel(out));
+		return out.toByteArray();
+	}
+
+	public void testUntouchedFramesNotDecoded() throws Exception {
+		final ID3v24Tag tag = new ID3v24Tag();
+		addFrames(tag);
+		final byte[] original = write(tag);
+
+		TagOptionSingleton.getInstance().setLazyFrameDecoding(true);
+		final ID3v24Tag lazy = new ID3v24Tag(ByteBuffer.wrap(original), "");
+		final AbstractID3v2Frame picture = (AbstractID3v2Frame) lazy.getFrame(ID3v24Frames.FRAME_ID_ATTACHED_PICTURE);
+		assertFalse(picture.isBodyDecoded());
+		assertEquals(picture.getSize(), ((AbstractID3v2Frame) tag.getFrame(ID3v24Frames.FRAME_ID_ATTACHED_PICTURE)).getSize());
+
+		assertEquals("artist", lazy.getFirst(FieldKey.ARTIST));
+		assertTrue(((AbstractID3v2Frame) lazy.getFrame(ID3v24Frames.FRAME_ID_ARTIST)).isBodyDecoded());
+		assertFalse(picture.isBodyDecoded());
+		assertTrue(Arrays.equals(original, write(lazy)));
+
+		assertTrue(Arrays.equals(IMAGE_DATA, ((FrameBodyAPIC) picture.getBody()).getImageData()));
+		assertTrue(picture.isBodyDecoded());
+	}
+
+	public void testUntouchedFrameWrittenBackUnchanged() throws Exception {
+		final ID3v23Tag tag = new ID3v23Tag();
+		addFrames(tag);
+		final byte[] original = write(tag);
+		final int pictureSize = ((AbstractID3v2Frame) tag.getFrame(ID3v23Frames.FRAME_ID_V3_ATTACHED_PICTURE)).getSize();
+		final int pictureOffset = indexOf(original, new byte[] { 'A', 'P', 'I', 'C' });
+		final byte[] picture = Arrays.copyOfRange(original, pictureOffset, pictureOffset + pictureSize);
+
+		TagOptionSingleton.getInstance().setLazyFrameDecoding(true);
+		final ID3v23Tag lazy = new ID3v23Tag(ByteBuffer.wrap(original), "");
+		lazy.setField(FieldKey.ARTIST, "another artist");
+		final byte[] written = write(lazy);
+		assertTrue(indexOf(written, picture) > 0);
+		assertFalse(((AbstractID3v2Frame) lazy.getFrame(ID3v23Frames.FRAME_ID_V3_ATTACHED_PICTURE)).isBodyDecoded());
+
+		TagOptionSingleton.getInstance().setLazyFrameDecoding(false);
+		final ID3v23Tag reread = new ID3v23Tag(ByteBuffer.wrap(written), "");
+		assertEquals("another artist", reread.getFirst(FieldKey.ARTIST));
+		assertEquals("title", reread.getFirst(FieldKey.TITLE));
+		assertTrue(Arrays.equals(IMAGE_DATA, ((FrameBodyAPIC) ((AbstractID3v2Frame) reread.getFrame(ID3v23Frames.FRAME_ID_V3_ATTACHED_PICTURE)).getBody()).getImageData()));
+	}
+
+	public void testLazyReadOfFile() throws Exception {
+		final Path testFile = AbstractTestCase.copyAudioToTmp("testV1.mp3", Paths.get("testLazyFrameDecoding.mp3"));
+		MP3File mp3File = (MP3File) AudioFileIO.read(testFile);
+		final ID3v24Tag tag = new ID3v24Tag();
+		addFrames(tag);
+		mp3File.setID3v2Tag(tag);
+		mp3File.save();
+
+		TagOptionSingleton.getInstance().setLazyFrameDecoding(true);
+		mp3File = (MP3File) AudioFileIO.read(testFile);
+		assertEquals("title", mp3File.getID3v2Tag().getFirst(FieldKey.TITLE));
+		mp3File.getID3v2Tag().setField(FieldKey.TITLE, "new title");
+		mp3File.save();
+
+		TagOptionSingleton.getInstance().setLazyFrameDecoding(false);
+		mp3File = (MP3File) AudioFileIO.read(testFile);
+		assertEquals("new title", mp3File.getID3v2Tag().getFirst(FieldKey.TITLE));
+		assertEquals("artist", mp3File.getID3v2Tag().getFirst(FieldKey.ARTIST));
+		assertTrue(Arrays.equals(IMAGE_DATA, ((FrameBodyAPIC) ((AbstractID3v2Frame) mp3File.getID3v2Tag().getFrame(ID3v24Frames.FRAME_ID_ATTACHED_PICTURE)).getBody()).getImageData()));
+	}
+
+	private static int indexOf(final byte[] data, final byte[] pattern) {
+		for (int i = 0; i <= data.length - pattern.length; i++)
+			if (Arrays.equals(pattern, Arrays.copyOfRange(data, i, i + pattern.length)))
+				return i;
+		return -1;
+	}
+}
@@ -1,7 +1,12 @@
 package org.jaudiotagger.tag.id3.framebody;
 
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
 import org.jaudiotagger.AbstractTestCase;
 import org.jaudiotagger.tag.id3.ID3v24Frames;
+import org.jaudiotagger.tag.id3.valuepair.TextEncoding;
 
 /**
  * Test APICFrameBody
@@ -47,4 +52,25 @@ public class FrameBodyAPICTest extends AbstractTestCase {
 
 	}
 
+
+	public void testReadFrameBodyFromDirectBuffer() throws Exception {
+		final byte[] imageData = new byte[1000];
+		for (int i = 0; i < imageData.length; i++)
+			imageData[i] = (byte) i;
+		final ByteArrayOutputStream out = new ByteArrayOutputStream();
+		new FrameBodyAPIC(TextEncoding.ISO_8859_1, "image/png", (byte) 3, DESCRIPTION, imageData).write(out);
+		final byte[] body = out.toByteArray();
+
+		// Body read from the middle of a direct buffer, as it would be within a mapped tag
+		final ByteBuffer tag = ByteBuffer.allocateDirect(body.length + 20);
+		tag.position(10);
+		tag.put(body);
+		tag.position(10);
+		final FrameBodyAPIC fb = new FrameBodyAPIC(tag, body.length);
+
+		assertEquals(10 + body.length, tag.position());
+		assertEquals("image/png", fb.getMimeType());
+		assertEquals(DESCRIPTION, fb.getDescription());
+		assertTrue(Arrays.equals(imageData, fb.getImageData()));
+	}
 }
@@ -0,0 +1,48 @@
+package org.jaudiotagger.tag.id3.framebody;
+
+import java.nio.ByteBuffer;
+
+import org.jaudiotagger.AbstractTestCase;
+import org.jaudiotagger.tag.id3.ID3v22Frames;
+import org.jaudiotagger.tag.id3.ID3v23Frame;
+import org.jaudiotagger.tag.id3.ID3v24Frame;
+import org.jaudiotagger.tag.id3.ID3v24Frames;
+
+/**
+ * Test the frame body lookups done by FrameBodyRegistry
+ */
+public class FrameBodyRegistryTest extends AbstractTestCase {
+	public void testKnownIdentifiers() {
+		assertEquals(FrameBodyTPE1.class, FrameBodyRegistry.getFrameBodyClass(ID3v24Frames.FRAME_ID_ARTIST));
+		assertEquals(FrameBodyPIC.class, FrameBodyRegistry.getFrameBodyClass(ID3v22Frames.FRAME_ID_V2_ATTACHED_PICTURE));
+		assertNotNull(FrameBodyRegistry.getEmptyConstructor(ID3v24Frames.FRAME_ID_ARTIST));
+		assertNotNull(FrameBodyRegistry.getReadConstructor(ID3v24Frames.FRAME_ID_ARTIST));
+	}
+
+	public void testUnknownIdentifier() {
+		assertNull(FrameBodyRegistry.getFrameBodyClass("ZZZZ"));
+		assertNull(FrameBodyRegistry.getEmptyConstructor("ZZZZ"));
+		assertNull(FrameBodyRegistry.getReadConstructor("ZZZZ"));
+
+		// Lookups of an unknown identifier are not remembered but give the same answer again
+		assertNull(FrameBodyRegistry.getReadConstructor("ZZZZ"));
+	}
+
+	public void testUnknownIdentifiersNotRemembered() {
+		final int size = FrameBodyRegistry.size();
+		for (int i = 0; i < 1000; i++)
+			assertNull(FrameBodyRegistry.getFrameBodyClass(String.format("Z%03d", i)));
+		assertEquals(size, FrameBodyRegistry.size());
+	}
+
+	public void testFramesCreatedThroughRegistry() throws Exception {
+		final ID3v24Frame frame = new ID3v24Frame(ID3v24Frames.FRAME_ID_ARTIST);
+		assertTrue(frame.getBody() instanceof FrameBodyTPE1);
+
+		final ID3v23Frame unknown = new ID3v23Frame("ZZZZ");
+		assertTrue(unknown.getBody() instanceof FrameBodyUnsupported);
+
+		final FrameBodyTPE1 body = (FrameBodyTPE1) FrameBodyRegistry.getReadConstructor(ID3v24Frames.FRAME_ID_ARTIST).newInstance(ByteBuffer.wrap(new byte[] { 0, 'b', 'e', 'c', 'k' }), 5);
+		assertEquals("beck", body.getText());
+	}
+}
@@ -0,0 +1,115 @@
+package org.jaudiotagger.tag.mp4;
+
+import java.io.RandomAccessFile;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import junit.framework.TestCase;
+
+import org.jaudiotagger.AbstractTestCase;
+import org.jaudiotagger.audio.exceptions.CannotReadException;
+import org.jaudiotagger.audio.mp4.Mp4AtomIdentifier;
+import org.jaudiotagger.audio.mp4.Mp4AtomTree;
+import org.jaudiotagger.audio.mp4.Mp4BoxIndex;
+import org.jaudiotagger.audio.mp4.atom.Mp4BoxHeader;
+
+/**
+ * Check the box index finds the same boxes as the atom tree
+ */
+public class M4aBoxIndexTest extends TestCase {
+
+	private static void assertSameBox(final Mp4BoxHeader expected, final Mp4BoxHeader actual) {
+		if (expected == null) {
+			assertNull(actual);
+			return;
+		}
+		assertEquals(expected.getId(), actual.getId());
+		assertEquals(expected.getFilePos(), actual.getFilePos());
+		assertEquals(expected.getLongLength(), actual.getLongLength());
+		assertEquals(expected.getHeaderLength(), actual.getHeaderLength());
+	}
+
+	private static void checkIndex(final String fileName, final int tracks) throws Exception {
+		final Path testFile = AbstractTestCase.copyAudioToTmp(fileName);
+		final RandomAccessFile raf = new RandomAccessFile(testFile.toFile(), "r");
+		try {
+			final Mp4BoxIndex index = new Mp4BoxIndex(raf);
+			final Mp4AtomTree tree = new Mp4AtomTree(raf, false);
+			assertSameBox(tree.getBoxHeader(tree.getMoovNode()), index.getBoxHeader(index.getMoov()));
+			assertSameBox(tree.getBoxHeader(tree.getMdatNode()), index.getBoxHeader(index.getMdat()));
+			assertSameBox(tree.getBoxHeader(tree.getUdtaNode()), index.getBoxHeader(index.getUdta()));
+			assertSameBox(tree.getBoxHeader(tree.getMetaNode()), index.getBoxHeader(index.getMeta()));
+			assertSameBox(tree.getBoxHeader(tree.getIlstNode()), index.getBoxHeader(index.getIlst()));
+			assertSameBox(tree.getBoxHeader(tree.getHdlrWithinMetaNode()), index.getBoxHeader(index.getHdlrWithinMeta()));
+			assertSameBox(tree.getBoxHeader(tree.getStcoNode()), index.getBoxHeader(index.getStcoBox()));
+			assertEquals(tracks, index.getChunkOffsetBoxes().size());
+			assertEquals(tracks, index.findAll(Mp4BoxIndex.TRAK).length);
+
+			// Ilst is within meta within udta within moov
+			final int ilst = index.getIlst();
+			assertEquals(Mp4AtomIdentifier.ILST.getFieldName(), Mp4BoxIndex.toId(index.getType(ilst)));
+			assertEquals(index.getMeta(), index.getParent(ilst));
+			assertEquals(index.getUdta(), index.getParent(index.getMeta()));
+			assertEquals(index.getMoov(), index.getParent(index.getUdta()));
+			assertEquals(Mp4BoxIndex.NONE, index.getParent(index.getMoov()));
+			assertEquals(index.getHdlrWithinMeta(), index.getPreviousSibling(ilst));
+			assertEquals(index.getMoov(), index.find(Mp4BoxIndex.MOOV, Mp4BoxIndex.NONE));
+		} finally {
+			raf.close();
+		}
+	}
+
+	public void testIndexSingleTrack() throws Exception {
+		checkIndex("test5.m4a", 1);
+	}
+
+	public void testIndexMultipleTracks() throws Exception {
+		checkIndex("test16.m4a", 3);
+	}
+
+	public void testFreeAfterIlst() throws Exception {
+		final Path testFile = AbstractTestCase.copyAudioToTmp("test5.m4a");
+		final RandomAccessFile raf = new RandomAccessFile(testFile.toFile(), "r");
+		try {
+			final Mp4BoxIndex index = new Mp4BoxIndex(raf);
+			int metaLevelFree = Mp4BoxIndex.NONE;
+			int topLevelFree = Mp4BoxIndex.NONE;
+			for (final int free : index.findAll(Mp4BoxIndex.FREE))
+				if (index.getParent(free) == Mp4BoxIndex.NONE)
+					topLevelFree = free;
+				else if (index.getPreviousSibling(free) == index.getIlst())
+					metaLevelFree = free;
+			assertEquals(index.getMeta(), index.getParent(metaLevelFree));
+			assertEquals(index.getFilePos(index.getIlst()) + index.getLength(index.getIlst()), index.getFilePos(metaLevelFree));
+			assertEquals(topLevelFree, index.find(Mp4BoxIndex.FREE, Mp4BoxIndex.NONE));
+
+			// Found while indexing, without searching
+			assertEquals(metaLevelFree, index.getFreeAfterIlst());
+			assertEquals(topLevelFree, index.getTopLevelFree());
+		} finally {
+			raf.close();
+		}
+	}
+
+	public void testChildLongerThanParent() throws Exception {
+		final Path testFile = AbstractTestCase.copyAudioToTmp("test5.m4a", Paths.get("testChildLongerThanParent.m4a"));
+		final RandomAccessFile raf = new RandomAccessFile(testFile.toFile(), "rw");
+		try {
+			final Mp4BoxIndex index = new Mp4BoxIndex(raf);
+			final int trak = index.find(Mp4BoxIndex.TRAK, index.getMoov());
+			final long moovEnd = index.getFilePos(index.getMoov()) + index.getLength(index.getMoov());
+
+			// Make trak extend past the end of moov
+			raf.seek(index.getFilePos(trak));
+			raf.writeInt((int) (moovEnd - index.getFilePos(trak) + 1));
+			try {
+				new Mp4BoxIndex(raf);
+				fail("Expected CannotReadException");
+			} catch (final CannotReadException cre) {
+				assertTrue(cre.getMessage().startsWith("The atom trak states its data length"));
+			}
+		} finally {
+			raf.close();
+		}
+	}
+}
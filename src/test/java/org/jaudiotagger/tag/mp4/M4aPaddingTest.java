@@ -0,0 +1,108 @@
+package org.jaudiotagger.tag.mp4;
+
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import junit.framework.TestCase;
+
+import org.jaudiotagger.AbstractTestCase;
+import org.jaudiotagger.audio.AudioFile;
+import org.jaudiotagger.audio.AudioFileIO;
+import org.jaudiotagger.audio.generic.WriteStrategy;
+import org.jaudiotagger.audio.mp4.Mp4BoxIndex;
+import org.jaudiotagger.tag.FieldKey;
+import org.jaudiotagger.tag.TagOptionSingleton;
+import org.jaudiotagger.tag.options.PaddingPolicy;
+
+/**
+ * Test padding is reserved after ilst when mdat has to be moved so later edits can be written in place
+ */
+public class M4aPaddingTest extends TestCase {
+
+	/**
+	 * Large enough that mdat has to be shifted
+	 */
+	private static final String LONG_VALUE = new String(new char[4000]).replace('\0', 'x');
+
+	@Override
+	public void tearDown() {
+		TagOptionSingleton.getInstance().setToDefault();
+	}
+
+	/**
+	 * @return size of the free atom after ilst, or 0
+	 */
+	private static long getFreeAfterIlst(final Path file) throws Exception {
+		final RandomAccessFile raf = new RandomAccessFile(file.toFile(), "r");
+		try {
+			final Mp4BoxIndex index = new Mp4BoxIndex(raf);
+			for (final int free : index.findAll(Mp4BoxIndex.FREE))
+				if (index.getPreviousSibling(free) == index.getIlst())
+					return index.getLength(free);
+			return 0;
+		} finally {
+			raf.close();
+		}
+	}
+
+	private static WriteStrategy write(final Path file, final FieldKey key, final String value) throws Exception {
+		AudioFile af = AudioFileIO.read(file);
+		af.getTag().setField(key, value);
+		final WriteStrategy strategy = AudioFileIO.write(af);
+		af = AudioFileIO.read(file);
+		assertEquals(value, af.getTag().getFirst(key));
+		return strategy;
+	}
+
+	public void testPaddingPolicy() {
+		assertEquals(0, PaddingPolicy.NONE.getPaddingSize(10000));
+		assertEquals(2048, PaddingPolicy.fixed(2048).getPaddingSize(10000));
+		assertEquals(1000, PaddingPolicy.percentageOfTag(10).getPaddingSize(10000));
+		assertEquals(4096, PaddingPolicy.percentageOfTag(10, 4096).getPaddingSize(10000));
+		assertEquals(3048, new PaddingPolicy(2048, 10, 0).getPaddingSize(10000));
+	}
+
+	public void testNoPaddingByDefault() throws Exception {
+		final Path testFile = AbstractTestCase.copyAudioToTmp("test5.m4a", Paths.get("testNoPadding.m4a"));
+		assertEquals(WriteStrategy.TEMP_FILE, write(testFile, FieldKey.COMMENT, LONG_VALUE));
+		assertEquals(0, getFreeAfterIlst(testFile));
+	}
+
+	public void testFixedPaddingAllowsLaterEditsInPlace() throws Exception {
+		TagOptionSingleton.getInstance().setMp4PaddingPolicy(PaddingPolicy.fixed(2048));
+		final Path testFile = AbstractTestCase.copyAudioToTmp("test5.m4a", Paths.get("testFixedPadding.m4a"));
+		assertEquals(WriteStrategy.TEMP_FILE, write(testFile, FieldKey.COMMENT, LONG_VALUE));
+		assertEquals(2048, getFreeAfterIlst(testFile));
+
+		// Later edits use the padding
+		final long size = Files.size(testFile);
+		assertEquals(WriteStrategy.IN_PLACE, write(testFile, FieldKey.TITLE, "a longer title than before"));
+		assertEquals(WriteStrategy.IN_PLACE, write(testFile, FieldKey.RATING, "80"));
+		assertEquals(size, Files.size(testFile));
+		assertTrue(getFreeAfterIlst(testFile) < 2048);
+	}
+
+	/**
+	 * No udta so the metadata structure is created with padding after ilst
+	 */
+	public void testPaddingWhenCreatingMetadata() throws Exception {
+		TagOptionSingleton.getInstance().setMp4PaddingPolicy(PaddingPolicy.percentageOfTag(50, 1024));
+		final Path testFile = AbstractTestCase.copyAudioToTmp("test41.m4a", Paths.get("testCreatePadding.m4a"));
+		assertEquals(WriteStrategy.TEMP_FILE, write(testFile, FieldKey.TITLE, "title"));
+		assertEquals(1024, getFreeAfterIlst(testFile));
+		assertEquals(WriteStrategy.IN_PLACE, write(testFile, FieldKey.ARTIST, "artist"));
+	}
+
+	/**
+	 * The chunk offset tables of the tracks after ilst also move with the padding
+	 */
+	public void testPaddingWithMultipleTracks() throws Exception {
+		TagOptionSingleton.getInstance().setMp4PaddingPolicy(PaddingPolicy.fixed(1000));
+		final Path testFile = AbstractTestCase.copyAudioToTmp("test16.m4a", Paths.get("testMultiTrackPadding.m4a"));
+		assertEquals(WriteStrategy.TEMP_FILE, write(testFile, FieldKey.COMMENT, LONG_VALUE));
+		assertEquals(1000, getFreeAfterIlst(testFile));
+		assertEquals(WriteStrategy.IN_PLACE, write(testFile, FieldKey.TITLE, "title"));
+	}
+}
@@ -0,0 +1,81 @@
+package org.jaudiotagger.tag.mp4;
+
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+import junit.framework.TestCase;
+
+import org.jaudiotagger.AbstractTestCase;
+import org.jaudiotagger.audio.AudioFile;
+import org.jaudiotagger.audio.AudioFileIO;
+import org.jaudiotagger.audio.ReadOptions;
+import org.jaudiotagger.audio.generic.GenericAudioHeader;
+import org.jaudiotagger.audio.generic.ReadContext;
+import org.jaudiotagger.audio.mp4.Mp4BoxIndex;
+import org.jaudiotagger.audio.mp4.Mp4InfoReader;
+import org.jaudiotagger.audio.mp4.Mp4TagReader;
+import org.jaudiotagger.audio.mp4.atom.Mp4BoxHeader;
+import org.jaudiotagger.tag.FieldKey;
+
+/**
+ * Check the audio info and tag are read from a single read of the moov atom
+ */
+public class M4aSharedMoovReadTest extends TestCase {
+
+	public void testMoovReadOnce() throws Exception {
+		final Path testFile = AbstractTestCase.copyAudioToTmp("test5.m4a");
+		final RandomAccessFile raf = new RandomAccessFile(testFile.toFile(), "r");
+		try {
+			final ReadContext context = new ReadContext(testFile, raf);
+			final Mp4BoxIndex boxIndex = new Mp4BoxIndex(context);
+			final Mp4BoxHeader moovHeader = boxIndex.getBoxHeader(boxIndex.getMoov());
+			assertEquals(moovHeader.getDataLength(), context.getBytesRead());
+			// Copied rather than mapped so nothing holds on to the file after it is closed
+			assertFalse(boxIndex.getMoovBuffer().isDirect());
+
+			raf.seek(0);
+			final GenericAudioHeader info = new Mp4InfoReader().read(raf, boxIndex);
+			final Mp4Tag tag = new Mp4TagReader().read(boxIndex, ReadOptions.ALL);
+			assertEquals(moovHeader.getDataLength(), context.getBytesRead());
+
+			// Same as reading moov separately for each
+			raf.seek(0);
+			assertEquals(new Mp4InfoReader().read(raf).toString(), info.toString());
+			raf.seek(0);
+			assertEquals(new Mp4TagReader().read(raf).toString(), tag.toString());
+		} finally {
+			raf.close();
+		}
+	}
+
+	public void testReadThenWrite() throws Exception {
+		final Path testFile = AbstractTestCase.copyAudioToTmp("test5.m4a");
+		AudioFile af = AudioFileIO.read(testFile);
+		assertEquals(44100, af.getAudioHeader().getSampleRateAsNumber());
+		af.getTag().setField(FieldKey.ARTIST, "changed");
+		af.commit();
+
+		af = AudioFileIO.read(testFile);
+		assertEquals("changed", af.getTag().getFirst(FieldKey.ARTIST));
+		assertEquals(44100, af.getAudioHeader().getSampleRateAsNumber());
+	}
+
+	public void testReadThenRenameAndOverwrite() throws Exception {
+		final Path testFile = AbstractTestCase.copyAudioToTmp("test5.m4a");
+		final Path renamed = testFile.resolveSibling("test5-renamed.m4a");
+		Files.deleteIfExists(renamed);
+		AudioFile af = AudioFileIO.read(testFile);
+		final String artist = af.getTag().getFirst(FieldKey.ARTIST);
+
+		// The file must not be held open or mapped once it has been read
+		Files.move(testFile, renamed);
+		Files.copy(renamed, testFile);
+		Files.copy(renamed, testFile, StandardCopyOption.REPLACE_EXISTING);
+		Files.delete(renamed);
+
+		af = AudioFileIO.read(testFile);
+		assertEquals(artist, af.getTag().getFirst(FieldKey.ARTIST));
+	}
+}
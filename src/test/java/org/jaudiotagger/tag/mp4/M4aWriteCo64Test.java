@@ -0,0 +1,167 @@
+package org.jaudiotagger.tag.mp4;
+
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+
+import javax.swing.tree.DefaultMutableTreeNode;
+
+import junit.framework.TestCase;
+
+import org.jaudiotagger.AbstractTestCase;
+import org.jaudiotagger.audio.AudioFile;
+import org.jaudiotagger.audio.AudioFileIO;
+import org.jaudiotagger.audio.exceptions.CannotWriteException;
+import org.jaudiotagger.audio.mp4.Mp4AtomTree;
+import org.jaudiotagger.audio.mp4.atom.Mp4BoxHeader;
+import org.jaudiotagger.audio.mp4.atom.Mp4StcoBox;
+import org.jaudiotagger.tag.FieldKey;
+
+/**
+ * Test writing files with a co64 chunk offset table and a mdat box with a 64 bit largesize header, as used for files
+ * over 4GB
+ */
+public class M4aWriteCo64Test extends TestCase {
+
+	/**
+	 * Large enough that the mdat has to be shifted
+	 */
+	private static final String LONG_VALUE = new String(new char[4000]).replace('\0', 'x');
+
+	private static Mp4AtomTree readTree(final Path file) throws Exception {
+		final RandomAccessFile raf = new RandomAccessFile(file.toFile(), "r");
+		try {
+			return new Mp4AtomTree(raf, false);
+		} finally {
+			raf.close();
+		}
+	}
+
+	/**
+	 * Convert test5.m4a so that its stco box is a co64 box and its mdat header uses largesize
+	 */
+	private static Path createCo64File(final String fileName) throws Exception {
+		final Path testFile = AbstractTestCase.copyAudioToTmp("test5.m4a", Paths.get(fileName));
+		final byte[] data = Files.readAllBytes(testFile);
+		final Mp4AtomTree tree = readTree(testFile);
+		final Mp4StcoBox stco = tree.getStco();
+		final Mp4BoxHeader stcoHeader = stco.getHeader();
+		final Mp4BoxHeader mdatHeader = tree.getBoxHeader(tree.getMdatNode());
+
+		final int co64Length = Mp4BoxHeader.HEADER_LENGTH + 8 + stco.getNoOfOffSets() * 8;
+		final int growth = co64Length - stcoHeader.getLength();
+		final int offsetAdjustment = growth + Mp4BoxHeader.LARGESIZE_LENGTH;
+
+		final ByteBuffer out = ByteBuffer.allocate(data.length + offsetAdjustment);
+		out.put(data, 0, (int) stcoHeader.getFilePos());
+		out.putInt(co64Length).put("co64".getBytes("ISO-8859-1")).putInt(0).putInt(stco.getNoOfOffSets());
+		for (int i = 0; i < stco.getNoOfOffSets(); i++)
+			out.putLong(stco.getOffset(i) + offsetAdjustment);
+		final int afterStco = (int) (stcoHeader.getFilePos() + stcoHeader.getLength());
+		out.put(data, afterStco, (int) mdatHeader.getFilePos() - afterStco);
+		out.putInt(1).put("mdat".getBytes("ISO-8859-1")).putLong(mdatHeader.getLength() + Mp4BoxHeader.LARGESIZE_LENGTH);
+		final int mdatData = (int) mdatHeader.getFilePos() + Mp4BoxHeader.HEADER_LENGTH;
+		out.put(data, mdatData, data.length - mdatData);
+
+		// Grow the boxes containing co64
+		DefaultMutableTreeNode node = (DefaultMutableTreeNode) tree.getStcoNode().getParent();
+		while (node.getUserObject() != null) {
+			final Mp4BoxHeader header = (Mp4BoxHeader) node.getUserObject();
+			out.putInt((int) header.getFilePos(), header.getLength() + growth);
+			node = (DefaultMutableTreeNode) node.getParent();
+		}
+		Files.write(testFile, out.array());
+		return testFile;
+	}
+
+	public void testReadCo64File() throws Exception {
+		final Path testFile = createCo64File("testCo64Read.m4a");
+		final Mp4AtomTree tree = readTree(testFile);
+		final Mp4BoxHeader mdatHeader = tree.getBoxHeader(tree.getMdatNode());
+		assertEquals(Mp4BoxHeader.LARGE_HEADER_LENGTH, mdatHeader.getHeaderLength());
+		assertEquals(Files.size(testFile), mdatHeader.getFilePos() + mdatHeader.getLongLength());
+		assertTrue(tree.getStco().isCo64());
+		assertEquals(mdatHeader.getFilePos() + mdatHeader.getHeaderLength(), tree.getStco().getFirstOffSet());
+
+		final AudioFile af = AudioFileIO.read(testFile);
+		assertEquals(AudioFileIO.read(AbstractTestCase.dataPath.resolve("test5.m4a")).getAudioHeader().getTrackLength(), af.getAudioHeader().getTrackLength());
+	}
+
+	public void testWriteCo64FileShiftingMdat() throws Exception {
+		final Path testFile = createCo64File("testCo64Write.m4a");
+		final Mp4AtomTree before = readTree(testFile);
+		final Mp4BoxHeader mdatBefore = before.getBoxHeader(before.getMdatNode());
+
+		AudioFile af = AudioFileIO.read(testFile);
+		af.getTag().setField(FieldKey.COMMENT, LONG_VALUE);
+		af.commit();
+
+		af = AudioFileIO.read(testFile);
+		assertEquals(LONG_VALUE, af.getTag().getFirst(FieldKey.COMMENT));
+
+		final Mp4AtomTree after = readTree(testFile);
+		final Mp4BoxHeader mdatAfter = after.getBoxHeader(after.getMdatNode());
+		assertTrue(mdatAfter.getFilePos() > mdatBefore.getFilePos());
+		assertEquals(Mp4BoxHeader.LARGE_HEADER_LENGTH, mdatAfter.getHeaderLength());
+		assertEquals(mdatBefore.getLongLength(), mdatAfter.getLongLength());
+
+		// Every offset moved by the same amount as mdat
+		final long shift = mdatAfter.getFilePos() - mdatBefore.getFilePos();
+		final Mp4StcoBox co64Before = before.getStco();
+		final Mp4StcoBox co64After = after.getStco();
+		assertTrue(co64After.isCo64());
+		for (int i = 0; i < co64Before.getNoOfOffSets(); i++)
+			assertEquals(co64Before.getOffset(i) + shift, co64After.getOffset(i));
+	}
+
+	/**
+	 * The second and third tracks come after ilst so their tables are copied from the original file, they still have to
+	 * be adjusted
+	 */
+	public void testWriteMultiTrackShiftingMdat() throws Exception {
+		final Path testFile = AbstractTestCase.copyAudioToTmp("test16.m4a", Paths.get("testCo64MultiTrack.m4a"));
+		final Mp4AtomTree before = readTree(testFile);
+
+		final AudioFile af = AudioFileIO.read(testFile);
+		af.getTag().setField(FieldKey.COMMENT, LONG_VALUE);
+		af.commit();
+
+		final Mp4AtomTree after = readTree(testFile);
+		final long shift = after.getBoxHeader(after.getMdatNode()).getFilePos() - before.getBoxHeader(before.getMdatNode()).getFilePos();
+		assertTrue(shift > 0);
+		assertEquals(3, after.getChunkOffsetBoxes().size());
+		for (int track = 0; track < 3; track++) {
+			final Mp4StcoBox stcoBefore = before.getChunkOffsetBoxes().get(track);
+			final Mp4StcoBox stcoAfter = after.getChunkOffsetBoxes().get(track);
+			for (int i = 0; i < stcoBefore.getNoOfOffSets(); i++)
+				assertEquals(stcoBefore.getOffset(i) + shift, stcoAfter.getOffset(i));
+		}
+	}
+
+	public void testStcoOffsetTooLarge() throws Exception {
+		final Path testFile = AbstractTestCase.copyAudioToTmp("test5.m4a", Paths.get("testStcoTooLarge.m4a"));
+		final Mp4StcoBox stco = readTree(testFile).getStco();
+		final RandomAccessFile raf = new RandomAccessFile(testFile.toFile(), "rw");
+		try {
+			// Last offset just below 4GB
+			raf.seek(stco.getHeader().getFilePos() + Mp4BoxHeader.HEADER_LENGTH + 8 + (stco.getNoOfOffSets() - 1) * 4);
+			raf.writeInt(0xFFFFFF00);
+		} finally {
+			raf.close();
+		}
+		final byte[] original = Files.readAllBytes(testFile);
+
+		final AudioFile af = AudioFileIO.read(testFile);
+		af.getTag().setField(FieldKey.COMMENT, LONG_VALUE);
+		try {
+			af.commit();
+			fail("Expected CannotWriteException");
+		} catch (final CannotWriteException e) {
+			assertTrue(e.getMessage().contains("4GB"));
+		}
+		assertTrue(Arrays.equals(original, Files.readAllBytes(testFile)));
+	}
+}
@@ -0,0 +1,69 @@
+package org.jaudiotagger.tag.mp4;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+
+import junit.framework.TestCase;
+
+import org.jaudiotagger.AbstractTestCase;
+import org.jaudiotagger.audio.AudioFile;
+import org.jaudiotagger.audio.AudioFileIO;
+import org.jaudiotagger.tag.FieldKey;
+import org.jaudiotagger.tag.TagOptionSingleton;
+
+/**
+ * Check the checks made after writing an mp4 from the write plan accept the same files as indexing the new file again
+ */
+public class M4aWriteVerificationTest extends TestCase {
+
+	@Override
+	public void tearDown() {
+		TagOptionSingleton.getInstance().setToDefault();
+	}
+
+	private static byte[] write(final String fileName, final String newFileName, final String value, final boolean reparse) throws Exception {
+		TagOptionSingleton.getInstance().setMp4VerifyWriteByReparsing(reparse);
+		final Path testFile = AbstractTestCase.copyAudioToTmp(fileName, Paths.get(newFileName));
+		AudioFile af = AudioFileIO.read(testFile);
+		af.getTag().setField(FieldKey.COMMENT, value);
+		af.commit();
+
+		af = AudioFileIO.read(testFile);
+		assertEquals(value, af.getTag().getFirst(FieldKey.COMMENT));
+		return Files.readAllBytes(testFile);
+	}
+
+	private static void checkSameAsReparsing(final String fileName, final String value) throws Exception {
+		final byte[] planned = write(fileName, "testVerifyPlanned.m4a", value, false);
+		final byte[] reparsed = write(fileName, "testVerifyReparsed.m4a", value, true);
+		assertTrue(Arrays.equals(reparsed, planned));
+	}
+
+	public void testSameSizeWrite() throws Exception {
+		checkSameAsReparsing("test5.m4a", "x");
+	}
+
+	public void testWriteShiftingMdat() throws Exception {
+		checkSameAsReparsing("test5.m4a", new String(new char[4000]).replace('\0', 'x'));
+	}
+
+	public void testWriteMultiTrackShiftingMdat() throws Exception {
+		checkSameAsReparsing("test16.m4a", new String(new char[4000]).replace('\0', 'x'));
+	}
+
+	/**
+	 * No udta so the metadata structure is created
+	 */
+	public void testWriteCreatingMetadata() throws Exception {
+		checkSameAsReparsing("test41.m4a", "comment");
+	}
+
+	/**
+	 * Mdat comes before moov so does not move
+	 */
+	public void testWriteMdatBeforeMoov() throws Exception {
+		checkSameAsReparsing("test15.m4a", new String(new char[4000]).replace('\0', 'x'));
+	}
+}
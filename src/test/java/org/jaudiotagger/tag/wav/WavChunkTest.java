@@ -0,0 +1,305 @@
+package org.jaudiotagger.tag.wav;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+
+import junit.framework.TestCase;
+
+import org.jaudiotagger.AbstractTestCase;
+import org.jaudiotagger.audio.AudioFile;
+import org.jaudiotagger.audio.AudioFileIO;
+import org.jaudiotagger.audio.generic.WriteStrategy;
+import org.jaudiotagger.audio.wav.WavTag;
+import org.jaudiotagger.tag.FieldKey;
+import org.jaudiotagger.tag.TagOptionSingleton;
+import org.jaudiotagger.tag.id3.AbstractID3v2Tag;
+import org.jaudiotagger.tag.id3.ID3v23Tag;
+import org.jaudiotagger.tag.id3.ID3v24Tag;
+
+/**
+ * Test WAV files are read by walking their chunks, and fields are read from and written to LIST INFO and id3 chunks
+ */
+public class WavChunkTest extends TestCase {
+	/**
+	 * Offsets of the chunks of test.wav
+	 */
+	private static final int FMT_DATA_OFFSET = 20;
+	private static final int FMT_SIZE = 18;
+	private static final int FACT_DATA_OFFSET = 46;
+	private static final int FACT_SIZE = 4;
+	private static final int DATA_DATA_OFFSET = 58;
+	private static final int DATA_SIZE = 308728;
+
+	@Override
+	public void tearDown() {
+		TagOptionSingleton.getInstance().setToDefault();
+	}
+
+	private static byte[] createChunk(final String id, final byte[] data) {
+		final ByteBuffer chunk = ByteBuffer.allocate(8 + data.length + (data.length & 1)).order(ByteOrder.LITTLE_ENDIAN);
+		chunk.put(id.getBytes(StandardCharsets.ISO_8859_1));
+		chunk.putInt(data.length);
+		chunk.put(data);
+		return chunk.array();
+	}
+
+	/**
+	 * @return test.wav with the given chunks before its data chunk
+	 */
+	private static Path createWav(final String filename, final byte[]... chunks) throws Exception {
+		final Path testFile = AbstractTestCase.copyAudioToTmp("test.wav", Paths.get(filename));
+		final byte[] original = Files.readAllBytes(testFile);
+		final ByteArrayOutputStream out = new ByteArrayOutputStream();
+		out.write(Arrays.copyOfRange(original, 0, 12));
+		out.write(createChunk("fmt ", Arrays.copyOfRange(original, FMT_DATA_OFFSET, FMT_DATA_OFFSET + FMT_SIZE)));
+		out.write(createChunk("fact", Arrays.copyOfRange(original, FACT_DATA_OFFSET, FACT_DATA_OFFSET + FACT_SIZE)));
+		for (final byte[] chunk : chunks)
+			out.write(chunk);
+		out.write(createChunk("data", Arrays.copyOfRange(original, DATA_DATA_OFFSET, DATA_DATA_OFFSET + DATA_SIZE)));
+		final byte[] wav = out.toByteArray();
+		ByteBuffer.wrap(wav).order(ByteOrder.LITTLE_ENDIAN).putInt(4, wav.length - 8);
+		Files.write(testFile, wav);
+		return testFile;
+	}
+
+	private static int getRiffSize(final Path file) throws Exception {
+		return ByteBuffer.wrap(Files.readAllBytes(file)).order(ByteOrder.LITTLE_ENDIAN).getInt(4);
+	}
+
+	public void testLengthFromDataChunk() throws Exception {
+		// Ten seconds worth of bytes that are not audio
+		final Path testFile = createWav("testWavLength.wav", createChunk("bext", new byte[602]), createChunk("JUNK", new byte[220500]));
+		final AudioFile f = AudioFileIO.read(testFile);
+		assertEquals(14, f.getAudioHeader().getTrackLength());
+		assertEquals("22050", f.getAudioHeader().getSampleRate());
+		assertEquals("WAV-RIFF 8 bits", f.getAudioHeader().getEncodingType());
+	}
+
+	public void testReadInfoChunk() throws Exception {
+		final ByteArrayOutputStream info = new ByteArrayOutputStream();
+		info.write("INFO".getBytes(StandardCharsets.ISO_8859_1));
+		info.write(createChunk("IART", "artist\0".getBytes(StandardCharsets.ISO_8859_1)));
+		info.write(createChunk("INAM", "title\0".getBytes(StandardCharsets.ISO_8859_1)));
+		info.write(createChunk("ISFT", "software\0".getBytes(StandardCharsets.ISO_8859_1)));
+		final Path testFile = createWav("testWavReadInfo.wav", createChunk("LIST", info.toByteArray()));
+
+		final AudioFile f = AudioFileIO.read(testFile);
+		assertEquals("artist", f.getTag().getFirst(FieldKey.ARTIST));
+		assertEquals("title", f.getTag().getFirst(FieldKey.TITLE));
+		assertEquals("", f.getTag().getFirst(FieldKey.ALBUM));
+
+		// Items that do not hold a supported field are kept
+		f.getTag().setField(FieldKey.ALBUM, "album");
+		f.commit();
+		final String written = new String(Files.readAllBytes(testFile), StandardCharsets.ISO_8859_1);
+		assertTrue(written.contains("ISFT"));
+		assertTrue(written.contains("software"));
+		assertEquals("album", AudioFileIO.read(testFile).getTag().getFirst(FieldKey.ALBUM));
+	}
+
+	public void testWriteInfoChunk() throws Exception {
+		final Path testFile = AbstractTestCase.copyAudioToTmp("test.wav", Paths.get("testWavWriteInfo.wav"));
+		AudioFile f = AudioFileIO.read(testFile);
+		f.getTag().setField(FieldKey.ARTIST, "artist");
+		f.getTag().setField(FieldKey.ALBUM, "album");
+		f.getTag().setField(FieldKey.TRACK, "3");
+		// Appended after the data chunk of a file without metadata
+		assertEquals(WriteStrategy.IN_PLACE, AudioFileIO.write(f));
+		assertEquals(Files.size(testFile) - 8, getRiffSize(testFile));
+
+		f = AudioFileIO.read(testFile);
+		assertEquals("artist", f.getTag().getFirst(FieldKey.ARTIST));
+		assertEquals("album", f.getTag().getFirst(FieldKey.ALBUM));
+		assertEquals("3", f.getTag().getFirst(FieldKey.TRACK));
+		assertEquals(14, f.getAudioHeader().getTrackLength());
+	}
+
+	public void testWrittenInPlaceWhenPaddingAbsorbsChange() throws Exception {
+		final Path testFile = createWav("testWavInPlace.wav", createChunk("JUNK", new byte[200]));
+		final byte[] audio = Arrays.copyOfRange(Files.readAllBytes(testFile), (int) Files.size(testFile) - DATA_SIZE, (int) Files.size(testFile));
+		final long size = Files.size(testFile);
+
+		AudioFile f = AudioFileIO.read(testFile);
+		f.getTag().setField(FieldKey.TITLE, "title");
+		assertEquals(WriteStrategy.IN_PLACE, AudioFileIO.write(f));
+		assertEquals(size, Files.size(testFile));
+
+		f = AudioFileIO.read(testFile);
+		f.getTag().setField(FieldKey.TITLE, "a longer title that still fits");
+		f.getTag().setField(FieldKey.COMMENT, "comment");
+		assertEquals(WriteStrategy.IN_PLACE, AudioFileIO.write(f));
+		assertEquals(size, Files.size(testFile));
+		final byte[] written = Files.readAllBytes(testFile);
+		assertTrue(Arrays.equals(audio, Arrays.copyOfRange(written, written.length - DATA_SIZE, written.length)));
+
+		f = AudioFileIO.read(testFile);
+		assertEquals("a longer title that still fits", f.getTag().getFirst(FieldKey.TITLE));
+		assertEquals("comment", f.getTag().getFirst(FieldKey.COMMENT));
+
+		// Too big for the padding so the file is rewritten with new padding
+		final char[] comment = new char[1000];
+		Arrays.fill(comment, 'c');
+		f.getTag().setField(FieldKey.COMMENT, new String(comment));
+		assertEquals(WriteStrategy.TEMP_FILE, AudioFileIO.write(f));
+		assertEquals(new String(comment), AudioFileIO.read(testFile).getTag().getFirst(FieldKey.COMMENT));
+		assertEquals(Files.size(testFile) - 8, getRiffSize(testFile));
+
+		f = AudioFileIO.read(testFile);
+		f.getTag().setField(FieldKey.COMMENT, new String(comment) + new String(comment, 0, 500));
+		assertEquals(WriteStrategy.IN_PLACE, AudioFileIO.write(f));
+	}
+
+	public void testReadWriteID3Chunk() throws Exception {
+		final ID3v23Tag id3Tag = new ID3v23Tag();
+		id3Tag.setField(FieldKey.ARTIST, "id3 artist");
+		id3Tag.setField(FieldKey.COMPOSER, "composer");
+		final ByteArrayOutputStream id3 = new ByteArrayOutputStream();
+		id3Tag.write(id3);
+		final Path testFile = AbstractTestCase.copyAudioToTmp("test.wav", Paths.get("testWavID3.wav"));
+		final ByteArrayOutputStream wav = new ByteArrayOutputStream();
+		wav.write(Files.readAllBytes(testFile));
+		wav.write(createChunk("id3 ", id3.toByteArray()));
+		final byte[] bytes = wav.toByteArray();
+		ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN).putInt(4, bytes.length - 8);
+		Files.write(testFile, bytes);
+
+		AudioFile f = AudioFileIO.read(testFile);
+		assertEquals("id3 artist", f.getTag().getFirst(FieldKey.ARTIST));
+		assertEquals("composer", ((WavTag) f.getTag()).getID3Tag().getFirst(FieldKey.COMPOSER));
+
+		// The id3 chunk is at the end of the file so it can grow in place
+		f.getTag().setField(FieldKey.ARTIST, "artist");
+		assertEquals(WriteStrategy.IN_PLACE, AudioFileIO.write(f));
+		assertEquals(Files.size(testFile) - 8, getRiffSize(testFile));
+
+		f = AudioFileIO.read(testFile);
+		assertEquals("artist", f.getTag().getFirst(FieldKey.ARTIST));
+		assertEquals("artist", ((WavTag) f.getTag()).getID3Tag().getFirst(FieldKey.ARTIST));
+		assertEquals("composer", ((WavTag) f.getTag()).getID3Tag().getFirst(FieldKey.COMPOSER));
+	}
+
+	private static byte[] createID3Chunk(final AbstractID3v2Tag id3Tag) throws Exception {
+		final ByteArrayOutputStream id3 = new ByteArrayOutputStream();
+		id3Tag.write(id3);
+		return createChunk("id3 ", id3.toByteArray());
+	}
+
+	public void testNonLatinID3FieldRoundTrip() throws Exception {
+		final ID3v24Tag id3Tag = new ID3v24Tag();
+		id3Tag.setField(FieldKey.TITLE, "\u65e5\u672c\u8a9e");
+		final Path testFile = createWav("testWavNonLatin.wav", createID3Chunk(id3Tag));
+
+		AudioFile f = AudioFileIO.read(testFile);
+		assertEquals("\u65e5\u672c\u8a9e", f.getTag().getFirst(FieldKey.TITLE));
+		f.getTag().setField(FieldKey.ARTIST, "artist");
+		f.commit();
+		// LIST INFO cannot hold the title so it is only in the ID3 tag
+		assertFalse(new String(Files.readAllBytes(testFile), StandardCharsets.ISO_8859_1).contains("INAM"));
+
+		f = AudioFileIO.read(testFile);
+		assertEquals("\u65e5\u672c\u8a9e", f.getTag().getFirst(FieldKey.TITLE));
+		assertEquals("artist", f.getTag().getFirst(FieldKey.ARTIST));
+		f.getTag().setField(FieldKey.ALBUM, "album");
+		f.commit();
+
+		f = AudioFileIO.read(testFile);
+		assertEquals("\u65e5\u672c\u8a9e", f.getTag().getFirst(FieldKey.TITLE));
+		assertEquals("\u65e5\u672c\u8a9e", ((WavTag) f.getTag()).getID3Tag().getFirst(FieldKey.TITLE));
+		assertEquals("album", ((WavTag) f.getTag()).getID3Tag().getFirst(FieldKey.ALBUM));
+	}
+
+	public void testID3ValueUsedForLossyInfoCopy() throws Exception {
+		final ByteArrayOutputStream info = new ByteArrayOutputStream();
+		info.write("INFO".getBytes(StandardCharsets.ISO_8859_1));
+		info.write(createChunk("INAM", "???\0".getBytes(StandardCharsets.ISO_8859_1)));
+		info.write(createChunk("IART", "artist\0".getBytes(StandardCharsets.ISO_8859_1)));
+		final ID3v24Tag id3Tag = new ID3v24Tag();
+		id3Tag.setField(FieldKey.TITLE, "\u65e5\u672c\u8a9e");
+		id3Tag.setField(FieldKey.ARTIST, "id3 artist");
+		final Path testFile = createWav("testWavLossyInfo.wav", createChunk("LIST", info.toByteArray()), createID3Chunk(id3Tag));
+
+		final AudioFile f = AudioFileIO.read(testFile);
+		assertEquals("\u65e5\u672c\u8a9e", f.getTag().getFirst(FieldKey.TITLE));
+		assertEquals("artist", f.getTag().getFirst(FieldKey.ARTIST));
+	}
+
+	public void testNonLatinFieldWithoutID3Chunk() throws Exception {
+		final Path testFile = AbstractTestCase.copyAudioToTmp("test.wav", Paths.get("testWavNonLatinNoID3.wav"));
+		AudioFile f = AudioFileIO.read(testFile);
+		assertNull(((WavTag) f.getTag()).getID3Tag());
+		f.getTag().setField(FieldKey.TITLE, "\u65e5\u672c\u8a9e");
+		f.getTag().setField(FieldKey.ARTIST, "artist");
+		f.commit();
+
+		f = AudioFileIO.read(testFile);
+		assertNotNull(((WavTag) f.getTag()).getID3Tag());
+		assertEquals("\u65e5\u672c\u8a9e", f.getTag().getFirst(FieldKey.TITLE));
+		assertEquals("artist", f.getTag().getFirst(FieldKey.ARTIST));
+	}
+
+	public void testUnchangedMultipleValuesKeptInID3Chunk() throws Exception {
+		final ID3v24Tag id3Tag = new ID3v24Tag();
+		id3Tag.setField(FieldKey.ARTIST, "artist1");
+		id3Tag.addField(FieldKey.ARTIST, "artist2");
+		final Path testFile = createWav("testWavID3MultipleValues.wav", createID3Chunk(id3Tag));
+
+		AudioFile f = AudioFileIO.read(testFile);
+		assertEquals(2, ((WavTag) f.getTag()).getID3Tag().getAll(FieldKey.ARTIST).size());
+		f.getTag().setField(FieldKey.ALBUM, "album");
+		f.commit();
+
+		f = AudioFileIO.read(testFile);
+		assertEquals("artist1", f.getTag().getFirst(FieldKey.ARTIST));
+		assertEquals(Arrays.asList("artist1", "artist2"), ((WavTag) f.getTag()).getID3Tag().getAll(FieldKey.ARTIST));
+		assertEquals("album", ((WavTag) f.getTag()).getID3Tag().getFirst(FieldKey.ALBUM));
+	}
+
+	public void testRF64() throws Exception {
+		final Path testFile = AbstractTestCase.copyAudioToTmp("test.wav", Paths.get("testWavRF64.wav"));
+		final byte[] original = Files.readAllBytes(testFile);
+		final ByteArrayOutputStream rf64 = new ByteArrayOutputStream();
+		rf64.write("RF64".getBytes(StandardCharsets.ISO_8859_1));
+		rf64.write(new byte[] { -1, -1, -1, -1 });
+		rf64.write("WAVE".getBytes(StandardCharsets.ISO_8859_1));
+		final ByteBuffer ds64 = ByteBuffer.allocate(28).order(ByteOrder.LITTLE_ENDIAN);
+		ds64.putLong(original.length + 36 - 8);
+		ds64.putLong(DATA_SIZE);
+		rf64.write(createChunk("ds64", ds64.array()));
+		rf64.write(Arrays.copyOfRange(original, 12, original.length));
+		final byte[] bytes = rf64.toByteArray();
+		// The size of the data chunk is in the ds64 chunk
+		ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN).putInt(bytes.length - DATA_SIZE - 4, 0xFFFFFFFF);
+		Files.write(testFile, bytes);
+
+		AudioFile f = AudioFileIO.read(testFile);
+		assertEquals(14, f.getAudioHeader().getTrackLength());
+
+		TagOptionSingleton.getInstance().setWriteInPlace(false);
+		f.getTag().setField(FieldKey.TITLE, "title");
+		f.commit();
+		final ByteBuffer written = ByteBuffer.wrap(Files.readAllBytes(testFile)).order(ByteOrder.LITTLE_ENDIAN);
+		assertEquals("RF64", new String(written.array(), 0, 4, StandardCharsets.ISO_8859_1));
+		assertEquals(Files.size(testFile) - 8, written.getLong(20));
+
+		f = AudioFileIO.read(testFile);
+		assertEquals("title", f.getTag().getFirst(FieldKey.TITLE));
+		assertEquals(14, f.getAudioHeader().getTrackLength());
+	}
+
+	public void testTruncatedDataChunk() throws Exception {
+		final Path testFile = AbstractTestCase.copyAudioToTmp("test.wav", Paths.get("testWavTruncated.wav"));
+		final byte[] bytes = Files.readAllBytes(testFile);
+		// Sizes as written when recording starts
+		ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN).putInt(4, 0xFFFFFFFF).putInt(DATA_DATA_OFFSET - 4, 0xFFFFFFFF);
+		Files.write(testFile, bytes);
+
+		final AudioFile f = AudioFileIO.read(testFile);
+		assertEquals(14, f.getAudioHeader().getTrackLength());
+	}
+}